@@ -20,11 +20,11 @@
  */
 
 import org.apache.maven.model.building.ModelCache;
-import org.eclipse.aether.RepositoryCache;
 import org.eclipse.aether.RepositorySystemSession;
 
 /**
- * A model builder cache backed by the repository system cache.
+ * A model builder cache backed by the repository system cache. The models are held by a bounded
+ * {@link SessionModelCache} that is shared by all instances created for the same session.
  *
  * @author Benjamin Bentmann
  */
@@ -32,36 +32,34 @@
     implements ModelCache
 {
 
-    private final RepositorySystemSession session;
-
-    private final RepositoryCache cache;
+    private final SessionModelCache cache;
 
     public static ModelCache newInstance( RepositorySystemSession session )
     {
-        if ( session.getCache() == null )
+        SessionModelCache cache = SessionModelCache.getInstance( session );
+        if ( cache == null )
         {
             return null;
         }
         else
         {
-            return new DefaultModelCache( session );
+            return new DefaultModelCache( cache );
         }
     }
 
-    private DefaultModelCache( RepositorySystemSession session )
+    private DefaultModelCache( SessionModelCache cache )
     {
-        this.session = session;
-        this.cache = session.getCache();
+        this.cache = cache;
     }
 
     public Object get( String groupId, String artifactId, String version, String tag )
     {
-        return cache.get( session, new Key( groupId, artifactId, version, tag ) );
+        return cache.get( new Key( groupId, artifactId, version, tag ), tag );
     }
 
     public void put( String groupId, String artifactId, String version, String tag, Object data )
     {
-        cache.put( session, new Key( groupId, artifactId, version, tag ), data );
+        cache.put( new Key( groupId, artifactId, version, tag ), tag, data );
     }
 
     static class Key
@@ -19,7 +19,7 @@
  * under the License.
  */
 
-import java.io.FileInputStream;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -30,24 +30,26 @@
 import javax.inject.Named;
 
 import org.apache.maven.artifact.repository.metadata.Versioning;
-import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
-import org.codehaus.plexus.util.IOUtil;
 import org.eclipse.aether.RepositoryEvent.EventType;
+import org.eclipse.aether.RepositoryCache;
 import org.eclipse.aether.RepositoryEvent;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.RequestTrace;
 import org.eclipse.aether.SyncContext;
+import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.impl.MetadataResolver;
 import org.eclipse.aether.impl.RepositoryEventDispatcher;
 import org.eclipse.aether.impl.SyncContextFactory;
 import org.eclipse.aether.impl.VersionRangeResolver;
+import org.eclipse.aether.internal.impl.CacheUtils;
 import org.eclipse.aether.metadata.DefaultMetadata;
 import org.eclipse.aether.metadata.Metadata;
 import org.eclipse.aether.repository.ArtifactRepository;
 import org.eclipse.aether.repository.RemoteRepository;
 import org.eclipse.aether.repository.WorkspaceReader;
+import org.eclipse.aether.repository.WorkspaceRepository;
 import org.eclipse.aether.resolution.MetadataRequest;
 import org.eclipse.aether.resolution.MetadataResult;
 import org.eclipse.aether.resolution.VersionRangeRequest;
@@ -58,6 +60,7 @@
 import org.eclipse.aether.spi.log.Logger;
 import org.eclipse.aether.spi.log.LoggerFactory;
 import org.eclipse.aether.spi.log.NullLoggerFactory;
+import org.eclipse.aether.util.ConfigUtils;
 import org.eclipse.aether.util.version.GenericVersionScheme;
 import org.eclipse.aether.version.InvalidVersionSpecificationException;
 import org.eclipse.aether.version.Version;
@@ -179,6 +182,36 @@ public VersionRangeResult resolveVersionRange( RepositorySystemSession session,
         }
         else
         {
+            Key cacheKey = null;
+            RepositoryCache cache = session.getCache();
+            if ( cache != null && !ConfigUtils.getBoolean( session, false, "aether.versionRangeResolver.noCache" ) )
+            {
+                cacheKey = new Key( session, request );
+
+                Object obj = cache.get( session, cacheKey );
+                if ( obj instanceof Record )
+                {
+                    Record record = (Record) obj;
+                    for ( Exception exception : record.exceptions )
+                    {
+                        result.addException( exception );
+                    }
+                    for ( int i = 0; i < record.versions.size(); i++ )
+                    {
+                        Version version = record.versions.get( i );
+                        result.addVersion( version );
+                        if ( record.repoClasses.get( i ) != null )
+                        {
+                            result.setRepository( version,
+                                                  CacheUtils.getRepository( session, request.getRepositories(),
+                                                                            record.repoClasses.get( i ),
+                                                                            record.repoIds.get( i ) ) );
+                        }
+                    }
+                    return result;
+                }
+            }
+
             Map<String, ArtifactRepository> versionIndex = getVersions( session, result, request );
 
             List<Version> versions = new ArrayList<Version>();
@@ -201,11 +234,32 @@ public VersionRangeResult resolveVersionRange( RepositorySystemSession session,
 
             Collections.sort( versions );
             result.setVersions( versions );
+
+            if ( cacheKey != null && isSafelyCacheable( session, request.getArtifact() ) )
+            {
+                cache.put( session, cacheKey, new Record( result ) );
+            }
         }
 
         return result;
     }
 
+    private boolean isSafelyCacheable( RepositorySystemSession session, Artifact artifact )
+    {
+        /*
+         * The workspace/reactor is in flux so we better not assume definitive information for any of its
+         * artifacts/projects.
+         */
+
+        WorkspaceReader workspace = session.getWorkspaceReader();
+        if ( workspace == null )
+        {
+            return true;
+        }
+
+        return workspace.findVersions( artifact ).isEmpty();
+    }
+
     private Map<String, ArtifactRepository> getVersions( RepositorySystemSession session, VersionRangeResult result,
                                                          VersionRangeRequest request )
     {
@@ -269,7 +323,6 @@ private Versioning readVersions( RepositorySystemSession session, RequestTrace t
     {
         Versioning versioning = null;
 
-        FileInputStream fis = null;
         try
         {
             if ( metadata != null )
@@ -282,10 +335,7 @@ private Versioning readVersions( RepositorySystemSession session, RequestTrace t
 
                     if ( metadata.getFile() != null && metadata.getFile().exists() )
                     {
-                        fis = new FileInputStream( metadata.getFile() );
-                        org.apache.maven.artifact.repository.metadata.Metadata m =
-                            new MetadataXpp3Reader().read( fis, false );
-                        versioning = m.getVersioning();
+                        versioning = SessionMetadataCache.readVersioning( session, metadata.getFile() );
                     }
                 }
                 finally
@@ -299,10 +349,6 @@ private Versioning readVersions( RepositorySystemSession session, RequestTrace t
             invalidMetadata( session, trace, metadata, repository, e );
             result.addException( e );
         }
-        finally
-        {
-            IOUtil.close( fis );
-        }
 
         return ( versioning != null ) ? versioning : new Versioning();
     }
@@ -319,4 +365,127 @@ private void invalidMetadata( RepositorySystemSession session, RequestTrace trac
         repositoryEventDispatcher.dispatch( event.build() );
     }
 
-}
\ No newline at end of file
+    private static class Key
+    {
+
+        private final String groupId;
+
+        private final String artifactId;
+
+        private final String classifier;
+
+        private final String extension;
+
+        private final String version;
+
+        private final String context;
+
+        private final File localRepo;
+
+        private final WorkspaceRepository workspace;
+
+        private final List<RemoteRepository> repositories;
+
+        private final int hashCode;
+
+        public Key( RepositorySystemSession session, VersionRangeRequest request )
+        {
+            Artifact artifact = request.getArtifact();
+            groupId = artifact.getGroupId();
+            artifactId = artifact.getArtifactId();
+            classifier = artifact.getClassifier();
+            extension = artifact.getExtension();
+            version = artifact.getVersion();
+            localRepo = session.getLocalRepository().getBasedir();
+            workspace = CacheUtils.getWorkspace( session );
+            repositories = new ArrayList<RemoteRepository>( request.getRepositories().size() );
+            boolean repoMan = false;
+            for ( RemoteRepository repository : request.getRepositories() )
+            {
+                if ( repository.isRepositoryManager() )
+                {
+                    repoMan = true;
+                    repositories.addAll( repository.getMirroredRepositories() );
+                }
+                else
+                {
+                    repositories.add( repository );
+                }
+            }
+            context = repoMan ? request.getRequestContext() : "";
+
+            int hash = 17;
+            hash = hash * 31 + groupId.hashCode();
+            hash = hash * 31 + artifactId.hashCode();
+            hash = hash * 31 + classifier.hashCode();
+            hash = hash * 31 + extension.hashCode();
+            hash = hash * 31 + version.hashCode();
+            hash = hash * 31 + localRepo.hashCode();
+            hash = hash * 31 + CacheUtils.repositoriesHashCode( repositories );
+            hashCode = hash;
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( obj == this )
+            {
+                return true;
+            }
+            else if ( obj == null || !getClass().equals( obj.getClass() ) )
+            {
+                return false;
+            }
+
+            Key that = (Key) obj;
+            return artifactId.equals( that.artifactId ) && groupId.equals( that.groupId )
+                && classifier.equals( that.classifier ) && extension.equals( that.extension )
+                && version.equals( that.version ) && context.equals( that.context )
+                && localRepo.equals( that.localRepo ) && CacheUtils.eq( workspace, that.workspace )
+                && CacheUtils.repositoriesEquals( repositories, that.repositories );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+    }
+
+    private static class Record
+    {
+
+        final List<Version> versions;
+
+        final List<String> repoIds;
+
+        final List<Class<?>> repoClasses;
+
+        final List<Exception> exceptions;
+
+        public Record( VersionRangeResult result )
+        {
+            exceptions = new ArrayList<Exception>( result.getExceptions() );
+            versions = new ArrayList<Version>( result.getVersions() );
+            repoIds = new ArrayList<String>( versions.size() );
+            repoClasses = new ArrayList<Class<?>>( versions.size() );
+            for ( Version version : versions )
+            {
+                ArtifactRepository repository = result.getRepository( version );
+                if ( repository != null )
+                {
+                    repoIds.add( repository.getId() );
+                    repoClasses.add( repository.getClass() );
+                }
+                else
+                {
+                    repoIds.add( null );
+                    repoClasses.add( null );
+                }
+            }
+        }
+
+    }
+
+}
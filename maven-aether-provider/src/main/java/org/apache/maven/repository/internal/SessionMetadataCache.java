@@ -0,0 +1,315 @@
+package org.apache.maven.repository.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.RepositoryCache;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.util.ConfigUtils;
+
+/**
+ * Keeps the parsed {@code maven-metadata.xml} files of a session, so the version resolvers don't parse the same file
+ * again for every request. Entries are keyed by the path of the file and are only used while the SHA-1 of the file's
+ * content is unchanged. Metadata files are small, reading and hashing them is cheap compared to parsing, and unlike the
+ * size and the modification time, the hash also catches edits within the file system's timestamp granularity. The
+ * store evicts the least recently used entries once it exceeds its capacity and counts hits, misses and invalidations.
+ *
+ * @since 3.3.2
+ */
+public final class SessionMetadataCache
+{
+
+    /**
+     * The name of the configuration property that specifies the maximum number of entries held by the store.
+     */
+    public static final String MAX_ENTRIES_KEY = "maven.repository.metadataCache.maxEntries";
+
+    /**
+     * The default maximum number of entries held by the store.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 5000;
+
+    /**
+     * The name of the configuration property that requests the statistics of the store to be reported at the end of
+     * a build.
+     */
+    public static final String STATISTICS_KEY = "maven.repository.metadataCache.statistics";
+
+    private static final Object KEY = SessionMetadataCache.class.getName();
+
+    private final int maxEntries;
+
+    private final boolean statisticsRequested;
+
+    private final Map<String, Entry> entries;
+
+    private long hits;
+
+    private long misses;
+
+    private long invalidations;
+
+    SessionMetadataCache( int maxEntries, boolean statisticsRequested )
+    {
+        this.maxEntries = Math.max( 1, maxEntries );
+        this.statisticsRequested = statisticsRequested;
+        this.entries = new LinkedHashMap<String, Entry>( 256, 0.75f, true );
+    }
+
+    /**
+     * Reads the versioning from the specified metadata file, using the store of the session if available.
+     *
+     * @param session The repository system session, must not be {@code null}.
+     * @param file The metadata file to read, must not be {@code null}.
+     * @return The versioning of the metadata or {@code null} if the metadata has none. The returned object is shared
+     *         and must not be modified.
+     * @throws IOException If the file could not be read.
+     * @throws XmlPullParserException If the file could not be parsed.
+     */
+    static Versioning readVersioning( RepositorySystemSession session, File file )
+        throws IOException, XmlPullParserException
+    {
+        SessionMetadataCache cache = getInstance( session );
+        if ( cache == null )
+        {
+            return read( file ).getVersioning();
+        }
+
+        String path = file.getAbsolutePath();
+        byte[] bytes = readBytes( file );
+        byte[] hash = hash( bytes );
+
+        Metadata metadata = cache.get( path, hash );
+        if ( metadata == null )
+        {
+            metadata = new MetadataXpp3Reader().read( new ByteArrayInputStream( bytes ), false );
+            cache.put( path, new Entry( hash, metadata ) );
+        }
+        return metadata.getVersioning();
+    }
+
+    private static Metadata read( File file )
+        throws IOException, XmlPullParserException
+    {
+        InputStream is = new FileInputStream( file );
+        try
+        {
+            return new MetadataXpp3Reader().read( is, false );
+        }
+        finally
+        {
+            IOUtil.close( is );
+        }
+    }
+
+    private static byte[] readBytes( File file )
+        throws IOException
+    {
+        InputStream is = new FileInputStream( file );
+        try
+        {
+            return IOUtil.toByteArray( is );
+        }
+        finally
+        {
+            IOUtil.close( is );
+        }
+    }
+
+    private static byte[] hash( byte[] bytes )
+    {
+        try
+        {
+            return MessageDigest.getInstance( "SHA-1" ).digest( bytes );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    static SessionMetadataCache getInstance( RepositorySystemSession session )
+    {
+        RepositoryCache cache = session.getCache();
+        if ( cache == null )
+        {
+            return null;
+        }
+
+        synchronized ( cache )
+        {
+            Object store = cache.get( session, KEY );
+            if ( !( store instanceof SessionMetadataCache ) )
+            {
+                int max = ConfigUtils.getInteger( session, DEFAULT_MAX_ENTRIES, MAX_ENTRIES_KEY );
+                boolean stats = ConfigUtils.getBoolean( session, false, STATISTICS_KEY );
+                store = new SessionMetadataCache( max, stats );
+                cache.put( session, KEY, store );
+            }
+            return (SessionMetadataCache) store;
+        }
+    }
+
+    /**
+     * Looks up the store of the specified session without creating it.
+     *
+     * @param session The repository system session, may be {@code null}.
+     * @return The store or {@code null} if no metadata has been cached for the session.
+     */
+    public static SessionMetadataCache find( RepositorySystemSession session )
+    {
+        RepositoryCache cache = ( session != null ) ? session.getCache() : null;
+        if ( cache == null )
+        {
+            return null;
+        }
+
+        Object store = cache.get( session, KEY );
+        return ( store instanceof SessionMetadataCache ) ? (SessionMetadataCache) store : null;
+    }
+
+    synchronized Metadata get( String path, byte[] hash )
+    {
+        Entry entry = entries.get( path );
+        if ( entry == null )
+        {
+            misses++;
+            return null;
+        }
+        if ( !MessageDigest.isEqual( entry.hash, hash ) )
+        {
+            entries.remove( path );
+            invalidations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.metadata;
+    }
+
+    synchronized void put( String path, Entry entry )
+    {
+        entries.put( path, entry );
+
+        for ( Iterator<Entry> it = entries.values().iterator(); entries.size() > maxEntries && it.hasNext(); )
+        {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * Gets the maximum number of entries held by this store.
+     *
+     * @return The maximum number of entries.
+     */
+    public int getMaxEntries()
+    {
+        return maxEntries;
+    }
+
+    /**
+     * Gets the number of entries currently held by this store.
+     *
+     * @return The number of entries.
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of reads that were served from this store.
+     *
+     * @return The number of hits.
+     */
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * Gets the number of reads that had to parse the metadata file, including those of changed files.
+     *
+     * @return The number of misses.
+     */
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Gets the number of entries that were dropped because their file changed.
+     *
+     * @return The number of invalidations.
+     */
+    public synchronized long getInvalidations()
+    {
+        return invalidations;
+    }
+
+    /**
+     * Indicates whether the statistics of this store have been requested via {@link #STATISTICS_KEY}.
+     *
+     * @return {@code true} if the statistics should be reported at the end of the build, {@code false} otherwise.
+     */
+    public boolean isStatisticsRequested()
+    {
+        return statisticsRequested;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return "Metadata cache: " + entries.size() + '/' + maxEntries + " entries (hits: " + hits + ", misses: "
+            + misses + ", invalidations: " + invalidations + ")";
+    }
+
+    private static final class Entry
+    {
+
+        final byte[] hash;
+
+        final Metadata metadata;
+
+        Entry( byte[] hash, Metadata metadata )
+        {
+            this.hash = hash;
+            this.metadata = metadata;
+        }
+
+    }
+
+}
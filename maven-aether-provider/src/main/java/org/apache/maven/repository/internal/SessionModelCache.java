@@ -0,0 +1,375 @@
+package org.apache.maven.repository.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.aether.RepositoryCache;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.util.ConfigUtils;
+
+/**
+ * The storage behind the {@link DefaultModelCache}. Instead of putting each model into the repository system cache,
+ * all models of a session are kept in a single store that is registered with the repository system cache. The store
+ * counts hits, misses and evictions per cache tag. It is backed by a concurrent map, so the threads of a parallel
+ * build do not contend for a lock on every lookup. Instead of maintaining an exact access order, each entry remembers
+ * when it was last used and the store evicts the least recently used entries in a batch once it exceeds its capacity.
+ * Under concurrent access the eviction is therefore approximate, and the store may briefly hold more entries than its
+ * capacity.
+ *
+ * @since 3.3.2
+ */
+public final class SessionModelCache
+{
+
+    /**
+     * The name of the configuration property that specifies the maximum number of entries held by the store.
+     */
+    public static final String MAX_ENTRIES_KEY = "maven.repository.modelCache.maxEntries";
+
+    /**
+     * The default maximum number of entries held by the store.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 20000;
+
+    /**
+     * The name of the configuration property that requests the statistics of the store to be reported at the end of
+     * a build.
+     */
+    public static final String STATISTICS_KEY = "maven.repository.modelCache.statistics";
+
+    private static final Object KEY = SessionModelCache.class.getName();
+
+    private final int maxEntries;
+
+    private final boolean statisticsRequested;
+
+    private final ConcurrentMap<Object, Entry> entries = new ConcurrentHashMap<Object, Entry>( 256 );
+
+    private final ConcurrentMap<String, Statistics> statistics = new ConcurrentHashMap<String, Statistics>();
+
+    /**
+     * The logical clock that orders the accesses to the entries.
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    SessionModelCache( int maxEntries, boolean statisticsRequested )
+    {
+        this.maxEntries = Math.max( 1, maxEntries );
+        this.statisticsRequested = statisticsRequested;
+    }
+
+    /**
+     * Gets the store of the specified session, creating it if necessary.
+     *
+     * @param session The repository system session, must not be {@code null}.
+     * @return The store or {@code null} if the session has no cache.
+     */
+    static SessionModelCache getInstance( RepositorySystemSession session )
+    {
+        RepositoryCache cache = session.getCache();
+        if ( cache == null )
+        {
+            return null;
+        }
+
+        synchronized ( cache )
+        {
+            Object store = cache.get( session, KEY );
+            if ( !( store instanceof SessionModelCache ) )
+            {
+                int max = ConfigUtils.getInteger( session, DEFAULT_MAX_ENTRIES, MAX_ENTRIES_KEY );
+                boolean stats = ConfigUtils.getBoolean( session, false, STATISTICS_KEY );
+                store = new SessionModelCache( max, stats );
+                cache.put( session, KEY, store );
+            }
+            return (SessionModelCache) store;
+        }
+    }
+
+    /**
+     * Looks up the store of the specified session without creating it.
+     *
+     * @param session The repository system session, may be {@code null}.
+     * @return The store or {@code null} if no models have been cached for the session.
+     */
+    public static SessionModelCache find( RepositorySystemSession session )
+    {
+        RepositoryCache cache = ( session != null ) ? session.getCache() : null;
+        if ( cache == null )
+        {
+            return null;
+        }
+
+        Object store = cache.get( session, KEY );
+        return ( store instanceof SessionModelCache ) ? (SessionModelCache) store : null;
+    }
+
+    Object get( Object key, String tag )
+    {
+        Entry entry = entries.get( key );
+        Statistics stats = getStatistics( tag );
+        if ( entry != null )
+        {
+            entry.lastUsed = clock.incrementAndGet();
+            stats.hits.incrementAndGet();
+            return entry.data;
+        }
+        stats.misses.incrementAndGet();
+        return null;
+    }
+
+    void put( Object key, String tag, Object data )
+    {
+        getStatistics( tag ).puts.incrementAndGet();
+        entries.put( key, new Entry( tag, data, clock.incrementAndGet() ) );
+
+        // entries put by other threads while evicting are caught by the next round
+        while ( entries.size() > maxEntries && evicting.compareAndSet( false, true ) )
+        {
+            try
+            {
+                evict();
+            }
+            finally
+            {
+                evicting.set( false );
+            }
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries. To not sort the entries on every put once the store is full, the store
+     * is shrunk a bit below its capacity.
+     */
+    private void evict()
+    {
+        List<Victim> victims = new ArrayList<Victim>( entries.size() );
+        for ( Map.Entry<Object, Entry> entry : entries.entrySet() )
+        {
+            victims.add( new Victim( entry.getKey(), entry.getValue() ) );
+        }
+        Collections.sort( victims );
+
+        int excess = victims.size() - ( maxEntries - maxEntries / 16 );
+        for ( int i = 0; i < victims.size() && excess > 0; i++ )
+        {
+            Victim victim = victims.get( i );
+            if ( entries.remove( victim.key, victim.entry ) )
+            {
+                getStatistics( victim.entry.tag ).evictions.incrementAndGet();
+                excess--;
+            }
+        }
+    }
+
+    private Statistics getStatistics( String tag )
+    {
+        Statistics stats = statistics.get( tag );
+        if ( stats == null )
+        {
+            stats = new Statistics( tag );
+            Statistics existing = statistics.putIfAbsent( tag, stats );
+            if ( existing != null )
+            {
+                stats = existing;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Gets the maximum number of entries held by this store.
+     *
+     * @return The maximum number of entries.
+     */
+    public int getMaxEntries()
+    {
+        return maxEntries;
+    }
+
+    /**
+     * Gets the number of entries currently held by this store.
+     *
+     * @return The number of entries.
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Indicates whether the statistics of this store have been requested via {@link #STATISTICS_KEY}.
+     *
+     * @return {@code true} if the statistics should be reported at the end of the build, {@code false} otherwise.
+     */
+    public boolean isStatisticsRequested()
+    {
+        return statisticsRequested;
+    }
+
+    /**
+     * Gets a snapshot of the statistics of this store.
+     *
+     * @return The statistics keyed by cache tag, never {@code null}.
+     */
+    public Map<String, Statistics> getStatistics()
+    {
+        Map<String, Statistics> snapshot = new TreeMap<String, Statistics>();
+        for ( Statistics stats : statistics.values() )
+        {
+            snapshot.put( stats.tag, stats.copy() );
+        }
+        return snapshot;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder buffer = new StringBuilder( 128 );
+        buffer.append( "Model cache: " ).append( size() ).append( '/' ).append( maxEntries ).append( " entries" );
+        for ( Statistics stats : getStatistics().values() )
+        {
+            buffer.append( ", " ).append( stats );
+        }
+        return buffer.toString();
+    }
+
+    private static final class Entry
+    {
+
+        final String tag;
+
+        final Object data;
+
+        volatile long lastUsed;
+
+        Entry( String tag, Object data, long lastUsed )
+        {
+            this.tag = tag;
+            this.data = data;
+            this.lastUsed = lastUsed;
+        }
+
+    }
+
+    /**
+     * An eviction candidate, ordered by the time of last use as seen when the candidates were collected.
+     */
+    private static final class Victim
+        implements Comparable<Victim>
+    {
+
+        final Object key;
+
+        final Entry entry;
+
+        final long lastUsed;
+
+        Victim( Object key, Entry entry )
+        {
+            this.key = key;
+            this.entry = entry;
+            this.lastUsed = entry.lastUsed;
+        }
+
+        public int compareTo( Victim other )
+        {
+            return ( lastUsed < other.lastUsed ) ? -1 : ( ( lastUsed == other.lastUsed ) ? 0 : 1 );
+        }
+
+    }
+
+    /**
+     * The counters of a single cache tag.
+     */
+    public static final class Statistics
+    {
+
+        final String tag;
+
+        final AtomicLong hits = new AtomicLong();
+
+        final AtomicLong misses = new AtomicLong();
+
+        final AtomicLong puts = new AtomicLong();
+
+        final AtomicLong evictions = new AtomicLong();
+
+        Statistics( String tag )
+        {
+            this.tag = tag;
+        }
+
+        Statistics copy()
+        {
+            Statistics copy = new Statistics( tag );
+            copy.hits.set( hits.get() );
+            copy.misses.set( misses.get() );
+            copy.puts.set( puts.get() );
+            copy.evictions.set( evictions.get() );
+            return copy;
+        }
+
+        public String getTag()
+        {
+            return tag;
+        }
+
+        public long getHits()
+        {
+            return hits.get();
+        }
+
+        public long getMisses()
+        {
+            return misses.get();
+        }
+
+        public long getPuts()
+        {
+            return puts.get();
+        }
+
+        public long getEvictions()
+        {
+            return evictions.get();
+        }
+
+        @Override
+        public String toString()
+        {
+            return tag + " (hits: " + hits + ", misses: " + misses + ", puts: " + puts + ", evictions: " + evictions
+                + ")";
+        }
+
+    }
+
+}
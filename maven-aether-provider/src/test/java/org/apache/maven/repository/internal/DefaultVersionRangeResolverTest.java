@@ -19,15 +19,39 @@
  * under the License.
  */
 
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.impl.MetadataResolver;
+import org.eclipse.aether.impl.RepositoryEventDispatcher;
+import org.eclipse.aether.impl.SyncContextFactory;
+import org.eclipse.aether.resolution.MetadataRequest;
+import org.eclipse.aether.resolution.MetadataResult;
+import org.eclipse.aether.resolution.VersionRangeRequest;
+import org.eclipse.aether.resolution.VersionRangeResult;
+
 public class DefaultVersionRangeResolverTest
-    //extends AbstractRepositoryTestCase
+    extends AbstractRepositoryTestCase
 {
-    /*private DefaultVersionRangeResolver versionRangeResolver;
+    private DefaultVersionRangeResolver versionRangeResolver;
+
+    private CountingMetadataResolver metadataResolver;
+
     @Override
     protected void setUp()
-            throws Exception
+        throws Exception
     {
         super.setUp();
+        metadataResolver = new CountingMetadataResolver( lookup( MetadataResolver.class ) );
+        versionRangeResolver = new DefaultVersionRangeResolver();
+        versionRangeResolver.setMetadataResolver( metadataResolver );
+        versionRangeResolver.setSyncContextFactory( lookup( SyncContextFactory.class ) );
+        versionRangeResolver.setRepositoryEventDispatcher( lookup( RepositoryEventDispatcher.class ) );
+        ( (DefaultRepositorySystemSession) session ).setCache( new DefaultRepositoryCache() );
     }
 
     @Override
@@ -35,9 +59,11 @@ protected void tearDown()
         throws Exception
     {
         versionRangeResolver = null;
+        metadataResolver = null;
         super.tearDown();
     }
 
+    /*
     public void testMNG5649 () {
         boolean NPE = false;
         versionRangeResolver = new DefaultVersionRangeResolver();
@@ -49,4 +75,65 @@ public void testMNG5649 () {
         assert(NPE);
     }
     */
+
+    private VersionRangeRequest newRequest( String range )
+        throws Exception
+    {
+        VersionRangeRequest request = new VersionRangeRequest();
+        request.addRepository( newTestRepository() );
+        request.setArtifact( new DefaultArtifact( "ut.simple", "artifact", "jar", range ) );
+        return request;
+    }
+
+    public void testRangeResultsAreCachedPerSession()
+        throws Exception
+    {
+        VersionRangeResult result = versionRangeResolver.resolveVersionRange( session, newRequest( "[1.0,2.0)" ) );
+        assertEquals( "[1.0]", result.getVersions().toString() );
+        assertEquals( "repo", result.getRepository( result.getHighestVersion() ).getId() );
+        assertEquals( 1, metadataResolver.calls );
+
+        result = versionRangeResolver.resolveVersionRange( session, newRequest( "[1.0,2.0)" ) );
+        assertEquals( "[1.0]", result.getVersions().toString() );
+        assertEquals( "repo", result.getRepository( result.getHighestVersion() ).getId() );
+        assertEquals( "[1.0,2.0)", result.getVersionConstraint().toString() );
+        assertEquals( 1, metadataResolver.calls );
+
+        versionRangeResolver.resolveVersionRange( session, newRequest( "[1.0,)" ) );
+        assertEquals( 2, metadataResolver.calls );
+    }
+
+    public void testCacheCanBeDisabled()
+        throws Exception
+    {
+        ( (DefaultRepositorySystemSession) session ).setConfigProperty( "aether.versionRangeResolver.noCache",
+                                                                        Boolean.TRUE );
+
+        versionRangeResolver.resolveVersionRange( session, newRequest( "[1.0,2.0)" ) );
+        versionRangeResolver.resolveVersionRange( session, newRequest( "[1.0,2.0)" ) );
+        assertEquals( 2, metadataResolver.calls );
+    }
+
+    private static class CountingMetadataResolver
+        implements MetadataResolver
+    {
+
+        private final MetadataResolver delegate;
+
+        int calls;
+
+        CountingMetadataResolver( MetadataResolver delegate )
+        {
+            this.delegate = delegate;
+        }
+
+        public List<MetadataResult> resolveMetadata( RepositorySystemSession session,
+                                                     Collection<? extends MetadataRequest> requests )
+        {
+            calls++;
+            return delegate.resolveMetadata( session, requests );
+        }
+
+    }
+
 }
@@ -0,0 +1,135 @@
+package org.apache.maven.repository.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+
+public class SessionMetadataCacheTest
+    extends PlexusTestCase
+{
+
+    private File file;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        file = new File( getBasedir(), "target/metadata-cache/maven-metadata.xml" );
+        file.getParentFile().mkdirs();
+        write( "1.0" );
+    }
+
+    private void write( String version )
+        throws Exception
+    {
+        FileUtils.fileWrite( file, "UTF-8", "<metadata><versioning><versions><version>" + version
+            + "</version></versions></versioning></metadata>" );
+    }
+
+    private DefaultRepositorySystemSession newSession( int maxEntries )
+    {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        session.setCache( new DefaultRepositoryCache() );
+        session.setConfigProperty( SessionMetadataCache.MAX_ENTRIES_KEY, maxEntries );
+        return session;
+    }
+
+    public void testNoCacheWithoutRepositoryCache()
+        throws Exception
+    {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+
+        assertEquals( "[1.0]", SessionMetadataCache.readVersioning( session, file ).getVersions().toString() );
+        assertNull( SessionMetadataCache.find( session ) );
+    }
+
+    public void testParsedMetadataIsReused()
+        throws Exception
+    {
+        DefaultRepositorySystemSession session = newSession( 10 );
+
+        Versioning versioning = SessionMetadataCache.readVersioning( session, file );
+        assertSame( versioning, SessionMetadataCache.readVersioning( session, file ) );
+
+        SessionMetadataCache cache = SessionMetadataCache.find( session );
+        assertEquals( 1, cache.getHits() );
+        assertEquals( 1, cache.getMisses() );
+        assertEquals( 1, cache.size() );
+    }
+
+    public void testChangedFileIsParsedAgain()
+        throws Exception
+    {
+        DefaultRepositorySystemSession session = newSession( 10 );
+
+        assertEquals( "[1.0]", SessionMetadataCache.readVersioning( session, file ).getVersions().toString() );
+
+        write( "1.0.1" );
+        file.setLastModified( file.lastModified() + 2000 );
+
+        assertEquals( "[1.0.1]", SessionMetadataCache.readVersioning( session, file ).getVersions().toString() );
+
+        SessionMetadataCache cache = SessionMetadataCache.find( session );
+        assertEquals( 0, cache.getHits() );
+        assertEquals( 2, cache.getMisses() );
+        assertEquals( 1, cache.getInvalidations() );
+    }
+
+    public void testEditThatKeepsSizeAndTimestampIsDetected()
+        throws Exception
+    {
+        DefaultRepositorySystemSession session = newSession( 10 );
+
+        assertEquals( "[1.0]", SessionMetadataCache.readVersioning( session, file ).getVersions().toString() );
+
+        long lastModified = file.lastModified();
+        write( "1.1" );
+        file.setLastModified( lastModified );
+
+        assertEquals( "[1.1]", SessionMetadataCache.readVersioning( session, file ).getVersions().toString() );
+        assertEquals( 1, SessionMetadataCache.find( session ).getInvalidations() );
+    }
+
+    public void testLeastRecentlyUsedEntriesAreEvicted()
+        throws Exception
+    {
+        DefaultRepositorySystemSession session = newSession( 1 );
+        File other = new File( file.getParentFile(), "maven-metadata-other.xml" );
+        FileUtils.copyFile( file, other );
+
+        SessionMetadataCache.readVersioning( session, file );
+        SessionMetadataCache.readVersioning( session, other );
+        SessionMetadataCache.readVersioning( session, file );
+
+        SessionMetadataCache cache = SessionMetadataCache.find( session );
+        assertEquals( 1, cache.size() );
+        assertEquals( 0, cache.getHits() );
+        assertEquals( 3, cache.getMisses() );
+    }
+
+}
@@ -0,0 +1,136 @@
+package org.apache.maven.repository.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.building.ModelCache;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+
+public class SessionModelCacheTest
+    extends TestCase
+{
+
+    private DefaultRepositorySystemSession newSession( int maxEntries )
+    {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        session.setCache( new DefaultRepositoryCache() );
+        session.setConfigProperty( SessionModelCache.MAX_ENTRIES_KEY, maxEntries );
+        return session;
+    }
+
+    public void testNoCacheWithoutRepositoryCache()
+    {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+
+        assertNull( DefaultModelCache.newInstance( session ) );
+        assertNull( SessionModelCache.find( session ) );
+    }
+
+    public void testInstancesShareStoreOfSession()
+    {
+        DefaultRepositorySystemSession session = newSession( 10 );
+
+        DefaultModelCache.newInstance( session ).put( "g", "a", "1", "raw", "model" );
+
+        assertEquals( "model", DefaultModelCache.newInstance( session ).get( "g", "a", "1", "raw" ) );
+        assertNull( DefaultModelCache.newInstance( session ).get( "g", "a", "1", "import" ) );
+        assertEquals( 1, SessionModelCache.find( session ).size() );
+    }
+
+    public void testLeastRecentlyUsedEntriesAreEvicted()
+    {
+        DefaultRepositorySystemSession session = newSession( 2 );
+        ModelCache cache = DefaultModelCache.newInstance( session );
+
+        cache.put( "g", "a", "1", "raw", "a" );
+        cache.put( "g", "b", "1", "import", "b" );
+        assertEquals( "a", cache.get( "g", "a", "1", "raw" ) );
+        cache.put( "g", "c", "1", "raw", "c" );
+
+        assertEquals( "a", cache.get( "g", "a", "1", "raw" ) );
+        assertNull( cache.get( "g", "b", "1", "import" ) );
+        assertEquals( "c", cache.get( "g", "c", "1", "raw" ) );
+
+        SessionModelCache store = SessionModelCache.find( session );
+        assertEquals( 2, store.size() );
+
+        Map<String, SessionModelCache.Statistics> stats = store.getStatistics();
+        assertEquals( 3, stats.get( "raw" ).getHits() );
+        assertEquals( 0, stats.get( "raw" ).getMisses() );
+        assertEquals( 2, stats.get( "raw" ).getPuts() );
+        assertEquals( 0, stats.get( "raw" ).getEvictions() );
+        assertEquals( 0, stats.get( "import" ).getHits() );
+        assertEquals( 1, stats.get( "import" ).getMisses() );
+        assertEquals( 1, stats.get( "import" ).getPuts() );
+        assertEquals( 1, stats.get( "import" ).getEvictions() );
+    }
+
+    public void testConcurrentAccess()
+        throws Exception
+    {
+        DefaultRepositorySystemSession session = newSession( 100 );
+        final ModelCache cache = DefaultModelCache.newInstance( session );
+
+        Thread[] threads = new Thread[4];
+        for ( int i = 0; i < threads.length; i++ )
+        {
+            final String artifactId = "a" + i;
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    for ( int j = 0; j < 1000; j++ )
+                    {
+                        String version = Integer.toString( j );
+                        cache.put( "g", artifactId, version, "raw", version );
+                        Object data = cache.get( "g", artifactId, version, "raw" );
+                        if ( data != null && !version.equals( data ) )
+                        {
+                            throw new IllegalStateException( "wrong data " + data + " for " + version );
+                        }
+                    }
+                }
+            };
+        }
+        for ( Thread thread : threads )
+        {
+            thread.start();
+        }
+        for ( Thread thread : threads )
+        {
+            thread.join();
+        }
+
+        SessionModelCache store = SessionModelCache.find( session );
+        // a thread may finish its last put while another one evicts
+        assertTrue( store.size() <= 100 + threads.length );
+
+        SessionModelCache.Statistics stats = store.getStatistics().get( "raw" );
+        assertEquals( 4000, stats.getPuts() );
+        assertEquals( 4000, stats.getHits() + stats.getMisses() );
+        assertEquals( 4000, stats.getEvictions() + store.size() );
+    }
+
+}
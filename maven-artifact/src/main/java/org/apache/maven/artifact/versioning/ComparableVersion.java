@@ -22,11 +22,13 @@
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
-import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Generic implementation of version comparison.
@@ -53,6 +55,10 @@
  * <li>a dash usually precedes a qualifier, and is always less important than something preceded with a dot.</li>
  * </ul></p>
  *
+ * <p>Parsed versions are immutable trees of items, numeric items are backed by a {@code long} unless they exceed its
+ * range and well-known qualifiers are shared. Setting the system property {@value #POOL_SIZE_PROPERTY} to a positive
+ * number enables a pool of parsed versions that lets instances created from the same string share their items.</p>
+ *
  * @see <a href="https://cwiki.apache.org/confluence/display/MAVENOLD/Versioning">"Versioning" on Maven Wiki</a>
  * @author <a href="mailto:kenney@apache.org">Kenney Westerhof</a>
  * @author <a href="mailto:hboutemy@apache.org">Hervé Boutemy</a>
@@ -60,6 +66,19 @@
 public class ComparableVersion
     implements Comparable<ComparableVersion>
 {
+    /**
+     * The name of the system property that specifies the maximum number of parsed versions kept in the pool,
+     * {@code 0} (the default) disables the pool.
+     *
+     * @since 3.3.2
+     */
+    public static final String POOL_SIZE_PROPERTY = "maven.comparableVersion.poolSize";
+
+    private static final int POOL_SIZE = Integer.getInteger( POOL_SIZE_PROPERTY, 0 );
+
+    private static final ConcurrentMap<String, ListItem> POOL =
+        ( POOL_SIZE > 0 ) ? new ConcurrentHashMap<String, ListItem>() : null;
+
     private String value;
 
     private String canonical;
@@ -80,25 +99,56 @@
     }
 
     /**
-     * Represents a numeric item in the version item list.
+     * Represents a numeric item in the version item list. The value is held in a {@code long} unless it is too large,
+     * in which case it is held in a {@code BigInteger} and exceeds any {@code long} value.
      */
     private static class IntegerItem
         implements Item
     {
-        private static final BigInteger BIG_INTEGER_ZERO = new BigInteger( "0" );
+        private static final IntegerItem[] SMALL = new IntegerItem[32];
+        static
+        {
+            for ( int i = 0; i < SMALL.length; i++ )
+            {
+                SMALL[i] = new IntegerItem( i );
+            }
+        }
+
+        public static final IntegerItem ZERO = SMALL[0];
 
-        private final BigInteger value;
+        private final long value;
 
-        public static final IntegerItem ZERO = new IntegerItem();
+        private final BigInteger bigValue;
 
-        private IntegerItem()
+        private IntegerItem( long value )
         {
-            this.value = BIG_INTEGER_ZERO;
+            this.value = value;
+            this.bigValue = null;
         }
 
-        public IntegerItem( String str )
+        private IntegerItem( BigInteger bigValue )
         {
-            this.value = new BigInteger( str );
+            this.value = -1;
+            this.bigValue = bigValue;
+        }
+
+        public static IntegerItem valueOf( String str )
+        {
+            long value;
+            if ( str.length() <= 18 )
+            {
+                value = Long.parseLong( str );
+            }
+            else
+            {
+                BigInteger bigValue = new BigInteger( str );
+                if ( bigValue.bitLength() >= 63 )
+                {
+                    return new IntegerItem( bigValue );
+                }
+                value = bigValue.longValue();
+            }
+            return ( value < SMALL.length ) ? SMALL[(int) value] : new IntegerItem( value );
         }
 
         public int getType()
@@ -108,20 +158,29 @@ public int getType()
 
         public boolean isNull()
         {
-            return BIG_INTEGER_ZERO.equals( value );
+            return bigValue == null && value == 0;
         }
 
         public int compareTo( Item item )
         {
             if ( item == null )
             {
-                return BIG_INTEGER_ZERO.equals( value ) ? 0 : 1; // 1.0 == 1, 1.1 > 1
+                return isNull() ? 0 : 1; // 1.0 == 1, 1.1 > 1
             }
 
             switch ( item.getType() )
             {
                 case INTEGER_ITEM:
-                    return value.compareTo( ( (IntegerItem) item ).value );
+                    IntegerItem other = (IntegerItem) item;
+                    if ( bigValue == null )
+                    {
+                        if ( other.bigValue == null )
+                        {
+                            return ( value < other.value ) ? -1 : ( ( value == other.value ) ? 0 : 1 );
+                        }
+                        return -1;
+                    }
+                    return ( other.bigValue == null ) ? 1 : bigValue.compareTo( other.bigValue );
 
                 case STRING_ITEM:
                     return 1; // 1.1 > 1-sp
@@ -136,7 +195,7 @@ public int compareTo( Item item )
 
         public String toString()
         {
-            return value.toString();
+            return ( bigValue != null ) ? bigValue.toString() : Long.toString( value );
         }
     }
 
@@ -165,9 +224,32 @@ public String toString()
          */
         private static final String RELEASE_VERSION_INDEX = String.valueOf( _QUALIFIERS.indexOf( "" ) );
 
-        private String value;
+        /**
+         * The shared items of the well-known qualifiers.
+         */
+        private static final Map<String, StringItem> KNOWN_ITEMS = new HashMap<String, StringItem>();
+        static
+        {
+            for ( String qualifier : QUALIFIERS )
+            {
+                KNOWN_ITEMS.put( qualifier, new StringItem( qualifier ) );
+            }
+        }
+
+        private final String value;
+
+        /**
+         * The value of {@link #comparableQualifier(String)} for this item.
+         */
+        private final String comparable;
+
+        private StringItem( String value )
+        {
+            this.value = value;
+            this.comparable = comparableQualifier( value );
+        }
 
-        public StringItem( String value, boolean followedByDigit )
+        public static StringItem valueOf( String value, boolean followedByDigit )
         {
             if ( followedByDigit && value.length() == 1 )
             {
@@ -186,7 +268,10 @@ public StringItem( String value, boolean followedByDigit )
                     default:
                 }
             }
-            this.value = ALIASES.getProperty( value , value );
+            value = ALIASES.getProperty( value , value );
+
+            StringItem item = KNOWN_ITEMS.get( value );
+            return ( item != null ) ? item : new StringItem( value );
         }
 
         public int getType()
@@ -196,7 +281,7 @@ public int getType()
 
         public boolean isNull()
         {
-            return ( comparableQualifier( value ).compareTo( RELEASE_VERSION_INDEX ) == 0 );
+            return ( comparable.compareTo( RELEASE_VERSION_INDEX ) == 0 );
         }
 
         /**
@@ -224,7 +309,7 @@ public int compareTo( Item item )
             if ( item == null )
             {
                 // 1-rc < 1, 1-ga > 1
-                return comparableQualifier( value ).compareTo( RELEASE_VERSION_INDEX );
+                return comparable.compareTo( RELEASE_VERSION_INDEX );
             }
             switch ( item.getType() )
             {
@@ -232,7 +317,7 @@ public int compareTo( Item item )
                     return -1; // 1.any < 1.1 ?
 
                 case STRING_ITEM:
-                    return comparableQualifier( value ).compareTo( comparableQualifier( ( (StringItem) item ).value ) );
+                    return comparable.compareTo( ( (StringItem) item ).comparable );
 
                 case LIST_ITEM:
                     return -1; // 1.any < 1-1
@@ -256,6 +341,11 @@ public String toString()
         extends ArrayList<Item>
         implements Item
     {
+        ListItem()
+        {
+            super( 4 );
+        }
+
         public int getType()
         {
             return LIST_ITEM;
@@ -304,13 +394,12 @@ public int compareTo( Item item )
                     return 1; // 1-1 > 1-sp
 
                 case LIST_ITEM:
-                    Iterator<Item> left = iterator();
-                    Iterator<Item> right = ( (ListItem) item ).iterator();
+                    ListItem other = (ListItem) item;
 
-                    while ( left.hasNext() || right.hasNext() )
+                    for ( int i = 0, n = Math.max( size(), other.size() ); i < n; i++ )
                     {
-                        Item l = left.hasNext() ? left.next() : null;
-                        Item r = right.hasNext() ? right.next() : null;
+                        Item l = ( i < size() ) ? get( i ) : null;
+                        Item r = ( i < other.size() ) ? other.get( i ) : null;
 
                         // if this is shorter, then invert the compare and mul with -1
                         int result = l == null ? ( r == null ? 0 : -1 * r.compareTo( l ) ) : l.compareTo( r );
@@ -331,9 +420,8 @@ public int compareTo( Item item )
         public String toString()
         {
             StringBuilder buffer = new StringBuilder();
-            for ( Iterator<Item> iter = iterator(); iter.hasNext(); )
+            for ( Item item : this )
             {
-                Item item = iter.next();
                 if ( buffer.length() > 0 )
                 {
                     buffer.append( ( item instanceof ListItem ) ? '-' : '.' );
@@ -349,18 +437,53 @@ public ComparableVersion( String version )
         parseVersion( version );
     }
 
+    /**
+     * Creates a copy of the specified version. The copy shares the immutable items of the original.
+     */
+    ComparableVersion( ComparableVersion version )
+    {
+        this.value = version.value;
+        this.canonical = version.canonical;
+        this.items = version.items;
+    }
+
     public final void parseVersion( String version )
     {
         this.value = version;
+        this.canonical = null;
+
+        if ( POOL != null )
+        {
+            ListItem pooled = POOL.get( version );
+            if ( pooled != null )
+            {
+                items = pooled;
+                return;
+            }
+        }
+
+        items = parseItems( version );
+
+        if ( POOL != null )
+        {
+            if ( POOL.size() >= POOL_SIZE )
+            {
+                POOL.clear();
+            }
+            POOL.put( version, items );
+        }
+    }
 
-        items = new ListItem();
+    private static ListItem parseItems( String version )
+    {
+        ListItem items = new ListItem();
 
         version = version.toLowerCase( Locale.ENGLISH );
 
         ListItem list = items;
 
-        Stack<Item> stack = new Stack<Item>();
-        stack.push( list );
+        List<ListItem> stack = new ArrayList<ListItem>();
+        stack.add( list );
 
         boolean isDigit = false;
 
@@ -395,17 +518,17 @@ else if ( c == '-' )
                 startIndex = i + 1;
 
                 list.add( list = new ListItem() );
-                stack.push( list );
+                stack.add( list );
             }
             else if ( Character.isDigit( c ) )
             {
                 if ( !isDigit && i > startIndex )
                 {
-                    list.add( new StringItem( version.substring( startIndex, i ), true ) );
+                    list.add( StringItem.valueOf( version.substring( startIndex, i ), true ) );
                     startIndex = i;
 
                     list.add( list = new ListItem() );
-                    stack.push( list );
+                    stack.add( list );
                 }
 
                 isDigit = true;
@@ -418,7 +541,7 @@ else if ( Character.isDigit( c ) )
                     startIndex = i;
 
                     list.add( list = new ListItem() );
-                    stack.push( list );
+                    stack.add( list );
                 }
 
                 isDigit = false;
@@ -430,18 +553,17 @@ else if ( Character.isDigit( c ) )
             list.add( parseItem( isDigit, version.substring( startIndex ) ) );
         }
 
-        while ( !stack.isEmpty() )
+        for ( int i = stack.size() - 1; i >= 0; i-- )
         {
-            list = (ListItem) stack.pop();
-            list.normalize();
+            stack.get( i ).normalize();
         }
 
-        canonical = items.toString();
+        return items;
     }
 
     private static Item parseItem( boolean isDigit, String buf )
     {
-        return isDigit ? new IntegerItem( buf ) : new StringItem( buf, false );
+        return isDigit ? IntegerItem.valueOf( buf ) : StringItem.valueOf( buf, false );
     }
 
     public int compareTo( ComparableVersion o )
@@ -456,17 +578,21 @@ public String toString()
 
     public String getCanonical()
     {
+        if ( canonical == null )
+        {
+            canonical = items.toString();
+        }
         return canonical;
     }
 
     public boolean equals( Object o )
     {
-        return ( o instanceof ComparableVersion ) && canonical.equals( ( (ComparableVersion) o ).canonical );
+        return ( o instanceof ComparableVersion ) && getCanonical().equals( ( (ComparableVersion) o ).getCanonical() );
     }
 
     public int hashCode()
     {
-        return canonical.hashCode();
+        return getCanonical().hashCode();
     }
 
     /**
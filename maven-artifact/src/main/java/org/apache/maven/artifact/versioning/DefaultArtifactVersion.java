@@ -48,6 +48,19 @@ public DefaultArtifactVersion( String version )
         parseVersion( version );
     }
 
+    /**
+     * Creates a copy of the specified version without parsing it again.
+     */
+    DefaultArtifactVersion( DefaultArtifactVersion version )
+    {
+        this.majorVersion = version.majorVersion;
+        this.minorVersion = version.minorVersion;
+        this.incrementalVersion = version.incrementalVersion;
+        this.buildNumber = version.buildNumber;
+        this.qualifier = version.qualifier;
+        this.comparable = new ComparableVersion( version.comparable );
+    }
+
     @Override
     public int hashCode()
     {
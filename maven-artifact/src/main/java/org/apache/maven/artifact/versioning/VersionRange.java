@@ -23,6 +23,8 @@
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.maven.artifact.Artifact;
 
@@ -33,6 +35,16 @@
  */
 public class VersionRange
 {
+    /**
+     * The maximum number of parsed specs kept in the cache, the cache is simply cleared once it is full.
+     */
+    private static final int CACHE_SIZE = 1024;
+
+    /**
+     * The ranges parsed from specs. The cached ranges are never handed out, callers get a copy of them.
+     */
+    private static final ConcurrentMap<String, VersionRange> CACHE = new ConcurrentHashMap<String, VersionRange>();
+
     private final ArtifactVersion recommendedVersion;
 
     private final List<Restriction> restrictions;
@@ -96,6 +108,47 @@ public static VersionRange createFromVersionSpec( String spec )
             return null;
         }
 
+        VersionRange cached = CACHE.get( spec );
+        if ( cached == null )
+        {
+            cached = parseVersionSpec( spec );
+            if ( CACHE.size() >= CACHE_SIZE )
+            {
+                CACHE.clear();
+            }
+            CACHE.put( spec, cached );
+        }
+        return cached.copy();
+    }
+
+    /**
+     * Creates a deep copy of this range, unlike {@link #cloneOf()} the copy does not share the versions.
+     */
+    private VersionRange copy()
+    {
+        List<Restriction> copiedRestrictions = new ArrayList<Restriction>( restrictions.size() );
+        for ( Restriction restriction : restrictions )
+        {
+            copiedRestrictions.add( new Restriction( copy( restriction.getLowerBound() ),
+                                                     restriction.isLowerBoundInclusive(),
+                                                     copy( restriction.getUpperBound() ),
+                                                     restriction.isUpperBoundInclusive() ) );
+        }
+        return new VersionRange( copy( recommendedVersion ), copiedRestrictions );
+    }
+
+    private static ArtifactVersion copy( ArtifactVersion version )
+    {
+        if ( version instanceof DefaultArtifactVersion )
+        {
+            return new DefaultArtifactVersion( (DefaultArtifactVersion) version );
+        }
+        return version;
+    }
+
+    private static VersionRange parseVersionSpec( String spec )
+        throws InvalidVersionSpecificationException
+    {
         List<Restriction> restrictions = new ArrayList<Restriction>();
         String process = spec;
         ArtifactVersion version = null;
@@ -518,21 +571,79 @@ public String toString()
 
     public ArtifactVersion matchVersion( List<ArtifactVersion> versions )
     {
-        // TODO: could be more efficient by sorting the list and then moving along the restrictions in order?
-
         ArtifactVersion matched = null;
         for ( ArtifactVersion version : versions )
         {
-            if ( containsVersion( version ) )
+            // only versions greater than the currently matched version are of interest, check that first as it is
+            // cheaper than checking the restrictions
+            if ( ( matched == null || version.compareTo( matched ) > 0 ) && containsVersion( version ) )
             {
-                // valid - check if it is greater than the currently matched version
-                if ( matched == null || version.compareTo( matched ) > 0 )
+                matched = version;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Gets the highest version from the specified list that is contained in this range. Unlike
+     * {@link #matchVersion(List)}, this method expects the versions to be sorted in ascending order and locates the
+     * match by binary search, walking the restrictions from the highest to the lowest one.
+     *
+     * @param versions The versions to match, sorted in ascending order, must not be {@code null}.
+     * @return The highest matching version or {@code null} if none matches.
+     */
+    public ArtifactVersion matchSortedVersion( List<ArtifactVersion> versions )
+    {
+        int end = versions.size();
+        for ( int i = restrictions.size() - 1; i >= 0 && end > 0; i-- )
+        {
+            Restriction restriction = restrictions.get( i );
+
+            // index of the first version beyond the upper bound of the restriction
+            end = indexAbove( versions, end, restriction.getUpperBound(), restriction.isUpperBoundInclusive() );
+            if ( end <= 0 )
+            {
+                break;
+            }
+
+            int index = end - 1;
+            ArtifactVersion version = versions.get( index );
+            if ( restriction.containsVersion( version ) )
+            {
+                // prefer the first of several equal versions, just like matchVersion() does
+                while ( index > 0 && versions.get( index - 1 ).compareTo( version ) == 0 )
                 {
-                    matched = version;
+                    index--;
                 }
+                return versions.get( index );
             }
         }
-        return matched;
+        return null;
+    }
+
+    private static int indexAbove( List<ArtifactVersion> versions, int end, ArtifactVersion bound, boolean inclusive )
+    {
+        if ( bound == null )
+        {
+            return end;
+        }
+
+        int low = 0;
+        int high = end;
+        while ( low < high )
+        {
+            int mid = ( low + high ) >>> 1;
+            int comparison = versions.get( mid ).compareTo( bound );
+            if ( comparison < 0 || ( comparison == 0 && inclusive ) )
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
     }
 
     public boolean containsVersion( ArtifactVersion version )
@@ -0,0 +1,122 @@
+package org.apache.maven.artifact.versioning;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Compares the ordering, canonical form and equality of {@link ComparableVersion} with the previous implementation
+ * for hand-picked and randomly generated versions.
+ */
+public class ComparableVersionDifferentialTest
+    extends TestCase
+{
+
+    private static final String[] VERSIONS =
+        { "1", "1.0", "1.0.0", "1-0", "1.0-0", "1-1", "1.1", "1-sp", "1-ga", "1-final", "1-GA", "1.ga", "1-cr1",
+            "1-rc1", "1-RC-1", "1a1", "1-alpha-1", "1b", "1-beta", "1m2", "1-milestone-2", "1-snapshot", "1-SNAPSHOT",
+            "1.0-SNAPSHOT", "1-abc", "1-ABC", "1-xyz-1", "1.0.1-foo-2", "..1", "1..", "-1", "1-", "1--1", ".",
+            "", "0", "00", "0.0.0", "1.00001", "2.0.0.a", "11.b11", "2.1-a", "2.1b", "1-alpha2snapshot",
+            "9223372036854775806", "9223372036854775807", "9223372036854775808", "18446744073709551616",
+            "000000000000000000000000000001", "1.999999999999999999", "1.1000000000000000000", "1.٣١",
+            "1-été" };
+
+    private static final String[] TOKENS =
+        { "0", "1", "2", "10", "007", "123456789012345678", "99999999999999999999", "a", "b", "m", "alpha", "beta",
+            "milestone", "rc", "cr", "snapshot", "SNAPSHOT", "ga", "final", "sp", "foo", "x", "", };
+
+    private static final char[] SEPARATORS = { '.', '-', '.', '-', '.' };
+
+    private static List<String> randomVersions( int count )
+    {
+        Random random = new Random( 5728L );
+        List<String> versions = new ArrayList<String>( count );
+        for ( int i = 0; i < count; i++ )
+        {
+            StringBuilder buffer = new StringBuilder();
+            for ( int j = random.nextInt( 6 ); j >= 0; j-- )
+            {
+                buffer.append( TOKENS[random.nextInt( TOKENS.length )] );
+                if ( j > 0 && random.nextInt( 4 ) > 0 )
+                {
+                    buffer.append( SEPARATORS[random.nextInt( SEPARATORS.length )] );
+                }
+            }
+            versions.add( buffer.toString() );
+        }
+        return versions;
+    }
+
+    private static void assertSameBehavior( List<String> versions )
+    {
+        int n = versions.size();
+        ComparableVersion[] actual = new ComparableVersion[n];
+        ReferenceComparableVersion[] expected = new ReferenceComparableVersion[n];
+        for ( int i = 0; i < n; i++ )
+        {
+            actual[i] = new ComparableVersion( versions.get( i ) );
+            expected[i] = new ReferenceComparableVersion( versions.get( i ) );
+            assertEquals( "canonical( " + versions.get( i ) + " )", expected[i].getCanonical(),
+                          actual[i].getCanonical() );
+        }
+
+        for ( int i = 0; i < n; i++ )
+        {
+            for ( int j = 0; j < n; j++ )
+            {
+                String message = versions.get( i ) + " <=> " + versions.get( j );
+                assertEquals( message, Integer.signum( expected[i].compareTo( expected[j] ) ),
+                              Integer.signum( actual[i].compareTo( actual[j] ) ) );
+                assertEquals( message, expected[i].equals( expected[j] ), actual[i].equals( actual[j] ) );
+            }
+        }
+    }
+
+    public void testHandPickedVersions()
+    {
+        List<String> versions = new ArrayList<String>();
+        for ( String version : VERSIONS )
+        {
+            versions.add( version );
+        }
+        assertSameBehavior( versions );
+    }
+
+    public void testRandomVersions()
+    {
+        assertSameBehavior( randomVersions( 1500 ) );
+    }
+
+    public void testReparsing()
+    {
+        ComparableVersion version = new ComparableVersion( "1.0-alpha-1" );
+        assertEquals( "1-alpha-1", version.getCanonical() );
+
+        version.parseVersion( "2.0" );
+        assertEquals( "2", version.getCanonical() );
+        assertEquals( "2.0", version.toString() );
+        assertEquals( new ComparableVersion( "2" ), version );
+    }
+
+}
@@ -19,6 +19,8 @@
  * under the License.
  */
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import junit.framework.TestCase;
@@ -723,6 +725,54 @@ public boolean enforceVersion( String requiredVersionRange, ArtifactVersion actu
         return vr.containsVersion( actualVersion );
     }
 
+    public void testParsedRangesAreNotShared()
+        throws InvalidVersionSpecificationException
+    {
+        VersionRange range = VersionRange.createFromVersionSpec( "[1.0,2.0),[3.0,)" );
+        VersionRange other = VersionRange.createFromVersionSpec( "[1.0,2.0),[3.0,)" );
+        assertNotSame( range, other );
+        assertEquals( range, other );
+        assertNotSame( range.getRestrictions().get( 0 ).getLowerBound(),
+                       other.getRestrictions().get( 0 ).getLowerBound() );
+
+        range.getRestrictions().clear();
+        assertEquals( 2, other.getRestrictions().size() );
+
+        ( (DefaultArtifactVersion) other.getRestrictions().get( 0 ).getLowerBound() ).parseVersion( "1.5" );
+        other = VersionRange.createFromVersionSpec( "[1.0,2.0),[3.0,)" );
+        assertEquals( "1.0", other.getRestrictions().get( 0 ).getLowerBound().toString() );
+        assertFalse( other.containsVersion( new DefaultArtifactVersion( "0.9" ) ) );
+        assertTrue( other.containsVersion( new DefaultArtifactVersion( "1.0" ) ) );
+    }
+
+    public void testMatchSortedVersion()
+        throws InvalidVersionSpecificationException
+    {
+        String[] specs =
+            { "1.0", "[1.0]", "[1.0,2.0)", "[1.0,2.0]", "(1.0,2.0]", "[1.0,)", "(,1.0]", "(,1.0)", "[5.0,)",
+                "(,1.0],[1.2,)", "[1.1,1.2),[2.0,2.0.1],(3,4)", "[0.1,0.9]", "[1.0.0,1.0]" };
+        String[] available = { "0.5", "1", "1.0", "1.0.1", "1.1", "1.2-SNAPSHOT", "1.2", "2.0", "2.0.1", "3", "3.5" };
+
+        List<ArtifactVersion> versions = new ArrayList<ArtifactVersion>();
+        for ( String version : available )
+        {
+            versions.add( new DefaultArtifactVersion( version ) );
+        }
+        Collections.sort( versions );
+
+        for ( String spec : specs )
+        {
+            VersionRange range = VersionRange.createFromVersionSpec( spec );
+            assertSame( spec, range.matchVersion( versions ), range.matchSortedVersion( versions ) );
+        }
+
+        VersionRange range = VersionRange.createFromVersionSpec( "[1.1,1.2),[2.0,2.0.1],(3,4)" );
+        assertEquals( "3.5", range.matchSortedVersion( versions ).toString() );
+        assertEquals( "1", VersionRange.createFromVersionSpec( "[1.0]" ).matchSortedVersion( versions ).toString() );
+        assertNull( VersionRange.createFromVersionSpec( "[0.1,0.2]" ).matchSortedVersion( versions ) );
+        assertNull( range.matchSortedVersion( Collections.<ArtifactVersion>emptyList() ) );
+    }
+
     public void testOrder0()
     {
         // assertTrue( new DefaultArtifactVersion( "1.0-alpha10" ).compareTo( new DefaultArtifactVersion( "1.0-alpha1" ) ) > 0 );
@@ -0,0 +1,87 @@
+package org.apache.maven.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures parsing and comparison of {@link ComparableVersion}.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class ComparableVersionBenchmark
+{
+
+    static final String[] VERSIONS =
+        { "1", "1.0", "1.0.1", "1.0-SNAPSHOT", "1.0-alpha-1", "1.0-beta-2", "1.0-RC1", "1.0-rc-2", "1.0.0.Final",
+            "1.2.3-SNAPSHOT", "2.0-M1", "2.0-milestone-2", "2.0.0-ga", "2.0-sp1", "3.0.0.v20150114",
+            "3.0-20150114.123456-1", "4.1.1.RELEASE", "10.0.2", "1.0.0-alpha.1+build.5", "1-1.foo-bar1baz-.1" };
+
+    private ComparableVersion[] parsed;
+
+    @Setup
+    public void setUp()
+    {
+        parsed = new ComparableVersion[VERSIONS.length];
+        for ( int i = 0; i < VERSIONS.length; i++ )
+        {
+            parsed[i] = new ComparableVersion( VERSIONS[i] );
+        }
+    }
+
+    @Benchmark
+    public void parse( Blackhole blackhole )
+    {
+        for ( String version : VERSIONS )
+        {
+            blackhole.consume( new ComparableVersion( version ) );
+        }
+    }
+
+    @Benchmark
+    public void compare( Blackhole blackhole )
+    {
+        for ( ComparableVersion a : parsed )
+        {
+            for ( ComparableVersion b : parsed )
+            {
+                blackhole.consume( a.compareTo( b ) );
+            }
+        }
+    }
+
+}
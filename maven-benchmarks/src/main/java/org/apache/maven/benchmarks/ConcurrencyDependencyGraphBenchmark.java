@@ -0,0 +1,129 @@
+package org.apache.maven.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.graph.DefaultProjectDependencyGraph;
+import org.apache.maven.lifecycle.internal.ProjectBuildList;
+import org.apache.maven.lifecycle.internal.ProjectSegment;
+import org.apache.maven.lifecycle.internal.TaskSegment;
+import org.apache.maven.lifecycle.internal.builder.multithreaded.ConcurrencyDependencyGraph;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the scheduling overhead of {@link ConcurrencyDependencyGraph} by walking a generated reactor the way the
+ * multi-threaded builder does, finishing one project at a time.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class ConcurrencyDependencyGraphBenchmark
+{
+
+    @Param( { "100", "1000" } )
+    private int modules;
+
+    private ProjectDependencyGraph projectDependencyGraph;
+
+    private ProjectBuildList projectBuildList;
+
+    @Setup
+    public void setUp()
+        throws Exception
+    {
+        List<MavenProject> projects = new ArrayList<MavenProject>( modules );
+        for ( int i = 0; i < modules; i++ )
+        {
+            Model model = new Model();
+            model.setGroupId( Fixtures.GROUP_ID );
+            model.setArtifactId( "module-" + i );
+            model.setVersion( Fixtures.VERSION );
+            for ( int j = 1; j <= 3; j++ )
+            {
+                int upstream = i - j * j * 7;
+                if ( upstream >= 0 )
+                {
+                    Dependency dependency = new Dependency();
+                    dependency.setGroupId( Fixtures.GROUP_ID );
+                    dependency.setArtifactId( "module-" + upstream );
+                    dependency.setVersion( Fixtures.VERSION );
+                    model.addDependency( dependency );
+                }
+            }
+            projects.add( new MavenProject( model ) );
+        }
+
+        projectDependencyGraph = new DefaultProjectDependencyGraph( projects );
+
+        MavenSession session =
+            new MavenSession( null, null, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult() );
+        session.setProjects( projectDependencyGraph.getSortedProjects() );
+        session.setProjectDependencyGraph( projectDependencyGraph );
+
+        TaskSegment taskSegment = new TaskSegment( false, "install" );
+        List<ProjectSegment> segments = new ArrayList<ProjectSegment>( modules );
+        for ( MavenProject project : projectDependencyGraph.getSortedProjects() )
+        {
+            segments.add( new ProjectSegment( project, taskSegment, session ) );
+        }
+        projectBuildList = new ProjectBuildList( segments );
+    }
+
+    @Benchmark
+    public int schedule()
+    {
+        ConcurrencyDependencyGraph graph = new ConcurrencyDependencyGraph( projectBuildList, projectDependencyGraph );
+
+        Deque<MavenProject> schedulable = new ArrayDeque<MavenProject>( graph.getRootSchedulableBuilds() );
+        int finished = 0;
+        while ( !schedulable.isEmpty() )
+        {
+            schedulable.addAll( graph.markAsFinished( schedulable.poll() ) );
+            finished++;
+        }
+        return finished;
+    }
+
+}
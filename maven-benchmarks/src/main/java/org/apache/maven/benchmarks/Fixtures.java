@@ -0,0 +1,207 @@
+package org.apache.maven.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.WriterFactory;
+
+/**
+ * Generates the synthetic projects used by the benchmarks. Everything is created from scratch in a temporary directory
+ * and only refers to other generated projects, so the benchmarks run without network or local repository access.
+ */
+final class Fixtures
+{
+
+    static final String GROUP_ID = "org.apache.maven.benchmarks";
+
+    static final String VERSION = "1.0-SNAPSHOT";
+
+    private Fixtures()
+    {
+        // hide constructor
+    }
+
+    static File createTempDirectory( String prefix )
+        throws IOException
+    {
+        File dir = File.createTempFile( prefix, "" );
+        if ( !dir.delete() || !dir.mkdirs() )
+        {
+            throw new IOException( "Could not create temporary directory " + dir );
+        }
+        return dir;
+    }
+
+    static void delete( File dir )
+        throws IOException
+    {
+        if ( dir != null )
+        {
+            FileUtils.deleteDirectory( dir );
+        }
+    }
+
+    /**
+     * Creates a model with the given number of properties, managed dependencies, dependencies and plugins. The
+     * dependencies use property expressions for their versions and the plugins refer to project properties in their
+     * configuration.
+     */
+    static Model newModel( String artifactId, int entries )
+    {
+        Model model = new Model();
+        model.setModelVersion( "4.0.0" );
+        model.setGroupId( GROUP_ID );
+        model.setArtifactId( artifactId );
+        model.setVersion( VERSION );
+        model.setPackaging( "pom" );
+        model.setName( "Benchmark ${project.artifactId}" );
+        model.setUrl( "http://maven.apache.org/${project.artifactId}" );
+
+        DependencyManagement dependencyManagement = new DependencyManagement();
+        Build build = new Build();
+        for ( int i = 0; i < entries; i++ )
+        {
+            model.addProperty( artifactId + ".version." + i, "1." + i );
+
+            Dependency managed = new Dependency();
+            managed.setGroupId( GROUP_ID + ".managed" );
+            managed.setArtifactId( artifactId + "-managed-" + i );
+            managed.setVersion( "${" + artifactId + ".version." + i + "}" );
+            dependencyManagement.addDependency( managed );
+
+            Dependency dependency = new Dependency();
+            dependency.setGroupId( "${project.groupId}.dependencies" );
+            dependency.setArtifactId( artifactId + "-dependency-" + i );
+            dependency.setVersion( "${" + artifactId + ".version." + i + "}" );
+            dependency.setScope( "provided" );
+            dependency.setOptional( "true" );
+            model.addDependency( dependency );
+
+            Plugin plugin = new Plugin();
+            plugin.setArtifactId( artifactId + "-plugin-" + i );
+            plugin.setVersion( "${project.version}" );
+            build.addPlugin( plugin );
+        }
+        model.setDependencyManagement( dependencyManagement );
+        model.setBuild( build );
+
+        return model;
+    }
+
+    /**
+     * Creates a chain of POMs where each POM inherits from the POM in the parent directory and returns the POM at the
+     * bottom of the chain.
+     */
+    static File createInheritanceChain( File basedir, int levels, int entries )
+        throws IOException
+    {
+        File dir = basedir;
+        File pom = null;
+        Model parent = null;
+        for ( int i = 0; i < levels; i++ )
+        {
+            Model model = newModel( "level-" + i, entries );
+            if ( parent != null )
+            {
+                model.setParent( newParent( parent ) );
+                dir = new File( dir, model.getArtifactId() );
+            }
+            pom = new File( dir, "pom.xml" );
+            write( model, pom );
+            parent = model;
+        }
+        return pom;
+    }
+
+    /**
+     * Creates an aggregator POM with the given number of modules. Each module inherits from the aggregator and depends
+     * on up to three of the modules before it, which yields a reproducible, moderately connected project graph.
+     */
+    static File createReactor( File basedir, int modules )
+        throws IOException
+    {
+        Model root = newModel( "reactor", 10 );
+        for ( int i = 0; i < modules; i++ )
+        {
+            String artifactId = "module-" + i;
+            root.addModule( artifactId );
+
+            Model module = new Model();
+            module.setModelVersion( "4.0.0" );
+            module.setArtifactId( artifactId );
+            module.setParent( newParent( root ) );
+            for ( int j = 1; j <= 3; j++ )
+            {
+                int upstream = i - j * j * 7;
+                if ( upstream >= 0 )
+                {
+                    Dependency dependency = new Dependency();
+                    dependency.setGroupId( "${project.groupId}" );
+                    dependency.setArtifactId( "module-" + upstream );
+                    dependency.setVersion( "${project.version}" );
+                    module.addDependency( dependency );
+                }
+            }
+            write( module, new File( basedir, artifactId + "/pom.xml" ) );
+        }
+        root.getDependencies().clear();
+        File pom = new File( basedir, "pom.xml" );
+        write( root, pom );
+        return pom;
+    }
+
+    private static Parent newParent( Model model )
+    {
+        Parent parent = new Parent();
+        parent.setGroupId( model.getGroupId() );
+        parent.setArtifactId( model.getArtifactId() );
+        parent.setVersion( model.getVersion() );
+        return parent;
+    }
+
+    private static void write( Model model, File file )
+        throws IOException
+    {
+        file.getParentFile().mkdirs();
+
+        Writer writer = WriterFactory.newXmlWriter( file );
+        try
+        {
+            new MavenXpp3Writer().write( writer, model );
+        }
+        finally
+        {
+            IOUtil.close( writer );
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package org.apache.maven.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.building.DefaultModelBuilder;
+import org.apache.maven.model.building.DefaultModelBuilderFactory;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingException;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link DefaultModelBuilder#build(ModelBuildingRequest)} for a POM at the bottom of a generated inheritance
+ * chain.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class ModelBuilderBenchmark
+{
+
+    @Param( { "1", "5", "10" } )
+    private int levels;
+
+    @Param( { "10", "100" } )
+    private int entries;
+
+    private File basedir;
+
+    private File pomFile;
+
+    private DefaultModelBuilder modelBuilder;
+
+    @Setup
+    public void setUp()
+        throws Exception
+    {
+        basedir = Fixtures.createTempDirectory( "model-builder" );
+        pomFile = Fixtures.createInheritanceChain( basedir, levels, entries );
+        modelBuilder = new DefaultModelBuilderFactory().newInstance();
+    }
+
+    @TearDown
+    public void tearDown()
+        throws Exception
+    {
+        Fixtures.delete( basedir );
+    }
+
+    @Benchmark
+    public ModelBuildingResult build()
+        throws ModelBuildingException
+    {
+        DefaultModelBuildingRequest request = new DefaultModelBuildingRequest();
+        request.setPomFile( pomFile );
+        request.setValidationLevel( ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL );
+        request.setSystemProperties( System.getProperties() );
+        return modelBuilder.build( request );
+    }
+
+}
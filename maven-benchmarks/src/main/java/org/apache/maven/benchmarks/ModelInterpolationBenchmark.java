@@ -0,0 +1,97 @@
+package org.apache.maven.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.ModelProblemCollector;
+import org.apache.maven.model.building.ModelProblemCollectorRequest;
+import org.apache.maven.model.interpolation.StringSearchModelInterpolator;
+import org.apache.maven.model.path.DefaultPathTranslator;
+import org.apache.maven.model.path.DefaultUrlNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link StringSearchModelInterpolator} on generated models with many expressions.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class ModelInterpolationBenchmark
+{
+
+    @Param( { "100", "1000" } )
+    private int entries;
+
+    private Model model;
+
+    private File projectDir;
+
+    private DefaultModelBuildingRequest request;
+
+    private StringSearchModelInterpolator interpolator;
+
+    private final ModelProblemCollector problems = new ModelProblemCollector()
+    {
+        public void add( ModelProblemCollectorRequest req )
+        {
+            throw new IllegalStateException( req.getMessage() );
+        }
+    };
+
+    @Setup
+    public void setUp()
+    {
+        model = Fixtures.newModel( "interpolation", entries );
+        projectDir = new File( System.getProperty( "java.io.tmpdir" ), "interpolation" );
+
+        request = new DefaultModelBuildingRequest();
+        request.setSystemProperties( System.getProperties() );
+        request.setBuildStartTime( new Date() );
+
+        interpolator = new StringSearchModelInterpolator();
+        interpolator.setPathTranslator( new DefaultPathTranslator() );
+        interpolator.setUrlNormalizer( new DefaultUrlNormalizer() );
+    }
+
+    @Benchmark
+    public Model interpolate()
+    {
+        return interpolator.interpolateModel( model.clone(), projectDir, request, problems );
+    }
+
+}
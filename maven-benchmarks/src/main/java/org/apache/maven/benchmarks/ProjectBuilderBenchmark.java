@@ -0,0 +1,126 @@
+package org.apache.maven.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.project.DefaultProjectBuildingRequest;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.project.ProjectBuildingResult;
+import org.apache.maven.repository.RepositorySystem;
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.codehaus.plexus.ContainerConfiguration;
+import org.codehaus.plexus.DefaultContainerConfiguration;
+import org.codehaus.plexus.DefaultPlexusContainer;
+import org.codehaus.plexus.PlexusConstants;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.internal.impl.SimpleLocalRepositoryManagerFactory;
+import org.eclipse.aether.repository.LocalRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ProjectBuilder#build(List, boolean, ProjectBuildingRequest)} on a generated reactor. The local
+ * repository is an empty temporary directory and no remote repositories are configured.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class ProjectBuilderBenchmark
+{
+
+    @Param( { "1000" } )
+    private int modules;
+
+    @Param( { "1", "4" } )
+    private int threads;
+
+    private File basedir;
+
+    private File pomFile;
+
+    private DefaultPlexusContainer container;
+
+    private ProjectBuilder projectBuilder;
+
+    private ProjectBuildingRequest request;
+
+    @Setup
+    public void setUp()
+        throws Exception
+    {
+        basedir = Fixtures.createTempDirectory( "project-builder" );
+        pomFile = Fixtures.createReactor( new File( basedir, "reactor" ), modules );
+
+        ContainerConfiguration configuration = new DefaultContainerConfiguration();
+        configuration.setClassPathScanning( PlexusConstants.SCANNING_INDEX ).setAutoWiring( true );
+        configuration.setName( "maven" );
+        container = new DefaultPlexusContainer( configuration );
+
+        projectBuilder = container.lookup( ProjectBuilder.class );
+        RepositorySystem repositorySystem = container.lookup( RepositorySystem.class );
+
+        File localRepository = new File( basedir, "repository" );
+        DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
+        session.setLocalRepositoryManager( new SimpleLocalRepositoryManagerFactory().newInstance( session,
+            new LocalRepository( localRepository ) ) );
+        session.setOffline( true );
+
+        request = new DefaultProjectBuildingRequest();
+        request.setLocalRepository( repositorySystem.createLocalRepository( localRepository ) );
+        request.setRepositorySession( session );
+        request.setSystemProperties( System.getProperties() );
+        request.getUserProperties().setProperty( "maven.projectBuilder.threads", Integer.toString( threads ) );
+    }
+
+    @TearDown
+    public void tearDown()
+        throws Exception
+    {
+        container.dispose();
+        Fixtures.delete( basedir );
+    }
+
+    @Benchmark
+    public List<ProjectBuildingResult> build()
+        throws ProjectBuildingException
+    {
+        return projectBuilder.build( Collections.singletonList( pomFile ), true, request );
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.apache.maven.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link VersionRange#createFromVersionSpec(String)}, {@link VersionRange#containsVersion(ArtifactVersion)}
+ * and the matching of a range against the available versions.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class VersionRangeBenchmark
+{
+
+    static final String[] SPECS =
+        { "1.0", "[1.0]", "[1.0,2.0)", "[1.0,)", "(,1.0]", "[1.0,2.0),[3.0,4.0)", "(,1.0],[1.2,)",
+            "[1.0-alpha-1,1.0-SNAPSHOT]", "[2.0.0,2.0.9],[2.1.0,2.1.9],[2.2.0,2.2.9],[2.3.0,)" };
+
+    private VersionRange[] ranges;
+
+    private ArtifactVersion[] versions;
+
+    private List<ArtifactVersion> sortedVersions;
+
+    @Setup
+    public void setUp()
+        throws InvalidVersionSpecificationException
+    {
+        ranges = new VersionRange[SPECS.length];
+        for ( int i = 0; i < SPECS.length; i++ )
+        {
+            ranges[i] = VersionRange.createFromVersionSpec( SPECS[i] );
+        }
+
+        versions = new ArtifactVersion[ComparableVersionBenchmark.VERSIONS.length];
+        for ( int i = 0; i < versions.length; i++ )
+        {
+            versions[i] = new DefaultArtifactVersion( ComparableVersionBenchmark.VERSIONS[i] );
+        }
+
+        ArtifactVersion[] sorted = versions.clone();
+        Arrays.sort( sorted );
+        sortedVersions = Arrays.asList( sorted );
+    }
+
+    @Benchmark
+    public void parse( Blackhole blackhole )
+        throws InvalidVersionSpecificationException
+    {
+        for ( String spec : SPECS )
+        {
+            blackhole.consume( VersionRange.createFromVersionSpec( spec ) );
+        }
+    }
+
+    @Benchmark
+    public void containsVersion( Blackhole blackhole )
+    {
+        for ( VersionRange range : ranges )
+        {
+            for ( ArtifactVersion version : versions )
+            {
+                blackhole.consume( range.containsVersion( version ) );
+            }
+        }
+    }
+
+    @Benchmark
+    public void matchVersion( Blackhole blackhole )
+    {
+        for ( VersionRange range : ranges )
+        {
+            blackhole.consume( range.matchVersion( sortedVersions ) );
+        }
+    }
+
+    @Benchmark
+    public void matchSortedVersion( Blackhole blackhole )
+    {
+        for ( VersionRange range : ranges )
+        {
+            blackhole.consume( range.matchSortedVersion( sortedVersions ) );
+        }
+    }
+
+}
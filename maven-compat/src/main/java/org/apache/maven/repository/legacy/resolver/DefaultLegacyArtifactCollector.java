@@ -502,7 +502,7 @@ private void recurse( ArtifactResolutionResult result, ResolutionNode node,
 
                                         VersionRange versionRange = artifact.getVersionRange();
 
-                                        version = versionRange.matchVersion( versions );
+                                        version = versionRange.matchSortedVersion( versions );
 
                                         if ( version == null )
                                         {
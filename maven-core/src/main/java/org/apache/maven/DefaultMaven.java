@@ -48,6 +48,8 @@
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.repository.LocalRepositoryNotAccessibleException;
+import org.apache.maven.repository.internal.SessionMetadataCache;
+import org.apache.maven.repository.internal.SessionModelCache;
 import org.apache.maven.session.scope.internal.SessionScope;
 import org.codehaus.plexus.PlexusContainer;
 import org.codehaus.plexus.component.annotations.Component;
@@ -315,6 +317,8 @@ private MavenExecutionResult doExecute( MavenExecutionRequest request, MavenSess
         }
         finally
         {
+            logRepositoryCacheStatistics( repoSession );
+
             try
             {
                 afterSessionEnd( session.getProjects(), session );
@@ -328,6 +332,33 @@ private MavenExecutionResult doExecute( MavenExecutionRequest request, MavenSess
         return result;
     }
 
+    private void logRepositoryCacheStatistics( RepositorySystemSession repoSession )
+    {
+        SessionModelCache modelCache = SessionModelCache.find( repoSession );
+        if ( modelCache != null )
+        {
+            logStatistics( modelCache.isStatisticsRequested(), modelCache.toString() );
+        }
+
+        SessionMetadataCache metadataCache = SessionMetadataCache.find( repoSession );
+        if ( metadataCache != null )
+        {
+            logStatistics( metadataCache.isStatisticsRequested(), metadataCache.toString() );
+        }
+    }
+
+    private void logStatistics( boolean requested, String statistics )
+    {
+        if ( requested )
+        {
+            logger.info( statistics );
+        }
+        else if ( logger.isDebugEnabled() )
+        {
+            logger.debug( statistics );
+        }
+    }
+
     private void afterSessionEnd( Collection<MavenProject> projects, MavenSession session )
         throws MavenExecutionException
     {
@@ -0,0 +1,152 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Base class for components that collect data about a session in memory and write it to a report file when the
+ * session ends. The data is keyed by the execution request, which is shared by the session and its clones.
+ *
+ * @param <T> The type of the collected data.
+ * @since 3.3.2
+ */
+abstract class AbstractSessionRecorder<T>
+{
+
+    private final ConcurrentMap<MavenExecutionRequest, T> recordings =
+        new ConcurrentHashMap<MavenExecutionRequest, T>();
+
+    /**
+     * Creates the data holder for a new session.
+     */
+    protected abstract T newRecording();
+
+    /**
+     * Writes the collected data to the report.
+     */
+    protected abstract void write( Writer writer, T recording )
+        throws IOException;
+
+    protected abstract Logger getLogger();
+
+    /**
+     * Gets the data of the specified session, creating it on first access.
+     */
+    protected T getRecording( MavenSession session )
+    {
+        T recording = recordings.get( session.getRequest() );
+        if ( recording == null )
+        {
+            recording = newRecording();
+            T existing = recordings.putIfAbsent( session.getRequest(), recording );
+            if ( existing != null )
+            {
+                recording = existing;
+            }
+        }
+        return recording;
+    }
+
+    /**
+     * Removes the data of the specified session.
+     *
+     * @return The data or {@code null} if nothing was recorded for the session.
+     */
+    protected T removeRecording( MavenSession session )
+    {
+        return recordings.remove( session.getRequest() );
+    }
+
+    /**
+     * Writes the specified data to the report file, logging the outcome.
+     *
+     * @param file The report file, must not be {@code null}.
+     * @param recording The data to write, must not be {@code null}.
+     * @param description The description of the report to use in log messages, must not be {@code null}.
+     */
+    protected void writeReport( File file, T recording, String description )
+    {
+        Writer writer = null;
+        try
+        {
+            file.getAbsoluteFile().getParentFile().mkdirs();
+
+            writer = new OutputStreamWriter( new FileOutputStream( file ), "UTF-8" );
+            write( writer, recording );
+            writer.close();
+            writer = null;
+
+            getLogger().info( description + " written to " + file );
+        }
+        catch ( IOException e )
+        {
+            getLogger().warn( "Failed to write " + description.toLowerCase( Locale.ENGLISH ) + " to " + file + ": "
+                + e.getMessage() );
+            getLogger().debug( "", e );
+        }
+        finally
+        {
+            IOUtil.close( writer );
+        }
+    }
+
+    /**
+     * Resolves the report file. A relative path is resolved against the execution root directory, without a path the
+     * report goes into the build directory of the top-level project.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @param path The configured path of the report, may be {@code null}.
+     * @param defaultName The file name of the report in the build directory, must not be {@code null}.
+     * @return The report file or {@code null} if no path is given and there is no top-level build directory.
+     */
+    protected static File getReportFile( MavenSession session, String path, String defaultName )
+    {
+        if ( path != null )
+        {
+            File file = new File( path );
+            if ( !file.isAbsolute() && session.getExecutionRootDirectory() != null )
+            {
+                file = new File( session.getExecutionRootDirectory(), path );
+            }
+            return file;
+        }
+
+        MavenProject topLevelProject = session.getTopLevelProject();
+        if ( topLevelProject == null || topLevelProject.getBuild() == null
+            || topLevelProject.getBuild().getDirectory() == null )
+        {
+            return null;
+        }
+        return new File( topLevelProject.getBuild().getDirectory(), defaultName );
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Map;
+
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Remembers the wall time of the projects and mojo executions of a reactor across invocations of Maven. The times
+ * returned by the query methods always stem from previous builds, the times recorded during the current build only
+ * become visible after they have been {@link #save(MavenSession) saved}.
+ *
+ * @since 3.3.2
+ */
+public interface BuildTimeHistory
+{
+
+    /**
+     * The name of the user/system property that enables the history, it is disabled by default.
+     */
+    String ENABLED_PROPERTY = "maven.buildTimes";
+
+    /**
+     * The name of the user/system property that specifies the directory in which the history files are stored. By
+     * default, this is the directory {@code build-times} in the user's Maven configuration directory {@code ~/.m2}.
+     */
+    String DIRECTORY_PROPERTY = "maven.buildTimes.directory";
+
+    /**
+     * Indicates whether the history is in use for the specified session.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @return {@code true} if build times are recorded and available for the session, {@code false} otherwise.
+     */
+    boolean isEnabled( MavenSession session );
+
+    /**
+     * Gets the build time of the specified project from previous builds.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @param project The project to get the build time for, must not be {@code null}.
+     * @return The build time in milliseconds or {@code -1} if unknown.
+     */
+    long getProjectTime( MavenSession session, MavenProject project );
+
+    /**
+     * Gets the build times of all projects of the reactor from previous builds.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @return The build times in milliseconds, keyed by {@code groupId:artifactId:version}, never {@code null}.
+     */
+    Map<String, Long> getProjectTimes( MavenSession session );
+
+    /**
+     * Gets the wall time of the specified mojo execution from previous builds.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @param project The project the mojo is executed for, must not be {@code null}.
+     * @param mojoExecution The mojo execution, must not be {@code null}.
+     * @return The execution time in milliseconds or {@code -1} if unknown.
+     */
+    long getMojoTime( MavenSession session, MavenProject project, MojoExecution mojoExecution );
+
+    /**
+     * Estimates the wall time of the reactor build from the project build times of previous builds. The build can
+     * neither finish before its longest chain of dependent projects nor before the available threads have done all the
+     * work.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @return The estimated build time in milliseconds or {@code -1} if no build times are known.
+     */
+    long getEstimatedBuildTime( MavenSession session );
+
+    /**
+     * Records the build time of the specified project.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @param project The project that has been built, must not be {@code null}.
+     * @param time The build time in milliseconds.
+     */
+    void recordProjectTime( MavenSession session, MavenProject project, long time );
+
+    /**
+     * Records the wall time of the specified mojo execution.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @param project The project the mojo has been executed for, must not be {@code null}.
+     * @param mojoExecution The mojo execution, must not be {@code null}.
+     * @param time The execution time in milliseconds.
+     */
+    void recordMojoTime( MavenSession session, MavenProject project, MojoExecution mojoExecution, long time );
+
+    /**
+     * Merges the times recorded during the session into the history and persists it.
+     *
+     * @param session The session that is about to end, must not be {@code null}.
+     */
+    void save( MavenSession session );
+
+}
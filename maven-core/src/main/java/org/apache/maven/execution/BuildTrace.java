@@ -0,0 +1,100 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.List;
+
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Records the timeline of a build in the Chrome trace event format, i.e. the file can be loaded into
+ * {@code chrome://tracing} or similar viewers. Each thread of the build gets its own track showing the spans of the
+ * projects it built and the mojo executions nested in them. Instant markers show when the completion of a project made
+ * other projects of the reactor available for building.
+ *
+ * @since 3.3.2
+ */
+public interface BuildTrace
+{
+
+    /**
+     * The name of the user/system property that enables the trace. The value is either the path of the trace file or
+     * {@code true} to write the file {@code build-trace.json} to the build directory of the top-level project.
+     */
+    String OUTPUT_PROPERTY = "maven.build.trace";
+
+    /**
+     * A span of the timeline that is still open.
+     */
+    interface Span
+    {
+
+        /**
+         * Closes the span. This method must be called from the same thread that opened the span.
+         */
+        void end();
+
+    }
+
+    /**
+     * Indicates whether the timeline of the specified session is recorded.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @return {@code true} if the trace is enabled, {@code false} otherwise.
+     */
+    boolean isEnabled( MavenSession session );
+
+    /**
+     * Opens a span for the build of the specified project on the calling thread.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @param project The project being built, must not be {@code null}.
+     * @return The span to end once the build of the project is over, never {@code null}.
+     */
+    Span beginProject( MavenSession session, MavenProject project );
+
+    /**
+     * Opens a span for the specified mojo execution on the calling thread.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @param mojoExecution The mojo execution, must not be {@code null}.
+     * @return The span to end once the execution is over, never {@code null}.
+     */
+    Span beginMojo( MavenSession session, MojoExecution mojoExecution );
+
+    /**
+     * Marks the moment the specified projects became available for building.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @param project The project whose completion released the other projects, may be {@code null} for the projects
+     *            that are available from the start.
+     * @param releasedProjects The projects that can now be built, must not be {@code null}.
+     */
+    void markReleased( MavenSession session, MavenProject project, List<MavenProject> releasedProjects );
+
+    /**
+     * Writes the trace of the session. Calling this method when the trace is disabled has no effect.
+     *
+     * @param session The session that is about to end, must not be {@code null}.
+     */
+    void write( MavenSession session );
+
+}
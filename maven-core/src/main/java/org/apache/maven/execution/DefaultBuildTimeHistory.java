@@ -0,0 +1,361 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.repository.RepositorySystem;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Stores the build times of a reactor in a properties file named after the top-level project. Times recorded for
+ * a project or mojo execution are averaged with the previously stored value to smooth out outliers.
+ *
+ * @since 3.3.2
+ */
+@Component( role = BuildTimeHistory.class )
+public class DefaultBuildTimeHistory
+    implements BuildTimeHistory
+{
+
+    private static final String PROJECT_PREFIX = "project.";
+
+    private static final String MOJO_PREFIX = "mojo.";
+
+    @Requirement
+    private Logger logger;
+
+    private final ConcurrentMap<File, History> histories = new ConcurrentHashMap<File, History>();
+
+    public boolean isEnabled( MavenSession session )
+    {
+        return Boolean.parseBoolean( ExecutionUtils.getProperty( session, ENABLED_PROPERTY ) );
+    }
+
+    public long getProjectTime( MavenSession session, MavenProject project )
+    {
+        History history = getHistory( session );
+        return ( history != null ) ? history.get( PROJECT_PREFIX + getKey( project ) ) : -1;
+    }
+
+    public Map<String, Long> getProjectTimes( MavenSession session )
+    {
+        Map<String, Long> times = new HashMap<String, Long>();
+
+        History history = getHistory( session );
+        if ( history != null )
+        {
+            for ( Map.Entry<String, Long> entry : history.previous.entrySet() )
+            {
+                if ( entry.getKey().startsWith( PROJECT_PREFIX ) )
+                {
+                    times.put( entry.getKey().substring( PROJECT_PREFIX.length() ), entry.getValue() );
+                }
+            }
+        }
+
+        return times;
+    }
+
+    public long getMojoTime( MavenSession session, MavenProject project, MojoExecution mojoExecution )
+    {
+        History history = getHistory( session );
+        return ( history != null ) ? history.get( getKey( project, mojoExecution ) ) : -1;
+    }
+
+    public long getEstimatedBuildTime( MavenSession session )
+    {
+        Map<String, Long> times = getProjectTimes( session );
+        if ( times.isEmpty() || session.getProjectDependencyGraph() == null )
+        {
+            return -1;
+        }
+
+        long criticalPath = getCriticalPath( session.getProjectDependencyGraph(), session.getProjects(), times );
+
+        long total = 0;
+        for ( MavenProject project : session.getProjects() )
+        {
+            Long time = times.get( getKey( project ) );
+            total += ( time != null ) ? time : 0;
+        }
+        int threads =
+            Math.max( 1, Math.min( session.getRequest().getDegreeOfConcurrency(), session.getProjects().size() ) );
+
+        return Math.max( criticalPath, total / threads );
+    }
+
+    /**
+     * Gets the build time of the longest chain of dependent projects, counting only projects with a known build time.
+     */
+    private static long getCriticalPath( ProjectDependencyGraph projectDependencyGraph, List<MavenProject> projects,
+                                         Map<String, Long> times )
+    {
+        Map<MavenProject, Long> paths = new IdentityHashMap<MavenProject, Long>();
+
+        long criticalPath = 0;
+        // the build order is a topological order, so walking it backwards visits every downstream project first
+        for ( ListIterator<MavenProject> it = projects.listIterator( projects.size() ); it.hasPrevious(); )
+        {
+            MavenProject project = it.previous();
+
+            long downstream = 0;
+            for ( MavenProject dependent : projectDependencyGraph.getDownstreamProjects( project, false ) )
+            {
+                Long path = paths.get( dependent );
+                if ( path != null && path > downstream )
+                {
+                    downstream = path;
+                }
+            }
+
+            Long time = times.get( getKey( project ) );
+            long path = ( ( time != null ) ? time : 0 ) + downstream;
+            paths.put( project, path );
+            criticalPath = Math.max( criticalPath, path );
+        }
+
+        return criticalPath;
+    }
+
+    public void recordProjectTime( MavenSession session, MavenProject project, long time )
+    {
+        History history = getHistory( session );
+        if ( history != null )
+        {
+            history.current.put( PROJECT_PREFIX + getKey( project ), time );
+        }
+    }
+
+    public void recordMojoTime( MavenSession session, MavenProject project, MojoExecution mojoExecution, long time )
+    {
+        History history = getHistory( session );
+        if ( history != null )
+        {
+            String key = getKey( project, mojoExecution );
+            // the same execution can run several times in a build, e.g. within forked lifecycles, possibly concurrently
+            while ( true )
+            {
+                Long previous = history.current.putIfAbsent( key, time );
+                if ( previous == null || history.current.replace( key, previous, previous + time ) )
+                {
+                    break;
+                }
+            }
+        }
+    }
+
+    public void save( MavenSession session )
+    {
+        File file = getHistoryFile( session );
+        if ( file == null )
+        {
+            return;
+        }
+
+        History history = histories.remove( file );
+        if ( history == null || history.current.isEmpty() )
+        {
+            return;
+        }
+
+        Properties props = new Properties();
+        for ( Map.Entry<String, Long> entry : history.previous.entrySet() )
+        {
+            props.setProperty( entry.getKey(), entry.getValue().toString() );
+        }
+        for ( Map.Entry<String, Long> entry : history.current.entrySet() )
+        {
+            long time = entry.getValue();
+            Long previous = history.previous.get( entry.getKey() );
+            if ( previous != null )
+            {
+                time = ( time + previous ) / 2;
+            }
+            props.setProperty( entry.getKey(), Long.toString( time ) );
+        }
+
+        File tmp = null;
+        OutputStream os = null;
+        try
+        {
+            file.getParentFile().mkdirs();
+
+            // a unique file in the same directory, concurrent builds of the reactor must not share it
+            tmp = File.createTempFile( file.getName() + '.', ".tmp", file.getParentFile() );
+
+            os = new FileOutputStream( tmp );
+            props.store( os, "Build times of " + session.getTopLevelProject().getBasedir() );
+            os.close();
+            os = null;
+
+            if ( !tmp.renameTo( file ) && !( file.delete() && tmp.renameTo( file ) ) )
+            {
+                throw new IOException( "Could not rename " + tmp + " to " + file );
+            }
+        }
+        catch ( IOException e )
+        {
+            logger.warn( "Failed to write build times to " + file + ": " + e.getMessage() );
+            logger.debug( "", e );
+        }
+        finally
+        {
+            IOUtil.close( os );
+            if ( tmp != null )
+            {
+                tmp.delete();
+            }
+        }
+    }
+
+    private History getHistory( MavenSession session )
+    {
+        if ( !isEnabled( session ) )
+        {
+            return null;
+        }
+
+        File file = getHistoryFile( session );
+        if ( file == null )
+        {
+            return null;
+        }
+
+        History history = histories.get( file );
+        if ( history == null )
+        {
+            history = new History( load( file ) );
+            History existing = histories.putIfAbsent( file, history );
+            if ( existing != null )
+            {
+                history = existing;
+            }
+        }
+        return history;
+    }
+
+    private Map<String, Long> load( File file )
+    {
+        Map<String, Long> times = new HashMap<String, Long>();
+
+        if ( file.isFile() )
+        {
+            Properties props = new Properties();
+            InputStream is = null;
+            try
+            {
+                is = new FileInputStream( file );
+                props.load( is );
+            }
+            catch ( IOException e )
+            {
+                logger.warn( "Failed to read build times from " + file + ": " + e.getMessage() );
+                logger.debug( "", e );
+            }
+            finally
+            {
+                IOUtil.close( is );
+            }
+
+            for ( String key : props.stringPropertyNames() )
+            {
+                try
+                {
+                    times.put( key, Long.valueOf( props.getProperty( key ) ) );
+                }
+                catch ( NumberFormatException e )
+                {
+                    logger.debug( "Ignoring invalid build time " + key + " in " + file );
+                }
+            }
+        }
+
+        return times;
+    }
+
+    private File getHistoryFile( MavenSession session )
+    {
+        MavenProject topLevelProject = session.getTopLevelProject();
+        if ( topLevelProject == null || topLevelProject.getBasedir() == null )
+        {
+            return null;
+        }
+
+        String directory = ExecutionUtils.getProperty( session, DIRECTORY_PROPERTY );
+        File basedir =
+            ( directory != null ) ? new File( directory )
+                            : new File( RepositorySystem.userMavenConfigurationHome, "build-times" );
+
+        String path = topLevelProject.getBasedir().getAbsolutePath();
+        return new File( basedir, topLevelProject.getArtifactId() + '-' + Integer.toHexString( path.hashCode() )
+            + ".properties" );
+    }
+
+    private static String getKey( MavenProject project )
+    {
+        return project.getGroupId() + ':' + project.getArtifactId() + ':' + project.getVersion();
+    }
+
+    private static String getKey( MavenProject project, MojoExecution mojoExecution )
+    {
+        return MOJO_PREFIX + getKey( project ) + '/' + mojoExecution.getArtifactId() + ':'
+            + mojoExecution.getGoal() + '@' + mojoExecution.getExecutionId();
+    }
+
+    static class History
+    {
+
+        final Map<String, Long> previous;
+
+        final ConcurrentMap<String, Long> current = new ConcurrentHashMap<String, Long>();
+
+        History( Map<String, Long> previous )
+        {
+            this.previous = previous;
+        }
+
+        long get( String key )
+        {
+            Long time = previous.get( key );
+            return ( time != null ) ? time : -1;
+        }
+
+    }
+
+}
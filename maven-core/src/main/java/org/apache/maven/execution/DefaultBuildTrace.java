@@ -0,0 +1,288 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.logging.Logger;
+
+/**
+ * Collects the trace events of a session in memory and writes them when the session ends. Spans are recorded as
+ * complete events ({@code "ph": "X"}) so a project or mojo that ends abnormally still shows up with its duration.
+ *
+ * @since 3.3.2
+ */
+@Component( role = BuildTrace.class )
+public class DefaultBuildTrace
+    extends AbstractSessionRecorder<DefaultBuildTrace.Trace>
+    implements BuildTrace
+{
+
+    private static final String DEFAULT_OUTPUT = "build-trace.json";
+
+    private static final Span NO_SPAN = new Span()
+    {
+        public void end()
+        {
+        }
+    };
+
+    @Requirement
+    private Logger logger;
+
+    public boolean isEnabled( MavenSession session )
+    {
+        String value = ExecutionUtils.getProperty( session, OUTPUT_PROPERTY );
+        return value != null && value.length() > 0 && !"false".equalsIgnoreCase( value );
+    }
+
+    @Override
+    protected Logger getLogger()
+    {
+        return logger;
+    }
+
+    @Override
+    protected Trace newRecording()
+    {
+        return new Trace();
+    }
+
+    @Override
+    protected void write( Writer writer, Trace trace )
+        throws IOException
+    {
+        trace.write( writer );
+    }
+
+    public Span beginProject( MavenSession session, MavenProject project )
+    {
+        Trace trace = getTrace( session );
+        if ( trace == null )
+        {
+            return NO_SPAN;
+        }
+        return new TraceSpan( trace, "project", project.getArtifactId(), "{\"id\": "
+            + ExecutionUtils.quote( getKey( project ) ) + "}" );
+    }
+
+    public Span beginMojo( MavenSession session, MojoExecution mojoExecution )
+    {
+        Trace trace = getTrace( session );
+        if ( trace == null )
+        {
+            return NO_SPAN;
+        }
+        String name =
+            mojoExecution.getArtifactId() + ':' + mojoExecution.getGoal() + " (" + mojoExecution.getExecutionId() + ')';
+        MavenProject project = session.getCurrentProject();
+        return new TraceSpan( trace, "mojo", name, "{\"project\": "
+            + ExecutionUtils.quote( ( project != null ) ? getKey( project ) : null ) + ", \"version\": "
+            + ExecutionUtils.quote( mojoExecution.getVersion() ) + "}" );
+    }
+
+    public void markReleased( MavenSession session, MavenProject project, List<MavenProject> releasedProjects )
+    {
+        Trace trace = getTrace( session );
+        if ( trace == null || releasedProjects.isEmpty() )
+        {
+            return;
+        }
+
+        StringBuilder args = new StringBuilder( 128 );
+        String key = ( project != null ) ? getKey( project ) : null;
+        args.append( "{\"project\": " ).append( ExecutionUtils.quote( key ) );
+        args.append( ", \"released\": [" );
+        for ( int i = 0; i < releasedProjects.size(); i++ )
+        {
+            if ( i > 0 )
+            {
+                args.append( ", " );
+            }
+            args.append( ExecutionUtils.quote( getKey( releasedProjects.get( i ) ) ) );
+        }
+        args.append( "]}" );
+
+        int count = releasedProjects.size();
+        String name = "release " + count + ( count == 1 ? " project" : " projects" );
+        trace.add( new Event( "i", "scheduling", name, trace.now(), 0, args.toString() ) );
+    }
+
+    public void write( MavenSession session )
+    {
+        Trace trace = removeRecording( session );
+        if ( trace == null )
+        {
+            return;
+        }
+
+        String path = ExecutionUtils.getProperty( session, OUTPUT_PROPERTY );
+        File file = getReportFile( session, "true".equalsIgnoreCase( path ) ? null : path, DEFAULT_OUTPUT );
+        if ( file == null )
+        {
+            logger.warn( "Could not determine the file to write the build trace to, please specify a path via -D"
+                + OUTPUT_PROPERTY );
+            return;
+        }
+
+        writeReport( file, trace, "Build trace" );
+    }
+
+    private Trace getTrace( MavenSession session )
+    {
+        return isEnabled( session ) ? getRecording( session ) : null;
+    }
+
+    private static String getKey( MavenProject project )
+    {
+        return project.getGroupId() + ':' + project.getArtifactId() + ':' + project.getVersion();
+    }
+
+    static class Trace
+    {
+
+        private final long start = System.nanoTime();
+
+        private final List<Event> events = new ArrayList<Event>( 256 );
+
+        private final Map<Long, String> threads = new TreeMap<Long, String>();
+
+        /**
+         * Gets the current time in microseconds since the start of the trace, the unit used by the trace format.
+         */
+        long now()
+        {
+            return ( System.nanoTime() - start ) / 1000;
+        }
+
+        synchronized void add( Event event )
+        {
+            events.add( event );
+            threads.put( event.tid, Thread.currentThread().getName() );
+        }
+
+        synchronized void write( Writer writer )
+            throws IOException
+        {
+            writer.write( "{\"displayTimeUnit\": \"ms\", \"traceEvents\": [\n" );
+            writer.write( "{\"name\": \"process_name\", \"ph\": \"M\", \"pid\": 1, \"tid\": 0, \"args\": "
+                + "{\"name\": \"Maven\"}}" );
+            for ( Map.Entry<Long, String> thread : threads.entrySet() )
+            {
+                writer.write( ",\n{\"name\": \"thread_name\", \"ph\": \"M\", \"pid\": 1, \"tid\": " + thread.getKey()
+                    + ", \"args\": {\"name\": " + ExecutionUtils.quote( thread.getValue() ) + "}}" );
+            }
+            for ( Event event : events )
+            {
+                writer.write( ",\n" );
+                event.write( writer );
+            }
+            writer.write( "\n]}\n" );
+        }
+
+    }
+
+    static class Event
+    {
+
+        final String phase;
+
+        final String category;
+
+        final String name;
+
+        final long tid = Thread.currentThread().getId();
+
+        final long timestamp;
+
+        final long duration;
+
+        final String args;
+
+        Event( String phase, String category, String name, long timestamp, long duration, String args )
+        {
+            this.phase = phase;
+            this.category = category;
+            this.name = name;
+            this.timestamp = timestamp;
+            this.duration = duration;
+            this.args = args;
+        }
+
+        void write( Writer writer )
+            throws IOException
+        {
+            writer.write( "{\"name\": " + ExecutionUtils.quote( name ) + ", \"cat\": \"" + category
+                + "\", \"ph\": \"" + phase + "\", \"pid\": 1, \"tid\": " + tid + ", \"ts\": " + timestamp );
+            if ( "X".equals( phase ) )
+            {
+                writer.write( ", \"dur\": " + duration );
+            }
+            else
+            {
+                // global scope draws the marker across all threads
+                writer.write( ", \"s\": \"g\"" );
+            }
+            writer.write( ", \"args\": " + args + "}" );
+        }
+
+    }
+
+    static class TraceSpan
+        implements Span
+    {
+
+        private final Trace trace;
+
+        private final String category;
+
+        private final String name;
+
+        private final String args;
+
+        private final long start;
+
+        TraceSpan( Trace trace, String category, String name, String args )
+        {
+            this.trace = trace;
+            this.category = category;
+            this.name = name;
+            this.args = args;
+            this.start = trace.now();
+        }
+
+        public void end()
+        {
+            trace.add( new Event( "X", category, name, start, trace.now() - start, args ) );
+        }
+
+    }
+
+}
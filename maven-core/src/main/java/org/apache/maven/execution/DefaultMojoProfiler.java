@@ -0,0 +1,440 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.logging.Logger;
+
+/**
+ * Collects the measurements of a session in memory and reports them when the session ends. The CPU time and the
+ * allocated bytes are taken from the {@link ThreadMXBean} of the JVM, the latter is only available on JVMs that
+ * provide {@code com.sun.management.ThreadMXBean}.
+ *
+ * @since 3.3.2
+ */
+@Component( role = MojoProfiler.class )
+public class DefaultMojoProfiler
+    extends AbstractSessionRecorder<DefaultMojoProfiler.Profile>
+    implements MojoProfiler
+{
+
+    private static final String DEFAULT_OUTPUT = "mojo-profile.json";
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private static final Measurement NO_MEASUREMENT = new Measurement()
+    {
+        public void stop()
+        {
+        }
+    };
+
+    @Requirement
+    private Logger logger;
+
+    public boolean isEnabled( MavenSession session )
+    {
+        return Boolean.parseBoolean( ExecutionUtils.getProperty( session, ENABLED_PROPERTY ) );
+    }
+
+    @Override
+    protected Logger getLogger()
+    {
+        return logger;
+    }
+
+    @Override
+    protected Profile newRecording()
+    {
+        return new Profile();
+    }
+
+    public Measurement start( MavenSession session, MojoExecution mojoExecution, Phase phase )
+    {
+        if ( !isEnabled( session ) )
+        {
+            return NO_MEASUREMENT;
+        }
+
+        Profile profile = getRecording( session );
+
+        return new Sample( profile, profile.getRecord( session.getCurrentProject(), mojoExecution ), phase );
+    }
+
+    public void report( MavenSession session )
+    {
+        Profile profile = removeRecording( session );
+        if ( profile == null )
+        {
+            return;
+        }
+
+        logTable( profile.getRecords() );
+
+        File file = getReportFile( session, ExecutionUtils.getProperty( session, OUTPUT_PROPERTY ), DEFAULT_OUTPUT );
+        if ( file != null )
+        {
+            writeReport( file, profile, "Mojo profile" );
+        }
+    }
+
+    private void logTable( List<Record> records )
+    {
+        logger.info( "Mojo profile (wall and CPU times in ms, allocations in KB):" );
+        logger.info( String.format( "%9s %9s %9s %9s %9s %11s  %s", "resolve", "realm", "config", "execute", "cpu",
+                                    "alloc", "mojo" ) );
+
+        long[] totals = new long[PHASES.length + 2];
+        for ( Record record : records )
+        {
+            long[] row = record.getRow();
+            for ( int i = 0; i < row.length; i++ )
+            {
+                totals[i] += Math.max( 0, row[i] );
+            }
+            logger.info( formatRow( row, record.mojo + " (" + record.executionId + ") @ " + record.project ) );
+        }
+        logger.info( formatRow( totals, "total" ) );
+    }
+
+    private static String formatRow( long[] row, String label )
+    {
+        StringBuilder buffer = new StringBuilder( 128 );
+        for ( int i = 0; i < PHASES.length + 1; i++ )
+        {
+            buffer.append( String.format( "%9s ", format( row[i], 1000 * 1000 ) ) );
+        }
+        buffer.append( String.format( "%11s  ", format( row[PHASES.length + 1], 1024 ) ) );
+        buffer.append( label );
+        return buffer.toString();
+    }
+
+    private static String format( long value, long unit )
+    {
+        return ( value < 0 ) ? "n/a" : Long.toString( value / unit );
+    }
+
+    @Override
+    protected void write( Writer writer, Profile profile )
+        throws IOException
+    {
+        List<Record> records = profile.getRecords();
+
+        writer.write( "{\n" );
+        writer.write( "  \"startTime\": " + profile.startTime + ",\n" );
+        writer.write( "  \"cpuTimeSupported\": " + ThreadResources.isCpuTimeSupported() + ",\n" );
+        writer.write( "  \"allocatedBytesSupported\": " + ThreadResources.isAllocatedBytesSupported() + ",\n" );
+
+        writer.write( "  \"mojos\": [" );
+        for ( int i = 0; i < records.size(); i++ )
+        {
+            Record record = records.get( i );
+            writer.write( ( i > 0 ) ? ",\n    {" : "\n    {" );
+            writer.write( "\"project\": " + ExecutionUtils.quote( record.project ) );
+            writer.write( ", \"mojo\": " + ExecutionUtils.quote( record.mojo ) );
+            writer.write( ", \"executionId\": " + ExecutionUtils.quote( record.executionId ) );
+            writer.write( ", \"thread\": " + ExecutionUtils.quote( record.thread ) );
+            writer.write( ", \"start\": " + record.start );
+            writer.write( ", \"executions\": " + record.executions );
+            for ( Phase phase : PHASES )
+            {
+                writer.write( ", \"" + phase.name().toLowerCase( Locale.ENGLISH ) + "\": " );
+                writeTimes( writer, record.times[phase.ordinal()] );
+            }
+            writer.write( "}" );
+        }
+        writer.write( "\n  ],\n" );
+
+        writer.write( "  \"threads\": [" );
+        int i = 0;
+        for ( Map.Entry<String, long[]> entry : profile.getThreads().entrySet() )
+        {
+            writer.write( ( i++ > 0 ) ? ",\n    {" : "\n    {" );
+            writer.write( "\"name\": " + ExecutionUtils.quote( entry.getKey() ) + ", \"times\": " );
+            writeTimes( writer, entry.getValue() );
+            writer.write( "}" );
+        }
+        writer.write( "\n  ]\n" );
+        writer.write( "}\n" );
+    }
+
+    private static void writeTimes( Writer writer, long[] times )
+        throws IOException
+    {
+        writer.write( "{\"wallNanos\": " + times[0] + ", \"cpuNanos\": " + times[1] + ", \"allocatedBytes\": "
+            + times[2] + "}" );
+    }
+
+    static class Profile
+    {
+
+        final long startTime = System.currentTimeMillis();
+
+        private final ConcurrentMap<String, Record> records = new ConcurrentHashMap<String, Record>();
+
+        private final Map<String, long[]> threads = new TreeMap<String, long[]>();
+
+        Record getRecord( MavenProject project, MojoExecution mojoExecution )
+        {
+            String projectKey =
+                ( project != null ) ? project.getGroupId() + ':' + project.getArtifactId() + ':'
+                    + project.getVersion() : "";
+            String mojoKey =
+                mojoExecution.getGroupId() + ':' + mojoExecution.getArtifactId() + ':' + mojoExecution.getVersion()
+                    + ':' + mojoExecution.getGoal();
+            String key = projectKey + '/' + mojoKey + '@' + mojoExecution.getExecutionId();
+
+            Record record = records.get( key );
+            if ( record == null )
+            {
+                record =
+                    new Record( projectKey, mojoKey, mojoExecution.getExecutionId(),
+                                System.currentTimeMillis() - startTime );
+                Record existing = records.putIfAbsent( key, record );
+                if ( existing != null )
+                {
+                    record = existing;
+                }
+            }
+            return record;
+        }
+
+        synchronized void addThreadTimes( String thread, long wall, long cpu, long bytes )
+        {
+            long[] times = threads.get( thread );
+            if ( times == null )
+            {
+                times = new long[3];
+                threads.put( thread, times );
+            }
+            add( times, wall, cpu, bytes );
+        }
+
+        synchronized Map<String, long[]> getThreads()
+        {
+            return new TreeMap<String, long[]>( threads );
+        }
+
+        List<Record> getRecords()
+        {
+            List<Record> result = new ArrayList<Record>( records.values() );
+            Collections.sort( result, new Comparator<Record>()
+            {
+                public int compare( Record r1, Record r2 )
+                {
+                    return ( r1.start < r2.start ) ? -1 : ( ( r1.start == r2.start ) ? 0 : 1 );
+                }
+            } );
+            return result;
+        }
+
+    }
+
+    static class Record
+    {
+
+        final String project;
+
+        final String mojo;
+
+        final String executionId;
+
+        final long start;
+
+        volatile String thread;
+
+        volatile int executions;
+
+        final long[][] times = new long[PHASES.length][3];
+
+        Record( String project, String mojo, String executionId, long start )
+        {
+            this.project = project;
+            this.mojo = mojo;
+            this.executionId = executionId;
+            this.start = start;
+        }
+
+        synchronized void add( Phase phase, String thread, long wall, long cpu, long bytes )
+        {
+            DefaultMojoProfiler.add( times[phase.ordinal()], wall, cpu, bytes );
+            if ( phase == Phase.EXECUTION )
+            {
+                this.thread = thread;
+                executions++;
+            }
+        }
+
+        /**
+         * Gets the wall times of the phases followed by the total CPU time and the total allocated bytes.
+         */
+        synchronized long[] getRow()
+        {
+            long[] row = new long[PHASES.length + 2];
+            for ( int i = 0; i < PHASES.length; i++ )
+            {
+                row[i] = times[i][0];
+                row[PHASES.length] += times[i][1];
+                row[PHASES.length + 1] += times[i][2];
+            }
+            return row;
+        }
+
+    }
+
+    static void add( long[] times, long wall, long cpu, long bytes )
+    {
+        times[0] += wall;
+        times[1] = ( cpu < 0 || times[1] < 0 ) ? -1 : times[1] + cpu;
+        times[2] = ( bytes < 0 || times[2] < 0 ) ? -1 : times[2] + bytes;
+    }
+
+    static class Sample
+        implements Measurement
+    {
+
+        private final Profile profile;
+
+        private final Record record;
+
+        private final Phase phase;
+
+        private final long wall;
+
+        private final long cpu;
+
+        private final long bytes;
+
+        Sample( Profile profile, Record record, Phase phase )
+        {
+            this.profile = profile;
+            this.record = record;
+            this.phase = phase;
+            this.wall = System.nanoTime();
+            this.cpu = ThreadResources.getCpuTime();
+            this.bytes = ThreadResources.getAllocatedBytes();
+        }
+
+        public void stop()
+        {
+            long wallTime = System.nanoTime() - wall;
+            long cpuTime = delta( cpu, ThreadResources.getCpuTime() );
+            long allocatedBytes = delta( bytes, ThreadResources.getAllocatedBytes() );
+            String thread = Thread.currentThread().getName();
+
+            record.add( phase, thread, wallTime, cpuTime, allocatedBytes );
+            profile.addThreadTimes( thread, wallTime, cpuTime, allocatedBytes );
+        }
+
+        private static long delta( long start, long end )
+        {
+            return ( start < 0 || end < 0 ) ? -1 : end - start;
+        }
+
+    }
+
+    static class ThreadResources
+    {
+
+        private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+        private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported();
+
+        private static final Method ALLOCATED_BYTES = findAllocatedBytesMethod();
+
+        private static Method findAllocatedBytesMethod()
+        {
+            try
+            {
+                Class<?> type = Class.forName( "com.sun.management.ThreadMXBean" );
+                if ( type.isInstance( THREADS ) )
+                {
+                    Method method = type.getMethod( "getThreadAllocatedBytes", long.class );
+                    Object bytes = method.invoke( THREADS, Thread.currentThread().getId() );
+                    if ( bytes instanceof Long && (Long) bytes >= 0 )
+                    {
+                        return method;
+                    }
+                }
+            }
+            catch ( Exception e )
+            {
+                // not supported by this JVM
+            }
+            catch ( LinkageError e )
+            {
+                // not supported by this JVM
+            }
+            return null;
+        }
+
+        static boolean isCpuTimeSupported()
+        {
+            return CPU_TIME;
+        }
+
+        static boolean isAllocatedBytesSupported()
+        {
+            return ALLOCATED_BYTES != null;
+        }
+
+        static long getCpuTime()
+        {
+            return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : -1;
+        }
+
+        static long getAllocatedBytes()
+        {
+            if ( ALLOCATED_BYTES == null )
+            {
+                return -1;
+            }
+            try
+            {
+                return (Long) ALLOCATED_BYTES.invoke( THREADS, Thread.currentThread().getId() );
+            }
+            catch ( Exception e )
+            {
+                return -1;
+            }
+        }
+
+    }
+
+}
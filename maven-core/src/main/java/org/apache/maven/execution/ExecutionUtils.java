@@ -0,0 +1,106 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Properties;
+
+/**
+ * Helpers shared by the optional build features that are configured via user/system properties and by the reports
+ * they write.
+ *
+ * @since 3.3.2
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+public final class ExecutionUtils
+{
+
+    private ExecutionUtils()
+    {
+        // hide constructor
+    }
+
+    /**
+     * Gets the value of the specified property, looking at the user properties of the session before its system
+     * properties.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @param key The name of the property, must not be {@code null}.
+     * @return The value of the property or {@code null} if not set.
+     */
+    public static String getProperty( MavenSession session, String key )
+    {
+        return getProperty( session.getUserProperties(), session.getSystemProperties(), key );
+    }
+
+    /**
+     * Gets the value of the specified property, looking at the user properties before the system properties.
+     *
+     * @param userProperties The user properties, must not be {@code null}.
+     * @param systemProperties The system properties, must not be {@code null}.
+     * @param key The name of the property, must not be {@code null}.
+     * @return The value of the property or {@code null} if not set.
+     */
+    public static String getProperty( Properties userProperties, Properties systemProperties, String key )
+    {
+        String value = userProperties.getProperty( key );
+        if ( value == null )
+        {
+            value = systemProperties.getProperty( key );
+        }
+        return value;
+    }
+
+    /**
+     * Quotes the specified string for use as a JSON string literal.
+     *
+     * @param value The string to quote, may be {@code null}.
+     * @return The quoted string or {@code null} as JSON literal, never {@code null}.
+     */
+    public static String quote( String value )
+    {
+        if ( value == null )
+        {
+            return "null";
+        }
+
+        StringBuilder buffer = new StringBuilder( value.length() + 2 );
+        buffer.append( '"' );
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            char c = value.charAt( i );
+            if ( c == '"' || c == '\\' )
+            {
+                buffer.append( '\\' ).append( c );
+            }
+            else if ( c < 0x20 )
+            {
+                buffer.append( String.format( "\\u%04x", (int) c ) );
+            }
+            else
+            {
+                buffer.append( c );
+            }
+        }
+        buffer.append( '"' );
+        return buffer.toString();
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.MojoExecution;
+
+/**
+ * Measures where the time of mojo executions goes. Each execution is split into the resolution of the project
+ * dependencies, the setup of the plugin realm, the configuration of the mojo and its actual execution. For each of
+ * these phases, the wall time, the CPU time and the bytes allocated by the executing thread are recorded. A summary
+ * is logged and written to a JSON file when the session ends.
+ *
+ * @since 3.3.2
+ */
+public interface MojoProfiler
+{
+
+    /**
+     * The name of the user/system property that enables the profiler.
+     */
+    String ENABLED_PROPERTY = "maven.build.profile";
+
+    /**
+     * The name of the user/system property that specifies the path of the JSON report. By default, the report is
+     * written to the file {@code mojo-profile.json} in the build directory of the top-level project.
+     */
+    String OUTPUT_PROPERTY = "maven.build.profile.output";
+
+    /**
+     * The phases of a mojo execution that are measured separately.
+     */
+    enum Phase
+    {
+        RESOLUTION, REALM, CONFIGURATION, EXECUTION
+    }
+
+    /**
+     * A running measurement of a phase.
+     */
+    interface Measurement
+    {
+
+        /**
+         * Stops the measurement and adds it to the profile of the mojo execution. This method must be called from
+         * the same thread that started the measurement.
+         */
+        void stop();
+
+    }
+
+    /**
+     * Indicates whether mojo executions are profiled for the specified session.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @return {@code true} if the profiler is enabled, {@code false} otherwise.
+     */
+    boolean isEnabled( MavenSession session );
+
+    /**
+     * Starts measuring a phase of the specified mojo execution for the current project of the session on the calling
+     * thread.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @param mojoExecution The mojo execution, must not be {@code null}.
+     * @param phase The phase of the execution, must not be {@code null}.
+     * @return The measurement to stop once the phase has completed, never {@code null}.
+     */
+    Measurement start( MavenSession session, MojoExecution mojoExecution, Phase phase );
+
+    /**
+     * Logs and writes the profile of the session. Calling this method when the profiler is disabled has no effect.
+     *
+     * @param session The session that is about to end, must not be {@code null}.
+     */
+    void report( MavenSession session );
+
+}
@@ -20,10 +20,11 @@
  */
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import org.apache.maven.execution.ProjectDependencyGraph;
 import org.apache.maven.project.DuplicateProjectException;
@@ -32,7 +33,9 @@
 import org.codehaus.plexus.util.dag.CycleDetectedException;
 
 /**
- * Describes the inter-dependencies between projects in the reactor.
+ * Describes the inter-dependencies between projects in the reactor. The projects are numbered by their position in
+ * the build order and the dependencies are kept as arrays of these numbers, so queries for the direct neighbours of a
+ * project are proportional to the number of neighbours rather than to the size of the reactor.
  *
  * @author Benjamin Bentmann
  */
@@ -40,8 +43,18 @@
     implements ProjectDependencyGraph
 {
 
+    private static final int[] NO_EDGES = new int[0];
+
     private ProjectSorter sorter;
 
+    private final MavenProject[] projects;
+
+    private final Map<String, Integer> indices;
+
+    private final int[][] upstream;
+
+    private final int[][] downstream;
+
     /**
      * Creates a new project dependency graph based on the specified projects.
      *
@@ -53,76 +66,115 @@ public DefaultProjectDependencyGraph( Collection<MavenProject> projects )
         throws CycleDetectedException, DuplicateProjectException
     {
         this.sorter = new ProjectSorter( projects );
-    }
 
-    public List<MavenProject> getSortedProjects()
-    {
-        return new ArrayList<MavenProject>( sorter.getSortedProjects() );
-    }
+        List<MavenProject> sortedProjects = sorter.getSortedProjects();
+        this.projects = sortedProjects.toArray( new MavenProject[sortedProjects.size()] );
 
-    public List<MavenProject> getDownstreamProjects( MavenProject project, boolean transitive )
-    {
-        if ( project == null )
+        this.indices = new HashMap<String, Integer>( this.projects.length * 2 );
+        for ( int i = 0; i < this.projects.length; i++ )
         {
-            throw new IllegalArgumentException( "project missing" );
+            indices.put( ProjectSorter.getId( this.projects[i] ), i );
         }
 
-        Set<String> projectIds = new HashSet<String>();
-
-        getDownstreamProjects( ProjectSorter.getId( project ), projectIds, transitive );
-
-        return getSortedProjects( projectIds );
+        this.upstream = new int[this.projects.length][];
+        this.downstream = new int[this.projects.length][];
+        for ( int i = 0; i < this.projects.length; i++ )
+        {
+            String id = ProjectSorter.getId( this.projects[i] );
+            upstream[i] = toIndices( sorter.getDependencies( id ) );
+            downstream[i] = toIndices( sorter.getDependents( id ) );
+        }
     }
 
-    private void getDownstreamProjects( String projectId, Set<String> projectIds, boolean transitive )
+    private int[] toIndices( List<String> ids )
     {
-        for ( String id : sorter.getDependents( projectId ) )
+        if ( ids.isEmpty() )
         {
-            if ( projectIds.add( id ) && transitive )
+            return NO_EDGES;
+        }
+
+        int[] result = new int[ids.size()];
+        int n = 0;
+        for ( String id : ids )
+        {
+            Integer index = indices.get( id );
+            if ( index != null )
             {
-                getDownstreamProjects( id, projectIds, transitive );
+                result[n++] = index;
             }
         }
+        result = ( n < result.length ) ? Arrays.copyOf( result, n ) : result;
+        Arrays.sort( result );
+        return result;
+    }
+
+    public List<MavenProject> getSortedProjects()
+    {
+        return new ArrayList<MavenProject>( Arrays.asList( projects ) );
+    }
+
+    public List<MavenProject> getDownstreamProjects( MavenProject project, boolean transitive )
+    {
+        return getProjects( project, downstream, transitive );
     }
 
     public List<MavenProject> getUpstreamProjects( MavenProject project, boolean transitive )
+    {
+        return getProjects( project, upstream, transitive );
+    }
+
+    private List<MavenProject> getProjects( MavenProject project, int[][] edges, boolean transitive )
     {
         if ( project == null )
         {
             throw new IllegalArgumentException( "project missing" );
         }
 
-        Set<String> projectIds = new HashSet<String>();
-
-        getUpstreamProjects( ProjectSorter.getId( project ), projectIds, transitive );
+        Integer index = indices.get( ProjectSorter.getId( project ) );
+        if ( index == null )
+        {
+            return new ArrayList<MavenProject>();
+        }
 
-        return getSortedProjects( projectIds );
-    }
+        int[] neighbours = edges[index];
+        if ( transitive )
+        {
+            neighbours = getClosure( index, edges );
+        }
 
-    private void getUpstreamProjects( String projectId, Collection<String> projectIds, boolean transitive )
-    {
-        for ( String id : sorter.getDependencies( projectId ) )
+        List<MavenProject> result = new ArrayList<MavenProject>( neighbours.length );
+        for ( int neighbour : neighbours )
         {
-            if ( projectIds.add( id ) && transitive )
-            {
-                getUpstreamProjects( id, projectIds, transitive );
-            }
+            result.add( projects[neighbour] );
         }
+        return result;
     }
 
-    private List<MavenProject> getSortedProjects( Set<String> projectIds )
+    private int[] getClosure( int index, int[][] edges )
     {
-        List<MavenProject> result = new ArrayList<MavenProject>( projectIds.size() );
-
-        for ( MavenProject mavenProject : sorter.getSortedProjects() )
+        boolean[] visited = new boolean[projects.length];
+        int[] queue = new int[projects.length];
+        int head = 0;
+        int tail = 0;
+
+        visited[index] = true;
+        queue[tail++] = index;
+        while ( head < tail )
         {
-            if ( projectIds.contains( ProjectSorter.getId( mavenProject ) ) )
+            for ( int neighbour : edges[queue[head++]] )
             {
-                result.add( mavenProject );
+                if ( !visited[neighbour] )
+                {
+                    visited[neighbour] = true;
+                    queue[tail++] = neighbour;
+                }
             }
         }
 
-        return result;
+        // the queue holds the project itself at its head, followed by the projects reachable from it
+        int[] closure = Arrays.copyOfRange( queue, 1, tail );
+        Arrays.sort( closure );
+        return closure;
     }
 
     @Override
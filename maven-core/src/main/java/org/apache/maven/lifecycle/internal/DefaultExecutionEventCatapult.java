@@ -19,11 +19,18 @@
  * under the License.
  */
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.execution.BuildTimeHistory;
+import org.apache.maven.execution.BuildTrace;
 import org.apache.maven.execution.ExecutionEvent;
 import org.apache.maven.execution.ExecutionListener;
 import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.MojoProfiler;
 import org.apache.maven.plugin.MojoExecution;
 import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
 
 /**
  * Assists in firing execution events. <strong>Warning:</strong> This is an internal utility class that is only public
@@ -37,6 +44,17 @@
     implements ExecutionEventCatapult
 {
 
+    @Requirement
+    private BuildTimeHistory buildTimeHistory;
+
+    @Requirement
+    private MojoProfiler mojoProfiler;
+
+    @Requirement
+    private BuildTrace buildTrace;
+
+    private final Map<MojoExecution, Long> mojoStartTimes = new ConcurrentHashMap<MojoExecution, Long>();
+
     public void fire( ExecutionEvent.Type eventType, MavenSession session, MojoExecution mojoExecution )
     {
         fire( eventType, session, mojoExecution, null );
@@ -45,6 +63,11 @@ public void fire( ExecutionEvent.Type eventType, MavenSession session, MojoExecu
     public void fire( ExecutionEvent.Type eventType, MavenSession session, MojoExecution mojoExecution,
                       Exception exception )
     {
+        if ( mojoExecution != null )
+        {
+            recordMojoTime( eventType, session, mojoExecution );
+        }
+
         ExecutionListener listener = session.getRequest().getExecutionListener();
 
         if ( listener != null )
@@ -114,6 +137,36 @@ public void fire( ExecutionEvent.Type eventType, MavenSession session, MojoExecu
                     throw new IllegalStateException( "Unknown execution event type " + eventType );
             }
         }
+
+        if ( eventType == ExecutionEvent.Type.SessionEnded )
+        {
+            // after the listeners, so the reports follow the reactor summary
+            mojoProfiler.report( session );
+            buildTrace.write( session );
+        }
+    }
+
+    private void recordMojoTime( ExecutionEvent.Type eventType, MavenSession session, MojoExecution mojoExecution )
+    {
+        switch ( eventType )
+        {
+            case MojoStarted:
+                mojoStartTimes.put( mojoExecution, System.currentTimeMillis() );
+                break;
+            case MojoSucceeded:
+                Long startTime = mojoStartTimes.remove( mojoExecution );
+                if ( startTime != null && session.getCurrentProject() != null )
+                {
+                    buildTimeHistory.recordMojoTime( session, session.getCurrentProject(), mojoExecution,
+                                                     System.currentTimeMillis() - startTime );
+                }
+                break;
+            case MojoFailed:
+                mojoStartTimes.remove( mojoExecution );
+                break;
+            default:
+                break;
+        }
     }
 
 }
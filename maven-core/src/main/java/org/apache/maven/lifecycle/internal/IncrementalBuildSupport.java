@@ -0,0 +1,458 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.ExecutionUtils;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.lifecycle.DefaultLifecycles;
+import org.apache.maven.lifecycle.Lifecycle;
+import org.apache.maven.lifecycle.internal.builder.BuilderCommon;
+import org.apache.maven.model.Resource;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.MavenProjectHelper;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Skips the lifecycle of projects whose inputs did not change since their last successful build. The inputs of a
+ * project are summarized by a fingerprint over its effective POM, the user properties, the planned mojo executions,
+ * the files in its base directory (except the build directory, hidden directories and nested projects), its source and
+ * resource directories and filter files located elsewhere and the fingerprints of its upstream projects. Files are
+ * compared by size and modification time. After a successful build, the fingerprint is recorded in the build directory
+ * of the project along with the produced artifacts, which are attached again when a later build finds the project up
+ * to date.
+ * <p>
+ * Only build plans whose mojos are all bound to lifecycle phases before {@code install} are skipped. Goals invoked
+ * directly and the phases that update external targets like the local repository or a remote site are always
+ * executed, as are plans of the clean lifecycle.
+ *
+ * @since 3.3.2
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+@Component( role = IncrementalBuildSupport.class )
+public class IncrementalBuildSupport
+{
+
+    /**
+     * The name of the user/system property that enables the incremental build.
+     */
+    public static final String ENABLED_PROPERTY = "maven.build.incremental";
+
+    private static final String FINGERPRINT_KEY = IncrementalBuildSupport.class.getName() + ".fingerprint";
+
+    private static final String STATE_FILE = "maven-status/incremental-build.properties";
+
+    /**
+     * The lifecycle phases that update targets outside of the project, which the recorded state cannot vouch for.
+     */
+    private static final List<String> EXTERNAL_PHASES = Arrays.asList( "install", "deploy", "site-deploy" );
+
+    @Requirement
+    private Logger logger;
+
+    @Requirement
+    private DefaultLifecycles defaultLifecycles;
+
+    @Requirement
+    private MavenProjectHelper projectHelper;
+
+    public boolean isEnabled( MavenSession session )
+    {
+        return Boolean.parseBoolean( ExecutionUtils.getProperty( session, ENABLED_PROPERTY ) );
+    }
+
+    /**
+     * Checks whether the specified project is up to date. If so, the artifacts from the previous build are attached to
+     * the project and the lifecycle phases of the given mojo executions are marked as executed, i.e. the caller can
+     * skip the execution of the project's build plan.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @param project The project about to be built, must not be {@code null}.
+     * @param mojoExecutions The build plan of the project, must not be {@code null}.
+     * @return {@code true} if the project is up to date, {@code false} if it needs to be built.
+     */
+    public boolean checkUpToDate( MavenSession session, MavenProject project, List<MojoExecution> mojoExecutions )
+    {
+        if ( !isEnabled( session ) || project.getBuild() == null || project.getBuild().getDirectory() == null
+            || project.getBasedir() == null )
+        {
+            return false;
+        }
+
+        String fingerprint;
+        try
+        {
+            fingerprint = getFingerprint( session, project, mojoExecutions );
+        }
+        catch ( IOException e )
+        {
+            logger.debug( "Failed to calculate fingerprint of " + project.getId() + ": " + e.getMessage(), e );
+            return false;
+        }
+
+        project.setContextValue( FINGERPRINT_KEY, fingerprint );
+
+        File stateFile = getStateFile( project );
+        Properties state = load( stateFile );
+        if ( !isSkippable( mojoExecutions ) || !fingerprint.equals( state.getProperty( "fingerprint" ) ) )
+        {
+            // the build about to start may overwrite the recorded artifacts
+            stateFile.delete();
+            return false;
+        }
+
+        File artifactFile = getFile( state, "artifact" );
+        if ( artifactFile != null && !artifactFile.exists() )
+        {
+            return false;
+        }
+
+        List<String[]> attachments = new ArrayList<String[]>();
+        for ( int i = 0; state.getProperty( "attached." + i + ".file" ) != null; i++ )
+        {
+            File file = getFile( state, "attached." + i + ".file" );
+            if ( !file.exists() )
+            {
+                return false;
+            }
+            attachments.add( new String[] { state.getProperty( "attached." + i + ".type" ),
+                state.getProperty( "attached." + i + ".classifier" ), file.getPath() } );
+        }
+
+        if ( artifactFile != null )
+        {
+            project.getArtifact().setFile( artifactFile );
+        }
+        for ( String[] attachment : attachments )
+        {
+            projectHelper.attachArtifact( project, attachment[0], attachment[1], new File( attachment[2] ) );
+        }
+        for ( MojoExecution mojoExecution : mojoExecutions )
+        {
+            if ( mojoExecution.getLifecyclePhase() != null )
+            {
+                project.addLifecyclePhase( mojoExecution.getLifecyclePhase() );
+            }
+        }
+
+        logger.info( "Skipping " + project.getName() + ": nothing changed since the last build" );
+
+        return true;
+    }
+
+    /**
+     * Records the fingerprint and the artifacts of a successfully built project.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @param project The project that has been built, must not be {@code null}.
+     */
+    public void recordSuccess( MavenSession session, MavenProject project )
+    {
+        String fingerprint = (String) project.getContextValue( FINGERPRINT_KEY );
+        if ( fingerprint == null || !isEnabled( session ) )
+        {
+            return;
+        }
+
+        Properties state = new Properties();
+        state.setProperty( "fingerprint", fingerprint );
+
+        Artifact artifact = project.getArtifact();
+        if ( artifact != null && artifact.getFile() != null && artifact.getFile().isFile() )
+        {
+            state.setProperty( "artifact", artifact.getFile().getAbsolutePath() );
+        }
+
+        int index = 0;
+        for ( Artifact attached : project.getAttachedArtifacts() )
+        {
+            if ( attached.getFile() != null && attached.getFile().isFile() )
+            {
+                state.setProperty( "attached." + index + ".type", attached.getType() );
+                if ( attached.getClassifier() != null )
+                {
+                    state.setProperty( "attached." + index + ".classifier", attached.getClassifier() );
+                }
+                state.setProperty( "attached." + index + ".file", attached.getFile().getAbsolutePath() );
+                index++;
+            }
+        }
+
+        File file = getStateFile( project );
+        OutputStream os = null;
+        try
+        {
+            file.getParentFile().mkdirs();
+
+            os = new FileOutputStream( file );
+            state.store( os, "Incremental build state of " + project.getId() );
+            os.close();
+            os = null;
+        }
+        catch ( IOException e )
+        {
+            logger.warn( "Failed to write incremental build state to " + file + ": " + e.getMessage() );
+            logger.debug( "", e );
+        }
+        finally
+        {
+            IOUtil.close( os );
+        }
+    }
+
+    private boolean isSkippable( List<MojoExecution> mojoExecutions )
+    {
+        for ( MojoExecution mojoExecution : mojoExecutions )
+        {
+            String phase = mojoExecution.getLifecyclePhase();
+            if ( phase == null || EXTERNAL_PHASES.contains( phase ) )
+            {
+                return false;
+            }
+            Lifecycle lifecycle = defaultLifecycles.get( phase );
+            if ( lifecycle == null || "clean".equals( lifecycle.getId() ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String getFingerprint( MavenSession session, MavenProject project, List<MojoExecution> mojoExecutions )
+        throws IOException
+    {
+        MessageDigest digest = newDigest();
+
+        Writer writer = new OutputStreamWriter( new DigestOutputStream( new NullOutputStream(), digest ), "UTF-8" );
+        new MavenXpp3Writer().write( writer, project.getModel() );
+        writer.flush();
+
+        update( digest, new TreeMap<Object, Object>( session.getUserProperties() ).toString() );
+
+        for ( MojoExecution mojoExecution : mojoExecutions )
+        {
+            update( digest, mojoExecution.getGroupId() + ':' + mojoExecution.getArtifactId() + ':'
+                + mojoExecution.getVersion() + ':' + mojoExecution.getGoal() + '@' + mojoExecution.getExecutionId() );
+        }
+
+        File basedir = project.getBasedir().getAbsoluteFile();
+        File buildDirectory = new File( project.getBuild().getDirectory() ).getAbsoluteFile();
+        updateFiles( digest, basedir, "", buildDirectory );
+
+        List<String> directories = new ArrayList<String>();
+        directories.addAll( project.getCompileSourceRoots() );
+        directories.addAll( project.getTestCompileSourceRoots() );
+        for ( Resource resource : project.getResources() )
+        {
+            directories.add( resource.getDirectory() );
+        }
+        for ( Resource resource : project.getTestResources() )
+        {
+            directories.add( resource.getDirectory() );
+        }
+        for ( String directory : directories )
+        {
+            if ( directory != null )
+            {
+                File dir = new File( directory ).getAbsoluteFile();
+                if ( !isWithin( dir, basedir ) || isWithin( dir, buildDirectory ) )
+                {
+                    update( digest, dir.getPath() );
+                    updateFiles( digest, dir, "", null );
+                }
+            }
+        }
+
+        for ( String filter : project.getBuild().getFilters() )
+        {
+            File file = new File( filter );
+            if ( !file.isAbsolute() )
+            {
+                file = new File( basedir, filter );
+            }
+            update( digest, file.getAbsolutePath() + ':' + file.length() + ':' + file.lastModified() );
+        }
+
+        ProjectDependencyGraph graph = session.getProjectDependencyGraph();
+        if ( graph != null )
+        {
+            for ( MavenProject upstream : graph.getUpstreamProjects( project, false ) )
+            {
+                update( digest, BuilderCommon.getKey( upstream ) + '=' + upstream.getContextValue( FINGERPRINT_KEY ) );
+            }
+        }
+
+        StringBuilder buffer = new StringBuilder( 40 );
+        for ( byte b : digest.digest() )
+        {
+            buffer.append( Character.forDigit( ( b >> 4 ) & 0x0F, 16 ) ).append( Character.forDigit( b & 0x0F, 16 ) );
+        }
+        return buffer.toString();
+    }
+
+    private static boolean isWithin( File file, File dir )
+    {
+        for ( File parent = file; parent != null; parent = parent.getParentFile() )
+        {
+            if ( parent.equals( dir ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the files below the specified directory to the digest.
+     *
+     * @param excluded The build directory to skip along with hidden directories and directories of nested projects,
+     *            {@code null} to add all files.
+     */
+    private static void updateFiles( MessageDigest digest, File dir, String prefix, File excluded )
+    {
+        String[] names = dir.list();
+        if ( names == null )
+        {
+            return;
+        }
+
+        Arrays.sort( names );
+        for ( String name : names )
+        {
+            File file = new File( dir, name );
+            if ( file.isDirectory() )
+            {
+                if ( excluded != null && ( name.startsWith( "." ) || file.equals( excluded )
+                    || new File( file, "pom.xml" ).isFile() ) )
+                {
+                    continue;
+                }
+                updateFiles( digest, file, prefix + name + '/', excluded );
+            }
+            else
+            {
+                update( digest, prefix + name + ':' + file.length() + ':' + file.lastModified() );
+            }
+        }
+    }
+
+    private static void update( MessageDigest digest, String value )
+    {
+        try
+        {
+            digest.update( value.getBytes( "UTF-8" ) );
+            digest.update( (byte) 0 );
+        }
+        catch ( UnsupportedEncodingException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance( "SHA-1" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private static File getStateFile( MavenProject project )
+    {
+        return new File( project.getBuild().getDirectory(), STATE_FILE );
+    }
+
+    private static File getFile( Properties state, String key )
+    {
+        String path = state.getProperty( key );
+        return ( path != null ) ? new File( path ) : null;
+    }
+
+    private Properties load( File file )
+    {
+        Properties state = new Properties();
+
+        if ( file.isFile() )
+        {
+            InputStream is = null;
+            try
+            {
+                is = new FileInputStream( file );
+                state.load( is );
+            }
+            catch ( IOException e )
+            {
+                logger.debug( "Failed to read incremental build state from " + file + ": " + e.getMessage(), e );
+            }
+            finally
+            {
+                IOUtil.close( is );
+            }
+        }
+
+        return state;
+    }
+
+    private static class NullOutputStream
+        extends OutputStream
+    {
+
+        @Override
+        public void write( int b )
+        {
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+        {
+        }
+
+    }
+
+}
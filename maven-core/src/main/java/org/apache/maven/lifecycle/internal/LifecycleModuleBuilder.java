@@ -24,6 +24,8 @@
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.execution.BuildSuccess;
+import org.apache.maven.execution.BuildTimeHistory;
+import org.apache.maven.execution.BuildTrace;
 import org.apache.maven.execution.ExecutionEvent;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.execution.ProjectExecutionEvent;
@@ -68,6 +70,15 @@
     @Requirement
     private SessionScope sessionScope;
 
+    @Requirement
+    private BuildTimeHistory buildTimeHistory;
+
+    @Requirement
+    private IncrementalBuildSupport incrementalBuildSupport;
+
+    @Requirement
+    private BuildTrace buildTrace;
+
     public void setProjectExecutionListeners( final List<ProjectExecutionListener> listeners )
     {
         this.projectExecutionListeners = listeners;
@@ -82,11 +93,25 @@ public void buildProject( MavenSession session, ReactorContext reactorContext, M
 
     public void buildProject( MavenSession session, MavenSession rootSession, ReactorContext reactorContext,
                               MavenProject currentProject, TaskSegment taskSegment )
+    {
+        buildProject( session, rootSession, reactorContext, currentProject, taskSegment, null );
+    }
+
+    /**
+     * Builds the specified project, notifying the given listener about each lifecycle phase that has been completed.
+     *
+     * @since 3.3.2
+     */
+    public void buildProject( MavenSession session, MavenSession rootSession, ReactorContext reactorContext,
+                              MavenProject currentProject, TaskSegment taskSegment,
+                              PhaseCompletionListener phaseCompletionListener )
     {
         session.setCurrentProject( currentProject );
 
         long buildStartTime = System.currentTimeMillis();
 
+        BuildTrace.Span projectSpan = null;
+
         // session may be different from rootSession seeded in DefaultMaven
         // explicitly seed the right session here to make sure it is used by Guice
         sessionScope.enter( reactorContext.getSessionScopeMemento() );
@@ -102,6 +127,8 @@ public void buildProject( MavenSession session, MavenSession rootSession, Reacto
 
             BuilderCommon.attachToThread( currentProject );
 
+            projectSpan = buildTrace.beginProject( session, currentProject );
+
             projectExecutionListener.beforeProjectExecution( new ProjectExecutionEvent( session, currentProject ) );
 
             eventCatapult.fire( ExecutionEvent.Type.ProjectStarted, session, null );
@@ -113,7 +140,13 @@ public void buildProject( MavenSession session, MavenSession rootSession, Reacto
             projectExecutionListener.beforeProjectLifecycleExecution( new ProjectExecutionEvent( session,
                                                                                                  currentProject,
                                                                                                  mojoExecutions ) );
-            mojoExecutor.execute( session, mojoExecutions, reactorContext.getProjectIndex() );
+            if ( !incrementalBuildSupport.checkUpToDate( session, currentProject, mojoExecutions ) )
+            {
+                mojoExecutor.execute( session, mojoExecutions, reactorContext.getProjectIndex(),
+                                      phaseCompletionListener );
+
+                incrementalBuildSupport.recordSuccess( session, currentProject );
+            }
 
             long buildEndTime = System.currentTimeMillis();
 
@@ -123,6 +156,8 @@ public void buildProject( MavenSession session, MavenSession rootSession, Reacto
             reactorContext.getResult().addBuildSummary( new BuildSuccess( currentProject,
                                                                           buildEndTime - buildStartTime ) );
 
+            buildTimeHistory.recordProjectTime( session, currentProject, buildEndTime - buildStartTime );
+
             eventCatapult.fire( ExecutionEvent.Type.ProjectSucceeded, session, null );
         }
         catch ( Throwable t )
@@ -144,6 +179,11 @@ public void buildProject( MavenSession session, MavenSession rootSession, Reacto
         }
         finally
         {
+            if ( projectSpan != null )
+            {
+                projectSpan.end();
+            }
+
             sessionScope.exit();
 
             session.setCurrentProject( null );
@@ -22,6 +22,7 @@
 import java.util.List;
 import java.util.Map;
 
+import org.apache.maven.execution.BuildTimeHistory;
 import org.apache.maven.execution.ExecutionEvent;
 import org.apache.maven.execution.MavenExecutionResult;
 import org.apache.maven.execution.MavenSession;
@@ -69,6 +70,9 @@
     @Requirement
     private SessionScope sessionScope;
 
+    @Requirement
+    private BuildTimeHistory buildTimeHistory;
+
     public void execute( MavenSession session )
     {
         eventCatapult.fire( ExecutionEvent.Type.SessionStarted, session, null );
@@ -135,6 +139,8 @@ public void execute( MavenSession session )
         finally
         {
             eventCatapult.fire( ExecutionEvent.Type.SessionEnded, session, null );
+
+            buildTimeHistory.save( session );
         }
     }
 
@@ -22,10 +22,14 @@
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
 import org.apache.maven.artifact.resolver.filter.CumulativeScopeArtifactFilter;
+import org.apache.maven.execution.BuildTrace;
 import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionUtils;
 import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.MojoProfiler;
 import org.apache.maven.lifecycle.LifecycleExecutionException;
 import org.apache.maven.lifecycle.MissingProjectException;
+import org.apache.maven.lifecycle.internal.builder.multithreaded.ThreadBoundPrintStream;
 import org.apache.maven.plugin.BuildPluginManager;
 import org.apache.maven.plugin.MavenPluginManager;
 import org.apache.maven.plugin.MojoExecution;
@@ -36,18 +40,31 @@
 import org.apache.maven.plugin.PluginManagerException;
 import org.apache.maven.plugin.descriptor.MojoDescriptor;
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.session.scope.internal.SessionScope;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.personality.plexus.lifecycle.phase.Disposable;
 import org.codehaus.plexus.util.StringUtils;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Executes an individual mojo
@@ -61,8 +78,25 @@
  */
 @Component( role = MojoExecutor.class )
 public class MojoExecutor
+    implements Disposable
 {
 
+    /**
+     * The name of the user/system property that lists the mojos which may be executed concurrently when they are bound
+     * to the same lifecycle phase of a project. The value is a comma-separated list of {@code groupId:artifactId:goal}.
+     * Concurrent mojos share the project, so only mojos that don't modify its state (e.g. source roots, resources or
+     * properties) may be listed. Being thread-safe is required but not sufficient, that flag only promises that the
+     * mojo can run concurrently for different projects.
+     */
+    public static final String CONCURRENT_MOJOS_PROPERTY = "maven.build.concurrentMojos";
+
+    /**
+     * The name of the user/system property that makes mojos which are not marked thread-safe run one at a time in a
+     * parallel build. With the value {@code plugin}, executions of any goal of the same plugin are serialized, with
+     * {@code mojo} only executions of the same goal. Without the property, such mojos run concurrently as before.
+     */
+    public static final String SERIALIZE_UNSAFE_MOJOS_PROPERTY = "maven.build.serializeUnsafeMojos";
+
     @Requirement
     private BuildPluginManager pluginManager;
 
@@ -75,6 +109,22 @@
     @Requirement
     private ExecutionEventCatapult eventCatapult;
 
+    @Requirement
+    private SessionScope sessionScope;
+
+    @Requirement
+    private MojoOutputCache mojoOutputCache;
+
+    @Requirement
+    private MojoProfiler mojoProfiler;
+
+    @Requirement
+    private BuildTrace buildTrace;
+
+    private final ConcurrentMap<String, Lock> unsafeMojoLocks = new ConcurrentHashMap<String, Lock>();
+
+    private ExecutorService concurrentMojoExecutor;
+
     public MojoExecutor()
     {
     }
@@ -135,14 +185,295 @@ else if ( Artifact.SCOPE_TEST.equals( classpath ) )
     public void execute( MavenSession session, List<MojoExecution> mojoExecutions, ProjectIndex projectIndex )
         throws LifecycleExecutionException
 
+    {
+        execute( session, mojoExecutions, projectIndex, null );
+    }
+
+    /**
+     * Executes the specified mojos for the current project of the session.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @param mojoExecutions The mojo executions of the project, in lifecycle order, must not be {@code null}.
+     * @param projectIndex The project index of the reactor, must not be {@code null}.
+     * @param phaseCompletionListener The listener to notify about completed lifecycle phases, may be {@code null}.
+     * @throws LifecycleExecutionException If a mojo could not be executed.
+     * @since 3.3.2
+     */
+    public void execute( MavenSession session, List<MojoExecution> mojoExecutions, ProjectIndex projectIndex,
+                         PhaseCompletionListener phaseCompletionListener )
+        throws LifecycleExecutionException
     {
         DependencyContext dependencyContext = newDependencyContext( session, mojoExecutions );
 
-        PhaseRecorder phaseRecorder = new PhaseRecorder( session.getCurrentProject() );
+        MavenProject project = session.getCurrentProject();
+
+        PhaseRecorder phaseRecorder = new PhaseRecorder( project );
+
+        Set<String> concurrentMojos = getConcurrentMojos( session );
+
+        String lastLifecyclePhase = null;
+
+        for ( int i = 0, n = mojoExecutions.size(); i < n; )
+        {
+            MojoExecution mojoExecution = mojoExecutions.get( i );
+
+            String lifecyclePhase = mojoExecution.getLifecyclePhase();
+            if ( phaseCompletionListener != null && lastLifecyclePhase != null
+                && !lastLifecyclePhase.equals( lifecyclePhase ) )
+            {
+                phaseCompletionListener.phaseCompleted( project, lastLifecyclePhase );
+            }
+            lastLifecyclePhase = lifecyclePhase;
+
+            int end = getConcurrentGroupEnd( mojoExecutions, i, concurrentMojos );
+            if ( end - i > 1 )
+            {
+                executeConcurrently( session, mojoExecutions.subList( i, end ), dependencyContext, phaseRecorder );
+            }
+            else
+            {
+                execute( session, mojoExecution, projectIndex, dependencyContext, phaseRecorder );
+            }
+            i = end;
+        }
+
+        if ( phaseCompletionListener != null && lastLifecyclePhase != null )
+        {
+            phaseCompletionListener.phaseCompleted( project, lastLifecyclePhase );
+        }
+    }
+
+    private static Set<String> getConcurrentMojos( MavenSession session )
+    {
+        Set<String> concurrentMojos = new HashSet<String>();
+        String value = ExecutionUtils.getProperty( session, CONCURRENT_MOJOS_PROPERTY );
+        if ( value != null )
+        {
+            for ( String mojo : value.split( "," ) )
+            {
+                mojo = mojo.trim();
+                if ( mojo.length() > 0 )
+                {
+                    concurrentMojos.add( mojo );
+                }
+            }
+        }
+        return concurrentMojos;
+    }
+
+    /**
+     * Tells whether mojos that are not marked thread-safe are executed one at a time.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @return {@code true} if executions of such mojos are serialized, {@code false} otherwise.
+     */
+    public static boolean isSerializingUnsafeMojos( MavenSession session )
+    {
+        String mode = ExecutionUtils.getProperty( session, SERIALIZE_UNSAFE_MOJOS_PROPERTY );
+        return "plugin".equals( mode ) || "mojo".equals( mode );
+    }
+
+    /**
+     * Determines the key of the lock that serializes the executions of the specified mojo.
+     *
+     * @param mode The value of {@link #SERIALIZE_UNSAFE_MOJOS_PROPERTY}, may be {@code null}.
+     * @param mojoDescriptor The mojo to execute, must not be {@code null}.
+     * @return The lock key or {@code null} if the mojo can run concurrently with other mojos.
+     */
+    static String getUnsafeMojoLockKey( String mode, MojoDescriptor mojoDescriptor )
+    {
+        if ( mojoDescriptor.isThreadSafe() )
+        {
+            return null;
+        }
+        else if ( "plugin".equals( mode ) )
+        {
+            return mojoDescriptor.getPluginDescriptor().getId();
+        }
+        else if ( "mojo".equals( mode ) )
+        {
+            return mojoDescriptor.getId();
+        }
+        return null;
+    }
+
+    private Lock getUnsafeMojoLock( MavenSession session, MojoExecution mojoExecution )
+    {
+        String key =
+            getUnsafeMojoLockKey( ExecutionUtils.getProperty( session, SERIALIZE_UNSAFE_MOJOS_PROPERTY ),
+                                  mojoExecution.getMojoDescriptor() );
+        if ( key == null )
+        {
+            return null;
+        }
+
+        Lock lock = unsafeMojoLocks.get( key );
+        if ( lock == null )
+        {
+            lock = new ReentrantLock();
+            Lock other = unsafeMojoLocks.putIfAbsent( key, lock );
+            if ( other != null )
+            {
+                lock = other;
+            }
+        }
+        return lock;
+    }
+
+    /**
+     * Determines the end of the run of mojo executions starting at the specified index that can be executed
+     * concurrently. Such executions are listed by {@link #CONCURRENT_MOJOS_PROPERTY}, bound to the same lifecycle
+     * phase, thread-safe, neither fork nor aggregate and have the same dependency requirements, i.e. they don't depend
+     * on each other's changes to the project state.
+     */
+    static int getConcurrentGroupEnd( List<MojoExecution> mojoExecutions, int start,
+                                      Collection<String> concurrentMojos )
+    {
+        MojoExecution first = mojoExecutions.get( start );
+        if ( !isConcurrentCandidate( first, concurrentMojos ) )
+        {
+            return start + 1;
+        }
+
+        MojoDescriptor firstDescriptor = first.getMojoDescriptor();
+
+        int end = start + 1;
+        while ( end < mojoExecutions.size() )
+        {
+            MojoExecution next = mojoExecutions.get( end );
+            MojoDescriptor nextDescriptor = next.getMojoDescriptor();
+            if ( !isConcurrentCandidate( next, concurrentMojos )
+                || !first.getLifecyclePhase().equals( next.getLifecyclePhase() )
+                || !StringUtils.equals( firstDescriptor.getDependencyResolutionRequired(),
+                                        nextDescriptor.getDependencyResolutionRequired() )
+                || !StringUtils.equals( firstDescriptor.getDependencyCollectionRequired(),
+                                        nextDescriptor.getDependencyCollectionRequired() ) )
+            {
+                break;
+            }
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isConcurrentCandidate( MojoExecution mojoExecution, Collection<String> concurrentMojos )
+    {
+        MojoDescriptor mojoDescriptor = mojoExecution.getMojoDescriptor();
+        return mojoExecution.getLifecyclePhase() != null && mojoDescriptor.isThreadSafe()
+            && !mojoDescriptor.isAggregator() && mojoExecution.getForkedExecutions().isEmpty()
+            && concurrentMojos.contains( mojoExecution.getGroupId() + ':' + mojoExecution.getArtifactId() + ':'
+                                             + mojoExecution.getGoal() );
+    }
+
+    private synchronized ExecutorService getConcurrentMojoExecutor()
+    {
+        if ( concurrentMojoExecutor == null )
+        {
+            concurrentMojoExecutor = Executors.newCachedThreadPool( new BuildThreadFactory() );
+        }
+        return concurrentMojoExecutor;
+    }
+
+    public synchronized void dispose()
+    {
+        if ( concurrentMojoExecutor != null )
+        {
+            concurrentMojoExecutor.shutdown();
+            concurrentMojoExecutor = null;
+        }
+    }
 
+    private void executeConcurrently( final MavenSession session, List<MojoExecution> mojoExecutions,
+                                      DependencyContext dependencyContext, PhaseRecorder phaseRecorder )
+        throws LifecycleExecutionException
+    {
+        // checks and dependency resolution modify the project, so they are done upfront on this thread
+        List<MojoExecution> executable = new ArrayList<MojoExecution>( mojoExecutions.size() );
         for ( MojoExecution mojoExecution : mojoExecutions )
         {
-            execute( session, mojoExecution, projectIndex, dependencyContext, phaseRecorder );
+            if ( isExecutable( session, mojoExecution ) )
+            {
+                resolveDependencies( mojoExecution, session, dependencyContext );
+                executable.add( mojoExecution );
+            }
+        }
+
+        final SessionScope.Memento memento = sessionScope.memento();
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        // pool threads are shared by all projects, the output needs to go to the project of the calling thread
+        final PrintStream[] binding = ThreadBoundPrintStream.getBinding();
+
+        List<Future<?>> futures = new ArrayList<Future<?>>( executable.size() );
+        ExecutorService executor = getConcurrentMojoExecutor();
+        for ( final MojoExecution mojoExecution : executable )
+        {
+            futures.add( executor.submit( new Callable<Void>()
+            {
+                public Void call()
+                    throws LifecycleExecutionException
+                {
+                    Thread.currentThread().setContextClassLoader( contextClassLoader );
+                    ThreadBoundPrintStream.restore( binding );
+                    sessionScope.enter( memento );
+                    try
+                    {
+                        execute( session, mojoExecution, Collections.<MavenProject>emptyList() );
+                    }
+                    finally
+                    {
+                        sessionScope.exit();
+                        ThreadBoundPrintStream.unbind();
+                    }
+                    return null;
+                }
+            } ) );
+        }
+
+        // wait for all mojos to finish before reporting the first failure in declaration order
+        Throwable failure = null;
+        for ( Future<?> future : futures )
+        {
+            try
+            {
+                future.get();
+            }
+            catch ( ExecutionException e )
+            {
+                if ( failure == null )
+                {
+                    failure = e.getCause();
+                }
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                if ( failure == null )
+                {
+                    failure = e;
+                }
+            }
+        }
+
+        if ( failure instanceof LifecycleExecutionException )
+        {
+            throw (LifecycleExecutionException) failure;
+        }
+        else if ( failure instanceof RuntimeException )
+        {
+            throw (RuntimeException) failure;
+        }
+        else if ( failure instanceof Error )
+        {
+            throw (Error) failure;
+        }
+        else if ( failure != null )
+        {
+            throw new LifecycleExecutionException( failure );
+        }
+
+        for ( MojoExecution mojoExecution : executable )
+        {
+            phaseRecorder.observeExecution( mojoExecution );
         }
     }
 
@@ -157,6 +488,21 @@ public void execute( MavenSession session, MojoExecution mojoExecution, ProjectI
     private void execute( MavenSession session, MojoExecution mojoExecution, ProjectIndex projectIndex,
                           DependencyContext dependencyContext )
         throws LifecycleExecutionException
+    {
+        if ( !isExecutable( session, mojoExecution ) )
+        {
+            return;
+        }
+
+        List<MavenProject> forkedProjects = executeForkedExecutions( mojoExecution, session, projectIndex );
+
+        resolveDependencies( mojoExecution, session, dependencyContext );
+
+        execute( session, mojoExecution, forkedProjects );
+    }
+
+    private boolean isExecutable( MavenSession session, MojoExecution mojoExecution )
+        throws LifecycleExecutionException
     {
         MojoDescriptor mojoDescriptor = mojoExecution.getMojoDescriptor();
 
@@ -191,13 +537,39 @@ private void execute( MavenSession session, MojoExecution mojoExecution, Project
             {
                 eventCatapult.fire( ExecutionEvent.Type.MojoSkipped, session, mojoExecution );
 
-                return;
+                return false;
             }
         }
 
-        List<MavenProject> forkedProjects = executeForkedExecutions( mojoExecution, session, projectIndex );
+        return true;
+    }
+
+    private void execute( MavenSession session, MojoExecution mojoExecution, List<MavenProject> forkedProjects )
+        throws LifecycleExecutionException
+    {
+        // forked executions are already done, so the lock is never held while waiting for another one
+        Lock lock = getUnsafeMojoLock( session, mojoExecution );
+        if ( lock == null )
+        {
+            doExecute( session, mojoExecution, forkedProjects );
+            return;
+        }
+
+        lock.lock();
+        try
+        {
+            doExecute( session, mojoExecution, forkedProjects );
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
 
-        ensureDependenciesAreResolved( mojoDescriptor, session, dependencyContext );
+    private void doExecute( MavenSession session, MojoExecution mojoExecution, List<MavenProject> forkedProjects )
+        throws LifecycleExecutionException
+    {
+        BuildTrace.Span span = buildTrace.beginMojo( session, mojoExecution );
 
         eventCatapult.fire( ExecutionEvent.Type.MojoStarted, session, mojoExecution );
 
@@ -205,7 +577,17 @@ private void execute( MavenSession session, MojoExecution mojoExecution, Project
         {
             try
             {
-                pluginManager.executeMojo( session, mojoExecution );
+                MojoOutputCache.CachedExecution cachedExecution =
+                    mojoOutputCache.newExecution( session, mojoExecution );
+                if ( cachedExecution == null || !cachedExecution.restore() )
+                {
+                    pluginManager.executeMojo( session, mojoExecution );
+
+                    if ( cachedExecution != null )
+                    {
+                        cachedExecution.store();
+                    }
+                }
             }
             catch ( MojoFailureException e )
             {
@@ -238,6 +620,24 @@ private void execute( MavenSession session, MojoExecution mojoExecution, Project
             {
                 forkedProject.setExecutionProject( null );
             }
+
+            span.end();
+        }
+    }
+
+    private void resolveDependencies( MojoExecution mojoExecution, MavenSession session,
+                                      DependencyContext dependencyContext )
+        throws LifecycleExecutionException
+    {
+        MojoProfiler.Measurement measurement =
+            mojoProfiler.start( session, mojoExecution, MojoProfiler.Phase.RESOLUTION );
+        try
+        {
+            ensureDependenciesAreResolved( mojoExecution.getMojoDescriptor(), session, dependencyContext );
+        }
+        finally
+        {
+            measurement.stop();
         }
     }
 
@@ -0,0 +1,601 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.maven.execution.ExecutionUtils;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.repository.RepositorySystem;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Caches the files produced by mojo executions whose result only depends on their configuration and input files. The
+ * cache key of an execution is a digest over the plugin coordinates and goal, the mojo configuration, the project
+ * coordinates and properties, the user properties, the JVM version, the content of the input files and the content of
+ * the output root before the execution. On a miss, the files created or modified by the execution below its output
+ * root are copied into a directory named after the key and the files it deleted are recorded; on a hit, the same
+ * changes are applied to the output root and the mojo is not executed. As the key covers the state the changes were
+ * made to, applying them reproduces the state after the execution, even if the output root is shared with other mojos
+ * or still holds the output of an earlier build. The mojos eligible for caching are listed in a built-in table that
+ * covers the resources plugin, whose inputs include the filter files. The compiler plugin is not covered: it also
+ * writes the output of annotation processors outside of its output root and adds source roots to the project, neither
+ * of which a cache hit would reproduce.
+ *
+ * @since 3.3.2
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+@Component( role = MojoOutputCache.class )
+public class MojoOutputCache
+{
+
+    /**
+     * The name of the user/system property that enables the cache.
+     */
+    public static final String ENABLED_PROPERTY = "maven.build.outputCache";
+
+    /**
+     * The name of the user/system property that specifies the directory of the cache. By default, this is the
+     * directory {@code build-cache} in the user's Maven configuration directory {@code ~/.m2}.
+     */
+    public static final String DIRECTORY_PROPERTY = "maven.build.outputCache.directory";
+
+    private static final String INDEX_FILE = "outputs.properties";
+
+    private static final Map<String, Rule> RULES;
+
+    static
+    {
+        Map<String, Rule> rules = new HashMap<String, Rule>();
+
+        rules.put( "org.apache.maven.plugins:maven-resources-plugin:resources",
+                   new Rule( Arrays.asList( Root.RESOURCES, Root.FILTERS ), Root.OUTPUT_DIRECTORY ) );
+        rules.put( "org.apache.maven.plugins:maven-resources-plugin:testResources",
+                   new Rule( Arrays.asList( Root.TEST_RESOURCES, Root.FILTERS ), Root.TEST_OUTPUT_DIRECTORY ) );
+
+        RULES = Collections.unmodifiableMap( rules );
+    }
+
+    @Requirement
+    private Logger logger;
+
+    public boolean isEnabled( MavenSession session )
+    {
+        return Boolean.parseBoolean( ExecutionUtils.getProperty( session, ENABLED_PROPERTY ) );
+    }
+
+    /**
+     * Prepares the caching of the specified mojo execution.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @param mojoExecution The mojo execution about to run, must not be {@code null}.
+     * @return The cacheable execution or {@code null} if the cache is disabled or the mojo is not cacheable.
+     */
+    public CachedExecution newExecution( MavenSession session, MojoExecution mojoExecution )
+    {
+        MavenProject project = session.getCurrentProject();
+        if ( project == null || project.getBuild() == null || !isEnabled( session ) )
+        {
+            return null;
+        }
+
+        Rule rule =
+            RULES.get( mojoExecution.getGroupId() + ':' + mojoExecution.getArtifactId() + ':'
+                + mojoExecution.getGoal() );
+        if ( rule == null )
+        {
+            return null;
+        }
+
+        File outputRoot = rule.output.getFiles( project ).get( 0 );
+
+        String key;
+        SortedMap<String, String> outputs;
+        try
+        {
+            outputs = snapshot( outputRoot );
+            key = getKey( session, project, mojoExecution, rule, outputRoot, outputs );
+        }
+        catch ( IOException e )
+        {
+            logger.debug( "Failed to calculate cache key of " + mojoExecution + ": " + e.getMessage(), e );
+            return null;
+        }
+
+        return new CachedExecution( mojoExecution, outputRoot, outputs, new File( getDirectory( session ), key ) );
+    }
+
+    private String getKey( MavenSession session, MavenProject project, MojoExecution mojoExecution, Rule rule,
+                           File outputRoot, SortedMap<String, String> outputs )
+        throws IOException
+    {
+        MessageDigest digest = newDigest();
+
+        update( digest, mojoExecution.getGroupId() + ':' + mojoExecution.getArtifactId() + ':'
+            + mojoExecution.getVersion() + ':' + mojoExecution.getGoal() );
+        update( digest, String.valueOf( mojoExecution.getConfiguration() ) );
+        update( digest, project.getGroupId() + ':' + project.getArtifactId() + ':' + project.getVersion() + ':'
+            + project.getPackaging() + ':' + project.getBuild().getFinalName() );
+        update( digest, new TreeMap<Object, Object>( project.getProperties() ).toString() );
+        update( digest, new TreeMap<Object, Object>( session.getUserProperties() ).toString() );
+        update( digest, System.getProperty( "java.version" ) + ':' + System.getProperty( "java.vendor" ) );
+
+        for ( Root input : rule.inputs )
+        {
+            update( digest, input.name() );
+            for ( Resource resource : input.getResources( project ) )
+            {
+                update( digest, resource.getTargetPath() + ':' + resource.getFiltering() + ':'
+                    + resource.getIncludes() + ':' + resource.getExcludes() );
+            }
+            List<File> files = new ArrayList<File>( input.getFiles( project ) );
+            if ( input == Root.FILTERS )
+            {
+                files.addAll( getConfiguredFilters( project, mojoExecution ) );
+            }
+            for ( File file : files )
+            {
+                if ( file.isDirectory() )
+                {
+                    if ( !file.equals( outputRoot ) )
+                    {
+                        updateContents( digest, file, "" );
+                    }
+                }
+                else if ( file.isFile() )
+                {
+                    update( digest, file.getName() );
+                    updateContent( digest, file );
+                }
+            }
+        }
+
+        update( digest, "output" );
+        for ( Map.Entry<String, String> output : outputs.entrySet() )
+        {
+            update( digest, output.getKey() );
+            update( digest, output.getValue() );
+        }
+
+        return toHex( digest.digest() );
+    }
+
+    /**
+     * Gets the filter files that the configuration of the mojo lists in addition to the filters of the project. Paths
+     * that still contain expressions are taken as is, they become part of the key via the configuration.
+     */
+    private static List<File> getConfiguredFilters( MavenProject project, MojoExecution mojoExecution )
+    {
+        List<File> files = new ArrayList<File>();
+        Xpp3Dom configuration = mojoExecution.getConfiguration();
+        Xpp3Dom filters = ( configuration != null ) ? configuration.getChild( "filters" ) : null;
+        if ( filters != null )
+        {
+            for ( Xpp3Dom filter : filters.getChildren() )
+            {
+                String path = filter.getValue();
+                if ( path != null && !path.contains( "${" ) )
+                {
+                    files.add( Root.resolve( project, path.trim() ) );
+                }
+            }
+        }
+        return files;
+    }
+
+    private static void updateContents( MessageDigest digest, File dir, String prefix )
+        throws IOException
+    {
+        String[] names = dir.list();
+        if ( names == null )
+        {
+            return;
+        }
+
+        Arrays.sort( names );
+        for ( String name : names )
+        {
+            File file = new File( dir, name );
+            if ( file.isDirectory() )
+            {
+                updateContents( digest, file, prefix + name + '/' );
+            }
+            else
+            {
+                update( digest, prefix + name );
+                updateContent( digest, file );
+            }
+        }
+    }
+
+    private static void updateContent( MessageDigest digest, File file )
+        throws IOException
+    {
+        InputStream is = new FileInputStream( file );
+        try
+        {
+            byte[] buffer = new byte[8192];
+            for ( int n; ( n = is.read( buffer ) ) >= 0; )
+            {
+                digest.update( buffer, 0, n );
+            }
+        }
+        finally
+        {
+            IOUtil.close( is );
+        }
+    }
+
+    private static void update( MessageDigest digest, String value )
+    {
+        try
+        {
+            digest.update( value.getBytes( "UTF-8" ) );
+            digest.update( (byte) 0 );
+        }
+        catch ( UnsupportedEncodingException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance( "SHA-1" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private static String toHex( byte[] bytes )
+    {
+        StringBuilder buffer = new StringBuilder( bytes.length * 2 );
+        for ( byte b : bytes )
+        {
+            buffer.append( Character.forDigit( ( b >> 4 ) & 0x0F, 16 ) ).append( Character.forDigit( b & 0x0F, 16 ) );
+        }
+        return buffer.toString();
+    }
+
+    private static File getDirectory( MavenSession session )
+    {
+        String directory = ExecutionUtils.getProperty( session, DIRECTORY_PROPERTY );
+        return ( directory != null ) ? new File( directory )
+                        : new File( RepositorySystem.userMavenConfigurationHome, "build-cache" );
+    }
+
+    /**
+     * Gets the content hashes of the files below the specified directory, keyed by their relative paths.
+     */
+    static SortedMap<String, String> snapshot( File dir )
+        throws IOException
+    {
+        SortedMap<String, String> files = new TreeMap<String, String>();
+        snapshot( files, dir, "" );
+        return files;
+    }
+
+    private static void snapshot( Map<String, String> files, File dir, String prefix )
+        throws IOException
+    {
+        String[] names = dir.list();
+        if ( names == null )
+        {
+            return;
+        }
+
+        for ( String name : names )
+        {
+            File file = new File( dir, name );
+            if ( file.isDirectory() )
+            {
+                snapshot( files, file, prefix + name + '/' );
+            }
+            else
+            {
+                MessageDigest digest = newDigest();
+                updateContent( digest, file );
+                files.put( prefix + name, toHex( digest.digest() ) );
+            }
+        }
+    }
+
+    /**
+     * A mojo execution whose outputs can be restored from or stored into the cache.
+     */
+    public class CachedExecution
+    {
+
+        private final MojoExecution mojoExecution;
+
+        private final File outputRoot;
+
+        private final Map<String, String> before;
+
+        private final File entry;
+
+        CachedExecution( MojoExecution mojoExecution, File outputRoot, Map<String, String> before, File entry )
+        {
+            this.mojoExecution = mojoExecution;
+            this.outputRoot = outputRoot;
+            this.before = before;
+            this.entry = entry;
+        }
+
+        /**
+         * Restores the outputs of the execution from the cache. The files the execution deleted are removed from the
+         * output root, the files it created or modified are copied into it.
+         *
+         * @return {@code true} if the outputs have been restored and the mojo need not be executed, {@code false}
+         *         otherwise.
+         */
+        public boolean restore()
+        {
+            File index = new File( entry, INDEX_FILE );
+            if ( !index.isFile() )
+            {
+                return false;
+            }
+
+            try
+            {
+                Properties outputs = load( index );
+                for ( String key : outputs.stringPropertyNames() )
+                {
+                    if ( key.startsWith( "deleted." ) )
+                    {
+                        FileUtils.forceDelete( new File( outputRoot, outputs.getProperty( key ) ) );
+                    }
+                }
+                for ( String key : outputs.stringPropertyNames() )
+                {
+                    if ( key.startsWith( "file." ) )
+                    {
+                        String name = outputs.getProperty( key );
+                        FileUtils.copyFile( new File( entry, "files/" + name ), new File( outputRoot, name ) );
+                    }
+                }
+
+                logger.info( "Restored output of " + mojoExecution.getArtifactId() + ':' + mojoExecution.getGoal()
+                    + " from build cache " + entry.getName() );
+                return true;
+            }
+            catch ( IOException e )
+            {
+                // the output root is in an unknown state now, but executing the mojo will produce its outputs anyway
+                logger.warn( "Failed to restore output of " + mojoExecution + " from " + entry + ": "
+                    + e.getMessage() );
+                logger.debug( "", e );
+                return false;
+            }
+        }
+
+        /**
+         * Stores the files that the execution created or modified below its output root and the paths of the files it
+         * deleted in the cache.
+         */
+        public void store()
+        {
+            Properties outputs = new Properties();
+
+            File tmp = new File( entry.getPath() + '-' + Long.toHexString( System.nanoTime() ) + ".tmp" );
+            OutputStream os = null;
+            try
+            {
+                Map<String, String> after = snapshot( outputRoot );
+
+                int i = 0;
+                for ( Map.Entry<String, String> file : after.entrySet() )
+                {
+                    String path = file.getKey();
+                    if ( !file.getValue().equals( before.get( path ) ) )
+                    {
+                        FileUtils.copyFile( new File( outputRoot, path ), new File( tmp, "files/" + path ) );
+                        outputs.setProperty( "file." + i++, path );
+                    }
+                }
+                i = 0;
+                for ( String path : before.keySet() )
+                {
+                    if ( !after.containsKey( path ) )
+                    {
+                        outputs.setProperty( "deleted." + i++, path );
+                    }
+                }
+
+                // the execution might not have changed anything, the index is still needed to record that
+                tmp.mkdirs();
+                os = new FileOutputStream( new File( tmp, INDEX_FILE ) );
+                outputs.store( os, "Output of " + mojoExecution );
+                os.close();
+                os = null;
+
+                // another build might have stored the same entry concurrently, either copy will do
+                if ( !tmp.renameTo( entry ) && !entry.isDirectory() )
+                {
+                    throw new IOException( "Could not rename " + tmp + " to " + entry );
+                }
+            }
+            catch ( IOException e )
+            {
+                logger.warn( "Failed to store output of " + mojoExecution + " in " + entry + ": " + e.getMessage() );
+                logger.debug( "", e );
+            }
+            finally
+            {
+                IOUtil.close( os );
+                try
+                {
+                    FileUtils.deleteDirectory( tmp );
+                }
+                catch ( IOException e )
+                {
+                    logger.debug( "Failed to delete " + tmp, e );
+                }
+            }
+        }
+
+        private Properties load( File file )
+            throws IOException
+        {
+            Properties props = new Properties();
+            InputStream is = new FileInputStream( file );
+            try
+            {
+                props.load( is );
+            }
+            finally
+            {
+                IOUtil.close( is );
+            }
+            return props;
+        }
+
+    }
+
+    static class Rule
+    {
+
+        final List<Root> inputs;
+
+        final Root output;
+
+        Rule( List<Root> inputs, Root output )
+        {
+            this.inputs = inputs;
+            this.output = output;
+        }
+
+    }
+
+    enum Root
+    {
+
+        RESOURCES
+        {
+            @Override
+            List<Resource> getResources( MavenProject project )
+            {
+                return project.getResources();
+            }
+        },
+
+        TEST_RESOURCES
+        {
+            @Override
+            List<Resource> getResources( MavenProject project )
+            {
+                return project.getTestResources();
+            }
+        },
+
+        FILTERS
+        {
+            @Override
+            List<File> getFiles( MavenProject project )
+            {
+                List<File> files = new ArrayList<File>();
+                for ( String filter : project.getBuild().getFilters() )
+                {
+                    files.add( resolve( project, filter ) );
+                }
+                return files;
+            }
+        },
+
+        OUTPUT_DIRECTORY
+        {
+            @Override
+            List<File> getFiles( MavenProject project )
+            {
+                return Collections.singletonList( resolve( project, project.getBuild().getOutputDirectory() ) );
+            }
+        },
+
+        TEST_OUTPUT_DIRECTORY
+        {
+            @Override
+            List<File> getFiles( MavenProject project )
+            {
+                return Collections.singletonList( resolve( project, project.getBuild().getTestOutputDirectory() ) );
+            }
+        };
+
+        List<Resource> getResources( MavenProject project )
+        {
+            return Collections.emptyList();
+        }
+
+        List<File> getFiles( MavenProject project )
+        {
+            List<File> files = new ArrayList<File>();
+            for ( Resource resource : getResources( project ) )
+            {
+                if ( resource.getDirectory() != null )
+                {
+                    files.add( resolve( project, resource.getDirectory() ) );
+                }
+            }
+            return files;
+        }
+
+        static File resolve( MavenProject project, String path )
+        {
+            File file = new File( path );
+            if ( !file.isAbsolute() && project.getBasedir() != null )
+            {
+                file = new File( project.getBasedir(), path );
+            }
+            return file.getAbsoluteFile();
+        }
+
+    }
+
+}
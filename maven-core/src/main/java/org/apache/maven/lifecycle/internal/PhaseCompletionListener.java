@@ -0,0 +1,44 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Gets notified by the {@link MojoExecutor} whenever the build of a project has executed all mojos bound to a
+ * lifecycle phase. Builders use this to let dependent projects start before a project has been built completely.
+ *
+ * @since 3.3.2
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+public interface PhaseCompletionListener
+{
+
+    /**
+     * Notifies the listener that the specified phase has been completed. This method is called from the thread that
+     * builds the project.
+     *
+     * @param project The project being built, never {@code null}.
+     * @param phase The completed lifecycle phase, never {@code null}.
+     */
+    void phaseCompleted( MavenProject project, String phase );
+
+}
@@ -31,6 +31,7 @@
 import org.apache.maven.lifecycle.internal.ExecutionEventCatapult;
 import org.apache.maven.lifecycle.internal.LifecycleDebugLogger;
 import org.apache.maven.lifecycle.internal.LifecycleExecutionPlanCalculator;
+import org.apache.maven.lifecycle.internal.MojoExecutor;
 import org.apache.maven.lifecycle.internal.ReactorContext;
 import org.apache.maven.lifecycle.internal.TaskSegment;
 import org.apache.maven.model.Plugin;
@@ -101,7 +102,19 @@ public MavenExecutionPlan resolveBuildPlan( MavenSession session, MavenProject p
         if ( session.getRequest().getDegreeOfConcurrency() > 1 )
         {
             final Set<Plugin> unsafePlugins = executionPlan.getNonThreadSafePlugins();
-            if ( !unsafePlugins.isEmpty()  && logger.isDebugEnabled() )
+            if ( !unsafePlugins.isEmpty() && MojoExecutor.isSerializingUnsafeMojos( session ) )
+            {
+                if ( logger.isDebugEnabled() )
+                {
+                    logger.debug( "The following goals are not marked @threadSafe in " + project.getName()
+                        + " and will be executed one at a time:" );
+                    for ( MojoDescriptor unsafeGoal : executionPlan.getNonThreadSafeMojos() )
+                    {
+                        logger.debug( unsafeGoal.getId() );
+                    }
+                }
+            }
+            else if ( !unsafePlugins.isEmpty()  && logger.isDebugEnabled() )
             {
                 logger.warn( "*****************************************************************" );
                 logger.warn( "* Your build is requesting parallel execution, but project      *" );
@@ -21,16 +21,20 @@
 
 import org.apache.maven.execution.ProjectDependencyGraph;
 import org.apache.maven.lifecycle.internal.ProjectBuildList;
-import org.apache.maven.lifecycle.internal.ProjectSegment;
 import org.apache.maven.project.MavenProject;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
- * Presents a view of the Dependency Graph that is suited for concurrent building.
+ * Presents a view of the Dependency Graph that is suited for concurrent building. The projects to build are numbered
+ * and each project keeps a counter of its unfinished upstream projects, so finishing a project only touches its direct
+ * downstream projects. The counters only ever go down, so an instance tracks a single pass over the projects, e.g. one
+ * task segment; every pass needs a new instance.
  *
  * @since 3.0
  * @author Kristian Rosenvold
@@ -40,16 +44,84 @@
 public class ConcurrencyDependencyGraph
 {
 
+    private static final int[] NO_EDGES = new int[0];
+
     private final ProjectBuildList projectBuilds;
 
     private final ProjectDependencyGraph projectDependencyGraph;
 
     private final HashSet<MavenProject> finishedProjects = new HashSet<MavenProject>();
 
+    private final MavenProject[] projects;
+
+    private final Map<MavenProject, Integer> indices;
+
+    private final int[][] downstream;
+
+    private final int[] pendingUpstream;
+
+    private final List<MavenProject> rootProjects = new ArrayList<MavenProject>();
+
     public ConcurrencyDependencyGraph( ProjectBuildList projectBuilds, ProjectDependencyGraph projectDependencyGraph )
     {
         this.projectDependencyGraph = projectDependencyGraph;
         this.projectBuilds = projectBuilds;
+
+        int size = projectBuilds.size();
+        projects = new MavenProject[size];
+        indices = new IdentityHashMap<MavenProject, Integer>( size * 2 );
+        for ( int i = 0; i < size; i++ )
+        {
+            projects[i] = projectBuilds.get( i ).getProject();
+            indices.put( projects[i], i );
+        }
+
+        int[] degrees = new int[size];
+        int[][] upstream = new int[size][];
+        pendingUpstream = new int[size];
+        for ( int i = 0; i < size; i++ )
+        {
+            List<MavenProject> upstreamProjects = projectDependencyGraph.getUpstreamProjects( projects[i], false );
+            // upstream projects outside of the build list never finish and keep the project pending
+            pendingUpstream[i] = upstreamProjects.size();
+            if ( upstreamProjects.isEmpty() )
+            {
+                rootProjects.add( projects[i] );
+            }
+            upstream[i] = new int[upstreamProjects.size()];
+            int n = 0;
+            for ( MavenProject upstreamProject : upstreamProjects )
+            {
+                Integer index = indices.get( upstreamProject );
+                if ( index != null )
+                {
+                    upstream[i][n++] = index;
+                    degrees[index]++;
+                }
+            }
+            upstream[i] = ( n < upstream[i].length ) ? copyOf( upstream[i], n ) : upstream[i];
+        }
+
+        downstream = new int[size][];
+        for ( int i = 0; i < size; i++ )
+        {
+            downstream[i] = ( degrees[i] > 0 ) ? new int[degrees[i]] : NO_EDGES;
+            degrees[i] = 0;
+        }
+        for ( int i = 0; i < size; i++ )
+        {
+            for ( int index : upstream[i] )
+            {
+                downstream[index][degrees[index]++] = i;
+            }
+        }
+    }
+
+    private static int[] copyOf( int[] array, int length )
+    {
+        int[] copy = new int[length];
+        System.arraycopy( array, 0, copy, 0, length );
+        return copy;
     }
 
     public int getNumberOfBuilds()
@@ -65,15 +137,7 @@ public int getNumberOfBuilds()
 
     public List<MavenProject> getRootSchedulableBuilds()
     {
-        List<MavenProject> result = new ArrayList<MavenProject>();
-        for ( ProjectSegment projectBuild : projectBuilds )
-        {
-            if ( projectDependencyGraph.getUpstreamProjects( projectBuild.getProject(), false ).size() == 0 )
-            {
-                result.add( projectBuild.getProject() );
-            }
-        }
-        return result;
+        return new ArrayList<MavenProject>( rootProjects );
     }
 
     /**
@@ -83,22 +147,18 @@ public List<MavenProject> getRootSchedulableBuilds()
      * @return The list of builds that are eligible for starting now that the provided project is done
      */
     public List<MavenProject> markAsFinished( MavenProject mavenProject )
-    {
-        finishedProjects.add( mavenProject );
-        return getSchedulableNewProcesses( mavenProject );
-    }
-
-    private List<MavenProject> getSchedulableNewProcesses( MavenProject finishedProject )
     {
         List<MavenProject> result = new ArrayList<MavenProject>();
-        // schedule dependent projects, if all of their requirements are met
-        for ( MavenProject dependentProject : projectDependencyGraph.getDownstreamProjects( finishedProject, false ) )
+        if ( finishedProjects.add( mavenProject ) )
         {
-            final List<MavenProject> upstreamProjects =
-                projectDependencyGraph.getUpstreamProjects( dependentProject, false );
-            if ( finishedProjects.containsAll( upstreamProjects ) )
+            // schedule dependent projects, if all of their requirements are met
+            Integer index = indices.get( mavenProject );
+            for ( int dependent : ( index != null ) ? downstream[index] : NO_EDGES )
             {
-                result.add( dependentProject );
+                if ( --pendingUpstream[dependent] == 0 )
+                {
+                    result.add( projects[dependent] );
+                }
             }
         }
         return result;
@@ -110,7 +170,7 @@ private List<MavenProject> getSchedulableNewProcesses( MavenProject finishedProj
     public Set<MavenProject> getUnfinishedProjects()
     {
         Set<MavenProject> unfinished = new HashSet<MavenProject>( projectBuilds.getProjects() );
-        unfinished.remove( finishedProjects );
+        unfinished.removeAll( finishedProjects );
         return unfinished;
     }
 
@@ -150,4 +210,4 @@ public List<MavenProject> getActiveDependencies( MavenProject p )
         activeDependencies.removeAll( finishedProjects );
         return activeDependencies;
     }
-}
\ No newline at end of file
+}
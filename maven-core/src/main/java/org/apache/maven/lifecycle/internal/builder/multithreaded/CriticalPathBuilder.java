@@ -0,0 +1,329 @@
+package org.apache.maven.lifecycle.internal.builder.multithreaded;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.apache.maven.execution.BuildTimeHistory;
+import org.apache.maven.execution.BuildTrace;
+import org.apache.maven.execution.ExecutionUtils;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.lifecycle.DefaultLifecycles;
+import org.apache.maven.lifecycle.Lifecycle;
+import org.apache.maven.lifecycle.internal.BuildThreadFactory;
+import org.apache.maven.lifecycle.internal.LifecycleModuleBuilder;
+import org.apache.maven.lifecycle.internal.PhaseCompletionListener;
+import org.apache.maven.lifecycle.internal.ProjectBuildList;
+import org.apache.maven.lifecycle.internal.ProjectSegment;
+import org.apache.maven.lifecycle.internal.ReactorBuildStatus;
+import org.apache.maven.lifecycle.internal.ReactorContext;
+import org.apache.maven.lifecycle.internal.TaskSegment;
+import org.apache.maven.lifecycle.internal.builder.Builder;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.logging.Logger;
+
+/**
+ * Builds the reactor concurrently like the {@link MultiThreadedBuilder} but instead of starting projects in the order
+ * they become available, it keeps the ready projects in a queue ordered by {@link CriticalPathRanking} and only
+ * hands as many projects to the thread pool as there are threads. That way long dependency chains are started as
+ * early as possible and the end of the build is not dominated by a single serial chain. The ranking is based on the
+ * project build times recorded by the {@link BuildTimeHistory} during previous builds if the history is enabled and
+ * on the length of the dependency chains otherwise.
+ * <p/>
+ * If a release phase is configured via {@link #RELEASE_PHASE_PROPERTY}, a project releases its downstream projects as
+ * soon as it has completed that phase instead of waiting for its whole build to finish. E.g. with {@code compile},
+ * dependent projects compile against the output directory of the project while its tests are still running. Note that
+ * a failure of the project after its release can no longer prevent the downstream projects from starting.
+ *
+ * @since 3.3.2
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+@Component( role = Builder.class, hint = "criticalpath" )
+public class CriticalPathBuilder
+    implements Builder
+{
+
+    /**
+     * The name of the user/system property that specifies the lifecycle phase after which a project releases its
+     * downstream projects, e.g. {@code compile} or {@code package}.
+     */
+    public static final String RELEASE_PHASE_PROPERTY = "maven.build.releasePhase";
+
+    @Requirement
+    private Logger logger;
+
+    @Requirement
+    private LifecycleModuleBuilder lifecycleModuleBuilder;
+
+    @Requirement
+    private BuildTimeHistory buildTimeHistory;
+
+    @Requirement
+    private DefaultLifecycles defaultLifeCycles;
+
+    @Requirement
+    private BuildTrace buildTrace;
+
+    public CriticalPathBuilder()
+    {
+    }
+
+    @Override
+    public void build( MavenSession session, ReactorContext reactorContext, ProjectBuildList projectBuilds,
+                       List<TaskSegment> taskSegments, ReactorBuildStatus reactorBuildStatus )
+        throws ExecutionException, InterruptedException
+    {
+        int nThreads =
+            Math.max( 1, Math.min( session.getRequest().getDegreeOfConcurrency(), session.getProjects().size() ) );
+        ExecutorService executor = Executors.newFixedThreadPool( nThreads, new BuildThreadFactory() );
+
+        CriticalPathRanking ranking =
+            new CriticalPathRanking( session.getProjectDependencyGraph(), session.getProjects(),
+                                     buildTimeHistory.getProjectTimes( session ) );
+
+        Set<String> releasePhases = getReleasePhases( session );
+
+        ThreadOutputMuxer muxer = new ThreadOutputMuxer( projectBuilds, System.out, System.err );
+        try
+        {
+            for ( TaskSegment taskSegment : taskSegments )
+            {
+                Map<MavenProject, ProjectSegment> projectBuildMap = projectBuilds.selectSegment( taskSegment );
+                ConcurrencyDependencyGraph analyzer =
+                    new ConcurrencyDependencyGraph( projectBuilds, session.getProjectDependencyGraph() );
+                try
+                {
+                    criticalPathTaskSegmentBuild( analyzer, ranking, releasePhases, reactorContext, session, executor,
+                                                  muxer, nThreads, taskSegment, projectBuildMap );
+                    if ( reactorContext.getReactorBuildStatus().isHalted() )
+                    {
+                        break;
+                    }
+                }
+                catch ( Exception e )
+                {
+                    session.getResult().addException( e );
+                    break;
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+            muxer.close();
+        }
+    }
+
+    /**
+     * Gets the phases whose completion releases the downstream projects, i.e. the configured release phase and all
+     * later phases of its lifecycle.
+     */
+    private Set<String> getReleasePhases( MavenSession session )
+    {
+        String releasePhase = ExecutionUtils.getProperty( session, RELEASE_PHASE_PROPERTY );
+        if ( releasePhase == null || releasePhase.length() <= 0 )
+        {
+            return Collections.emptySet();
+        }
+
+        Lifecycle lifecycle = defaultLifeCycles.get( releasePhase );
+        if ( lifecycle == null )
+        {
+            logger.warn( "Unknown lifecycle phase " + releasePhase + " specified by " + RELEASE_PHASE_PROPERTY
+                + ", projects will only be released after their build has finished" );
+            return Collections.emptySet();
+        }
+
+        List<String> phases = lifecycle.getPhases();
+        return new HashSet<String>( phases.subList( phases.indexOf( releasePhase ), phases.size() ) );
+    }
+
+    private void criticalPathTaskSegmentBuild( ConcurrencyDependencyGraph analyzer, CriticalPathRanking ranking,
+                                               Set<String> releasePhases, ReactorContext reactorContext,
+                                               MavenSession rootSession, ExecutorService executor,
+                                               ThreadOutputMuxer muxer, int nThreads, TaskSegment taskSegment,
+                                               Map<MavenProject, ProjectSegment> projectBuildList )
+        throws InterruptedException
+    {
+        BlockingQueue<BuildEvent> events = new LinkedBlockingQueue<BuildEvent>();
+
+        Map<MavenProject, Boolean> released = new IdentityHashMap<MavenProject, Boolean>();
+
+        PriorityQueue<MavenProject> ready = new PriorityQueue<MavenProject>( 11, ranking );
+        List<MavenProject> rootProjects = analyzer.getRootSchedulableBuilds();
+        buildTrace.markReleased( rootSession, null, rootProjects );
+        ready.addAll( rootProjects );
+
+        int running = schedule( analyzer, released, ready, 0, nThreads, releasePhases, events, reactorContext,
+                                rootSession, executor, muxer, taskSegment, projectBuildList );
+
+        while ( running > 0 )
+        {
+            BuildEvent event = events.take();
+
+            if ( event.finished )
+            {
+                running--;
+
+                if ( event.failure != null )
+                {
+                    rootSession.getResult().addException( event.failure );
+                    break;
+                }
+            }
+
+            if ( reactorContext.getReactorBuildStatus().isHalted() )
+            {
+                break;
+            }
+
+            release( analyzer, released, ready, event.projectSegment.getProject(), rootSession );
+
+            running = schedule( analyzer, released, ready, running, nThreads, releasePhases, events, reactorContext,
+                                rootSession, executor, muxer, taskSegment, projectBuildList );
+        }
+
+        // wait for the builds that are still running, this can happen if the reactor has been halted
+        while ( running > 0 )
+        {
+            if ( events.take().finished )
+            {
+                running--;
+            }
+        }
+    }
+
+    /**
+     * Releases the downstream projects of the specified project into the ready queue, unless that already happened.
+     */
+    private void release( ConcurrencyDependencyGraph analyzer, Map<MavenProject, Boolean> released,
+                          PriorityQueue<MavenProject> ready, MavenProject project, MavenSession rootSession )
+    {
+        if ( released.put( project, Boolean.TRUE ) == null )
+        {
+            List<MavenProject> releasedProjects = analyzer.markAsFinished( project );
+            buildTrace.markReleased( rootSession, project, releasedProjects );
+            ready.addAll( releasedProjects );
+        }
+    }
+
+    private int schedule( ConcurrencyDependencyGraph analyzer, Map<MavenProject, Boolean> released,
+                          PriorityQueue<MavenProject> ready, int running, int nThreads, Set<String> releasePhases,
+                          BlockingQueue<BuildEvent> events, ReactorContext reactorContext, MavenSession rootSession,
+                          ExecutorService executor, ThreadOutputMuxer muxer, TaskSegment taskSegment,
+                          Map<MavenProject, ProjectSegment> projectBuildList )
+    {
+        while ( running < nThreads && !ready.isEmpty() )
+        {
+            MavenProject project = ready.poll();
+            ProjectSegment projectSegment = projectBuildList.get( project );
+            if ( projectSegment == null )
+            {
+                // nothing to build for the project in this segment, its downstream projects must not wait for it
+                release( analyzer, released, ready, project, rootSession );
+                continue;
+            }
+            logger.debug( "Scheduling: " + projectSegment.getProject() );
+            executor.execute( createBuildRunnable( rootSession, projectSegment, reactorContext, taskSegment,
+                                                   releasePhases, events, muxer ) );
+            running++;
+        }
+        return running;
+    }
+
+    private Runnable createBuildRunnable( final MavenSession rootSession, final ProjectSegment projectBuild,
+                                          final ReactorContext reactorContext, final TaskSegment taskSegment,
+                                          final Set<String> releasePhases, final BlockingQueue<BuildEvent> events,
+                                          final ThreadOutputMuxer muxer )
+    {
+        final PhaseCompletionListener releaseListener = releasePhases.isEmpty() ? null : new PhaseCompletionListener()
+        {
+            private boolean released;
+
+            public void phaseCompleted( MavenProject project, String phase )
+            {
+                if ( !released && releasePhases.contains( phase ) )
+                {
+                    released = true;
+                    events.add( new BuildEvent( projectBuild, false, null ) );
+                }
+            }
+        };
+
+        return new Runnable()
+        {
+            public void run()
+            {
+                Throwable failure = null;
+                muxer.associateThreadWithProjectSegment( projectBuild );
+                try
+                {
+                    lifecycleModuleBuilder.buildProject( projectBuild.getSession(), rootSession, reactorContext,
+                                                         projectBuild.getProject(), taskSegment, releaseListener );
+                }
+                catch ( Throwable t )
+                {
+                    failure = t;
+                }
+                finally
+                {
+                    muxer.setThisModuleComplete( projectBuild );
+                }
+                events.add( new BuildEvent( projectBuild, true, failure ) );
+            }
+        };
+    }
+
+    /**
+     * Tells the coordinating thread that a project either released its downstream projects or finished its build.
+     */
+    static class BuildEvent
+    {
+
+        final ProjectSegment projectSegment;
+
+        final boolean finished;
+
+        final Throwable failure;
+
+        BuildEvent( ProjectSegment projectSegment, boolean finished, Throwable failure )
+        {
+            this.projectSegment = projectSegment;
+            this.finished = finished;
+            this.failure = failure;
+        }
+
+    }
+
+}
@@ -0,0 +1,154 @@
+package org.apache.maven.lifecycle.internal.builder.multithreaded;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.lifecycle.internal.builder.BuilderCommon;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Ranks the projects of a reactor by the length of the longest chain of work that still depends on them, i.e. the
+ * weight of the project itself plus the heaviest path through its downstream projects. Projects with a higher rank
+ * sit on the critical path of the build and should be started first.
+ * <p/>
+ * The weight of a project is its expected build time. Projects without a known build time are weighted with the
+ * average of the known ones, or with {@code 1} if nothing is known, in which case the rank degenerates to the number
+ * of projects on the longest downstream chain.
+ *
+ * @since 3.3.2
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+public class CriticalPathRanking
+    implements Comparator<MavenProject>
+{
+
+    private final Map<MavenProject, Long> ranks = new IdentityHashMap<MavenProject, Long>();
+
+    private final Map<MavenProject, Integer> positions = new IdentityHashMap<MavenProject, Integer>();
+
+    /**
+     * Creates a ranking for the specified projects.
+     *
+     * @param projectDependencyGraph The dependency graph of the reactor, must not be {@code null}.
+     * @param projects The projects to rank, in reactor build order, must not be {@code null}.
+     * @param durations The expected build time (in milliseconds) for each project, keyed by
+     *            {@link BuilderCommon#getKey(MavenProject)}, may be {@code null} or incomplete.
+     */
+    public CriticalPathRanking( ProjectDependencyGraph projectDependencyGraph, List<MavenProject> projects,
+                                Map<String, Long> durations )
+    {
+        Map<MavenProject, Long> weights = getWeights( projects, durations );
+
+        // the build order is a topological order, so walking it backwards visits every downstream project first
+        for ( ListIterator<MavenProject> it = projects.listIterator( projects.size() ); it.hasPrevious(); )
+        {
+            MavenProject project = it.previous();
+
+            long downstream = 0;
+            for ( MavenProject dependent : projectDependencyGraph.getDownstreamProjects( project, false ) )
+            {
+                Long rank = ranks.get( dependent );
+                if ( rank != null && rank > downstream )
+                {
+                    downstream = rank;
+                }
+            }
+
+            ranks.put( project, weights.get( project ) + downstream );
+            positions.put( project, it.nextIndex() );
+        }
+    }
+
+    private static Map<MavenProject, Long> getWeights( Collection<MavenProject> projects, Map<String, Long> durations )
+    {
+        Map<MavenProject, Long> weights = new IdentityHashMap<MavenProject, Long>();
+
+        long known = 0;
+        long total = 0;
+        if ( durations != null )
+        {
+            for ( MavenProject project : projects )
+            {
+                Long duration = durations.get( BuilderCommon.getKey( project ) );
+                if ( duration != null )
+                {
+                    long weight = Math.max( 1, duration );
+                    weights.put( project, weight );
+                    total += weight;
+                    known++;
+                }
+            }
+        }
+
+        long defaultWeight = ( known > 0 ) ? Math.max( 1, total / known ) : 1;
+        for ( MavenProject project : projects )
+        {
+            if ( !weights.containsKey( project ) )
+            {
+                weights.put( project, defaultWeight );
+            }
+        }
+
+        return weights;
+    }
+
+    /**
+     * Gets the rank of the specified project.
+     *
+     * @param project The project, must not be {@code null}.
+     * @return The weight of the longest path starting at the project or {@code 0} if the project is unknown.
+     */
+    public long getRank( MavenProject project )
+    {
+        Long rank = ranks.get( project );
+        return ( rank != null ) ? rank : 0;
+    }
+
+    /**
+     * Orders projects by descending rank. Ties are broken by reactor build order, which keeps the scheduling
+     * deterministic.
+     */
+    public int compare( MavenProject p1, MavenProject p2 )
+    {
+        long r1 = getRank( p1 );
+        long r2 = getRank( p2 );
+        if ( r1 != r2 )
+        {
+            return ( r1 > r2 ) ? -1 : 1;
+        }
+
+        return getPosition( p1 ) - getPosition( p2 );
+    }
+
+    private int getPosition( MavenProject project )
+    {
+        Integer position = positions.get( project );
+        return ( position != null ) ? position : Integer.MAX_VALUE;
+    }
+
+}
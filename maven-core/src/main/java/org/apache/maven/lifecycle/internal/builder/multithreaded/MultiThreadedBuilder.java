@@ -29,6 +29,7 @@
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import org.apache.maven.execution.BuildTrace;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.lifecycle.internal.BuildThreadFactory;
 import org.apache.maven.lifecycle.internal.LifecycleModuleBuilder;
@@ -63,6 +64,9 @@
     @Requirement
     private LifecycleModuleBuilder lifecycleModuleBuilder;
 
+    @Requirement
+    private BuildTrace buildTrace;
+
 
     public MultiThreadedBuilder()
     {
@@ -77,30 +81,36 @@ public void build( MavenSession session, ReactorContext reactorContext, ProjectB
             Executors.newFixedThreadPool( Math.min( session.getRequest().getDegreeOfConcurrency(),
                                                     session.getProjects().size() ), new BuildThreadFactory() );
         CompletionService<ProjectSegment> service = new ExecutorCompletionService<ProjectSegment>( executor );
-        ConcurrencyDependencyGraph analyzer =
-            new ConcurrencyDependencyGraph( projectBuilds, session.getProjectDependencyGraph() );
-
-        // Currently disabled
-        ThreadOutputMuxer muxer = null; // new ThreadOutputMuxer( analyzer.getProjectBuilds(), System.out );
 
-        for ( TaskSegment taskSegment : taskSegments )
+        ThreadOutputMuxer muxer = new ThreadOutputMuxer( projectBuilds, System.out, System.err );
+        try
         {
-            Map<MavenProject, ProjectSegment> projectBuildMap = projectBuilds.selectSegment( taskSegment );
-            try
+            for ( TaskSegment taskSegment : taskSegments )
             {
-                multiThreadedProjectTaskSegmentBuild( analyzer, reactorContext, session, service, taskSegment,
-                                                      projectBuildMap, muxer );
-                if ( reactorContext.getReactorBuildStatus().isHalted() )
+                Map<MavenProject, ProjectSegment> projectBuildMap = projectBuilds.selectSegment( taskSegment );
+                // the graph counts down the pending upstream projects, each segment starts from the full count
+                ConcurrencyDependencyGraph analyzer =
+                    new ConcurrencyDependencyGraph( projectBuilds, session.getProjectDependencyGraph() );
+                try
                 {
+                    multiThreadedProjectTaskSegmentBuild( analyzer, reactorContext, session, service, taskSegment,
+                                                          projectBuildMap, muxer );
+                    if ( reactorContext.getReactorBuildStatus().isHalted() )
+                    {
+                        break;
+                    }
+                }
+                catch ( Exception e )
+                {
+                    session.getResult().addException( e );
                     break;
                 }
-            }
-            catch ( Exception e )
-            {
-                session.getResult().addException( e );
-                break;
-            }
 
+            }
+        }
+        finally
+        {
+            muxer.close();
         }
     }
 
@@ -113,7 +123,9 @@ private void multiThreadedProjectTaskSegmentBuild( ConcurrencyDependencyGraph an
     {
 
         // schedule independent projects
-        for ( MavenProject mavenProject : analyzer.getRootSchedulableBuilds() )
+        List<MavenProject> rootProjects = analyzer.getRootSchedulableBuilds();
+        buildTrace.markReleased( rootSession, null, rootProjects );
+        for ( MavenProject mavenProject : rootProjects )
         {
             ProjectSegment projectSegment = projectBuildList.get( mavenProject );
             logger.debug( "Scheduling: " + projectSegment.getProject() );
@@ -134,6 +146,7 @@ private void multiThreadedProjectTaskSegmentBuild( ConcurrencyDependencyGraph an
                 }
                 final List<MavenProject> newItemsThatCanBeBuilt =
                     analyzer.markAsFinished( projectBuild.getProject() );
+                buildTrace.markReleased( rootSession, projectBuild.getProject(), newItemsThatCanBeBuilt );
                 for ( MavenProject mavenProject : newItemsThatCanBeBuilt )
                 {
                     ProjectSegment scheduledDependent = projectBuildList.get( mavenProject );
@@ -185,10 +198,16 @@ private Callable<ProjectSegment> createBuildCallable( final MavenSession rootSes
         {
             public ProjectSegment call()
             {
-                // muxer.associateThreadWithProjectSegment( projectBuild );
-                lifecycleModuleBuilder.buildProject( projectBuild.getSession(), rootSession, reactorContext,
-                                                     projectBuild.getProject(), taskSegment );
-                // muxer.setThisModuleComplete( projectBuild );
+                muxer.associateThreadWithProjectSegment( projectBuild );
+                try
+                {
+                    lifecycleModuleBuilder.buildProject( projectBuild.getSession(), rootSession, reactorContext,
+                                                         projectBuild.getProject(), taskSegment );
+                }
+                finally
+                {
+                    muxer.setThisModuleComplete( projectBuild );
+                }
 
                 return projectBuild;
             }
@@ -0,0 +1,301 @@
+package org.apache.maven.lifecycle.internal.builder.multithreaded;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Queue;
+
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Collects the console output of a single project while it is being built. The standard and error output are kept
+ * in one queue of chunks so their order is preserved, once the queued chunks exceed the memory limit they are moved
+ * to a temporary file. When the project has been built, the collected output is copied to the console in one piece.
+ * If the temporary file cannot be written, the buffer warns and passes the output through to the console from then on.
+ *
+ * @since 3.3.2
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+public class ProjectOutputBuffer
+{
+
+    /**
+     * The default number of bytes kept in memory before the output is spilled to disk.
+     */
+    public static final long DEFAULT_MEMORY_LIMIT = 1024 * 1024;
+
+    /**
+     * The approximate number of bytes that a chunk occupies in memory besides its payload, i.e. the chunk itself, the
+     * header of its byte array and the node of the queue. It counts against the memory limit, so that many small
+     * writes cannot exceed the limit.
+     */
+    static final int CHUNK_OVERHEAD = 64;
+
+    private final PrintStream console;
+
+    private final PrintStream errorConsole;
+
+    private final long memoryLimit;
+
+    /**
+     * Guards the fields below. The flush keeps holding it until the collected output has been copied, so writers
+     * either add their chunk before or write directly to the console after the collected output.
+     */
+    private final Object lock = new Object();
+
+    private final Queue<Chunk> chunks = new LinkedList<Chunk>();
+
+    private long size;
+
+    private boolean closed;
+
+    private File spillFile;
+
+    private DataOutputStream spillStream;
+
+    /**
+     * The number of chunks in the temporary file that have been completely written to disk.
+     */
+    private int spilledChunks;
+
+    private final PrintStream printStream = new PrintStream( new ChunkOutputStream( false ) );
+
+    private final PrintStream errorPrintStream = new PrintStream( new ChunkOutputStream( true ) );
+
+    public ProjectOutputBuffer( PrintStream console )
+    {
+        this( console, console, DEFAULT_MEMORY_LIMIT );
+    }
+
+    public ProjectOutputBuffer( PrintStream console, long memoryLimit )
+    {
+        this( console, console, memoryLimit );
+    }
+
+    public ProjectOutputBuffer( PrintStream console, PrintStream errorConsole, long memoryLimit )
+    {
+        this.console = console;
+        this.errorConsole = errorConsole;
+        this.memoryLimit = memoryLimit;
+    }
+
+    /**
+     * Gets a print stream that writes standard output to this buffer.
+     *
+     * @return The print stream, never {@code null}.
+     */
+    public PrintStream getPrintStream()
+    {
+        return printStream;
+    }
+
+    /**
+     * Gets a print stream that writes error output to this buffer.
+     *
+     * @return The print stream, never {@code null}.
+     */
+    public PrintStream getErrorPrintStream()
+    {
+        return errorPrintStream;
+    }
+
+    private PrintStream getConsole( boolean error )
+    {
+        return error ? errorConsole : console;
+    }
+
+    void write( boolean error, byte[] b, int off, int len )
+    {
+        synchronized ( lock )
+        {
+            if ( !closed )
+            {
+                chunks.add( new Chunk( error, Arrays.copyOfRange( b, off, off + len ) ) );
+                size += len + CHUNK_OVERHEAD;
+                if ( size > memoryLimit )
+                {
+                    spill();
+                }
+                return;
+            }
+        }
+
+        // some thread that outlived the project build, e.g. a forked daemon
+        getConsole( error ).write( b, off, len );
+    }
+
+    private void spill()
+    {
+        try
+        {
+            if ( spillStream == null )
+            {
+                spillFile = createSpillFile();
+                spillStream = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( spillFile ) ) );
+            }
+            for ( Chunk chunk : chunks )
+            {
+                spillStream.writeBoolean( chunk.error );
+                spillStream.writeInt( chunk.bytes.length );
+                spillStream.write( chunk.bytes );
+            }
+            spillStream.flush();
+        }
+        catch ( IOException e )
+        {
+            // the chunks are still queued, the file only counts the chunks of previous spills
+            console.println( "[WARNING] Failed to buffer build output on disk, printing it directly to the console: "
+                + e.getMessage() );
+            copyToConsole();
+            return;
+        }
+
+        spilledChunks += chunks.size();
+        chunks.clear();
+        size = 0;
+    }
+
+    File createSpillFile()
+        throws IOException
+    {
+        return File.createTempFile( "maven-output-", ".log" );
+    }
+
+    /**
+     * Copies the collected output to the console and stops buffering. Output that is written after this call goes
+     * directly to the console.
+     */
+    public void flushToConsole()
+    {
+        synchronized ( lock )
+        {
+            copyToConsole();
+        }
+    }
+
+    private void copyToConsole()
+    {
+        if ( closed )
+        {
+            return;
+        }
+        closed = true;
+
+        // the console's print methods lock the stream, holding the lock keeps the output of other threads out
+        synchronized ( console )
+        {
+            if ( spillFile != null )
+            {
+                copySpillFile();
+            }
+            for ( Chunk chunk = chunks.poll(); chunk != null; chunk = chunks.poll() )
+            {
+                getConsole( chunk.error ).write( chunk.bytes, 0, chunk.bytes.length );
+            }
+            size = 0;
+            console.flush();
+            errorConsole.flush();
+        }
+    }
+
+    private void copySpillFile()
+    {
+        DataInputStream is = null;
+        try
+        {
+            IOUtil.close( spillStream );
+
+            is = new DataInputStream( new BufferedInputStream( new FileInputStream( spillFile ) ) );
+            for ( int i = 0; i < spilledChunks; i++ )
+            {
+                boolean error = is.readBoolean();
+                byte[] bytes = new byte[is.readInt()];
+                is.readFully( bytes );
+                getConsole( error ).write( bytes, 0, bytes.length );
+            }
+        }
+        catch ( IOException e )
+        {
+            console.println( "[WARNING] Failed to read buffered build output from " + spillFile + ": "
+                + e.getMessage() );
+        }
+        finally
+        {
+            IOUtil.close( is );
+            spillStream = null;
+            spilledChunks = 0;
+            spillFile.delete();
+            spillFile = null;
+        }
+    }
+
+    private static class Chunk
+    {
+
+        final boolean error;
+
+        final byte[] bytes;
+
+        Chunk( boolean error, byte[] bytes )
+        {
+            this.error = error;
+            this.bytes = bytes;
+        }
+
+    }
+
+    private class ChunkOutputStream
+        extends OutputStream
+    {
+
+        private final boolean error;
+
+        ChunkOutputStream( boolean error )
+        {
+            this.error = error;
+        }
+
+        @Override
+        public void write( int b )
+        {
+            write( new byte[] { (byte) b }, 0, 1 );
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+        {
+            ProjectOutputBuffer.this.write( error, b, off, len );
+        }
+
+    }
+
+}
@@ -0,0 +1,320 @@
+package org.apache.maven.lifecycle.internal.builder.multithreaded;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * A print stream that sends the output of threads that have been {@link #bind(PrintStream, PrintStream) bound} to
+ * their own stream and the output of all other threads to a common delegate. The binding is not inherited by threads
+ * started from a bound thread, code that hands work over to other threads needs to propagate it via
+ * {@link #getBinding()} and {@link #restore(PrintStream[])}. Installed as {@link System#out} and {@link System#err}
+ * before the logging backend is initialized, this captures both the output printed by plugins and the output of loggers
+ * writing to the console.
+ *
+ * @since 3.3.2
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+public class ThreadBoundPrintStream
+    extends PrintStream
+{
+
+    private static final ThreadLocal<PrintStream[]> STREAMS = new ThreadLocal<PrintStream[]>();
+
+    private final PrintStream delegate;
+
+    private final int index;
+
+    /**
+     * Creates a stream to be installed as {@link System#out}.
+     *
+     * @param delegate The stream that receives the output of unbound threads, must not be {@code null}.
+     */
+    public ThreadBoundPrintStream( PrintStream delegate )
+    {
+        this( delegate, false );
+    }
+
+    /**
+     * Creates a stream to be installed as {@link System#out} or {@link System#err}.
+     *
+     * @param delegate The stream that receives the output of unbound threads, must not be {@code null}.
+     * @param error {@code true} if the stream replaces {@link System#err}, {@code false} for {@link System#out}.
+     */
+    public ThreadBoundPrintStream( PrintStream delegate, boolean error )
+    {
+        super( delegate );
+        this.delegate = delegate;
+        this.index = error ? 1 : 0;
+    }
+
+    /**
+     * Gets the stream that receives the output of unbound threads.
+     *
+     * @return The delegate stream, never {@code null}.
+     */
+    public PrintStream getDelegate()
+    {
+        return delegate;
+    }
+
+    /**
+     * Sends the output of the current thread to the specified streams.
+     *
+     * @param out The stream to write the standard output to, must not be {@code null}.
+     * @param err The stream to write the error output to, must not be {@code null}.
+     */
+    public static void bind( PrintStream out, PrintStream err )
+    {
+        STREAMS.set( new PrintStream[] { out, err } );
+    }
+
+    /**
+     * Sends the output of the current thread back to the delegate streams.
+     */
+    public static void unbind()
+    {
+        STREAMS.remove();
+    }
+
+    /**
+     * Gets the streams the current thread is bound to.
+     *
+     * @return The bound standard and error output streams or {@code null} if the current thread is not bound.
+     */
+    public static PrintStream[] getBinding()
+    {
+        PrintStream[] streams = STREAMS.get();
+        return ( streams != null ) ? streams.clone() : null;
+    }
+
+    /**
+     * Binds the current thread to the specified streams, as previously returned by {@link #getBinding()}.
+     *
+     * @param binding The streams to bind to, may be {@code null} to unbind the current thread.
+     */
+    public static void restore( PrintStream[] binding )
+    {
+        if ( binding != null )
+        {
+            bind( binding[0], binding[1] );
+        }
+        else
+        {
+            unbind();
+        }
+    }
+
+    private PrintStream getStream()
+    {
+        PrintStream[] streams = STREAMS.get();
+        return ( streams != null ) ? streams[index] : delegate;
+    }
+
+    @Override
+    public void flush()
+    {
+        getStream().flush();
+    }
+
+    @Override
+    public void close()
+    {
+        getStream().close();
+    }
+
+    @Override
+    public boolean checkError()
+    {
+        return getStream().checkError();
+    }
+
+    @Override
+    public void write( int b )
+    {
+        getStream().write( b );
+    }
+
+    @Override
+    public void write( byte[] b )
+        throws IOException
+    {
+        getStream().write( b );
+    }
+
+    @Override
+    public void write( byte[] b, int off, int len )
+    {
+        getStream().write( b, off, len );
+    }
+
+    @Override
+    public void print( boolean b )
+    {
+        getStream().print( b );
+    }
+
+    @Override
+    public void print( char c )
+    {
+        getStream().print( c );
+    }
+
+    @Override
+    public void print( int i )
+    {
+        getStream().print( i );
+    }
+
+    @Override
+    public void print( long l )
+    {
+        getStream().print( l );
+    }
+
+    @Override
+    public void print( float f )
+    {
+        getStream().print( f );
+    }
+
+    @Override
+    public void print( double d )
+    {
+        getStream().print( d );
+    }
+
+    @Override
+    public void print( char[] s )
+    {
+        getStream().print( s );
+    }
+
+    @Override
+    public void print( String s )
+    {
+        getStream().print( s );
+    }
+
+    @Override
+    public void print( Object obj )
+    {
+        getStream().print( obj );
+    }
+
+    @Override
+    public void println()
+    {
+        getStream().println();
+    }
+
+    @Override
+    public void println( boolean x )
+    {
+        getStream().println( x );
+    }
+
+    @Override
+    public void println( char x )
+    {
+        getStream().println( x );
+    }
+
+    @Override
+    public void println( int x )
+    {
+        getStream().println( x );
+    }
+
+    @Override
+    public void println( long x )
+    {
+        getStream().println( x );
+    }
+
+    @Override
+    public void println( float x )
+    {
+        getStream().println( x );
+    }
+
+    @Override
+    public void println( double x )
+    {
+        getStream().println( x );
+    }
+
+    @Override
+    public void println( char[] x )
+    {
+        getStream().println( x );
+    }
+
+    @Override
+    public void println( String x )
+    {
+        getStream().println( x );
+    }
+
+    @Override
+    public void println( Object x )
+    {
+        getStream().println( x );
+    }
+
+    @Override
+    public PrintStream format( String format, Object... args )
+    {
+        getStream().format( format, args );
+        return this;
+    }
+
+    @Override
+    public PrintStream format( Locale l, String format, Object... args )
+    {
+        getStream().format( l, format, args );
+        return this;
+    }
+
+    @Override
+    public PrintStream append( CharSequence csq )
+    {
+        getStream().append( csq );
+        return this;
+    }
+
+    @Override
+    public PrintStream append( CharSequence csq, int start, int end )
+    {
+        getStream().append( csq, start, end );
+        return this;
+    }
+
+    @Override
+    public PrintStream append( char c )
+    {
+        getStream().append( c );
+        return this;
+    }
+
+}
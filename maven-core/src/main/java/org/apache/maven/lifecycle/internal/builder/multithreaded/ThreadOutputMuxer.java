@@ -19,13 +19,11 @@
  * under the License.
  */
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -33,445 +31,177 @@
 import org.apache.maven.lifecycle.internal.ProjectSegment;
 
 /**
+ * Keeps the console output of concurrently built projects apart. The first project that starts prints its output
+ * directly to the console. The output of the other projects is collected in a {@link ProjectOutputBuffer} and printed
+ * in one piece once the project has been built and the project owning the console has completed. Then, the running
+ * project that comes first in the build order takes over the console. In a build with a single thread, the output of
+ * every project is printed as it happens.
+ *
  * @since 3.0
  * @author Kristian Rosenvold
  *         <p/>
  *         NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
- *         This class in particular may spontaneusly self-combust and be replaced by a plexus-compliant thread aware
- *         logger implementation at any time.
  */
-@SuppressWarnings( { "SynchronizationOnLocalVariableOrMethodParameter" } )
 public class ThreadOutputMuxer
 {
-    private final Iterator<ProjectSegment> projects;
-
-    private final ThreadLocal<ProjectSegment> projectBuildThreadLocal = new ThreadLocal<ProjectSegment>();
-
-    private final Map<ProjectSegment, ByteArrayOutputStream> streams =
-        new HashMap<ProjectSegment, ByteArrayOutputStream>();
-
-    private final Map<ProjectSegment, PrintStream> printStreams = new HashMap<ProjectSegment, PrintStream>();
-
-    private final ByteArrayOutputStream defaultOutputStreamForUnknownData = new ByteArrayOutputStream();
-
-    private final PrintStream defaultPringStream = new PrintStream( defaultOutputStreamForUnknownData );
 
-    private final Set<ProjectSegment> completedBuilds = Collections.synchronizedSet( new HashSet<ProjectSegment>() );
+    private final Map<ProjectSegment, ProjectOutputBuffer> buffers =
+        new IdentityHashMap<ProjectSegment, ProjectOutputBuffer>();
 
-    private volatile ProjectSegment currentBuild;
-
-    private final PrintStream originalSystemOUtStream;
-
-    private final ConsolePrinter printer;
+    private final List<ProjectSegment> buildOrder = new ArrayList<ProjectSegment>();
 
     /**
-     * A simple but safe solution for printing to the console.
+     * The projects that have started but not yet completed, guarded by this instance like the fields below.
      */
+    private final Set<ProjectSegment> running =
+        Collections.newSetFromMap( new IdentityHashMap<ProjectSegment, Boolean>() );
 
-    class ConsolePrinter
-        implements Runnable
-    {
-        public volatile boolean running;
-
-        private final ProjectBuildList projectBuildList;
-
-        ConsolePrinter( ProjectBuildList projectBuildList )
-        {
-            this.projectBuildList = projectBuildList;
-        }
-
-        public void run()
-        {
-            running = true;
-            for ( ProjectSegment projectBuild : projectBuildList )
-            {
-                final PrintStream projectStream = printStreams.get( projectBuild );
-                ByteArrayOutputStream projectOs = streams.get( projectBuild );
-
-                do
-                {
-                    synchronized ( projectStream )
-                    {
-                        try
-                        {
-                            projectStream.wait( 100 );
-                        }
-                        catch ( InterruptedException e )
-                        {
-                            throw new RuntimeException( e );
-                        }
-                        try
-                        {
-                            projectOs.writeTo( originalSystemOUtStream );
-                        }
-                        catch ( IOException e )
-                        {
-                            throw new RuntimeException( e );
-                        }
+    /**
+     * The completed projects whose output waits for the project owning the console to complete.
+     */
+    private final List<ProjectSegment> pending = new ArrayList<ProjectSegment>();
 
-                        projectOs.reset();
-                    }
-                }
-                while ( !completedBuilds.contains( projectBuild ) );
-            }
-            running = false;
-        }
+    /**
+     * The project whose output goes directly to the console, {@code null} if no project is running.
+     */
+    private ProjectSegment live;
 
-        /*
-        Wait until we are sure the print-stream thread is running.
-         */
+    private final PrintStream previousSystemOut;
 
-        public void waitUntilRunning( boolean expect )
-        {
-            while ( !running == expect )
-            {
-                try
-                {
-                    Thread.sleep( 10 );
-                }
-                catch ( InterruptedException e )
-                {
-                    throw new RuntimeException( e );
-                }
-            }
-        }
-    }
+    private final PrintStream previousSystemErr;
 
+    /**
+     * Creates a new muxer for the specified projects, using the current {@link System#err} for their error output.
+     *
+     * @param segmentChunks The project segments whose output should be collected, must not be {@code null}.
+     * @param originalSystemOut The console to print the collected output to, must not be {@code null}.
+     * @see #ThreadOutputMuxer(ProjectBuildList, PrintStream, PrintStream)
+     */
     public ThreadOutputMuxer( ProjectBuildList segmentChunks, PrintStream originalSystemOut )
     {
-        projects = segmentChunks.iterator();
-        for ( ProjectSegment segmentChunk : segmentChunks )
-        {
-            final ByteArrayOutputStream value = new ByteArrayOutputStream();
-            streams.put( segmentChunk, value );
-            printStreams.put( segmentChunk, new PrintStream( value ) );
-        }
-        setNext();
-        this.originalSystemOUtStream = originalSystemOut;
-        System.setOut( new ThreadBoundPrintStream( this.originalSystemOUtStream ) );
-        printer = new ConsolePrinter( segmentChunks );
-        new Thread( printer ).start();
-        printer.waitUntilRunning( true );
-    }
-
-    public void close()
-    {
-        printer.waitUntilRunning( false );
-        System.setOut( this.originalSystemOUtStream );
-    }
-
-    private void setNext()
-    {
-        currentBuild = projects.hasNext() ? projects.next() : null;
-    }
-
-    private boolean ownsRealOutputStream( ProjectSegment projectBuild )
-    {
-        return projectBuild.equals( currentBuild );
-    }
-
-    private PrintStream getThreadBoundPrintStream()
-    {
-        ProjectSegment threadProject = projectBuildThreadLocal.get();
-        if ( threadProject == null )
-        {
-            return defaultPringStream;
-        }
-        if ( ownsRealOutputStream( threadProject ) )
-        {
-            return originalSystemOUtStream;
-        }
-        return printStreams.get( threadProject );
-    }
-
-    public void associateThreadWithProjectSegment( ProjectSegment projectBuild )
-    {
-        projectBuildThreadLocal.set( projectBuild );
-    }
-
-    public void setThisModuleComplete( ProjectSegment projectBuild )
-    {
-        completedBuilds.add( projectBuild );
-        PrintStream stream = printStreams.get( projectBuild );
-        synchronized ( stream )
-        {
-            stream.notifyAll();
-        }
-        disconnectThreadFromProject();
-    }
-
-    private void disconnectThreadFromProject()
-    {
-        projectBuildThreadLocal.remove();
+        this( segmentChunks, originalSystemOut, System.err );
     }
 
-    private class ThreadBoundPrintStream
-        extends PrintStream
+    /**
+     * Creates a new muxer for the specified projects.
+     *
+     * @param segmentChunks The project segments whose output should be collected, must not be {@code null}.
+     * @param originalSystemOut The console to print the collected output to, must not be {@code null}. If this is a
+     *            {@link ThreadBoundPrintStream}, its delegate is used and {@link System#out} is left alone. Otherwise,
+     *            {@link System#out} is replaced until the muxer gets {@link #close() closed}.
+     * @param originalSystemErr The console to print the collected error output to, must not be {@code null}. Handled
+     *            like the standard output, with {@link System#err} in place of {@link System#out}.
+     */
+    public ThreadOutputMuxer( ProjectBuildList segmentChunks, PrintStream originalSystemOut,
+                              PrintStream originalSystemErr )
     {
-
-        public ThreadBoundPrintStream( PrintStream systemOutStream )
-        {
-            super( systemOutStream );
-        }
-
-        private PrintStream getOutputStreamForCurrentThread()
-        {
-            return getThreadBoundPrintStream();
-        }
-
-        @Override
-        public void println()
-        {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.println();
-                currentStream.notifyAll();
-            }
-        }
-
-        @Override
-        public void print( char c )
-        {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( c );
-                currentStream.notifyAll();
-            }
-        }
-
-        @Override
-        public void println( char x )
-        {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.println( x );
-                currentStream.notifyAll();
-            }
-        }
-
-        @Override
-        public void print( double d )
-        {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( d );
-                currentStream.notifyAll();
-            }
-        }
-
-        @Override
-        public void println( double x )
-        {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.println( x );
-                currentStream.notifyAll();
-            }
-        }
-
-        @Override
-        public void print( float f )
-        {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( f );
-                currentStream.notifyAll();
-            }
-        }
-
-        @Override
-        public void println( float x )
+        PrintStream console;
+        if ( originalSystemOut instanceof ThreadBoundPrintStream )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.println( x );
-                currentStream.notifyAll();
-            }
+            console = ( (ThreadBoundPrintStream) originalSystemOut ).getDelegate();
+            previousSystemOut = null;
         }
-
-        @Override
-        public void print( int i )
-        {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( i );
-                currentStream.notifyAll();
-            }
-        }
-
-        @Override
-        public void println( int x )
-        {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.println( x );
-                currentStream.notifyAll();
-            }
-        }
-
-        @Override
-        public void print( long l )
-        {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( l );
-                currentStream.notifyAll();
-            }
-        }
-
-        @Override
-        public void println( long x )
+        else
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( x );
-                currentStream.notifyAll();
-            }
+            console = originalSystemOut;
+            previousSystemOut = System.out;
+            System.setOut( new ThreadBoundPrintStream( console ) );
         }
 
-        @Override
-        public void print( boolean b )
+        PrintStream errorConsole;
+        if ( originalSystemErr instanceof ThreadBoundPrintStream )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( b );
-                currentStream.notifyAll();
-            }
+            errorConsole = ( (ThreadBoundPrintStream) originalSystemErr ).getDelegate();
+            previousSystemErr = null;
         }
-
-        @Override
-        public void println( boolean x )
+        else
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( x );
-                currentStream.notifyAll();
-            }
+            errorConsole = originalSystemErr;
+            previousSystemErr = System.err;
+            System.setErr( new ThreadBoundPrintStream( errorConsole, true ) );
         }
 
-        @Override
-        public void print( char s[] )
+        for ( ProjectSegment segmentChunk : segmentChunks )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( s );
-                currentStream.notifyAll();
-            }
+            buildOrder.add( segmentChunk );
+            buffers.put( segmentChunk,
+                         new ProjectOutputBuffer( console, errorConsole, ProjectOutputBuffer.DEFAULT_MEMORY_LIMIT ) );
         }
+    }
 
-        @Override
-        public void println( char x[] )
+    /**
+     * Prints the output of projects whose build did not complete and restores the original {@link System#out} and
+     * {@link System#err}.
+     */
+    public void close()
+    {
+        synchronized ( this )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
+            for ( ProjectSegment completed : pending )
             {
-                currentStream.print( x );
-                currentStream.notifyAll();
+                buffers.get( completed ).flushToConsole();
             }
-        }
-
-        @Override
-        public void print( Object obj )
-        {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
+            pending.clear();
+            for ( ProjectSegment projectBuild : buildOrder )
             {
-                currentStream.print( obj );
-                currentStream.notifyAll();
+                buffers.get( projectBuild ).flushToConsole();
             }
         }
 
-        @Override
-        public void println( Object x )
+        if ( previousSystemOut != null )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.println( x );
-                currentStream.notifyAll();
-            }
+            System.setOut( previousSystemOut );
         }
-
-        @Override
-        public void print( String s )
+        if ( previousSystemErr != null )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( s );
-                currentStream.notifyAll();
-            }
+            System.setErr( previousSystemErr );
         }
+    }
 
-        @Override
-        public void println( String x )
+    public void associateThreadWithProjectSegment( ProjectSegment projectBuild )
+    {
+        ProjectOutputBuffer buffer = buffers.get( projectBuild );
+        synchronized ( this )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
+            running.add( projectBuild );
+            if ( live == null )
             {
-                currentStream.println( x );
-                currentStream.notifyAll();
+                live = projectBuild;
+                buffer.flushToConsole();
             }
         }
+        ThreadBoundPrintStream.bind( buffer.getPrintStream(), buffer.getErrorPrintStream() );
+    }
 
-        @Override
-        public void write( byte b[], int off, int len )
+    public void setThisModuleComplete( ProjectSegment projectBuild )
+    {
+        ThreadBoundPrintStream.unbind();
+        synchronized ( this )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
+            running.remove( projectBuild );
+            if ( projectBuild != live )
             {
-                currentStream.write( b, off, len );
-                currentStream.notifyAll();
+                pending.add( projectBuild );
+                return;
             }
-        }
 
-        @Override
-        public void close()
-        {
-            getOutputStreamForCurrentThread().close();
-        }
-
-        @Override
-        public void flush()
-        {
-            getOutputStreamForCurrentThread().flush();
-        }
-
-        @Override
-        public void write( int b )
-        {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
+            for ( ProjectSegment completed : pending )
             {
-                currentStream.write( b );
-                currentStream.notifyAll();
+                buffers.get( completed ).flushToConsole();
             }
-        }
+            pending.clear();
 
-        @Override
-        public void write( byte b[] )
-            throws IOException
-        {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
+            live = null;
+            for ( ProjectSegment next : buildOrder )
             {
-                currentStream.write( b );
-                currentStream.notifyAll();
+                if ( running.contains( next ) )
+                {
+                    live = next;
+                    buffers.get( next ).flushToConsole();
+                    break;
+                }
             }
         }
     }
+
 }
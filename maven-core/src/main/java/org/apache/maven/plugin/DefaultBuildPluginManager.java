@@ -26,6 +26,7 @@
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.execution.MojoExecutionEvent;
 import org.apache.maven.execution.MojoExecutionListener;
+import org.apache.maven.execution.MojoProfiler;
 import org.apache.maven.execution.scope.internal.MojoExecutionScope;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.descriptor.MojoDescriptor;
@@ -54,6 +55,9 @@
     @Requirement
     private MojoExecutionScope scope;
 
+    @Requirement
+    private MojoProfiler mojoProfiler;
+
     private MojoExecutionListener mojoExecutionListener;
 
     // this tricks plexus-component-metadata generate required metadata
@@ -97,6 +101,7 @@ public void executeMojo( MavenSession session, MojoExecution mojoExecution )
         Mojo mojo = null;
 
         ClassRealm pluginRealm;
+        MojoProfiler.Measurement measurement = mojoProfiler.start( session, mojoExecution, MojoProfiler.Phase.REALM );
         try
         {
             pluginRealm = getPluginRealm( session, mojoDescriptor.getPluginDescriptor() );
@@ -105,6 +110,10 @@ public void executeMojo( MavenSession session, MojoExecution mojoExecution )
         {
             throw new PluginExecutionException( mojoExecution, project, e );
         }
+        finally
+        {
+            measurement.stop();
+        }
 
         ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
         Thread.currentThread().setContextClassLoader( pluginRealm );
@@ -118,7 +127,15 @@ public void executeMojo( MavenSession session, MojoExecution mojoExecution )
             scope.seed( MavenProject.class, project );
             scope.seed( MojoExecution.class, mojoExecution );
 
-            mojo = mavenPluginManager.getConfiguredMojo( Mojo.class, session, mojoExecution );
+            measurement = mojoProfiler.start( session, mojoExecution, MojoProfiler.Phase.CONFIGURATION );
+            try
+            {
+                mojo = mavenPluginManager.getConfiguredMojo( Mojo.class, session, mojoExecution );
+            }
+            finally
+            {
+                measurement.stop();
+            }
 
             legacySupport.setSession( session );
 
@@ -131,7 +148,15 @@ public void executeMojo( MavenSession session, MojoExecution mojoExecution )
 
                 mojoExecutionListener.beforeMojoExecution( mojoExecutionEvent );
 
-                mojo.execute();
+                measurement = mojoProfiler.start( session, mojoExecution, MojoProfiler.Phase.EXECUTION );
+                try
+                {
+                    mojo.execute();
+                }
+                finally
+                {
+                    measurement.stop();
+                }
 
                 mojoExecutionListener.afterMojoExecutionSuccess( mojoExecutionEvent );
             }
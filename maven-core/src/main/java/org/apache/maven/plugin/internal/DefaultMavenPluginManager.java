@@ -26,7 +26,6 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
-import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -100,10 +99,13 @@
 import org.codehaus.plexus.util.ReaderFactory;
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.graph.DependencyFilter;
 import org.eclipse.aether.graph.DependencyNode;
 import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.util.ConfigUtils;
 import org.eclipse.aether.util.filter.AndDependencyFilter;
 import org.eclipse.aether.util.graph.visitor.PreorderNodeListGenerator;
 
@@ -129,6 +131,15 @@
      */
     public static final String KEY_EXTENSIONS_REALMS = DefaultMavenPluginManager.class.getName() + "/extensionsRealms";
 
+    /**
+     * The name of the user/system property that controls the persistent index of plugin descriptors, which is kept
+     * in the local repository to avoid opening plugin JARs and parsing their descriptors on every build. Disabled by
+     * default, set to {@code true} to enable.
+     *
+     * @since 3.3.2
+     */
+    public static final String DESCRIPTOR_INDEX_PROPERTY = "maven.pluginDescriptorIndex";
+
     @Requirement
     private Logger logger;
 
@@ -166,8 +177,15 @@
 
     private PluginDescriptorBuilder builder = new PluginDescriptorBuilder();
 
-    public synchronized PluginDescriptor getPluginDescriptor( Plugin plugin, List<RemoteRepository> repositories,
-                                                              RepositorySystemSession session )
+    /**
+     * Serializes the loading of the same plugin descriptor/realm, unrelated plugins are loaded concurrently.
+     */
+    private final KeyedLocks locks = new KeyedLocks();
+
+    private final PluginDescriptorIndex descriptorIndex = new PluginDescriptorIndex();
+
+    public PluginDescriptor getPluginDescriptor( Plugin plugin, List<RemoteRepository> repositories,
+                                                 RepositorySystemSession session )
         throws PluginResolutionException, PluginDescriptorParsingException, InvalidPluginDescriptorException
     {
         PluginDescriptorCache.Key cacheKey = pluginDescriptorCache.createKey( plugin, repositories, session );
@@ -176,16 +194,29 @@ public synchronized PluginDescriptor getPluginDescriptor( Plugin plugin, List<Re
 
         if ( pluginDescriptor == null )
         {
-            org.eclipse.aether.artifact.Artifact artifact =
-                pluginDependenciesResolver.resolve( plugin, repositories, session );
+            KeyedLocks.Handle lock = lock( cacheKey, plugin );
+            try
+            {
+                pluginDescriptor = pluginDescriptorCache.get( cacheKey );
+
+                if ( pluginDescriptor == null )
+                {
+                    org.eclipse.aether.artifact.Artifact artifact =
+                        pluginDependenciesResolver.resolve( plugin, repositories, session );
 
-            Artifact pluginArtifact = RepositoryUtils.toArtifact( artifact );
+                    Artifact pluginArtifact = RepositoryUtils.toArtifact( artifact );
 
-            pluginDescriptor = extractPluginDescriptor( pluginArtifact, plugin );
+                    pluginDescriptor = extractPluginDescriptor( pluginArtifact, plugin, session );
 
-            pluginDescriptor.setRequiredMavenVersion( artifact.getProperty( "requiredMavenVersion", null ) );
+                    pluginDescriptor.setRequiredMavenVersion( artifact.getProperty( "requiredMavenVersion", null ) );
 
-            pluginDescriptorCache.put( cacheKey, pluginDescriptor );
+                    pluginDescriptorCache.put( cacheKey, pluginDescriptor );
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
         }
 
         pluginDescriptor.setPlugin( plugin );
@@ -193,7 +224,8 @@ public synchronized PluginDescriptor getPluginDescriptor( Plugin plugin, List<Re
         return pluginDescriptor;
     }
 
-    private PluginDescriptor extractPluginDescriptor( Artifact pluginArtifact, Plugin plugin )
+    private PluginDescriptor extractPluginDescriptor( Artifact pluginArtifact, Plugin plugin,
+                                                      RepositorySystemSession session )
         throws PluginDescriptorParsingException, InvalidPluginDescriptorException
     {
         PluginDescriptor pluginDescriptor = null;
@@ -204,21 +236,35 @@ private PluginDescriptor extractPluginDescriptor( Artifact pluginArtifact, Plugi
         {
             if ( pluginFile.isFile() )
             {
-                JarFile pluginJar = new JarFile( pluginFile, false );
-                try
-                {
-                    ZipEntry pluginDescriptorEntry = pluginJar.getEntry( getPluginDescriptorLocation() );
+                File indexDirectory = getDescriptorIndexDirectory( session );
 
-                    if ( pluginDescriptorEntry != null )
+                Xpp3Dom dom = descriptorIndex.get( indexDirectory, pluginFile );
+
+                if ( dom == null )
+                {
+                    JarFile pluginJar = new JarFile( pluginFile, false );
+                    try
                     {
-                        InputStream is = pluginJar.getInputStream( pluginDescriptorEntry );
+                        ZipEntry pluginDescriptorEntry = pluginJar.getEntry( getPluginDescriptorLocation() );
 
-                        pluginDescriptor = parsePluginDescriptor( is, plugin, pluginFile.getAbsolutePath() );
+                        if ( pluginDescriptorEntry != null )
+                        {
+                            InputStream is = pluginJar.getInputStream( pluginDescriptorEntry );
+
+                            dom = readPluginDescriptor( is, plugin, pluginFile.getAbsolutePath() );
+
+                            descriptorIndex.put( indexDirectory, pluginFile, pluginDescriptorEntry, dom );
+                        }
+                    }
+                    finally
+                    {
+                        pluginJar.close();
                     }
                 }
-                finally
+
+                if ( dom != null )
                 {
-                    pluginJar.close();
+                    pluginDescriptor = parsePluginDescriptor( dom, plugin, pluginFile.getAbsolutePath() );
                 }
             }
             else
@@ -230,7 +276,9 @@ private PluginDescriptor extractPluginDescriptor( Artifact pluginArtifact, Plugi
                     InputStream is = new BufferedInputStream( new FileInputStream( pluginXml ) );
                     try
                     {
-                        pluginDescriptor = parsePluginDescriptor( is, plugin, pluginXml.getAbsolutePath() );
+                        Xpp3Dom dom = readPluginDescriptor( is, plugin, pluginXml.getAbsolutePath() );
+
+                        pluginDescriptor = parsePluginDescriptor( dom, plugin, pluginXml.getAbsolutePath() );
                     }
                     finally
                     {
@@ -269,21 +317,40 @@ private String getPluginDescriptorLocation()
         return "META-INF/maven/plugin.xml";
     }
 
-    private PluginDescriptor parsePluginDescriptor( InputStream is, Plugin plugin, String descriptorLocation )
+    private File getDescriptorIndexDirectory( RepositorySystemSession session )
+    {
+        if ( session == null || session.getLocalRepository() == null
+            || !ConfigUtils.getBoolean( session, false, DESCRIPTOR_INDEX_PROPERTY ) )
+        {
+            return null;
+        }
+        return new File( session.getLocalRepository().getBasedir(), ".cache/plugin-descriptors" );
+    }
+
+    private Xpp3Dom readPluginDescriptor( InputStream is, Plugin plugin, String descriptorLocation )
         throws PluginDescriptorParsingException
     {
         try
         {
-            Reader reader = ReaderFactory.newXmlReader( is );
-
-            PluginDescriptor pluginDescriptor = builder.build( reader, descriptorLocation );
-
-            return pluginDescriptor;
+            return Xpp3DomBuilder.build( ReaderFactory.newXmlReader( is ) );
         }
         catch ( IOException e )
         {
             throw new PluginDescriptorParsingException( plugin, descriptorLocation, e );
         }
+        catch ( XmlPullParserException e )
+        {
+            throw new PluginDescriptorParsingException( plugin, descriptorLocation, e );
+        }
+    }
+
+    private PluginDescriptor parsePluginDescriptor( Xpp3Dom dom, Plugin plugin, String descriptorLocation )
+        throws PluginDescriptorParsingException
+    {
+        try
+        {
+            return builder.build( new XmlPlexusConfiguration( dom ), descriptorLocation );
+        }
         catch ( PlexusConfigurationException e )
         {
             throw new PluginDescriptorParsingException( plugin, descriptorLocation, e );
@@ -328,8 +395,8 @@ public void checkRequiredMavenVersion( PluginDescriptor pluginDescriptor )
         }
     }
 
-    public synchronized void setupPluginRealm( PluginDescriptor pluginDescriptor, MavenSession session,
-                                               ClassLoader parent, List<String> imports, DependencyFilter filter )
+    public void setupPluginRealm( PluginDescriptor pluginDescriptor, MavenSession session, ClassLoader parent,
+                                  List<String> imports, DependencyFilter filter )
         throws PluginResolutionException, PluginContainerException
     {
         Plugin plugin = pluginDescriptor.getPlugin();
@@ -369,23 +436,33 @@ public synchronized void setupPluginRealm( PluginDescriptor pluginDescriptor, Ma
                 pluginRealmCache.createKey( plugin, parent, foreignImports, filter,
                                             project.getRemotePluginRepositories(), session.getRepositorySession() );
 
-            PluginRealmCache.CacheRecord cacheRecord = pluginRealmCache.get( cacheKey );
+            PluginRealmCache.CacheRecord cacheRecord;
 
-            if ( cacheRecord != null )
+            KeyedLocks.Handle lock = lock( cacheKey, plugin );
+            try
             {
-                pluginDescriptor.setClassRealm( cacheRecord.realm );
-                pluginDescriptor.setArtifacts( new ArrayList<Artifact>( cacheRecord.artifacts ) );
-                for ( ComponentDescriptor<?> componentDescriptor : pluginDescriptor.getComponents() )
+                cacheRecord = pluginRealmCache.get( cacheKey );
+
+                if ( cacheRecord != null )
                 {
-                    componentDescriptor.setRealm( cacheRecord.realm );
+                    pluginDescriptor.setClassRealm( cacheRecord.realm );
+                    pluginDescriptor.setArtifacts( new ArrayList<Artifact>( cacheRecord.artifacts ) );
+                    for ( ComponentDescriptor<?> componentDescriptor : pluginDescriptor.getComponents() )
+                    {
+                        componentDescriptor.setRealm( cacheRecord.realm );
+                    }
+                }
+                else
+                {
+                    createPluginRealm( pluginDescriptor, session, parent, foreignImports, filter );
+
+                    cacheRecord = pluginRealmCache.put( cacheKey, pluginDescriptor.getClassRealm(),
+                                                        pluginDescriptor.getArtifacts() );
                 }
             }
-            else
+            finally
             {
-                createPluginRealm( pluginDescriptor, session, parent, foreignImports, filter );
-
-                cacheRecord =
-                    pluginRealmCache.put( cacheKey, pluginDescriptor.getClassRealm(), pluginDescriptor.getArtifacts() );
+                lock.unlock();
             }
 
             pluginRealmCache.register( project, cacheKey, cacheRecord );
@@ -878,59 +955,85 @@ public ExtensionRealmCache.CacheRecord setupExtensionsRealm( MavenProject projec
 
         // create and cache extensions realms
         final ExtensionRealmCache.Key extensionKey = extensionRealmCache.createKey( artifacts );
-        extensionRecord = extensionRealmCache.get( extensionKey );
-        if ( extensionRecord == null )
+        KeyedLocks.Handle lock = lock( extensionKey, plugin );
+        try
         {
-            ClassRealm extensionRealm = classRealmManager.createExtensionRealm( plugin,
-                                                                                toAetherArtifacts( artifacts ) );
+            extensionRecord = extensionRealmCache.get( extensionKey );
+            if ( extensionRecord == null )
+            {
+                extensionRecord = createExtensionRealm( plugin, artifacts, extensionKey, session );
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        extensionRealmCache.register( project, extensionKey, extensionRecord );
+        pluginRealms.put( pluginKey, extensionRecord );
+
+        return extensionRecord;
+    }
 
-            // TODO figure out how to use the same PluginDescriptor when running mojos
+    private ExtensionRealmCache.CacheRecord createExtensionRealm( Plugin plugin, List<Artifact> artifacts,
+                                                                  ExtensionRealmCache.Key extensionKey,
+                                                                  RepositorySystemSession session )
+        throws PluginContainerException
+    {
+        ClassRealm extensionRealm = classRealmManager.createExtensionRealm( plugin, toAetherArtifacts( artifacts ) );
 
-            PluginDescriptor pluginDescriptor = null;
-            if ( plugin.isExtensions() && !artifacts.isEmpty() )
+        // TODO figure out how to use the same PluginDescriptor when running mojos
+
+        PluginDescriptor pluginDescriptor = null;
+        if ( plugin.isExtensions() && !artifacts.isEmpty() )
+        {
+            // ignore plugin descriptor parsing errors at this point
+            // these errors will reported during calculation of project build execution plan
+            try
             {
-                // ignore plugin descriptor parsing errors at this point
-                // these errors will reported during calculation of project build execution plan
-                try
-                {
-                    pluginDescriptor = extractPluginDescriptor( artifacts.get( 0 ), plugin );
-                }
-                catch ( PluginDescriptorParsingException e )
-                {
-                    // ignore, see above
-                }
-                catch ( InvalidPluginDescriptorException e )
-                {
-                    // ignore, see above
-                }
+                pluginDescriptor = extractPluginDescriptor( artifacts.get( 0 ), plugin, session );
+            }
+            catch ( PluginDescriptorParsingException e )
+            {
+                // ignore, see above
             }
+            catch ( InvalidPluginDescriptorException e )
+            {
+                // ignore, see above
+            }
+        }
 
-            discoverPluginComponents( extensionRealm, plugin, pluginDescriptor );
+        discoverPluginComponents( extensionRealm, plugin, pluginDescriptor );
 
-            ExtensionDescriptor extensionDescriptor = null;
-            Artifact extensionArtifact = artifacts.get( 0 );
-            try
+        ExtensionDescriptor extensionDescriptor = null;
+        Artifact extensionArtifact = artifacts.get( 0 );
+        try
+        {
+            extensionDescriptor = extensionDescriptorBuilder.build( extensionArtifact.getFile() );
+        }
+        catch ( IOException e )
+        {
+            String message = "Invalid extension descriptor for " + plugin.getId() + ": " + e.getMessage();
+            if ( logger.isDebugEnabled() )
             {
-                extensionDescriptor = extensionDescriptorBuilder.build( extensionArtifact.getFile() );
+                logger.error( message, e );
             }
-            catch ( IOException e )
+            else
             {
-                String message = "Invalid extension descriptor for " + plugin.getId() + ": " + e.getMessage();
-                if ( logger.isDebugEnabled() )
-                {
-                    logger.error( message, e );
-                }
-                else
-                {
-                    logger.error( message );
-                }
+                logger.error( message );
             }
-            extensionRecord = extensionRealmCache.put( extensionKey, extensionRealm, extensionDescriptor, artifacts );
         }
-        extensionRealmCache.register( project, extensionKey, extensionRecord );
-        pluginRealms.put( pluginKey, extensionRecord );
+        return extensionRealmCache.put( extensionKey, extensionRealm, extensionDescriptor, artifacts );
+    }
 
-        return extensionRecord;
+    private KeyedLocks.Handle lock( Object key, Plugin plugin )
+    {
+        KeyedLocks.Handle lock = locks.lock( key );
+        if ( lock.getWaitTime() > 0 && logger.isDebugEnabled() )
+        {
+            logger.debug( "Waited " + lock.getWaitTime() + " ms for concurrent loading of " + plugin.getId()
+                + " (plugin manager locks: " + locks + ")" );
+        }
+        return lock;
     }
 
     private List<Artifact> resolveExtensionArtifacts( Plugin extensionPlugin, List<RemoteRepository> repositories,
@@ -0,0 +1,185 @@
+package org.apache.maven.plugin.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coordinates threads that work on the same key while letting threads with different keys proceed concurrently. The
+ * lock of a key is dropped once no thread holds or awaits it. Besides, the number of acquisitions that had to wait for
+ * another thread and the accumulated waiting time are recorded.
+ *
+ * @since 3.3.2
+ */
+class KeyedLocks
+{
+
+    private final ConcurrentMap<Object, Handle> locks = new ConcurrentHashMap<Object, Handle>();
+
+    private final AtomicLong acquisitions = new AtomicLong();
+
+    private final AtomicLong contentions = new AtomicLong();
+
+    private final AtomicLong waitTime = new AtomicLong();
+
+    /**
+     * Acquires the lock for the specified key, blocking until it becomes available.
+     *
+     * @param key The key to lock, must not be {@code null}.
+     * @return The handle to release the lock with, never {@code null}.
+     */
+    public Handle lock( Object key )
+    {
+        Handle handle;
+        while ( true )
+        {
+            handle = locks.get( key );
+            if ( handle == null )
+            {
+                handle = new Handle( key );
+                Handle other = locks.putIfAbsent( key, handle );
+                if ( other != null )
+                {
+                    handle = other;
+                }
+            }
+            if ( handle.retain() )
+            {
+                break;
+            }
+        }
+
+        acquisitions.incrementAndGet();
+        if ( !handle.lock.tryLock() )
+        {
+            long start = System.nanoTime();
+            handle.lock.lock();
+            handle.waited = System.nanoTime() - start;
+            contentions.incrementAndGet();
+            waitTime.addAndGet( handle.waited );
+        }
+        else
+        {
+            handle.waited = 0;
+        }
+
+        return handle;
+    }
+
+    /**
+     * Gets the number of acquisitions so far.
+     *
+     * @return The number of acquisitions.
+     */
+    public long getAcquisitions()
+    {
+        return acquisitions.get();
+    }
+
+    /**
+     * Gets the number of acquisitions that had to wait for another thread to release the lock.
+     *
+     * @return The number of contended acquisitions.
+     */
+    public long getContentions()
+    {
+        return contentions.get();
+    }
+
+    /**
+     * Gets the total time that threads spent waiting for a lock.
+     *
+     * @return The accumulated waiting time in milliseconds.
+     */
+    public long getWaitTime()
+    {
+        return TimeUnit.NANOSECONDS.toMillis( waitTime.get() );
+    }
+
+    @Override
+    public String toString()
+    {
+        return getContentions() + "/" + getAcquisitions() + " contended, " + getWaitTime() + " ms waited";
+    }
+
+    /**
+     * The lock of a single key.
+     */
+    final class Handle
+    {
+
+        final Object key;
+
+        final ReentrantLock lock = new ReentrantLock();
+
+        private long waited;
+
+        private int users;
+
+        private boolean retired;
+
+        Handle( Object key )
+        {
+            this.key = key;
+        }
+
+        /**
+         * Gets the time the current holder of the lock had to wait for it.
+         *
+         * @return The waiting time in milliseconds, {@code 0} if the lock was acquired without contention.
+         */
+        public long getWaitTime()
+        {
+            return TimeUnit.NANOSECONDS.toMillis( waited );
+        }
+
+        synchronized boolean retain()
+        {
+            if ( retired )
+            {
+                return false;
+            }
+            users++;
+            return true;
+        }
+
+        /**
+         * Releases the lock acquired via {@link KeyedLocks#lock(Object)}.
+         */
+        public void unlock()
+        {
+            lock.unlock();
+            synchronized ( this )
+            {
+                if ( --users <= 0 )
+                {
+                    retired = true;
+                    locks.remove( key, this );
+                }
+            }
+        }
+
+    }
+
+}
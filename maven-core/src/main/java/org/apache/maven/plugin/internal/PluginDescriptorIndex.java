@@ -0,0 +1,311 @@
+package org.apache.maven.plugin.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Persists the parsed plugin descriptors of plugin JARs across builds. Each entry is a file named after the hash of
+ * the JAR's path and holds the XML tree of {@code META-INF/maven/plugin.xml} in a compact binary form, with repeated
+ * strings like element names written only once. An entry is used without opening the JAR while the size and the
+ * timestamp of the JAR match the recorded values. Otherwise, the JAR's central directory is consulted and the entry is
+ * still used if the CRC and the size of the descriptor are unchanged, so the descriptor needs neither to be inflated
+ * nor to be parsed again, and rebuilding the JAR with an unchanged descriptor keeps the entry valid.
+ *
+ * @since 3.3.2
+ */
+class PluginDescriptorIndex
+{
+
+    private static final int MAGIC = 0x4D504449;
+
+    private static final int FORMAT = 3;
+
+    /**
+     * Gets the indexed plugin descriptor of the specified plugin JAR.
+     *
+     * @param directory The directory of the index, may be {@code null} if the index is disabled.
+     * @param pluginFile The plugin JAR, must not be {@code null}.
+     * @return The root element of the plugin descriptor or {@code null} if the JAR is not indexed or has changed.
+     */
+    public Xpp3Dom get( File directory, File pluginFile )
+    {
+        File file = getIndexFile( directory, pluginFile );
+        if ( file == null || !file.isFile() )
+        {
+            return null;
+        }
+
+        InputStream is = null;
+        try
+        {
+            is = new FileInputStream( file );
+            DataInputStream in = new DataInputStream( new BufferedInputStream( is ) );
+
+            if ( in.readInt() != MAGIC || in.readInt() != FORMAT )
+            {
+                return null;
+            }
+            if ( !pluginFile.getAbsolutePath().equals( in.readUTF() ) )
+            {
+                return null;
+            }
+            long length = in.readLong();
+            long lastModified = in.readLong();
+            String entryName = in.readUTF();
+            long size = in.readLong();
+            long crc = in.readLong();
+
+            ZipEntry entry = null;
+            if ( pluginFile.length() != length || pluginFile.lastModified() != lastModified )
+            {
+                ZipFile zip = new ZipFile( pluginFile );
+                try
+                {
+                    entry = zip.getEntry( entryName );
+                    if ( entry == null || entry.getSize() != size || entry.getCrc() != crc )
+                    {
+                        return null;
+                    }
+                }
+                finally
+                {
+                    zip.close();
+                }
+            }
+
+            Xpp3Dom dom = readDom( in, new ArrayList<String>() );
+
+            if ( entry != null )
+            {
+                // the JAR was rebuilt with the same descriptor, record its new size and timestamp
+                is.close();
+                is = null;
+                put( directory, pluginFile, entry, dom );
+            }
+
+            return dom;
+        }
+        catch ( IOException e )
+        {
+            // corrupt or concurrently replaced, the descriptor will be read from the JAR
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( is );
+        }
+    }
+
+    /**
+     * Records the plugin descriptor of the specified plugin JAR.
+     *
+     * @param directory The directory of the index, may be {@code null} if the index is disabled.
+     * @param pluginFile The plugin JAR, must not be {@code null}.
+     * @param entry The JAR entry of the plugin descriptor, must not be {@code null}.
+     * @param dom The root element of the plugin descriptor, must not be {@code null}.
+     */
+    public void put( File directory, File pluginFile, ZipEntry entry, Xpp3Dom dom )
+    {
+        File file = getIndexFile( directory, pluginFile );
+        if ( file == null || entry.getCrc() < 0 || entry.getSize() < 0 )
+        {
+            return;
+        }
+
+        File tmp = null;
+        OutputStream os = null;
+        try
+        {
+            file.getParentFile().mkdirs();
+
+            tmp = File.createTempFile( file.getName() + '.', ".tmp", file.getParentFile() );
+
+            os = new FileOutputStream( tmp );
+            DataOutputStream out = new DataOutputStream( new BufferedOutputStream( os ) );
+            out.writeInt( MAGIC );
+            out.writeInt( FORMAT );
+            out.writeUTF( pluginFile.getAbsolutePath() );
+            out.writeLong( pluginFile.length() );
+            out.writeLong( pluginFile.lastModified() );
+            out.writeUTF( entry.getName() );
+            out.writeLong( entry.getSize() );
+            out.writeLong( entry.getCrc() );
+            writeDom( out, dom, new HashMap<String, Integer>() );
+            out.close();
+            os = null;
+
+            if ( !tmp.renameTo( file ) )
+            {
+                file.delete();
+                tmp.renameTo( file );
+            }
+        }
+        catch ( IOException e )
+        {
+            // the index is best effort, the descriptor will simply be read from the JAR again next time
+        }
+        finally
+        {
+            IOUtil.close( os );
+            if ( tmp != null )
+            {
+                tmp.delete();
+            }
+        }
+    }
+
+    private static File getIndexFile( File directory, File pluginFile )
+    {
+        if ( directory == null )
+        {
+            return null;
+        }
+
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance( "SHA-1" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+
+        StringBuilder buffer = new StringBuilder( 44 );
+        for ( byte b : digest.digest( pluginFile.getAbsolutePath().getBytes() ) )
+        {
+            buffer.append( Character.forDigit( ( b >> 4 ) & 0x0F, 16 ) ).append( Character.forDigit( b & 0x0F, 16 ) );
+        }
+        return new File( directory, buffer.append( ".bin" ).toString() );
+    }
+
+    private static void writeDom( DataOutputStream out, Xpp3Dom dom, Map<String, Integer> strings )
+        throws IOException
+    {
+        writeString( out, dom.getName(), strings );
+        writeString( out, dom.getValue(), strings );
+
+        String[] attributes = dom.getAttributeNames();
+        out.writeShort( attributes.length );
+        for ( String attribute : attributes )
+        {
+            writeString( out, attribute, strings );
+            writeString( out, dom.getAttribute( attribute ), strings );
+        }
+
+        int count = dom.getChildCount();
+        out.writeInt( count );
+        for ( int i = 0; i < count; i++ )
+        {
+            writeDom( out, dom.getChild( i ), strings );
+        }
+    }
+
+    private static Xpp3Dom readDom( DataInputStream in, List<String> strings )
+        throws IOException
+    {
+        Xpp3Dom dom = new Xpp3Dom( readString( in, strings ) );
+        dom.setValue( readString( in, strings ) );
+
+        for ( int i = in.readShort(); i > 0; i-- )
+        {
+            dom.setAttribute( readString( in, strings ), readString( in, strings ) );
+        }
+
+        for ( int i = in.readInt(); i > 0; i-- )
+        {
+            dom.addChild( readDom( in, strings ) );
+        }
+
+        return dom;
+    }
+
+    /**
+     * Writes a string as a reference to a previously written string or, upon first occurrence, as UTF-8 bytes.
+     */
+    private static void writeString( DataOutputStream out, String value, Map<String, Integer> strings )
+        throws IOException
+    {
+        if ( value == null )
+        {
+            out.writeInt( -1 );
+            return;
+        }
+
+        Integer index = strings.get( value );
+        if ( index != null )
+        {
+            out.writeInt( index );
+        }
+        else
+        {
+            strings.put( value, strings.size() );
+            byte[] bytes = value.getBytes( "UTF-8" );
+            out.writeInt( -2 - bytes.length );
+            out.write( bytes );
+        }
+    }
+
+    private static String readString( DataInputStream in, List<String> strings )
+        throws IOException
+    {
+        int index = in.readInt();
+        if ( index == -1 )
+        {
+            return null;
+        }
+        else if ( index >= 0 )
+        {
+            if ( index >= strings.size() )
+            {
+                throw new IOException( "Invalid string reference " + index );
+            }
+            return strings.get( index );
+        }
+
+        byte[] bytes = new byte[-2 - index];
+        in.readFully( bytes );
+        String value = new String( bytes, "UTF-8" );
+        strings.add( value );
+        return value;
+    }
+
+}
@@ -30,6 +30,17 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.RepositoryUtils;
 import org.apache.maven.artifact.Artifact;
@@ -37,6 +48,7 @@
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.repository.LegacyLocalRepositoryManager;
 import org.apache.maven.bridge.MavenRepositorySystem;
+import org.apache.maven.execution.ExecutionUtils;
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.DependencyManagement;
@@ -50,6 +62,7 @@
 import org.apache.maven.model.building.DefaultModelBuildingRequest;
 import org.apache.maven.model.building.DefaultModelProblem;
 import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.InputLocationCompactor;
 import org.apache.maven.model.building.ModelBuilder;
 import org.apache.maven.model.building.ModelBuildingException;
 import org.apache.maven.model.building.ModelBuildingRequest;
@@ -84,6 +97,23 @@
     implements ProjectBuilder
 {
 
+    /**
+     * The name of the user/system property that specifies the number of threads used to build the models of a
+     * reactor, defaults to 1, i.e. the models are built one after the other by the calling thread.
+     */
+    static final String THREADS_PROPERTY = "maven.projectBuilder.threads";
+
+    /**
+     * Runs the model building tasks in the calling thread.
+     */
+    private static final Executor SAME_THREAD = new Executor()
+    {
+        public void execute( Runnable command )
+        {
+            command.run();
+        }
+    };
+
     @Requirement
     private Logger logger;
 
@@ -174,7 +204,7 @@ private ProjectBuildingResult build( File pomFile, ModelSource modelSource, Inte
                 modelProblems = result.getProblems();
 
                 initProject( project, Collections.<String, MavenProject>emptyMap(), result,
-                             new HashMap<File, Boolean>(), projectBuildingRequest );
+                             new HashMap<File, Boolean>(), new InputLocationCompactor(), projectBuildingRequest );
             }
             else if ( projectBuildingRequest.isResolveDependencies() )
             {
@@ -275,7 +305,7 @@ private ModelBuildingRequest getModelBuildingRequest( InternalConfig config )
         request.setUserProperties( configuration.getUserProperties() );
         request.setBuildStartTime( configuration.getBuildStartTime() );
         request.setModelResolver( resolver );
-        request.setModelCache( new ReactorModelCache() );
+        request.setModelCache( config.modelCache );
 
         return request;
     }
@@ -398,23 +428,47 @@ public List<ProjectBuildingResult> build( List<File> pomFiles, boolean recursive
 
         Map<String, MavenProject> projectIndex = new HashMap<String, MavenProject>( 256 );
 
-        boolean noErrors =
-            build( results, interimResults, projectIndex, pomFiles, new LinkedHashSet<File>(), true, recursive,
-                   config );
-
-        populateReactorModelPool( modelPool, interimResults );
+        boolean noErrors;
 
-        ClassLoader oldContextClassLoader = Thread.currentThread().getContextClassLoader();
+        int threads = getThreads( request );
+        ExecutorService pool = null;
+        Executor executor = SAME_THREAD;
+        if ( threads > 1 && ( recursive || pomFiles.size() > 1 ) )
+        {
+            pool = Executors.newFixedThreadPool( threads, new ProjectBuilderThreadFactory() );
+            executor = pool;
+        }
 
         try
         {
-            noErrors =
-                build( results, new ArrayList<MavenProject>(), projectIndex, interimResults, request,
-                       new HashMap<File, Boolean>() ) && noErrors;
+            noErrors = build( results, interimResults, projectIndex, pomFiles, recursive, config, executor );
+
+            populateReactorModelPool( modelPool, interimResults );
+
+            ClassLoader oldContextClassLoader = Thread.currentThread().getContextClassLoader();
+
+            try
+            {
+                noErrors =
+                    build( results, new ArrayList<MavenProject>(), projectIndex, interimResults, request,
+                           new HashMap<File, Boolean>(), new InputLocationCompactor(), executor ) && noErrors;
+            }
+            finally
+            {
+                Thread.currentThread().setContextClassLoader( oldContextClassLoader );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while building the projects of the reactor", e );
         }
         finally
         {
-            Thread.currentThread().setContextClassLoader( oldContextClassLoader );
+            if ( pool != null )
+            {
+                pool.shutdown();
+            }
         }
 
         if ( !noErrors )
@@ -425,32 +479,143 @@ public List<ProjectBuildingResult> build( List<File> pomFiles, boolean recursive
         return results;
     }
 
+    private static int getThreads( ProjectBuildingRequest request )
+    {
+        String threads =
+            ExecutionUtils.getProperty( request.getUserProperties(), request.getSystemProperties(), THREADS_PROPERTY );
+        if ( threads != null )
+        {
+            try
+            {
+                return Math.max( 1, Integer.parseInt( threads.trim() ) );
+            }
+            catch ( NumberFormatException e )
+            {
+                // fall back to the default
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Reads the models of the specified POMs and (if requested) their modules. Each POM is read by a separate task,
+     * the tasks for the modules of a POM are forked once its model is known. The collected models are then joined
+     * in the order of the aggregation tree, so the results are the same as with a sequential walk.
+     */
     private boolean build( List<ProjectBuildingResult> results, List<InterimResult> interimResults,
-                           Map<String, MavenProject> projectIndex, List<File> pomFiles, Set<File> aggregatorFiles,
-                           boolean isRoot, boolean recursive, InternalConfig config )
+                           Map<String, MavenProject> projectIndex, List<File> pomFiles, boolean recursive,
+                           InternalConfig config, Executor executor )
+        throws InterruptedException
     {
-        boolean noErrors = true;
+        CompletionService<PendingModel> service = new ExecutorCompletionService<PendingModel>( executor );
 
+        List<PendingModel> roots = new ArrayList<PendingModel>( pomFiles.size() );
         for ( File pomFile : pomFiles )
         {
-            aggregatorFiles.add( pomFile );
+            roots.add( new PendingModel( pomFile, Collections.<File>emptySet(), true ) );
+        }
+
+        int pending = 0;
+        for ( PendingModel root : roots )
+        {
+            submit( service, root, recursive, config );
+            pending++;
+        }
+
+        while ( pending > 0 )
+        {
+            PendingModel completed = get( service.take() );
+            pending--;
 
-            if ( !build( results, interimResults, projectIndex, pomFile, aggregatorFiles, isRoot, recursive, config ) )
+            for ( PendingModel module : completed.modules )
             {
+                submit( service, module, recursive, config );
+                pending++;
+            }
+        }
+
+        return join( results, interimResults, projectIndex, roots );
+    }
+
+    private void submit( CompletionService<PendingModel> service, final PendingModel pendingModel,
+                         final boolean recursive, final InternalConfig config )
+    {
+        service.submit( new Callable<PendingModel>()
+        {
+            public PendingModel call()
+            {
+                build( pendingModel, recursive, config );
+                return pendingModel;
+            }
+        } );
+    }
+
+    private static <T> T get( Future<T> future )
+        throws InterruptedException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch ( ExecutionException e )
+        {
+            Throwable cause = e.getCause();
+            if ( cause instanceof RuntimeException )
+            {
+                throw (RuntimeException) cause;
+            }
+            if ( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException( cause );
+        }
+    }
+
+    private boolean join( List<ProjectBuildingResult> results, List<InterimResult> interimResults,
+                          Map<String, MavenProject> projectIndex, List<PendingModel> pendingModels )
+    {
+        boolean noErrors = true;
+
+        for ( PendingModel pendingModel : pendingModels )
+        {
+            if ( pendingModel.failure != null )
+            {
+                results.add( pendingModel.failure );
+
                 noErrors = false;
+
+                continue;
+            }
+
+            InterimResult interimResult = pendingModel.interimResult;
+
+            projectIndex.put( interimResult.result.getModelIds().get( 0 ), interimResult.listener.getProject() );
+
+            interimResults.add( interimResult );
+
+            if ( pendingModel.aggregator )
+            {
+                interimResult.modules = new ArrayList<InterimResult>();
+
+                if ( !join( results, interimResult.modules, projectIndex, pendingModel.modules ) )
+                {
+                    noErrors = false;
+                }
             }
 
-            aggregatorFiles.remove( pomFile );
+            if ( !pendingModel.noErrors )
+            {
+                noErrors = false;
+            }
         }
 
         return noErrors;
     }
 
-    private boolean build( List<ProjectBuildingResult> results, List<InterimResult> interimResults,
-                           Map<String, MavenProject> projectIndex, File pomFile, Set<File> aggregatorFiles,
-                           boolean isRoot, boolean recursive, InternalConfig config )
+    private void build( PendingModel pendingModel, boolean recursive, InternalConfig config )
     {
-        boolean noErrors = true;
+        File pomFile = pendingModel.pomFile;
 
         ModelBuildingRequest request = getModelBuildingRequest( config );
 
@@ -470,16 +635,13 @@ private boolean build( List<ProjectBuildingResult> results, List<InterimResult>
 
             Model model = result.getEffectiveModel();
 
-            projectIndex.put( result.getModelIds().get( 0 ), project );
-
-            InterimResult interimResult = new InterimResult( pomFile, request, result, listener, isRoot );
-            interimResults.add( interimResult );
+            pendingModel.interimResult = new InterimResult( pomFile, request, result, listener, pendingModel.root );
 
             if ( recursive && !model.getModules().isEmpty() )
             {
                 File basedir = pomFile.getParentFile();
 
-                List<File> moduleFiles = new ArrayList<File>();
+                pendingModel.aggregator = true;
 
                 for ( String module : model.getModules() )
                 {
@@ -505,7 +667,7 @@ private boolean build( List<ProjectBuildingResult> results, List<InterimResult>
                                                      -1, null );
                         result.getProblems().add( problem );
 
-                        noErrors = false;
+                        pendingModel.noErrors = false;
 
                         continue;
                     }
@@ -527,10 +689,10 @@ private boolean build( List<ProjectBuildingResult> results, List<InterimResult>
                         moduleFile = new File( moduleFile.toURI().normalize() );
                     }
 
-                    if ( aggregatorFiles.contains( moduleFile ) )
+                    if ( pendingModel.aggregatorFiles.contains( moduleFile ) )
                     {
                         StringBuilder buffer = new StringBuilder( 256 );
-                        for ( File aggregatorFile : aggregatorFiles )
+                        for ( File aggregatorFile : pendingModel.aggregatorFiles )
                         {
                             buffer.append( aggregatorFile ).append( " -> " );
                         }
@@ -542,31 +704,54 @@ private boolean build( List<ProjectBuildingResult> results, List<InterimResult>
                                                      ModelProblem.Version.BASE, model, -1, -1, null );
                         result.getProblems().add( problem );
 
-                        noErrors = false;
+                        pendingModel.noErrors = false;
 
                         continue;
                     }
 
-                    moduleFiles.add( moduleFile );
-                }
-
-                interimResult.modules = new ArrayList<InterimResult>();
-
-                if ( !build( results, interimResult.modules, projectIndex, moduleFiles, aggregatorFiles, false,
-                             recursive, config ) )
-                {
-                    noErrors = false;
+                    pendingModel.modules.add( new PendingModel( moduleFile, pendingModel.aggregatorFiles, false ) );
                 }
             }
         }
         catch ( ModelBuildingException e )
         {
-            results.add( new DefaultProjectBuildingResult( e.getModelId(), pomFile, e.getProblems() ) );
+            pendingModel.failure = new DefaultProjectBuildingResult( e.getModelId(), pomFile, e.getProblems() );
+        }
+    }
+
+    /**
+     * A POM of the reactor whose model is read by a separate task.
+     */
+    static class PendingModel
+    {
+
+        final File pomFile;
+
+        /**
+         * The POMs that aggregate this one, including itself, in order from the root.
+         */
+        final Set<File> aggregatorFiles;
 
-            noErrors = false;
+        final boolean root;
+
+        final List<PendingModel> modules = new ArrayList<PendingModel>();
+
+        boolean aggregator;
+
+        boolean noErrors = true;
+
+        InterimResult interimResult;
+
+        ProjectBuildingResult failure;
+
+        PendingModel( File pomFile, Set<File> parentAggregatorFiles, boolean root )
+        {
+            this.pomFile = pomFile;
+            this.aggregatorFiles = new LinkedHashSet<File>( parentAggregatorFiles );
+            this.aggregatorFiles.add( pomFile );
+            this.root = root;
         }
 
-        return noErrors;
     }
 
     static class InterimResult
@@ -584,6 +769,10 @@ private boolean build( List<ProjectBuildingResult> results, List<InterimResult>
 
         List<InterimResult> modules = Collections.emptyList();
 
+        ModelBuildingResult projectResult;
+
+        ModelBuildingException projectException;
+
         InterimResult( File pomFile, ModelBuildingRequest request, ModelBuildingResult result,
                        DefaultModelBuildingListener listener, boolean root )
         {
@@ -607,50 +796,109 @@ private void populateReactorModelPool( ReactorModelPool reactorModelPool, List<I
         }
     }
 
+    /**
+     * Completes the models of the reactor. The second phase of the model building only depends on the now complete
+     * {@link ReactorModelPool} so it runs concurrently for all projects, the projects are then initialized one after
+     * the other in the order of the aggregation tree.
+     */
     private boolean build( List<ProjectBuildingResult> results, List<MavenProject> projects,
                            Map<String, MavenProject> projectIndex, List<InterimResult> interimResults,
-                           ProjectBuildingRequest request, Map<File, Boolean> profilesXmls )
+                           ProjectBuildingRequest request, Map<File, Boolean> profilesXmls,
+                           InputLocationCompactor locationCompactor, Executor executor )
+        throws InterruptedException
     {
-        boolean noErrors = true;
-
-        for ( InterimResult interimResult : interimResults )
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        submit( futures, interimResults, executor );
+        for ( Future<?> future : futures )
         {
-            try
-            {
-                ModelBuildingResult result = modelBuilder.build( interimResult.request, interimResult.result );
+            get( future );
+        }
 
-                MavenProject project = interimResult.listener.getProject();
-                initProject( project, projectIndex, result, profilesXmls, request );
+        return build( results, projects, projectIndex, interimResults, request, profilesXmls, locationCompactor );
+    }
 
-                List<MavenProject> modules = new ArrayList<MavenProject>();
-                noErrors =
-                    build( results, modules, projectIndex, interimResult.modules, request, profilesXmls ) && noErrors;
+    private void submit( List<Future<?>> futures, List<InterimResult> interimResults, Executor executor )
+    {
+        for ( final InterimResult interimResult : interimResults )
+        {
+            FutureTask<Void> future = new FutureTask<Void>( new Runnable()
+            {
+                public void run()
+                {
+                    ClassLoader oldContextClassLoader = Thread.currentThread().getContextClassLoader();
+                    try
+                    {
+                        interimResult.projectResult = modelBuilder.build( interimResult.request, interimResult.result );
+                    }
+                    catch ( ModelBuildingException e )
+                    {
+                        interimResult.projectException = e;
+                    }
+                    finally
+                    {
+                        Thread.currentThread().setContextClassLoader( oldContextClassLoader );
+                    }
+                }
+            }, null );
+            futures.add( future );
+            executor.execute( future );
 
-                projects.addAll( modules );
-                projects.add( project );
+            submit( futures, interimResult.modules, executor );
+        }
+    }
 
-                project.setExecutionRoot( interimResult.root );
-                project.setCollectedProjects( modules );
+    private boolean build( List<ProjectBuildingResult> results, List<MavenProject> projects,
+                           Map<String, MavenProject> projectIndex, List<InterimResult> interimResults,
+                           ProjectBuildingRequest request, Map<File, Boolean> profilesXmls,
+                           InputLocationCompactor locationCompactor )
+    {
+        boolean noErrors = true;
 
-                results.add( new DefaultProjectBuildingResult( project, result.getProblems(), null ) );
-            }
-            catch ( ModelBuildingException e )
+        for ( InterimResult interimResult : interimResults )
+        {
+            if ( interimResult.projectException != null )
             {
+                ModelBuildingException e = interimResult.projectException;
                 results.add( new DefaultProjectBuildingResult( e.getModelId(), interimResult.pomFile,
                                                                e.getProblems() ) );
 
                 noErrors = false;
+
+                continue;
             }
+
+            ModelBuildingResult result = interimResult.projectResult;
+
+            MavenProject project = interimResult.listener.getProject();
+            initProject( project, projectIndex, result, profilesXmls, locationCompactor, request );
+
+            List<MavenProject> modules = new ArrayList<MavenProject>();
+            noErrors =
+                build( results, modules, projectIndex, interimResult.modules, request, profilesXmls, locationCompactor )
+                    && noErrors;
+
+            projects.addAll( modules );
+            projects.add( project );
+
+            project.setExecutionRoot( interimResult.root );
+            project.setCollectedProjects( modules );
+
+            results.add( new DefaultProjectBuildingResult( project, result.getProblems(), null ) );
         }
 
         return noErrors;
     }
 
     private void initProject( MavenProject project, Map<String, MavenProject> projects, ModelBuildingResult result,
-                              Map<File, Boolean> profilesXmls, ProjectBuildingRequest projectBuildingRequest )
+                              Map<File, Boolean> profilesXmls, InputLocationCompactor locationCompactor,
+                              ProjectBuildingRequest projectBuildingRequest )
     {
         Model model = result.getEffectiveModel();
 
+        // the project retains both models, pack their input locations before they spread
+        locationCompactor.compact( model );
+        locationCompactor.compact( result.getRawModel() );
+
         project.setModel( model );
         project.setOriginalModel( result.getRawModel() );
         project.setFile( model.getPomFile() );
@@ -914,10 +1162,13 @@ private String findProfilesXml( ModelBuildingResult result, Map<File, Boolean> p
 
         public final ReactorModelPool modelPool;
 
+        public final ReactorModelCache modelCache;
+
         InternalConfig( ProjectBuildingRequest request, ReactorModelPool modelPool )
         {
             this.request = request;
             this.modelPool = modelPool;
+            this.modelCache = new ReactorModelCache();
             session =
                 LegacyLocalRepositoryManager.overlay( request.getLocalRepository(), request.getRepositorySession(),
                                                       repoSystem );
@@ -926,4 +1177,19 @@ private String findProfilesXml( ModelBuildingResult result, Map<File, Boolean> p
 
     }
 
+    private static class ProjectBuilderThreadFactory
+        implements ThreadFactory
+    {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        public Thread newThread( Runnable r )
+        {
+            Thread thread = new Thread( r, "project-builder-" + counter.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        }
+
+    }
+
 }
@@ -918,13 +918,13 @@ public Map<String, List<String>> getInjectedProfileIds()
      * @param artifact the artifact to add or replace.
      * @throws DuplicateArtifactAttachmentException
      */
-    public void addAttachedArtifact( Artifact artifact )
+    public synchronized void addAttachedArtifact( Artifact artifact )
         throws DuplicateArtifactAttachmentException
     {
         getAttachedArtifacts().add( artifact );
     }
 
-    public List<Artifact> getAttachedArtifacts()
+    public synchronized List<Artifact> getAttachedArtifacts()
     {
         if ( attachedArtifacts == null )
         {
@@ -0,0 +1,193 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.maven.graph.DefaultProjectDependencyGraph;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+public class DefaultBuildTimeHistoryTest
+    extends PlexusTestCase
+{
+
+    private File directory;
+
+    private BuildTimeHistory history;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        directory = new File( getBasedir(), "target/build-times" );
+        FileUtils.deleteDirectory( directory );
+
+        history = lookup( BuildTimeHistory.class );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        history = null;
+
+        super.tearDown();
+    }
+
+    private MavenSession newSession( MavenProject project, String enabled )
+    {
+        return SessionTestSupport.newSession( project, BuildTimeHistory.DIRECTORY_PROPERTY, directory.getAbsolutePath(),
+                                              BuildTimeHistory.ENABLED_PROPERTY, enabled );
+    }
+
+    private MavenProject newProject()
+    {
+        return newProject( "history" );
+    }
+
+    private MavenProject newProject( String artifactId )
+    {
+        MavenProject project = SessionTestSupport.newProject( artifactId );
+        project.setFile( new File( getBasedir(), "pom.xml" ) );
+        return project;
+    }
+
+    private static MojoExecution newMojoExecution()
+    {
+        return SessionTestSupport.newMojoExecution( "maven-compiler-plugin", "3.1", "compile" );
+    }
+
+    public void testDisabledByDefault()
+    {
+        MavenProject project = newProject();
+        MavenSession session = newSession( project, null );
+        session.getRequest().setDegreeOfConcurrency( 4 );
+
+        assertFalse( history.isEnabled( session ) );
+
+        history.recordProjectTime( session, project, 1000 );
+        history.save( session );
+
+        assertFalse( directory.exists() );
+        assertEquals( -1, history.getProjectTime( session, project ) );
+    }
+
+    public void testTimesAreAvailableToNextSession()
+    {
+        MavenProject project = newProject();
+        MojoExecution mojoExecution = newMojoExecution();
+
+        MavenSession session = newSession( project, "true" );
+        assertEquals( -1, history.getProjectTime( session, project ) );
+
+        history.recordProjectTime( session, project, 1000 );
+        history.recordMojoTime( session, project, mojoExecution, 400 );
+
+        // recorded times only show up once they have been saved
+        assertEquals( -1, history.getProjectTime( session, project ) );
+        history.save( session );
+
+        session = newSession( project, "true" );
+        assertEquals( 1000, history.getProjectTime( session, project ) );
+        assertEquals( 400, history.getMojoTime( session, project, mojoExecution ) );
+        assertEquals( Collections.singletonMap( "org.apache.maven.its:history:0.1", 1000L ),
+                      history.getProjectTimes( session ) );
+
+        history.recordProjectTime( session, project, 2000 );
+        history.save( session );
+
+        session = newSession( project, "true" );
+        assertEquals( 1500, history.getProjectTime( session, project ) );
+        assertEquals( 400, history.getMojoTime( session, project, mojoExecution ) );
+    }
+
+    public void testConcurrentMojoTimesAreAdded()
+        throws Exception
+    {
+        final MavenProject project = newProject();
+        final MojoExecution mojoExecution = newMojoExecution();
+        final MavenSession session = newSession( project, "true" );
+
+        Thread[] threads = new Thread[4];
+        for ( int i = 0; i < threads.length; i++ )
+        {
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    for ( int j = 0; j < 1000; j++ )
+                    {
+                        history.recordMojoTime( session, project, mojoExecution, 1 );
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for ( Thread thread : threads )
+        {
+            thread.join();
+        }
+        history.save( session );
+
+        assertEquals( 4000, history.getMojoTime( newSession( project, "true" ), project, mojoExecution ) );
+        assertEquals( 1, directory.list().length );
+    }
+
+    public void testEstimatedBuildTime()
+        throws Exception
+    {
+        MavenProject a = newProject( "a" );
+        MavenProject b = newProject( "b" );
+        MavenProject c = newProject( "c" );
+
+        Dependency dependency = new Dependency();
+        dependency.setGroupId( "org.apache.maven.its" );
+        dependency.setArtifactId( "a" );
+        dependency.setVersion( "0.1" );
+        b.getModel().addDependency( dependency );
+
+        MavenSession session = newSession( a, "true" );
+        session.setProjects( Arrays.asList( a, b, c ) );
+        session.setProjectDependencyGraph( new DefaultProjectDependencyGraph( session.getProjects() ) );
+        session.getRequest().setDegreeOfConcurrency( 2 );
+        assertEquals( -1, history.getEstimatedBuildTime( session ) );
+
+        history.recordProjectTime( session, a, 1000 );
+        history.recordProjectTime( session, b, 2000 );
+        history.recordProjectTime( session, c, 2500 );
+        history.save( session );
+
+        // the chain a -> b takes longer than the total work divided by the threads
+        assertEquals( 3000, history.getEstimatedBuildTime( session ) );
+
+        session.getRequest().setDegreeOfConcurrency( 1 );
+        assertEquals( 5500, history.getEstimatedBuildTime( session ) );
+    }
+
+}
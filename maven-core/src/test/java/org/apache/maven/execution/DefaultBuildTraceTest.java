@@ -0,0 +1,130 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.maven.lifecycle.internal.BuildThreadFactory;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+public class DefaultBuildTraceTest
+    extends PlexusTestCase
+{
+
+    private File output;
+
+    private BuildTrace buildTrace;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        output = new File( getBasedir(), "target/build-trace/trace.json" );
+        output.delete();
+
+        buildTrace = lookup( BuildTrace.class );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        buildTrace = null;
+
+        super.tearDown();
+    }
+
+    private static MavenProject newProject( String artifactId )
+    {
+        return SessionTestSupport.newProject( artifactId );
+    }
+
+    private static MavenSession newSession( String output )
+    {
+        return SessionTestSupport.newSession( newProject( "parent" ), BuildTrace.OUTPUT_PROPERTY, output );
+    }
+
+    private static MojoExecution newMojoExecution()
+    {
+        return SessionTestSupport.newMojoExecution( "maven-compiler-plugin", "3.1", "compile" );
+    }
+
+    public void testTimelineIsWritten()
+        throws Exception
+    {
+        final MavenSession session = newSession( output.getAbsolutePath() );
+        final MavenProject project = newProject( "core" );
+
+        buildTrace.markReleased( session, null, Collections.singletonList( project ) );
+
+        Thread thread = new BuildThreadFactory().newThread( new Runnable()
+        {
+            public void run()
+            {
+                MavenSession projectSession = session.clone();
+                projectSession.setCurrentProject( project );
+
+                BuildTrace.Span projectSpan = buildTrace.beginProject( projectSession, project );
+                buildTrace.beginMojo( projectSession, newMojoExecution() ).end();
+                projectSpan.end();
+            }
+        } );
+        thread.start();
+        thread.join();
+
+        buildTrace.markReleased( session, project, Arrays.asList( newProject( "app" ), newProject( "web" ) ) );
+
+        buildTrace.write( session );
+
+        String json = FileUtils.fileRead( output, "UTF-8" );
+        assertTrue( json, json.startsWith( "{\"displayTimeUnit\": \"ms\", \"traceEvents\": [" ) );
+        assertTrue( json,
+                    json.contains( "\"tid\": " + thread.getId() + ", \"args\": {\"name\": \"BuilderThread 0\"}" ) );
+        assertTrue( json, json.contains( "{\"name\": \"core\", \"cat\": \"project\", \"ph\": \"X\", \"pid\": 1, "
+            + "\"tid\": " + thread.getId() ) );
+        assertTrue( json, json.contains( "{\"name\": \"maven-compiler-plugin:compile (default-compile)\", "
+            + "\"cat\": \"mojo\", \"ph\": \"X\"" ) );
+        assertTrue( json, json.contains( "\"args\": {\"project\": \"org.apache.maven.its:core:0.1\", "
+            + "\"version\": \"3.1\"}" ) );
+        assertTrue( json, json.contains( "\"name\": \"release 1 project\"" ) );
+        assertTrue( json, json.contains( "\"args\": {\"project\": \"org.apache.maven.its:core:0.1\", \"released\": "
+            + "[\"org.apache.maven.its:app:0.1\", \"org.apache.maven.its:web:0.1\"]}" ) );
+    }
+
+    public void testDisabledByDefault()
+    {
+        MavenSession session = newSession( null );
+        MavenProject project = newProject( "core" );
+
+        assertFalse( buildTrace.isEnabled( session ) );
+        buildTrace.beginProject( session, project ).end();
+        buildTrace.write( session );
+
+        assertFalse( output.exists() );
+    }
+
+}
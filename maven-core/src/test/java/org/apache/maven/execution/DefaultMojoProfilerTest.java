@@ -0,0 +1,107 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+
+import org.apache.maven.plugin.MojoExecution;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+public class DefaultMojoProfilerTest
+    extends PlexusTestCase
+{
+
+    private File output;
+
+    private MojoProfiler profiler;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        output = new File( getBasedir(), "target/mojo-profile/profile.json" );
+        output.delete();
+
+        profiler = lookup( MojoProfiler.class );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        profiler = null;
+
+        super.tearDown();
+    }
+
+    private MavenSession newSession( String enabled )
+    {
+        return SessionTestSupport.newSession( SessionTestSupport.newProject( "profile" ), MojoProfiler.OUTPUT_PROPERTY,
+                                              output.getAbsolutePath(), MojoProfiler.ENABLED_PROPERTY, enabled );
+    }
+
+    private static MojoExecution newMojoExecution()
+    {
+        return SessionTestSupport.newMojoExecution( "maven-compiler-plugin", "3.1", "compile" );
+    }
+
+    public void testPhasesAreReported()
+        throws Exception
+    {
+        MavenSession session = newSession( "true" );
+        MojoExecution mojoExecution = newMojoExecution();
+
+        for ( MojoProfiler.Phase phase : MojoProfiler.Phase.values() )
+        {
+            MojoProfiler.Measurement measurement = profiler.start( session, mojoExecution, phase );
+            Thread.sleep( 5 );
+            measurement.stop();
+        }
+
+        profiler.report( session );
+
+        String json = FileUtils.fileRead( output, "UTF-8" );
+        assertTrue( json, json.contains( "\"project\": \"org.apache.maven.its:profile:0.1\"" ) );
+        assertTrue( json, json.contains( "\"mojo\": \"org.apache.maven.plugins:maven-compiler-plugin:3.1:compile\"" ) );
+        assertTrue( json, json.contains( "\"executionId\": \"default-compile\"" ) );
+        assertTrue( json, json.contains( "\"executions\": 1" ) );
+        assertTrue( json, json.contains( "\"resolution\": {\"wallNanos\": " ) );
+        assertTrue( json, json.contains( "\"realm\": {\"wallNanos\": " ) );
+        assertTrue( json, json.contains( "\"configuration\": {\"wallNanos\": " ) );
+        assertTrue( json, json.contains( "\"execution\": {\"wallNanos\": " ) );
+        String thread = ExecutionUtils.quote( Thread.currentThread().getName() );
+        assertTrue( json, json.contains( "\"name\": " + thread ) );
+    }
+
+    public void testDisabledByDefault()
+    {
+        MavenSession session = newSession( null );
+
+        assertFalse( profiler.isEnabled( session ) );
+        profiler.start( session, newMojoExecution(), MojoProfiler.Phase.EXECUTION ).stop();
+        profiler.report( session );
+
+        assertFalse( output.exists() );
+    }
+
+}
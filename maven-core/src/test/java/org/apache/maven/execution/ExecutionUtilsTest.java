@@ -0,0 +1,49 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Properties;
+
+import junit.framework.TestCase;
+
+public class ExecutionUtilsTest
+    extends TestCase
+{
+
+    public void testUserPropertiesOverrideSystemProperties()
+    {
+        Properties userProperties = new Properties();
+        Properties systemProperties = new Properties();
+        systemProperties.setProperty( "a", "system" );
+        systemProperties.setProperty( "b", "system" );
+        userProperties.setProperty( "b", "user" );
+
+        assertEquals( "system", ExecutionUtils.getProperty( userProperties, systemProperties, "a" ) );
+        assertEquals( "user", ExecutionUtils.getProperty( userProperties, systemProperties, "b" ) );
+        assertNull( ExecutionUtils.getProperty( userProperties, systemProperties, "c" ) );
+    }
+
+    public void testQuote()
+    {
+        assertEquals( "null", ExecutionUtils.quote( null ) );
+        assertEquals( "\"a\\\"b\\\\c\\u000a\"", ExecutionUtils.quote( "a\"b\\c\n" ) );
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Creates the minimal sessions, projects and mojo executions used by the tests of the build extensions that are
+ * configured via user properties.
+ */
+public final class SessionTestSupport
+{
+
+    private SessionTestSupport()
+    {
+        // hide constructor of utility class
+    }
+
+    /**
+     * Creates a project with the coordinates {@code org.apache.maven.its:<artifactId>:0.1}.
+     */
+    public static MavenProject newProject( String artifactId )
+    {
+        Model model = new Model();
+        model.setGroupId( "org.apache.maven.its" );
+        model.setArtifactId( artifactId );
+        model.setVersion( "0.1" );
+        return new MavenProject( model );
+    }
+
+    /**
+     * Creates a session for the specified project which is both the only and the current project of the session.
+     *
+     * @param project The project of the session, must not be {@code null}.
+     * @param properties The user properties as pairs of key and value, pairs with a {@code null} value are skipped.
+     */
+    public static MavenSession newSession( MavenProject project, String... properties )
+    {
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        for ( int i = 0; i + 1 < properties.length; i += 2 )
+        {
+            if ( properties[i + 1] != null )
+            {
+                request.getUserProperties().setProperty( properties[i], properties[i + 1] );
+            }
+        }
+
+        MavenSession session = new MavenSession( null, null, request, new DefaultMavenExecutionResult() );
+        session.setProjects( Collections.singletonList( project ) );
+        session.setCurrentProject( project );
+        return session;
+    }
+
+    /**
+     * Creates the default execution of the specified goal of an Apache Maven plugin.
+     */
+    public static MojoExecution newMojoExecution( String artifactId, String version, String goal )
+    {
+        PluginDescriptor plugin = new PluginDescriptor();
+        plugin.setGroupId( "org.apache.maven.plugins" );
+        plugin.setArtifactId( artifactId );
+        plugin.setVersion( version );
+
+        MojoDescriptor mojo = new MojoDescriptor();
+        mojo.setGoal( goal );
+        mojo.setPluginDescriptor( plugin );
+
+        return new MojoExecution( mojo, "default-" + goal );
+    }
+
+}
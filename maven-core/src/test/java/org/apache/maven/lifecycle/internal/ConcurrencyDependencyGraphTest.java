@@ -91,4 +91,24 @@ public void testConcurrencyGraphDifferentCompletionOrder()
         assertEquals( Y, bDescendants.get( 1 ) );
     }
 
+    public void testProjectsAreOnlyScheduledOnce()
+        throws InvalidPluginDescriptorException, PluginVersionResolutionException, PluginDescriptorParsingException,
+        NoPluginFoundForPrefixException, MojoNotFoundException, PluginNotFoundException, PluginResolutionException,
+        LifecyclePhaseNotFoundException, LifecycleNotFoundException
+    {
+        ProjectDependencyGraph dependencyGraph = new ProjectDependencyGraphStub();
+        final MavenSession session = ProjectDependencyGraphStub.getMavenSession();
+        ConcurrencyDependencyGraph graph =
+            new ConcurrencyDependencyGraph( getProjectBuildList( session ), dependencyGraph );
+
+        assertEquals( 2, graph.markAsFinished( A ).size() );
+        assertEquals( 0, graph.markAsFinished( A ).size() );
+
+        assertEquals( 1, graph.markAsFinished( B ).size() );
+        assertEquals( 0, graph.markAsFinished( B ).size() );
+
+        assertEquals( 2, graph.markAsFinished( C ).size() );
+        assertEquals( 3, graph.getUnfinishedProjects().size() );
+    }
+
 }
@@ -0,0 +1,227 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.SessionTestSupport;
+import org.apache.maven.model.Build;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+public class IncrementalBuildSupportTest
+    extends PlexusTestCase
+{
+
+    private File basedir;
+
+    private IncrementalBuildSupport incrementalBuildSupport;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        basedir = new File( getBasedir(), "target/incremental-build" );
+        FileUtils.deleteDirectory( basedir );
+        new File( basedir, "src/main/java" ).mkdirs();
+        FileUtils.fileWrite( new File( basedir, "src/main/java/Main.java" ), "UTF-8", "class Main {}" );
+
+        incrementalBuildSupport = lookup( IncrementalBuildSupport.class );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        incrementalBuildSupport = null;
+
+        super.tearDown();
+    }
+
+    private MavenSession newSession( MavenProject project )
+    {
+        return SessionTestSupport.newSession( project, IncrementalBuildSupport.ENABLED_PROPERTY, "true" );
+    }
+
+    private MavenProject newProject()
+    {
+        Build build = new Build();
+        build.setDirectory( new File( basedir, "target" ).getAbsolutePath() );
+
+        MavenProject project = SessionTestSupport.newProject( "incremental" );
+        project.getModel().setBuild( build );
+        project.setFile( new File( basedir, "pom.xml" ) );
+        project.addCompileSourceRoot( new File( basedir, "src/main/java" ).getAbsolutePath() );
+        project.setArtifact( new DefaultArtifact( "org.apache.maven.its", "incremental", "0.1", null, "jar", null,
+                                                  new DefaultArtifactHandler( "jar" ) ) );
+        return project;
+    }
+
+    private List<MojoExecution> newMojoExecutions()
+    {
+        return newMojoExecutions( "package" );
+    }
+
+    private List<MojoExecution> newMojoExecutions( String phase )
+    {
+        MojoExecution mojoExecution = SessionTestSupport.newMojoExecution( "maven-jar-plugin", "2.4", "jar" );
+        mojoExecution.setLifecyclePhase( phase );
+        return Collections.singletonList( mojoExecution );
+    }
+
+    private void build( MavenProject project )
+        throws Exception
+    {
+        File jar = new File( basedir, "target/incremental-0.1.jar" );
+        jar.getParentFile().mkdirs();
+        FileUtils.fileWrite( jar, "UTF-8", "jar" );
+        project.getArtifact().setFile( jar );
+    }
+
+    public void testUnchangedProjectIsUpToDate()
+        throws Exception
+    {
+        MavenProject project = newProject();
+        MavenSession session = newSession( project );
+        assertFalse( incrementalBuildSupport.checkUpToDate( session, project, newMojoExecutions() ) );
+        build( project );
+        incrementalBuildSupport.recordSuccess( session, project );
+
+        project = newProject();
+        session = newSession( project );
+        assertTrue( incrementalBuildSupport.checkUpToDate( session, project, newMojoExecutions() ) );
+
+        assertEquals( new File( basedir, "target/incremental-0.1.jar" ), project.getArtifact().getFile() );
+        assertTrue( project.hasLifecyclePhase( "package" ) );
+    }
+
+    public void testChangedSourcesAreDetected()
+        throws Exception
+    {
+        MavenProject project = newProject();
+        MavenSession session = newSession( project );
+        assertFalse( incrementalBuildSupport.checkUpToDate( session, project, newMojoExecutions() ) );
+        build( project );
+        incrementalBuildSupport.recordSuccess( session, project );
+
+        FileUtils.fileWrite( new File( basedir, "src/main/java/Main.java" ), "UTF-8", "class Main { int i; }" );
+
+        project = newProject();
+        session = newSession( project );
+        assertFalse( incrementalBuildSupport.checkUpToDate( session, project, newMojoExecutions() ) );
+        assertNull( project.getArtifact().getFile() );
+    }
+
+    public void testMissingArtifactIsDetected()
+        throws Exception
+    {
+        MavenProject project = newProject();
+        MavenSession session = newSession( project );
+        assertFalse( incrementalBuildSupport.checkUpToDate( session, project, newMojoExecutions() ) );
+        build( project );
+        incrementalBuildSupport.recordSuccess( session, project );
+
+        assertTrue( project.getArtifact().getFile().delete() );
+
+        project = newProject();
+        session = newSession( project );
+        assertFalse( incrementalBuildSupport.checkUpToDate( session, project, newMojoExecutions() ) );
+    }
+
+    private void assertRebuiltAfter( String phase, String file, String content )
+        throws Exception
+    {
+        MavenProject project = newProject();
+        MavenSession session = newSession( project );
+        assertFalse( incrementalBuildSupport.checkUpToDate( session, project, newMojoExecutions( phase ) ) );
+        build( project );
+        incrementalBuildSupport.recordSuccess( session, project );
+
+        if ( file != null )
+        {
+            FileUtils.fileWrite( new File( basedir, file ), "UTF-8", content );
+        }
+
+        project = newProject();
+        session = newSession( project );
+        assertFalse( incrementalBuildSupport.checkUpToDate( session, project, newMojoExecutions( phase ) ) );
+    }
+
+    public void testChangedInputsOutsideOfSourceRootsAreDetected()
+        throws Exception
+    {
+        new File( basedir, "src/main/webapp" ).mkdirs();
+        assertRebuiltAfter( "package", "src/main/webapp/index.html", "<html/>" );
+    }
+
+    public void testChangedFilterIsDetected()
+        throws Exception
+    {
+        File filter = new File( basedir, "../incremental-filters/filter.properties" );
+        filter.getParentFile().mkdirs();
+        FileUtils.fileWrite( filter, "UTF-8", "a=b" );
+
+        MavenProject project = newProject();
+        project.getBuild().addFilter( filter.getAbsolutePath() );
+        MavenSession session = newSession( project );
+        assertFalse( incrementalBuildSupport.checkUpToDate( session, project, newMojoExecutions() ) );
+        build( project );
+        incrementalBuildSupport.recordSuccess( session, project );
+
+        FileUtils.fileWrite( filter, "UTF-8", "a=bc" );
+
+        project = newProject();
+        project.getBuild().addFilter( filter.getAbsolutePath() );
+        session = newSession( project );
+        assertFalse( incrementalBuildSupport.checkUpToDate( session, project, newMojoExecutions() ) );
+    }
+
+    public void testDirectGoalInvocationsAreNotSkipped()
+        throws Exception
+    {
+        assertRebuiltAfter( null, null, null );
+    }
+
+    public void testInstallIsNotSkipped()
+        throws Exception
+    {
+        assertRebuiltAfter( "install", null, null );
+    }
+
+    public void testDisabledByDefault()
+    {
+        MavenProject project = newProject();
+        MavenSession session = newSession( project );
+        session.getUserProperties().remove( IncrementalBuildSupport.ENABLED_PROPERTY );
+
+        assertFalse( incrementalBuildSupport.isEnabled( session ) );
+        assertFalse( incrementalBuildSupport.checkUpToDate( session, project, newMojoExecutions() ) );
+    }
+
+}
@@ -0,0 +1,293 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.lifecycle.internal.builder.multithreaded.ThreadBoundPrintStream;
+import org.apache.maven.lifecycle.internal.stub.BuildPluginManagerStub;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.BuildPluginManager;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.ContainerConfiguration;
+import org.codehaus.plexus.PlexusConstants;
+import org.codehaus.plexus.PlexusTestCase;
+
+public class MojoExecutorTest
+    extends PlexusTestCase
+{
+
+    private static final Set<String> NONE = Collections.emptySet();
+
+    private RecordingPluginManager pluginManager;
+
+    private MojoExecutor mojoExecutor;
+
+    @Override
+    protected void customizeContainerConfiguration( ContainerConfiguration containerConfiguration )
+    {
+        super.customizeContainerConfiguration( containerConfiguration );
+        containerConfiguration.setAutoWiring( true );
+        containerConfiguration.setClassPathScanning( PlexusConstants.SCANNING_INDEX );
+    }
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        pluginManager = new RecordingPluginManager();
+        getContainer().addComponent( pluginManager, BuildPluginManager.class, "default" );
+
+        mojoExecutor = lookup( MojoExecutor.class );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        mojoExecutor = null;
+        pluginManager = null;
+
+        super.tearDown();
+    }
+
+    private MavenSession newSession( String concurrentMojos )
+    {
+        Model model = new Model();
+        model.setGroupId( "org.apache.maven.its" );
+        model.setArtifactId( "concurrent" );
+        model.setVersion( "0.1" );
+
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        if ( concurrentMojos != null )
+        {
+            request.getUserProperties().setProperty( MojoExecutor.CONCURRENT_MOJOS_PROPERTY, concurrentMojos );
+        }
+
+        MavenSession session = new MavenSession( getContainer(), null, request, new DefaultMavenExecutionResult() );
+        session.setCurrentProject( new MavenProject( model ) );
+        return session;
+    }
+
+    private static MojoExecution newMojoExecution( String goal, String phase, boolean threadSafe,
+                                                   String requiresDependencyResolution )
+    {
+        PluginDescriptor pluginDescriptor = new PluginDescriptor();
+        pluginDescriptor.setGroupId( "org.apache.maven.its" );
+        pluginDescriptor.setArtifactId( "maven-it-plugin" );
+        pluginDescriptor.setVersion( "0.1" );
+
+        MojoDescriptor mojoDescriptor = new MojoDescriptor();
+        mojoDescriptor.setGoal( goal );
+        mojoDescriptor.setThreadSafe( threadSafe );
+        mojoDescriptor.setDependencyResolutionRequired( requiresDependencyResolution );
+        mojoDescriptor.setPluginDescriptor( pluginDescriptor );
+
+        MojoExecution mojoExecution = new MojoExecution( mojoDescriptor, "default-" + goal );
+        mojoExecution.setLifecyclePhase( phase );
+        return mojoExecution;
+    }
+
+    private static List<String> listed( String... goals )
+    {
+        List<String> mojos = new ArrayList<String>();
+        for ( String goal : goals )
+        {
+            mojos.add( "org.apache.maven.its:maven-it-plugin:" + goal );
+        }
+        return mojos;
+    }
+
+    public void testThreadSafeMojosOfSamePhaseAreGrouped()
+    {
+        List<MojoExecution> mojoExecutions =
+            Arrays.asList( newMojoExecution( "a", "verify", true, null ), newMojoExecution( "b", "verify", true, null ),
+                           newMojoExecution( "c", "verify", true, null ),
+                           newMojoExecution( "d", "install", true, null ) );
+
+        assertEquals( 3, MojoExecutor.getConcurrentGroupEnd( mojoExecutions, 0, listed( "a", "b", "c", "d" ) ) );
+        assertEquals( 3, MojoExecutor.getConcurrentGroupEnd( mojoExecutions, 1, listed( "a", "b", "c", "d" ) ) );
+        assertEquals( 4, MojoExecutor.getConcurrentGroupEnd( mojoExecutions, 3, listed( "a", "b", "c", "d" ) ) );
+    }
+
+    public void testGroupEndsAtMojoThatIsNotThreadSafe()
+    {
+        List<MojoExecution> mojoExecutions =
+            Arrays.asList( newMojoExecution( "a", "verify", true, null ),
+                           newMojoExecution( "b", "verify", false, null ),
+                           newMojoExecution( "c", "verify", true, null ) );
+
+        assertEquals( 1, MojoExecutor.getConcurrentGroupEnd( mojoExecutions, 0, listed( "a", "b", "c" ) ) );
+        assertEquals( 2, MojoExecutor.getConcurrentGroupEnd( mojoExecutions, 1, listed( "a", "b", "c" ) ) );
+    }
+
+    public void testGroupEndsAtDifferentDependencyRequirements()
+    {
+        List<MojoExecution> mojoExecutions =
+            Arrays.asList( newMojoExecution( "a", "test", true, "test" ),
+                           newMojoExecution( "b", "test", true, "test" ),
+                           newMojoExecution( "c", "test", true, "runtime" ) );
+
+        assertEquals( 2, MojoExecutor.getConcurrentGroupEnd( mojoExecutions, 0, listed( "a", "b", "c" ) ) );
+    }
+
+    public void testUnlistedMojosAreNotGrouped()
+    {
+        List<MojoExecution> mojoExecutions =
+            Arrays.asList( newMojoExecution( "a", "verify", true, null ), newMojoExecution( "b", "verify", true, null ),
+                           newMojoExecution( "c", "verify", true, null ) );
+
+        assertEquals( 1, MojoExecutor.getConcurrentGroupEnd( mojoExecutions, 0, NONE ) );
+        assertEquals( 2, MojoExecutor.getConcurrentGroupEnd( mojoExecutions, 0, listed( "a", "b" ) ) );
+    }
+
+    public void testMojosWithoutPhaseAreNotGrouped()
+    {
+        List<MojoExecution> mojoExecutions =
+            Arrays.asList( newMojoExecution( "a", null, true, null ), newMojoExecution( "b", null, true, null ) );
+
+        assertEquals( 1, MojoExecutor.getConcurrentGroupEnd( mojoExecutions, 0, listed( "a", "b" ) ) );
+    }
+
+    public void testUnsafeMojoLockKeys()
+    {
+        MojoDescriptor unsafe = newMojoExecution( "touch", "verify", false, null ).getMojoDescriptor();
+        MojoDescriptor safe = newMojoExecution( "log", "verify", true, null ).getMojoDescriptor();
+
+        assertEquals( "org.apache.maven.its:maven-it-plugin:0.1",
+                      MojoExecutor.getUnsafeMojoLockKey( "plugin", unsafe ) );
+        assertEquals( "org.apache.maven.its:maven-it-plugin:0.1:touch",
+                      MojoExecutor.getUnsafeMojoLockKey( "mojo", unsafe ) );
+        assertNull( MojoExecutor.getUnsafeMojoLockKey( null, unsafe ) );
+        assertNull( MojoExecutor.getUnsafeMojoLockKey( "plugin", safe ) );
+    }
+
+    public void testListedMojosAreExecutedConcurrently()
+        throws Exception
+    {
+        List<MojoExecution> mojoExecutions =
+            Arrays.asList( newMojoExecution( "a", "verify", true, null ), newMojoExecution( "b", "verify", true, null ),
+                           newMojoExecution( "c", "install", true, null ) );
+
+        MavenSession session =
+            newSession( "org.apache.maven.its:maven-it-plugin:a, org.apache.maven.its:maven-it-plugin:b" );
+        mojoExecutor.execute( session, mojoExecutions, null );
+
+        assertEquals( 2, pluginManager.maxRunning.get() );
+        assertEquals( 3, pluginManager.executed.size() );
+        assertEquals( "c", pluginManager.executed.get( 2 ) );
+    }
+
+    public void testMojosAreExecutedSeriallyByDefault()
+        throws Exception
+    {
+        List<MojoExecution> mojoExecutions =
+            Arrays.asList( newMojoExecution( "a", "verify", true, null ),
+                           newMojoExecution( "b", "verify", true, null ) );
+
+        mojoExecutor.execute( newSession( null ), mojoExecutions, null );
+
+        assertEquals( 1, pluginManager.maxRunning.get() );
+        assertEquals( Arrays.asList( "a", "b" ), pluginManager.executed );
+    }
+
+    public void testConcurrentMojosWriteToOutputOfCallingThread()
+        throws Exception
+    {
+        List<MojoExecution> mojoExecutions =
+            Arrays.asList( newMojoExecution( "a", "verify", true, null ),
+                           newMojoExecution( "b", "verify", true, null ) );
+        String concurrentMojos = "org.apache.maven.its:maven-it-plugin:a, org.apache.maven.its:maven-it-plugin:b";
+
+        PrintStream out = new PrintStream( new ByteArrayOutputStream() );
+        ThreadBoundPrintStream.bind( out, out );
+        try
+        {
+            mojoExecutor.execute( newSession( concurrentMojos ), mojoExecutions, null );
+        }
+        finally
+        {
+            ThreadBoundPrintStream.unbind();
+        }
+        assertEquals( Arrays.asList( out, out ), pluginManager.outputs );
+
+        // the pool threads are reused and must not keep the binding of the previous project
+        pluginManager.outputs.clear();
+        mojoExecutor.execute( newSession( concurrentMojos ), mojoExecutions, null );
+        assertEquals( Arrays.asList( null, null ), pluginManager.outputs );
+    }
+
+    static class RecordingPluginManager
+        extends BuildPluginManagerStub
+    {
+
+        final AtomicInteger running = new AtomicInteger();
+
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        final List<String> executed = Collections.synchronizedList( new ArrayList<String>() );
+
+        final List<PrintStream> outputs = Collections.synchronizedList( new ArrayList<PrintStream>() );
+
+        @Override
+        public void executeMojo( MavenSession session, MojoExecution execution )
+        {
+            PrintStream[] binding = ThreadBoundPrintStream.getBinding();
+            outputs.add( ( binding != null ) ? binding[0] : null );
+            int current = running.incrementAndGet();
+            for ( int max = maxRunning.get(); current > max; max = maxRunning.get() )
+            {
+                maxRunning.compareAndSet( max, current );
+            }
+            try
+            {
+                // give the other mojos of the group a chance to start
+                Thread.sleep( 200 );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                running.decrementAndGet();
+            }
+            executed.add( execution.getGoal() );
+        }
+
+    }
+
+}
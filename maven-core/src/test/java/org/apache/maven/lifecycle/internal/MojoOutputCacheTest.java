@@ -0,0 +1,216 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.SessionTestSupport;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+public class MojoOutputCacheTest
+    extends PlexusTestCase
+{
+
+    private File basedir;
+
+    private MojoOutputCache mojoOutputCache;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        basedir = new File( getBasedir(), "target/output-cache" );
+        FileUtils.deleteDirectory( basedir );
+        new File( basedir, "src/main/resources" ).mkdirs();
+        FileUtils.fileWrite( new File( basedir, "src/main/resources/app.properties" ), "UTF-8", "key=value" );
+        new File( basedir, "src/main/filters" ).mkdirs();
+        FileUtils.fileWrite( new File( basedir, "src/main/filters/dev.properties" ), "UTF-8", "env=dev" );
+
+        mojoOutputCache = lookup( MojoOutputCache.class );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        mojoOutputCache = null;
+
+        super.tearDown();
+    }
+
+    private MavenSession newSession( String enabled )
+    {
+        Resource resource = new Resource();
+        resource.setDirectory( new File( basedir, "src/main/resources" ).getAbsolutePath() );
+
+        Build build = new Build();
+        build.setDirectory( new File( basedir, "target" ).getAbsolutePath() );
+        build.setOutputDirectory( new File( basedir, "target/classes" ).getAbsolutePath() );
+        build.addResource( resource );
+        build.addFilter( "src/main/filters/dev.properties" );
+
+        MavenProject project = SessionTestSupport.newProject( "cache" );
+        project.setFile( new File( basedir, "pom.xml" ) );
+        project.getModel().setBuild( build );
+
+        return SessionTestSupport.newSession( project, MojoOutputCache.DIRECTORY_PROPERTY,
+                                              new File( basedir, "cache" ).getAbsolutePath(),
+                                              MojoOutputCache.ENABLED_PROPERTY, enabled );
+    }
+
+    private static MojoExecution newMojoExecution( String artifactId, String goal )
+    {
+        return SessionTestSupport.newMojoExecution( artifactId, "2.6", goal );
+    }
+
+    private void copyResources()
+        throws Exception
+    {
+        FileUtils.copyFile( new File( basedir, "src/main/resources/app.properties" ),
+                            new File( basedir, "target/classes/app.properties" ) );
+    }
+
+    public void testOutputIsRestoredOnHit()
+        throws Exception
+    {
+        MojoExecution mojoExecution = newMojoExecution( "maven-resources-plugin", "resources" );
+
+        MojoOutputCache.CachedExecution execution = mojoOutputCache.newExecution( newSession( "true" ), mojoExecution );
+        assertNotNull( execution );
+        assertFalse( execution.restore() );
+        copyResources();
+        execution.store();
+
+        FileUtils.deleteDirectory( new File( basedir, "target" ) );
+
+        execution = mojoOutputCache.newExecution( newSession( "true" ), mojoExecution );
+        assertTrue( execution.restore() );
+        assertEquals( "key=value",
+                      FileUtils.fileRead( new File( basedir, "target/classes/app.properties" ), "UTF-8" ) );
+    }
+
+    public void testChangedInputIsMiss()
+        throws Exception
+    {
+        MojoExecution mojoExecution = newMojoExecution( "maven-resources-plugin", "resources" );
+
+        MojoOutputCache.CachedExecution execution = mojoOutputCache.newExecution( newSession( "true" ), mojoExecution );
+        assertFalse( execution.restore() );
+        copyResources();
+        execution.store();
+
+        FileUtils.fileWrite( new File( basedir, "src/main/resources/app.properties" ), "UTF-8", "key=other" );
+
+        execution = mojoOutputCache.newExecution( newSession( "true" ), mojoExecution );
+        assertFalse( execution.restore() );
+    }
+
+    public void testChangedFilterIsMiss()
+        throws Exception
+    {
+        MojoExecution mojoExecution = newMojoExecution( "maven-resources-plugin", "resources" );
+
+        MojoOutputCache.CachedExecution execution = mojoOutputCache.newExecution( newSession( "true" ), mojoExecution );
+        assertFalse( execution.restore() );
+        copyResources();
+        execution.store();
+
+        FileUtils.deleteDirectory( new File( basedir, "target" ) );
+        FileUtils.fileWrite( new File( basedir, "src/main/filters/dev.properties" ), "UTF-8", "env=prod" );
+
+        execution = mojoOutputCache.newExecution( newSession( "true" ), mojoExecution );
+        assertFalse( execution.restore() );
+    }
+
+    public void testOutputOfEarlierBuildIsPartOfKey()
+        throws Exception
+    {
+        MojoExecution mojoExecution = newMojoExecution( "maven-resources-plugin", "resources" );
+
+        // an incremental build that finds its output up to date changes nothing
+        copyResources();
+        MojoOutputCache.CachedExecution execution = mojoOutputCache.newExecution( newSession( "true" ), mojoExecution );
+        assertFalse( execution.restore() );
+        execution.store();
+
+        execution = mojoOutputCache.newExecution( newSession( "true" ), mojoExecution );
+        assertTrue( execution.restore() );
+
+        // the empty entry must not be used for a clean output root
+        FileUtils.deleteDirectory( new File( basedir, "target" ) );
+        execution = mojoOutputCache.newExecution( newSession( "true" ), mojoExecution );
+        assertFalse( execution.restore() );
+    }
+
+    public void testDeletedFilesAreDeletedOnHit()
+        throws Exception
+    {
+        MojoExecution mojoExecution = newMojoExecution( "maven-resources-plugin", "resources" );
+        File stale = new File( basedir, "target/classes/stale.properties" );
+
+        stale.getParentFile().mkdirs();
+        FileUtils.fileWrite( stale, "UTF-8", "stale" );
+        MojoOutputCache.CachedExecution execution = mojoOutputCache.newExecution( newSession( "true" ), mojoExecution );
+        assertFalse( execution.restore() );
+        stale.delete();
+        copyResources();
+        execution.store();
+
+        FileUtils.deleteDirectory( new File( basedir, "target" ) );
+        stale.getParentFile().mkdirs();
+        FileUtils.fileWrite( stale, "UTF-8", "stale" );
+
+        execution = mojoOutputCache.newExecution( newSession( "true" ), mojoExecution );
+        assertTrue( execution.restore() );
+        assertFalse( stale.exists() );
+        assertEquals( "key=value",
+                      FileUtils.fileRead( new File( basedir, "target/classes/app.properties" ), "UTF-8" ) );
+    }
+
+    public void testUnknownMojosAreNotCached()
+    {
+        MojoExecution mojoExecution = newMojoExecution( "maven-surefire-plugin", "test" );
+
+        assertNull( mojoOutputCache.newExecution( newSession( "true" ), mojoExecution ) );
+    }
+
+    public void testCompilerIsNotCached()
+    {
+        MojoExecution mojoExecution = newMojoExecution( "maven-compiler-plugin", "compile" );
+
+        assertNull( mojoOutputCache.newExecution( newSession( "true" ), mojoExecution ) );
+    }
+
+    public void testDisabledByDefault()
+    {
+        MojoExecution mojoExecution = newMojoExecution( "maven-resources-plugin", "resources" );
+
+        assertNull( mojoOutputCache.newExecution( newSession( null ), mojoExecution ) );
+    }
+
+}
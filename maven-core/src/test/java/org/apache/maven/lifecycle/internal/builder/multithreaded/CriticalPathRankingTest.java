@@ -0,0 +1,90 @@
+package org.apache.maven.lifecycle.internal.builder.multithreaded;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+import static org.apache.maven.lifecycle.internal.stub.ProjectDependencyGraphStub.A;
+import static org.apache.maven.lifecycle.internal.stub.ProjectDependencyGraphStub.B;
+import static org.apache.maven.lifecycle.internal.stub.ProjectDependencyGraphStub.C;
+import static org.apache.maven.lifecycle.internal.stub.ProjectDependencyGraphStub.X;
+import static org.apache.maven.lifecycle.internal.stub.ProjectDependencyGraphStub.Y;
+import static org.apache.maven.lifecycle.internal.stub.ProjectDependencyGraphStub.Z;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.lifecycle.internal.builder.BuilderCommon;
+import org.apache.maven.lifecycle.internal.stub.ProjectDependencyGraphStub;
+import org.apache.maven.project.MavenProject;
+
+public class CriticalPathRankingTest
+    extends TestCase
+{
+
+    public void testRankWithoutDurationsIsChainLength()
+    {
+        ProjectDependencyGraphStub graph = new ProjectDependencyGraphStub();
+        CriticalPathRanking ranking = new CriticalPathRanking( graph, graph.getSortedProjects(), null );
+
+        assertEquals( 3, ranking.getRank( A ) );
+        assertEquals( 2, ranking.getRank( B ) );
+        assertEquals( 2, ranking.getRank( C ) );
+        assertEquals( 1, ranking.getRank( X ) );
+        assertEquals( 1, ranking.getRank( Y ) );
+        assertEquals( 1, ranking.getRank( Z ) );
+    }
+
+    public void testTiesFollowBuildOrder()
+    {
+        ProjectDependencyGraphStub graph = new ProjectDependencyGraphStub();
+        CriticalPathRanking ranking = new CriticalPathRanking( graph, graph.getSortedProjects(), null );
+
+        List<MavenProject> projects = new ArrayList<MavenProject>( Arrays.asList( Z, Y, X, C, B ) );
+        Collections.sort( projects, ranking );
+
+        assertEquals( Arrays.asList( B, C, X, Y, Z ), projects );
+    }
+
+    public void testSlowDownstreamProjectPromotesItsChain()
+    {
+        ProjectDependencyGraphStub graph = new ProjectDependencyGraphStub();
+
+        Map<String, Long> durations = new HashMap<String, Long>();
+        durations.put( BuilderCommon.getKey( A ), 10L );
+        durations.put( BuilderCommon.getKey( B ), 10L );
+        durations.put( BuilderCommon.getKey( C ), 10L );
+        durations.put( BuilderCommon.getKey( X ), 10L );
+        durations.put( BuilderCommon.getKey( Y ), 10L );
+        durations.put( BuilderCommon.getKey( Z ), 500L );
+
+        CriticalPathRanking ranking = new CriticalPathRanking( graph, graph.getSortedProjects(), durations );
+
+        assertEquals( 520, ranking.getRank( A ) );
+        assertEquals( 20, ranking.getRank( B ) );
+        assertEquals( 510, ranking.getRank( C ) );
+
+        List<MavenProject> projects = new ArrayList<MavenProject>( Arrays.asList( B, C ) );
+        Collections.sort( projects, ranking );
+
+        assertEquals( Arrays.asList( C, B ), projects );
+    }
+
+}
@@ -33,6 +33,7 @@
 import org.apache.maven.plugin.version.PluginVersionResolutionException;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -86,6 +87,172 @@ public void testSingleThreaded()
         assertEquals( ( paid + in + full ).length(), byteArrayOutputStream.size() );
     }
 
+    public void testOutputOfUnboundThreadIsNotBuffered()
+        throws Exception
+    {
+        ProjectBuildList projectBuildList = getProjectBuildList();
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        PrintStream systemOut = new PrintStream( byteArrayOutputStream );
+        ThreadOutputMuxer threadOutputMuxer = new ThreadOutputMuxer( projectBuildList, systemOut );
+        try
+        {
+            System.out.print( paid ); // No, this does not print to system.out. It's part of the test
+            assertEquals( paid, byteArrayOutputStream.toString() );
+        }
+        finally
+        {
+            threadOutputMuxer.close();
+        }
+    }
+
+    public void testBindingIsNotInheritedByNewThreads()
+        throws Exception
+    {
+        ByteArrayOutputStream bound = new ByteArrayOutputStream();
+        final PrintStream boundStream = new PrintStream( bound );
+        ThreadBoundPrintStream.bind( boundStream, boundStream );
+        try
+        {
+            final PrintStream[] binding = new PrintStream[1];
+            Thread thread = new Thread()
+            {
+                public void run()
+                {
+                    binding[0] = ( ThreadBoundPrintStream.getBinding() != null ) ? boundStream : null;
+                }
+            };
+            thread.start();
+            thread.join();
+            assertNull( binding[0] );
+            assertNotNull( ThreadBoundPrintStream.getBinding() );
+        }
+        finally
+        {
+            ThreadBoundPrintStream.unbind();
+        }
+    }
+
+    public void testSpilledOutputIsPrintedInOrder()
+        throws Exception
+    {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        PrintStream console = new PrintStream( byteArrayOutputStream );
+        ProjectOutputBuffer buffer = new ProjectOutputBuffer( console, 8 );
+
+        StringBuilder expected = new StringBuilder();
+        for ( int i = 0; i < 100; i++ )
+        {
+            buffer.getPrintStream().println( "line " + i );
+            expected.append( "line " ).append( i ).append( System.getProperty( "line.separator" ) );
+        }
+        assertEquals( 0, byteArrayOutputStream.size() );
+
+        buffer.flushToConsole();
+        assertEquals( expected.toString(), byteArrayOutputStream.toString() );
+
+        // output that arrives after the flush is no longer buffered
+        buffer.getPrintStream().print( full );
+        assertEquals( expected + full, byteArrayOutputStream.toString() );
+    }
+
+    public void testErrorOutputIsBufferedSeparately()
+        throws Exception
+    {
+        ProjectBuildList projectBuildList = getProjectBuildList();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        ThreadOutputMuxer threadOutputMuxer =
+            new ThreadOutputMuxer( projectBuildList, new PrintStream( out ), new PrintStream( err ) );
+        try
+        {
+            threadOutputMuxer.associateThreadWithProjectSegment( projectBuildList.get( 0 ) );
+            threadOutputMuxer.associateThreadWithProjectSegment( projectBuildList.get( 1 ) );
+            System.out.print( paid ); // No, this does not print to system.out. It's part of the test
+            System.err.print( in ); // No, this does not print to system.err. It's part of the test
+            assertEquals( 0, out.size() );
+            assertEquals( 0, err.size() );
+
+            // the output of a completed project waits for the project that owns the console
+            threadOutputMuxer.setThisModuleComplete( projectBuildList.get( 1 ) );
+            assertEquals( 0, out.size() );
+            threadOutputMuxer.setThisModuleComplete( projectBuildList.get( 0 ) );
+            assertEquals( paid, out.toString() );
+            assertEquals( in, err.toString() );
+        }
+        finally
+        {
+            threadOutputMuxer.close();
+        }
+    }
+
+    public void testSpilledErrorOutputIsPrintedToErrorConsole()
+        throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        ProjectOutputBuffer buffer = new ProjectOutputBuffer( new PrintStream( out ), new PrintStream( err ), 8 );
+
+        for ( int i = 0; i < 10; i++ )
+        {
+            buffer.getPrintStream().print( paid );
+            buffer.getErrorPrintStream().print( full );
+        }
+        buffer.flushToConsole();
+
+        assertEquals( 10 * paid.length(), out.size() );
+        assertEquals( 10 * full.length(), err.size() );
+        assertTrue( err.toString().matches( "(" + full + ")+" ) );
+    }
+
+    public void testFailedSpillPassesOutputThrough()
+        throws Exception
+    {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        ProjectOutputBuffer buffer = new ProjectOutputBuffer( new PrintStream( byteArrayOutputStream ), 8 )
+        {
+            @Override
+            File createSpillFile()
+            {
+                // a directory cannot be opened for writing
+                return new File( "target" ).getAbsoluteFile();
+            }
+        };
+
+        buffer.getPrintStream().print( paid );
+        String output = byteArrayOutputStream.toString();
+        assertTrue( output, output.startsWith( "[WARNING] Failed to buffer build output on disk" ) );
+        assertTrue( output, output.endsWith( paid ) );
+
+        buffer.getPrintStream().print( in );
+        assertEquals( output + in, byteArrayOutputStream.toString() );
+    }
+
+    public void testOutputWrittenDuringFlushIsNotLost()
+        throws Exception
+    {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        final ProjectOutputBuffer buffer = new ProjectOutputBuffer( new PrintStream( byteArrayOutputStream ), 64 );
+
+        final int count = 2000;
+        Thread writer = new Thread()
+        {
+            public void run()
+            {
+                for ( int i = 0; i < count; i++ )
+                {
+                    buffer.getPrintStream().print( 'x' );
+                }
+            }
+        };
+        writer.start();
+        buffer.flushToConsole();
+        writer.join();
+
+        assertEquals( count, byteArrayOutputStream.size() );
+    }
+
     public void testMultiThreaded()
         throws Exception
     {
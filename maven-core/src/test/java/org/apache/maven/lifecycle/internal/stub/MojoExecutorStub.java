@@ -19,6 +19,7 @@
 import org.apache.maven.lifecycle.LifecycleExecutionException;
 import org.apache.maven.lifecycle.internal.DependencyContext;
 import org.apache.maven.lifecycle.internal.MojoExecutor;
+import org.apache.maven.lifecycle.internal.PhaseCompletionListener;
 import org.apache.maven.lifecycle.internal.PhaseRecorder;
 import org.apache.maven.lifecycle.internal.ProjectIndex;
 import org.apache.maven.plugin.MojoExecution;
@@ -49,6 +50,14 @@ public void execute( MavenSession session, MojoExecution mojoExecution, ProjectI
     @Override
     public void execute( MavenSession session, List<MojoExecution> mojoExecutions, ProjectIndex projectIndex )
         throws LifecycleExecutionException
+    {
+        execute( session, mojoExecutions, projectIndex, null );
+    }
+
+    @Override
+    public void execute( MavenSession session, List<MojoExecution> mojoExecutions, ProjectIndex projectIndex,
+                         PhaseCompletionListener phaseCompletionListener )
+        throws LifecycleExecutionException
     {
         for ( MojoExecution mojoExecution : mojoExecutions )
         {
@@ -0,0 +1,103 @@
+package org.apache.maven.plugin.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+public class KeyedLocksTest
+    extends TestCase
+{
+
+    private final KeyedLocks locks = new KeyedLocks();
+
+    private Thread lockInBackground( final Object key, final CountDownLatch locked )
+    {
+        Thread thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                KeyedLocks.Handle handle = locks.lock( key );
+                locked.countDown();
+                handle.unlock();
+            }
+        };
+        thread.start();
+        return thread;
+    }
+
+    public void testDifferentKeysDoNotBlock()
+        throws Exception
+    {
+        KeyedLocks.Handle handle = locks.lock( "a" );
+        try
+        {
+            CountDownLatch locked = new CountDownLatch( 1 );
+            Thread thread = lockInBackground( "b", locked );
+            assertTrue( locked.await( 10, TimeUnit.SECONDS ) );
+            thread.join();
+        }
+        finally
+        {
+            handle.unlock();
+        }
+
+        assertEquals( 2, locks.getAcquisitions() );
+        assertEquals( 0, locks.getContentions() );
+    }
+
+    public void testSameKeyBlocksAndIsCounted()
+        throws Exception
+    {
+        CountDownLatch locked = new CountDownLatch( 1 );
+        Thread thread;
+
+        KeyedLocks.Handle handle = locks.lock( "a" );
+        try
+        {
+            thread = lockInBackground( "a", locked );
+            assertFalse( locked.await( 200, TimeUnit.MILLISECONDS ) );
+        }
+        finally
+        {
+            handle.unlock();
+        }
+
+        assertTrue( locked.await( 10, TimeUnit.SECONDS ) );
+        thread.join();
+
+        assertEquals( 2, locks.getAcquisitions() );
+        assertEquals( 1, locks.getContentions() );
+        assertTrue( locks.getWaitTime() > 0 );
+    }
+
+    public void testLockIsReusableAfterRelease()
+    {
+        locks.lock( "a" ).unlock();
+        locks.lock( "a" ).unlock();
+
+        assertEquals( 2, locks.getAcquisitions() );
+        assertEquals( 0, locks.getContentions() );
+    }
+
+}
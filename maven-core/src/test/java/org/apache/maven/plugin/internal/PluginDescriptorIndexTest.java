@@ -0,0 +1,196 @@
+package org.apache.maven.plugin.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.StringReader;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.StringUtils;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
+
+public class PluginDescriptorIndexTest
+    extends PlexusTestCase
+{
+
+    private static final String PLUGIN_XML =
+        "<plugin><groupId>org.apache.maven.its</groupId><artifactId>maven-it-plugin</artifactId>"
+            + "<version>0.1</version><mojos><mojo><goal>touch</goal><description>Touches a f\u00efle</description>"
+            + "<configuration><file implementation=\"java.io.File\" default-value=\"${basedir}/touch.txt\">"
+            + "${file}</file></configuration></mojo><mojo><goal>log</goal></mojo></mojos></plugin>";
+
+    private File directory;
+
+    private File pluginFile;
+
+    private final PluginDescriptorIndex index = new PluginDescriptorIndex();
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        File basedir = new File( getBasedir(), "target/plugin-descriptor-index" );
+        FileUtils.deleteDirectory( basedir );
+        directory = new File( basedir, "index" );
+        pluginFile = new File( basedir, "maven-it-plugin-0.1.jar" );
+        basedir.mkdirs();
+        writeJar( PLUGIN_XML, "classes" );
+    }
+
+    private void writeJar( String pluginXml, String classes )
+        throws Exception
+    {
+        JarOutputStream jar = new JarOutputStream( new FileOutputStream( pluginFile ) );
+        try
+        {
+            writeEntry( jar, "META-INF/maven/plugin.xml", pluginXml );
+            writeEntry( jar, "Mojo.class", classes );
+        }
+        finally
+        {
+            jar.close();
+        }
+    }
+
+    private static void writeEntry( JarOutputStream jar, String name, String content )
+        throws Exception
+    {
+        // stored rather than deflated, so the size of the JAR only depends on the size of its entries
+        byte[] bytes = content.getBytes( "UTF-8" );
+        CRC32 crc = new CRC32();
+        crc.update( bytes );
+
+        ZipEntry entry = new ZipEntry( name );
+        entry.setMethod( ZipEntry.STORED );
+        entry.setSize( bytes.length );
+        entry.setCrc( crc.getValue() );
+        jar.putNextEntry( entry );
+        jar.write( bytes );
+    }
+
+    private void put( Xpp3Dom dom )
+        throws Exception
+    {
+        ZipFile zip = new ZipFile( pluginFile );
+        try
+        {
+            index.put( directory, pluginFile, zip.getEntry( "META-INF/maven/plugin.xml" ), dom );
+        }
+        finally
+        {
+            zip.close();
+        }
+    }
+
+    public void testRoundTrip()
+        throws Exception
+    {
+        Xpp3Dom dom = Xpp3DomBuilder.build( new StringReader( PLUGIN_XML ) );
+
+        assertNull( index.get( directory, pluginFile ) );
+        put( dom );
+
+        Xpp3Dom indexed = index.get( directory, pluginFile );
+        assertEquals( dom, indexed );
+        assertEquals( "${basedir}/touch.txt",
+                      indexed.getChild( "mojos" ).getChild( 0 ).getChild( "configuration" ).getChild( "file" )
+                          .getAttribute( "default-value" ) );
+        assertEquals( "log", indexed.getChild( "mojos" ).getChild( 1 ).getChild( "goal" ).getValue() );
+    }
+
+    public void testChangedDescriptorIsNotUsed()
+        throws Exception
+    {
+        put( Xpp3DomBuilder.build( new StringReader( PLUGIN_XML ) ) );
+        long lastModified = pluginFile.lastModified();
+        long length = pluginFile.length();
+
+        // same size, only the content and the timestamp differ
+        writeJar( PLUGIN_XML.replace( "touch", "tikka" ), "classes" );
+        pluginFile.setLastModified( lastModified - 10000 );
+        assertEquals( length, pluginFile.length() );
+
+        assertNull( index.get( directory, pluginFile ) );
+    }
+
+    public void testUnchangedJarIsNotOpened()
+        throws Exception
+    {
+        Xpp3Dom dom = Xpp3DomBuilder.build( new StringReader( PLUGIN_XML ) );
+        put( dom );
+        long lastModified = pluginFile.lastModified();
+        long length = pluginFile.length();
+
+        // not even a JAR anymore, but with the recorded size and timestamp
+        FileUtils.fileWrite( pluginFile.getPath(), "UTF-8", StringUtils.repeat( "x", (int) length ) );
+        pluginFile.setLastModified( lastModified );
+
+        assertEquals( dom, index.get( directory, pluginFile ) );
+    }
+
+    public void testRebuiltJarWithSameDescriptorIsUsed()
+        throws Exception
+    {
+        put( Xpp3DomBuilder.build( new StringReader( PLUGIN_XML ) ) );
+
+        writeJar( PLUGIN_XML, "changed classes" );
+
+        assertNotNull( index.get( directory, pluginFile ) );
+        assertNotNull( index.get( directory, pluginFile ) );
+        assertEquals( 1, directory.list().length );
+    }
+
+    public void testNoTemporaryFilesAreLeftBehind()
+        throws Exception
+    {
+        put( Xpp3DomBuilder.build( new StringReader( PLUGIN_XML ) ) );
+        put( Xpp3DomBuilder.build( new StringReader( PLUGIN_XML ) ) );
+
+        assertEquals( 1, directory.list().length );
+    }
+
+    public void testDisabledIndex()
+        throws Exception
+    {
+        ZipFile zip = new ZipFile( pluginFile );
+        try
+        {
+            index.put( null, pluginFile, zip.getEntry( "META-INF/maven/plugin.xml" ),
+                       Xpp3DomBuilder.build( new StringReader( PLUGIN_XML ) ) );
+        }
+        finally
+        {
+            zip.close();
+        }
+
+        assertNull( index.get( null, pluginFile ) );
+        assertFalse( directory.exists() );
+    }
+
+}
@@ -179,6 +179,26 @@ public void testCloneWithActiveProfile()
                        activeProfilesClone );
     }
 
+    public void testCloneHasIndependentModel()
+    {
+        Model model = new Model();
+        model.setGroupId( "org.apache.maven.its" );
+        model.setArtifactId( "test" );
+        model.setVersion( "1.0" );
+
+        MavenProject project = new MavenProject( model );
+        MavenProject clone = project.clone();
+        assertNotSame( model, clone.getModel() );
+
+        model.setVersion( "2.0" );
+        assertEquals( "2.0", project.getVersion() );
+        assertEquals( "1.0", clone.getVersion() );
+
+        clone.getModel().setArtifactId( "modified" );
+        assertEquals( "modified", clone.getArtifactId() );
+        assertEquals( "test", project.getArtifactId() );
+    }
+
     public void testUndefinedOutputDirectory()
         throws Exception
     {
@@ -20,6 +20,10 @@
  */
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 
 import org.apache.maven.AbstractCoreMavenComponentTestCase;
@@ -84,4 +88,44 @@ public void testVersionlessManagedDependency()
             // this is expected
         }
     }
+
+    public void testReactorResultsDoNotDependOnThreadCount()
+        throws Exception
+    {
+        File pomFile = new File( "src/test/resources/projects/reactor-order/pom.xml" );
+
+        List<String> expected = Arrays.asList( "a", "b1", "b2", "b", "c", "reactor-order" );
+        assertEquals( expected, buildReactor( pomFile, 1 ) );
+        for ( int i = 0; i < 5; i++ )
+        {
+            assertEquals( expected, buildReactor( pomFile, 4 ) );
+        }
+    }
+
+    private List<String> buildReactor( File pomFile, int threads )
+        throws Exception
+    {
+        MavenSession mavenSession = createMavenSession( null );
+        ProjectBuildingRequest configuration = new DefaultProjectBuildingRequest();
+        configuration.setRepositorySession( mavenSession.getRepositorySession() );
+        configuration.getUserProperties().setProperty( DefaultProjectBuilder.THREADS_PROPERTY,
+                                                       Integer.toString( threads ) );
+
+        List<ProjectBuildingResult> results =
+            lookup( org.apache.maven.project.ProjectBuilder.class ).build( Collections.singletonList( pomFile ), true,
+                                                                           configuration );
+
+        List<String> artifactIds = new ArrayList<String>();
+        for ( ProjectBuildingResult result : results )
+        {
+            artifactIds.add( result.getProject().getArtifactId() );
+        }
+
+        MavenProject root = results.get( results.size() - 1 ).getProject();
+        assertTrue( root.isExecutionRoot() );
+        assertEquals( 5, root.getCollectedProjects().size() );
+        assertSame( results.get( 3 ).getProject(), results.get( 1 ).getProject().getParent() );
+
+        return artifactIds;
+    }
 }
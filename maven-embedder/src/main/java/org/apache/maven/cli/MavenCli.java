@@ -67,6 +67,7 @@
 import org.apache.maven.exception.DefaultExceptionHandler;
 import org.apache.maven.exception.ExceptionHandler;
 import org.apache.maven.exception.ExceptionSummary;
+import org.apache.maven.execution.BuildTimeHistory;
 import org.apache.maven.execution.DefaultMavenExecutionRequest;
 import org.apache.maven.execution.ExecutionListener;
 import org.apache.maven.execution.MavenExecutionRequest;
@@ -76,6 +77,7 @@
 import org.apache.maven.extension.internal.CoreExports;
 import org.apache.maven.extension.internal.CoreExtensionEntry;
 import org.apache.maven.lifecycle.LifecycleExecutionException;
+import org.apache.maven.lifecycle.internal.builder.multithreaded.ThreadBoundPrintStream;
 import org.apache.maven.model.building.ModelProcessor;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.properties.internal.EnvironmentUtils;
@@ -168,6 +170,8 @@
 
     private ToolchainsBuilder toolchainsBuilder;
 
+    private BuildTimeHistory buildTimeHistory;
+
     private DefaultSecDispatcher dispatcher;
 
     private Map<String, ConfigurationProcessor> configurationProcessors;
@@ -464,6 +468,10 @@ else if ( cliRequest.quiet )
             }
         }
 
+        // the logging backend keeps the stream it finds, so this must happen first to buffer the output of -T builds
+        System.setOut( new ThreadBoundPrintStream( System.out ) );
+        System.setErr( new ThreadBoundPrintStream( System.err, true ) );
+
         slf4jConfiguration.activate();
 
         plexusLoggerManager = new Slf4jLoggerManager();
@@ -589,6 +597,8 @@ protected void configure()
         
         toolchainsBuilder = container.lookup( ToolchainsBuilder.class );
 
+        buildTimeHistory = container.lookup( BuildTimeHistory.class );
+
         dispatcher = (DefaultSecDispatcher) container.lookup( SecDispatcher.class, "maven" );
 
         return container;
@@ -1294,7 +1304,10 @@ else if ( request.isInteractiveMode() && !cliRequest.commandLine.hasOption( CLIM
             transferListener = getBatchTransferListener();
         }
 
-        ExecutionListener executionListener = new ExecutionEventLogger();
+        ExecutionEventLogger executionEventLogger = new ExecutionEventLogger();
+        executionEventLogger.setBuildTimeHistory( buildTimeHistory );
+
+        ExecutionListener executionListener = executionEventLogger;
         if ( eventSpyDispatcher != null )
         {
             executionListener = eventSpyDispatcher.chainListener( executionListener );
@@ -26,6 +26,7 @@
 import org.apache.maven.execution.BuildFailure;
 import org.apache.maven.execution.BuildSuccess;
 import org.apache.maven.execution.BuildSummary;
+import org.apache.maven.execution.BuildTimeHistory;
 import org.apache.maven.execution.ExecutionEvent;
 import org.apache.maven.execution.MavenExecutionResult;
 import org.apache.maven.execution.MavenSession;
@@ -46,6 +47,8 @@
 {
     private final Logger logger;
 
+    private BuildTimeHistory buildTimeHistory;
+
     private static final int LINE_LENGTH = 72;
     private static final int MAX_PADDED_BUILD_TIME_DURATION_LENGTH = 9;
     private static final int MAX_PROJECT_NAME_LENGTH = 52;
@@ -66,6 +69,16 @@ public ExecutionEventLogger( Logger logger )
         this.logger = logger;
     }
 
+    /**
+     * Sets the build time history used to estimate the duration of a reactor build.
+     *
+     * @param buildTimeHistory The build time history, may be {@code null}.
+     */
+    public void setBuildTimeHistory( BuildTimeHistory buildTimeHistory )
+    {
+        this.buildTimeHistory = buildTimeHistory;
+    }
+
     private static String chars( char c, int count )
     {
         StringBuilder buffer = new StringBuilder( count );
@@ -102,9 +115,28 @@ public void sessionStarted( ExecutionEvent event )
             {
                 logger.info( project.getName() );
             }
+
+            logEstimate( event.getSession() );
         }
     }
 
+    private void logEstimate( MavenSession session )
+    {
+        if ( buildTimeHistory == null || !buildTimeHistory.isEnabled( session ) )
+        {
+            return;
+        }
+
+        long estimate = buildTimeHistory.getEstimatedBuildTime( session );
+        if ( estimate < 0 )
+        {
+            return;
+        }
+
+        logger.info( "" );
+        logger.info( "Estimated build time: " + formatDuration( estimate ) );
+    }
+
     @Override
     public void sessionEnded( ExecutionEvent event )
     {
@@ -0,0 +1,299 @@
+package org.apache.maven.model.building;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.maven.model.InputLocation;
+import org.apache.maven.model.InputSource;
+
+/**
+ * A compact replacement for the map of input locations that each model element carries. Instead of one map entry and
+ * one {@link InputLocation} per field, the line and column of a field are packed into a single {@code long} and the
+ * {@link InputSource} is referenced from a parallel array. Input locations are created on demand when first looked up
+ * via {@link #get(Object)} and kept from then on, so callers that modify a returned location see their changes on the
+ * next lookup. Iterating the entries does not keep the locations it creates for entries that have not been looked up
+ * yet, so copying the map (e.g. when merging models) does not undo the compaction. Locations that carry nested
+ * locations (e.g. for the items of a list) are kept as is. The rare maps that receive new entries after their
+ * compaction grow their arrays like an {@link java.util.ArrayList}, entries can be removed via the map or its
+ * iterators.
+ * <p>
+ * Like the {@link java.util.LinkedHashMap} it replaces, the map must not be modified while other threads access it.
+ * Lookups however may run concurrently: a lookup creates and keeps the location while holding the lock of the map.
+ *
+ * @since 3.3.2
+ */
+class CompactLocationMap
+    extends AbstractMap<Object, InputLocation>
+    implements Serializable
+{
+
+    private static final long serialVersionUID = 1L;
+
+    private Object[] keys;
+
+    private long[] positions;
+
+    private InputSource[] sources;
+
+    /**
+     * The locations that could not be packed or have already been looked up, {@code null} if no such location exists.
+     */
+    private InputLocation[] locations;
+
+    private int size;
+
+    CompactLocationMap( int capacity )
+    {
+        keys = new Object[capacity];
+        positions = new long[capacity];
+        sources = new InputSource[capacity];
+    }
+
+    private static long pack( int line, int column )
+    {
+        return ( ( (long) line ) << 32 ) | ( column & 0xFFFFFFFFL );
+    }
+
+    private int indexOf( Object key )
+    {
+        for ( int i = 0; i < size; i++ )
+        {
+            Object k = keys[i];
+            if ( k == key || ( k != null && k.equals( key ) ) )
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private InputLocation newLocation( int index )
+    {
+        long position = positions[index];
+        return new InputLocation( (int) ( position >> 32 ), (int) position, sources[index] );
+    }
+
+    private synchronized InputLocation locationAt( int index )
+    {
+        if ( locations == null )
+        {
+            locations = new InputLocation[keys.length];
+        }
+        InputLocation location = locations[index];
+        if ( location == null )
+        {
+            location = newLocation( index );
+            locations[index] = location;
+        }
+        return location;
+    }
+
+    /**
+     * Gets the location at the specified index without keeping it if it has not been looked up yet.
+     */
+    private InputLocation peekLocationAt( int index )
+    {
+        InputLocation location;
+        synchronized ( this )
+        {
+            location = ( locations != null ) ? locations[index] : null;
+        }
+        return ( location != null ) ? location : newLocation( index );
+    }
+
+    private synchronized void removeAt( int index )
+    {
+        int moved = size - index - 1;
+        if ( moved > 0 )
+        {
+            System.arraycopy( keys, index + 1, keys, index, moved );
+            System.arraycopy( positions, index + 1, positions, index, moved );
+            System.arraycopy( sources, index + 1, sources, index, moved );
+            if ( locations != null )
+            {
+                System.arraycopy( locations, index + 1, locations, index, moved );
+            }
+        }
+        size--;
+        keys[size] = null;
+        sources[size] = null;
+        if ( locations != null )
+        {
+            locations[size] = null;
+        }
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey( Object key )
+    {
+        return indexOf( key ) >= 0;
+    }
+
+    @Override
+    public InputLocation get( Object key )
+    {
+        int index = indexOf( key );
+        return ( index >= 0 ) ? locationAt( index ) : null;
+    }
+
+    @Override
+    public InputLocation remove( Object key )
+    {
+        int index = indexOf( key );
+        if ( index < 0 )
+        {
+            return null;
+        }
+        InputLocation previous = peekLocationAt( index );
+        removeAt( index );
+        return previous;
+    }
+
+    @Override
+    public synchronized void clear()
+    {
+        Arrays.fill( keys, 0, size, null );
+        Arrays.fill( sources, 0, size, null );
+        locations = null;
+        size = 0;
+    }
+
+    @Override
+    public synchronized InputLocation put( Object key, InputLocation location )
+    {
+        if ( location == null )
+        {
+            throw new IllegalArgumentException( "input location missing" );
+        }
+
+        int index = indexOf( key );
+        InputLocation previous = null;
+        if ( index >= 0 )
+        {
+            previous = peekLocationAt( index );
+        }
+        else
+        {
+            if ( size >= keys.length )
+            {
+                int capacity = Math.max( size + ( size >> 1 ), size + 1 );
+                keys = Arrays.copyOf( keys, capacity );
+                positions = Arrays.copyOf( positions, capacity );
+                sources = Arrays.copyOf( sources, capacity );
+                if ( locations != null )
+                {
+                    locations = Arrays.copyOf( locations, capacity );
+                }
+            }
+            index = size++;
+            keys[index] = key;
+        }
+
+        positions[index] = pack( location.getLineNumber(), location.getColumnNumber() );
+        sources[index] = location.getSource();
+        if ( location.getLocations() != null || locations != null )
+        {
+            if ( locations == null )
+            {
+                locations = new InputLocation[keys.length];
+            }
+            locations[index] = location;
+        }
+
+        return previous;
+    }
+
+    @Override
+    public Set<Map.Entry<Object, InputLocation>> entrySet()
+    {
+        return new AbstractSet<Map.Entry<Object, InputLocation>>()
+        {
+            @Override
+            public int size()
+            {
+                return size;
+            }
+
+            @Override
+            public void clear()
+            {
+                CompactLocationMap.this.clear();
+            }
+
+            @Override
+            public Iterator<Map.Entry<Object, InputLocation>> iterator()
+            {
+                return new Iterator<Map.Entry<Object, InputLocation>>()
+                {
+                    private int index;
+
+                    /**
+                     * One plus the index of the entry last returned by {@link #next()}, {@code 0} if there is none.
+                     */
+                    private int last;
+
+                    public boolean hasNext()
+                    {
+                        return index < size;
+                    }
+
+                    public Map.Entry<Object, InputLocation> next()
+                    {
+                        if ( index >= size )
+                        {
+                            throw new NoSuchElementException();
+                        }
+                        Map.Entry<Object, InputLocation> entry =
+                            new SimpleImmutableEntry<Object, InputLocation>( keys[index], peekLocationAt( index ) );
+                        index++;
+                        last = index;
+                        return entry;
+                    }
+
+                    public void remove()
+                    {
+                        if ( last <= 0 )
+                        {
+                            throw new IllegalStateException();
+                        }
+                        removeAt( last - 1 );
+                        index = last - 1;
+                        last = 0;
+                    }
+                };
+            }
+        };
+    }
+
+}
@@ -0,0 +1,308 @@
+package org.apache.maven.model.building;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.apache.maven.model.building.DefaultEffectiveModelCache.addActivationProperties;
+import static org.apache.maven.model.building.DefaultEffectiveModelCache.addExpressions;
+import static org.apache.maven.model.building.DefaultEffectiveModelCache.getProperties;
+import static org.apache.maven.model.building.DefaultEffectiveModelCache.getProperty;
+import static org.apache.maven.model.building.DefaultEffectiveModelCache.hash;
+import static org.apache.maven.model.building.DefaultEffectiveModelCache.read;
+import static org.apache.maven.model.building.DefaultEffectiveModelCache.readObject;
+import static org.apache.maven.model.building.DefaultEffectiveModelCache.write;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.model.resolution.ModelResolver;
+import org.apache.maven.model.resolution.UnresolvableModelException;
+import org.codehaus.plexus.component.annotations.Component;
+
+/**
+ * Stores the cached dependency management as serialized files named after the hash of the import POM's coordinates.
+ * Besides the dependency management, each file records the hashes of the POM files that went into it, i.e. the
+ * lineage of the import POM and, transitively, of the POMs it imports itself, and the values of all properties that
+ * these POMs refer to. Import POMs whose lineage or imports involve snapshots are not cached.
+ *
+ * @since 3.3.2
+ */
+@Component( role = DependencyManagementCache.class )
+public class DefaultDependencyManagementCache
+    implements DependencyManagementCache
+{
+
+    private static final int FORMAT = 1;
+
+    private static final String[] VOLATILE_PROPERTIES = { "maven.build.timestamp" };
+
+    public DependencyManagement get( ModelBuildingRequest request, String groupId, String artifactId, String version )
+    {
+        File pomFile = getPomFile( request.getModelSource() );
+        if ( pomFile == null )
+        {
+            return null;
+        }
+
+        Entry entry = readEntry( request, getId( groupId, artifactId, version ) );
+        if ( entry == null || !pomFile.getAbsolutePath().equals( entry.pom ) )
+        {
+            return null;
+        }
+
+        for ( Map.Entry<String, String> pom : entry.poms.entrySet() )
+        {
+            if ( !pom.getValue().equals( hash( new File( pom.getKey() ) ) ) )
+            {
+                return null;
+            }
+        }
+
+        if ( !entry.properties.equals( getProperties( request, entry.properties.keySet() ) ) )
+        {
+            return null;
+        }
+
+        return entry.dependencyManagement;
+    }
+
+    public void put( ModelBuildingRequest request, String groupId, String artifactId, String version,
+                     ModelBuildingResult result, List<String> imports )
+    {
+        String id = getId( groupId, artifactId, version );
+        File file = getCacheFile( request, id );
+        File pomFile = getPomFile( request.getModelSource() );
+        if ( file == null || pomFile == null || !result.getProblems().isEmpty() || isSnapshot( id ) )
+        {
+            return;
+        }
+
+        Entry entry = new Entry();
+        entry.format = FORMAT;
+        entry.id = id;
+        entry.settings = getSettings( request );
+        entry.pom = pomFile.getAbsolutePath();
+
+        Collection<String> propertyNames = new TreeSet<String>();
+
+        List<String> modelIds = result.getModelIds();
+        for ( int i = 0; i < modelIds.size(); i++ )
+        {
+            String modelId = modelIds.get( i );
+            if ( modelId.length() <= 0 )
+            {
+                // the super POM
+                continue;
+            }
+            if ( isSnapshot( modelId ) )
+            {
+                return;
+            }
+
+            File lineageFile = ( i == 0 ) ? pomFile : resolvePomFile( request.getModelResolver(), modelId );
+            byte[] bytes = ( lineageFile != null ) ? read( lineageFile ) : null;
+            if ( bytes == null )
+            {
+                return;
+            }
+            entry.poms.put( lineageFile.getAbsolutePath(), hash( bytes ) );
+
+            Model rawModel = result.getRawModel( modelId );
+            if ( !addActivationProperties( propertyNames, rawModel.getProfiles() ) )
+            {
+                return;
+            }
+            addExpressions( propertyNames, getText( rawModel ) );
+        }
+
+        for ( String imported : imports )
+        {
+            // the imported POMs were built and cached before the POM importing them
+            Entry importedEntry = isSnapshot( imported ) ? null : readEntry( request, imported );
+            if ( importedEntry == null )
+            {
+                return;
+            }
+            entry.poms.putAll( importedEntry.poms );
+            propertyNames.addAll( importedEntry.properties.keySet() );
+        }
+
+        for ( String volatileProperty : VOLATILE_PROPERTIES )
+        {
+            if ( propertyNames.contains( volatileProperty ) )
+            {
+                return;
+            }
+        }
+
+        entry.properties = getProperties( request, propertyNames );
+
+        DependencyManagement dependencyManagement = result.getEffectiveModel().getDependencyManagement();
+        entry.dependencyManagement =
+            ( dependencyManagement != null ) ? dependencyManagement : new DependencyManagement();
+
+        write( file, entry );
+    }
+
+    private Entry readEntry( ModelBuildingRequest request, String id )
+    {
+        File file = getCacheFile( request, id );
+        if ( file == null || !file.isFile() )
+        {
+            return null;
+        }
+
+        Object object = readObject( file );
+        if ( !( object instanceof Entry ) )
+        {
+            return null;
+        }
+        Entry entry = (Entry) object;
+
+        if ( entry.format != FORMAT || !entry.id.equals( id ) || !entry.settings.equals( getSettings( request ) ) )
+        {
+            return null;
+        }
+
+        return entry;
+    }
+
+    private File getCacheFile( ModelBuildingRequest request, String id )
+    {
+        if ( !Boolean.parseBoolean( getProperty( request, ENABLED_PROPERTY ) ) )
+        {
+            return null;
+        }
+
+        String directory = getProperty( request, DIRECTORY_PROPERTY );
+        File basedir;
+        if ( directory != null )
+        {
+            basedir = new File( directory );
+        }
+        else
+        {
+            String userHome = getProperty( request, "user.home" );
+            if ( userHome == null )
+            {
+                return null;
+            }
+            basedir = new File( userHome, ".m2/import-cache" );
+        }
+
+        return new File( basedir, hash( id.getBytes() ) + ".ser" );
+    }
+
+    /**
+     * Gets the parts of the request besides properties that affect the building of import POMs.
+     */
+    private String getSettings( ModelBuildingRequest request )
+    {
+        StringBuilder buffer = new StringBuilder( 64 );
+        buffer.append( getProperty( request, "maven.build.version" ) );
+        buffer.append( '|' ).append( request.getValidationLevel() );
+        buffer.append( '|' ).append( request.isLocationTracking() );
+        return buffer.toString();
+    }
+
+    private static File getPomFile( ModelSource source )
+    {
+        return ( source instanceof FileModelSource ) ? ( (FileModelSource) source ).getFile() : null;
+    }
+
+    /**
+     * Resolves the POM file of a parent in the lineage of an import POM, the resolver has already resolved it while
+     * building the import POM.
+     */
+    private static File resolvePomFile( ModelResolver resolver, String modelId )
+    {
+        String[] coordinates = modelId.split( ":" );
+        if ( resolver == null || coordinates.length != 3 )
+        {
+            return null;
+        }
+
+        try
+        {
+            return getPomFile( resolver.resolveModel( coordinates[0], coordinates[1], coordinates[2] ) );
+        }
+        catch ( UnresolvableModelException e )
+        {
+            return null;
+        }
+    }
+
+    private static String getText( Model model )
+    {
+        StringWriter writer = new StringWriter( 4096 );
+        try
+        {
+            new MavenXpp3Writer().write( writer, model );
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalStateException( e );
+        }
+        return writer.toString();
+    }
+
+    private static String getId( String groupId, String artifactId, String version )
+    {
+        return groupId + ':' + artifactId + ':' + version;
+    }
+
+    private static boolean isSnapshot( String id )
+    {
+        return id.endsWith( "SNAPSHOT" );
+    }
+
+    static class Entry
+        implements Serializable
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        int format;
+
+        String id;
+
+        String settings;
+
+        String pom;
+
+        LinkedHashMap<String, String> poms = new LinkedHashMap<String, String>();
+
+        HashMap<String, String> properties;
+
+        DependencyManagement dependencyManagement;
+
+    }
+
+}
@@ -0,0 +1,449 @@
+package org.apache.maven.model.building;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.model.Activation;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Stores the cached results as serialized files named after the hash of the POM path. Besides the result, each file
+ * records the hashes of the lineage's POM files and the values of all properties that the POMs refer to, either as
+ * expressions or for profile activation. Any difference invalidates the cached result.
+ *
+ * @since 3.3.2
+ */
+@Component( role = EffectiveModelCache.class )
+public class DefaultEffectiveModelCache
+    implements EffectiveModelCache
+{
+
+    private static final int FORMAT = 1;
+
+    private static final Pattern EXPRESSION = Pattern.compile( "\\$\\{([^}]+)\\}" );
+
+    private static final String[] JDK_PROPERTIES = { "java.version" };
+
+    private static final String[] OS_PROPERTIES = { "os.name", "os.arch", "os.version" };
+
+    /**
+     * Properties whose value is not taken from the user/system properties and changes with every build.
+     */
+    private static final String[] VOLATILE_PROPERTIES = { "maven.build.timestamp" };
+
+    public ModelBuildingResult get( ModelBuildingRequest request )
+    {
+        File file = getCacheFile( request );
+        if ( file == null || !file.isFile() )
+        {
+            return null;
+        }
+
+        Object object = readObject( file );
+        if ( !( object instanceof Entry ) )
+        {
+            return null;
+        }
+        Entry entry = (Entry) object;
+
+        if ( entry.format != FORMAT || !entry.settings.equals( getSettings( request ) ) )
+        {
+            return null;
+        }
+
+        for ( Map.Entry<String, String> pom : entry.poms.entrySet() )
+        {
+            if ( !pom.getValue().equals( hash( new File( pom.getKey() ) ) ) )
+            {
+                return null;
+            }
+        }
+
+        if ( !entry.properties.equals( getProperties( request, entry.properties.keySet() ) ) )
+        {
+            return null;
+        }
+
+        DefaultModelBuildingResult result = new DefaultModelBuildingResult();
+        result.setEffectiveModel( entry.effectiveModel );
+        for ( String modelId : entry.modelIds )
+        {
+            result.addModelId( modelId );
+            result.setRawModel( modelId, entry.rawModels.get( modelId ) );
+            result.setActivePomProfiles( modelId, entry.activePomProfiles.get( modelId ) );
+        }
+        result.setActiveExternalProfiles( entry.activeExternalProfiles );
+        return result;
+    }
+
+    public void put( ModelBuildingRequest request, ModelBuildingResult result, List<File> lineage )
+    {
+        File file = getCacheFile( request );
+        if ( file == null )
+        {
+            return;
+        }
+
+        Entry entry = new Entry();
+        entry.format = FORMAT;
+        entry.settings = getSettings( request );
+
+        Collection<String> propertyNames = new TreeSet<String>();
+
+        for ( File pomFile : lineage )
+        {
+            byte[] bytes = read( pomFile );
+            if ( bytes == null )
+            {
+                return;
+            }
+            entry.poms.put( pomFile.getAbsolutePath(), hash( bytes ) );
+            addExpressions( propertyNames, new String( bytes ) );
+        }
+
+        for ( String modelId : result.getModelIds() )
+        {
+            if ( !addActivationProperties( propertyNames, result.getRawModel( modelId ).getProfiles() ) )
+            {
+                return;
+            }
+        }
+        if ( !addActivationProperties( propertyNames, request.getProfiles() ) )
+        {
+            return;
+        }
+        for ( Profile profile : request.getProfiles() )
+        {
+            for ( Object value : profile.getProperties().values() )
+            {
+                addExpressions( propertyNames, value.toString() );
+            }
+        }
+
+        for ( String volatileProperty : VOLATILE_PROPERTIES )
+        {
+            if ( propertyNames.contains( volatileProperty ) )
+            {
+                return;
+            }
+        }
+
+        entry.properties = getProperties( request, propertyNames );
+
+        entry.effectiveModel = result.getEffectiveModel();
+        for ( String modelId : result.getModelIds() )
+        {
+            entry.modelIds.add( modelId );
+            entry.rawModels.put( modelId, result.getRawModel( modelId ) );
+            entry.activePomProfiles.put( modelId, new ArrayList<Profile>( result.getActivePomProfiles( modelId ) ) );
+        }
+        entry.activeExternalProfiles = new ArrayList<Profile>( result.getActiveExternalProfiles() );
+
+        write( file, entry );
+    }
+
+    static Object readObject( File file )
+    {
+        InputStream is = null;
+        try
+        {
+            is = new FileInputStream( file );
+            ObjectInputStream ois = new ObjectInputStream( new BufferedInputStream( is ) );
+            return ois.readObject();
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+        catch ( ClassNotFoundException e )
+        {
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( is );
+        }
+    }
+
+    static void write( File file, Serializable entry )
+    {
+        File tmp = null;
+        OutputStream os = null;
+        try
+        {
+            file.getParentFile().mkdirs();
+
+            // a unique file in the same directory, concurrent writers must not share it and the rename must not move
+            // the file across file systems
+            tmp = File.createTempFile( file.getName() + '.', ".tmp", file.getParentFile() );
+
+            os = new FileOutputStream( tmp );
+            ObjectOutputStream oos = new ObjectOutputStream( new BufferedOutputStream( os ) );
+            oos.writeObject( entry );
+            oos.close();
+            os = null;
+
+            if ( !tmp.renameTo( file ) )
+            {
+                file.delete();
+                tmp.renameTo( file );
+            }
+        }
+        catch ( IOException e )
+        {
+            // the cache is best effort, the result will simply be built again next time
+        }
+        finally
+        {
+            IOUtil.close( os );
+            if ( tmp != null )
+            {
+                tmp.delete();
+            }
+        }
+    }
+
+    private File getCacheFile( ModelBuildingRequest request )
+    {
+        if ( !Boolean.parseBoolean( getProperty( request, ENABLED_PROPERTY ) ) )
+        {
+            return null;
+        }
+
+        File pomFile = request.getPomFile();
+        if ( pomFile == null || request.getRawModel() != null
+            || ( request.getModelSource() != null && !( request.getModelSource() instanceof FileModelSource ) ) )
+        {
+            return null;
+        }
+
+        String directory = getProperty( request, DIRECTORY_PROPERTY );
+        File basedir;
+        if ( directory != null )
+        {
+            basedir = new File( directory );
+        }
+        else
+        {
+            String userHome = getProperty( request, "user.home" );
+            if ( userHome == null )
+            {
+                return null;
+            }
+            basedir = new File( userHome, ".m2/model-cache" );
+        }
+
+        return new File( basedir, hash( pomFile.getAbsolutePath().getBytes() ) + ".ser" );
+    }
+
+    /**
+     * Gets the parts of the request besides properties that affect the first model building phase.
+     */
+    private String getSettings( ModelBuildingRequest request )
+    {
+        StringBuilder buffer = new StringBuilder( 256 );
+        buffer.append( getProperty( request, "maven.build.version" ) );
+        buffer.append( '|' ).append( request.getValidationLevel() );
+        buffer.append( '|' ).append( request.isLocationTracking() );
+        buffer.append( '|' ).append( request.getActiveProfileIds() );
+        buffer.append( '|' ).append( request.getInactiveProfileIds() );
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try
+        {
+            ObjectOutputStream oos = new ObjectOutputStream( bytes );
+            oos.writeObject( new ArrayList<Profile>( request.getProfiles() ) );
+            oos.close();
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalStateException( e );
+        }
+        buffer.append( '|' ).append( hash( bytes.toByteArray() ) );
+
+        return buffer.toString();
+    }
+
+    static void addExpressions( Collection<String> propertyNames, String text )
+    {
+        for ( Matcher matcher = EXPRESSION.matcher( text ); matcher.find(); )
+        {
+            propertyNames.add( matcher.group( 1 ).trim() );
+        }
+    }
+
+    /**
+     * Collects the properties that the activation of the specified profiles depends on. File-based activation
+     * depends on the file system rather than properties, models using it are not cached.
+     */
+    static boolean addActivationProperties( Collection<String> propertyNames, List<Profile> profiles )
+    {
+        for ( Profile profile : profiles )
+        {
+            Activation activation = profile.getActivation();
+            if ( activation == null )
+            {
+                continue;
+            }
+            if ( activation.getFile() != null )
+            {
+                return false;
+            }
+            if ( activation.getProperty() != null && activation.getProperty().getName() != null )
+            {
+                String name = activation.getProperty().getName().trim();
+                propertyNames.add( name.startsWith( "!" ) ? name.substring( 1 ) : name );
+            }
+            if ( activation.getJdk() != null )
+            {
+                for ( String name : JDK_PROPERTIES )
+                {
+                    propertyNames.add( name );
+                }
+            }
+            if ( activation.getOs() != null )
+            {
+                for ( String name : OS_PROPERTIES )
+                {
+                    propertyNames.add( name );
+                }
+            }
+        }
+        return true;
+    }
+
+    static HashMap<String, String> getProperties( ModelBuildingRequest request, Collection<String> propertyNames )
+    {
+        HashMap<String, String> values = new HashMap<String, String>();
+        for ( String name : propertyNames )
+        {
+            values.put( name, request.getUserProperties().getProperty( name ) + '|'
+                + request.getSystemProperties().getProperty( name ) );
+        }
+        return values;
+    }
+
+    static String getProperty( ModelBuildingRequest request, String key )
+    {
+        String value = request.getUserProperties().getProperty( key );
+        if ( value == null )
+        {
+            value = request.getSystemProperties().getProperty( key );
+        }
+        return value;
+    }
+
+    static byte[] read( File file )
+    {
+        InputStream is = null;
+        try
+        {
+            is = new FileInputStream( file );
+            return IOUtil.toByteArray( is );
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( is );
+        }
+    }
+
+    static String hash( File file )
+    {
+        byte[] bytes = read( file );
+        return ( bytes != null ) ? hash( bytes ) : "";
+    }
+
+    static String hash( byte[] bytes )
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance( "SHA-1" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+
+        StringBuilder buffer = new StringBuilder( 40 );
+        for ( byte b : digest.digest( bytes ) )
+        {
+            buffer.append( Character.forDigit( ( b >> 4 ) & 0x0F, 16 ) ).append( Character.forDigit( b & 0x0F, 16 ) );
+        }
+        return buffer.toString();
+    }
+
+    static class Entry
+        implements Serializable
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        int format;
+
+        String settings;
+
+        LinkedHashMap<String, String> poms = new LinkedHashMap<String, String>();
+
+        HashMap<String, String> properties;
+
+        Model effectiveModel;
+
+        ArrayList<String> modelIds = new ArrayList<String>();
+
+        HashMap<String, Model> rawModels = new HashMap<String, Model>();
+
+        HashMap<String, List<Profile>> activePomProfiles = new HashMap<String, List<Profile>>();
+
+        ArrayList<Profile> activeExternalProfiles;
+
+    }
+
+}
@@ -29,10 +29,22 @@
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.model.Activation;
 import org.apache.maven.model.Build;
@@ -80,6 +92,24 @@
 public class DefaultModelBuilder
     implements ModelBuilder
 {
+
+    /**
+     * The name of the user/system property that specifies the number of threads used to build the POMs imported by a
+     * model, defaults to 1, i.e. the import POMs are built by the calling thread. If set to a higher value, the model
+     * cache of the request must support concurrent access, like the caches that Maven itself uses.
+     */
+    static final String IMPORT_THREADS_PROPERTY = "maven.modelBuilder.importThreads";
+
+    /**
+     * The number of seconds after which an idle import thread terminates.
+     */
+    private static final long IMPORT_THREAD_KEEP_ALIVE = 60;
+
+    /**
+     * The executor that builds import POMs for all builds of this instance, created on first use.
+     */
+    private ExecutorService importExecutor;
+
     @Requirement
     private ModelProcessor modelProcessor;
 
@@ -131,6 +161,12 @@
     @Requirement
     private ReportingConverter reportingConverter;
 
+    @Requirement( optional = true )
+    private EffectiveModelCache effectiveModelCache;
+
+    @Requirement( optional = true )
+    private DependencyManagementCache dependencyManagementCache;
+
     public DefaultModelBuilder setModelProcessor( ModelProcessor modelProcessor )
     {
         this.modelProcessor = modelProcessor;
@@ -233,10 +269,40 @@ public DefaultModelBuilder setReportingConverter( ReportingConverter reportingCo
         return this;
     }
 
+    public DefaultModelBuilder setEffectiveModelCache( EffectiveModelCache effectiveModelCache )
+    {
+        this.effectiveModelCache = effectiveModelCache;
+        return this;
+    }
+
+    public DefaultModelBuilder setDependencyManagementCache( DependencyManagementCache dependencyManagementCache )
+    {
+        this.dependencyManagementCache = dependencyManagementCache;
+        return this;
+    }
+
     @Override
     public ModelBuildingResult build( ModelBuildingRequest request )
         throws ModelBuildingException
     {
+        if ( effectiveModelCache != null )
+        {
+            ModelBuildingResult cached = effectiveModelCache.get( request );
+            if ( cached != null )
+            {
+                // the resolver needs the repositories of the model for the second phase
+                configureResolver( request.getModelResolver(), cached.getEffectiveModel(),
+                                   new DefaultModelProblemCollector( cached ), true );
+
+                if ( !request.isTwoPhaseBuilding() )
+                {
+                    build( request, cached );
+                }
+
+                return cached;
+            }
+        }
+
         // phase 1
         DefaultModelBuildingResult result = new DefaultModelBuildingResult();
 
@@ -402,6 +468,15 @@ else if ( !parentIds.add( parentData.getId() ) )
             result.setRawModel( modelId, currentData.getRawModel() );
         }
 
+        if ( effectiveModelCache != null && result.getProblems().isEmpty() )
+        {
+            List<File> pomFiles = getPomFiles( lineage, superData, request );
+            if ( pomFiles != null )
+            {
+                effectiveModelCache.put( request, result, pomFiles );
+            }
+        }
+
         if ( !request.isTwoPhaseBuilding() )
         {
             build( request, result );
@@ -410,6 +485,36 @@ else if ( !parentIds.add( parentData.getId() ) )
         return result;
     }
 
+    /**
+     * Gets the files of the POMs in the specified lineage or {@code null} if some POM was not read from a file.
+     */
+    private List<File> getPomFiles( List<ModelData> lineage, ModelData superData, ModelBuildingRequest request )
+    {
+        List<File> pomFiles = new ArrayList<File>( lineage.size() );
+        for ( ModelData data : lineage )
+        {
+            if ( data == superData )
+            {
+                continue;
+            }
+
+            ModelSource source = data.getSource();
+            if ( source instanceof FileModelSource )
+            {
+                pomFiles.add( ( (FileModelSource) source ).getFile() );
+            }
+            else if ( source == null && pomFiles.isEmpty() && request.getPomFile() != null )
+            {
+                pomFiles.add( request.getPomFile() );
+            }
+            else
+            {
+                return null;
+            }
+        }
+        return pomFiles;
+    }
+
     @Override
     public ModelBuildingResult build( ModelBuildingRequest request, ModelBuildingResult result )
         throws ModelBuildingException
@@ -1072,9 +1177,10 @@ private void importDependencyManagement( Model model, ModelBuildingRequest reque
         final WorkspaceModelResolver workspaceResolver = request.getWorkspaceModelResolver();
         final ModelResolver modelResolver = request.getModelResolver();
 
-        ModelBuildingRequest importRequest = null;
+        // the imported dependency management in declaration order, POMs still to build are represented by their task
+        List<Object> imports = null;
 
-        List<DependencyManagement> importMngts = null;
+        Map<String, ImportTask> importTasks = null;
 
         for ( Iterator<Dependency> it = depMngt.getDependencies().iterator(); it.hasNext(); )
         {
@@ -1158,80 +1264,179 @@ private void importDependencyManagement( Model model, ModelBuildingRequest reque
                     }
                 }
 
-                // no workspace resolver or workspace resolver returned null (i.e. model not in workspace)
-                if ( importModel == null )
+                if ( importModel != null )
                 {
-                    final ModelSource importSource;
-                    try
+                    importMngt = importModel.getDependencyManagement();
+
+                    if ( importMngt == null )
                     {
-                        importSource = modelResolver.resolveModel( groupId, artifactId, version );
+                        importMngt = new DependencyManagement();
                     }
-                    catch ( UnresolvableModelException e )
-                    {
-                        StringBuilder buffer = new StringBuilder( 256 );
-                        buffer.append( "Non-resolvable import POM" );
-                        if ( !containsCoordinates( e.getMessage(), groupId, artifactId, version ) )
-                        {
-                            buffer.append( " " ).append( ModelProblemUtils.toId( groupId, artifactId, version ) );
-                        }
-                        buffer.append( ": " ).append( e.getMessage() );
 
-                        problems.add( new ModelProblemCollectorRequest( Severity.ERROR, Version.BASE )
-                            .setMessage( buffer.toString() ).setLocation( dependency.getLocation( "" ) )
-                            .setException( e ) );
-                        continue;
-                    }
+                    putCache( request.getModelCache(), groupId, artifactId, version, ModelCacheTag.IMPORT,
+                              importMngt );
+                }
+            }
 
-                    if ( importRequest == null )
-                    {
-                        importRequest = new DefaultModelBuildingRequest();
-                        importRequest.setValidationLevel( ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL );
-                        importRequest.setModelCache( request.getModelCache() );
-                        importRequest.setSystemProperties( request.getSystemProperties() );
-                        importRequest.setUserProperties( request.getUserProperties() );
-                        importRequest.setLocationTracking( request.isLocationTracking() );
-                    }
+            if ( imports == null )
+            {
+                imports = new ArrayList<Object>();
+            }
 
-                    importRequest.setModelSource( importSource );
-                    importRequest.setModelResolver( modelResolver.newCopy() );
+            if ( importMngt != null )
+            {
+                imports.add( importMngt );
+            }
+            else
+            {
+                // no workspace resolver or workspace resolver returned null (i.e. model not in workspace)
+                if ( importTasks == null )
+                {
+                    importTasks = new LinkedHashMap<String, ImportTask>();
+                }
 
-                    final ModelBuildingResult importResult;
-                    try
-                    {
-                        importResult = build( importRequest );
-                    }
-                    catch ( ModelBuildingException e )
-                    {
-                        problems.addAll( e.getProblems() );
-                        continue;
-                    }
+                ImportTask importTask = importTasks.get( imported );
+                if ( importTask == null )
+                {
+                    importTask = new ImportTask( request, dependency );
+                    importTasks.put( imported, importTask );
+                }
+
+                imports.add( importTask );
+            }
+        }
 
-                    problems.addAll( importResult.getProblems() );
+        importIds.remove( importing );
+
+        if ( importTasks != null )
+        {
+            buildImports( importTasks.values(), request );
+        }
 
-                    importModel = importResult.getEffectiveModel();
+        List<DependencyManagement> importMngts = null;
+
+        if ( imports != null )
+        {
+            importMngts = new ArrayList<DependencyManagement>( imports.size() );
+
+            for ( Object imported : imports )
+            {
+                if ( imported instanceof DependencyManagement )
+                {
+                    importMngts.add( (DependencyManagement) imported );
+                    continue;
                 }
 
-                importMngt = importModel.getDependencyManagement();
+                ImportTask importTask = (ImportTask) imported;
 
-                if ( importMngt == null )
+                if ( importTask.failure != null )
                 {
-                    importMngt = new DependencyManagement();
+                    problems.add( importTask.failure );
                 }
+                if ( importTask.problems != null )
+                {
+                    problems.addAll( importTask.problems );
+                }
+
+                if ( importTask.importMngt != null )
+                {
+                    putCache( request.getModelCache(), importTask.groupId, importTask.artifactId,
+                              importTask.version, ModelCacheTag.IMPORT, importTask.importMngt );
 
-                putCache( request.getModelCache(), groupId, artifactId, version, ModelCacheTag.IMPORT, importMngt );
+                    importMngts.add( importTask.importMngt );
+                }
             }
+        }
+
+        dependencyManagementImporter.importManagement( model, importMngts, request, problems );
+    }
+
+    /**
+     * Builds the specified import POMs, concurrently if there is more than one and more than one thread is configured.
+     * The tasks only record their outcome, it is up to the caller to merge the outcomes in declaration order.
+     */
+    private void buildImports( Collection<ImportTask> importTasks, ModelBuildingRequest request )
+    {
+        int threads = Math.min( getImportThreads( request ), importTasks.size() );
+
+        if ( threads <= 1 )
+        {
+            for ( ImportTask importTask : importTasks )
+            {
+                importTask.call();
+            }
+            return;
+        }
+
+        ImportWorker worker = new ImportWorker( importTasks );
 
-            if ( importMngts == null )
+        List<Future<?>> futures = new ArrayList<Future<?>>( threads - 1 );
+
+        ExecutorService executor = getImportExecutor();
+        try
+        {
+            for ( int i = 1; i < threads; i++ )
             {
-                importMngts = new ArrayList<DependencyManagement>();
+                futures.add( executor.submit( worker ) );
             }
 
-            importMngts.add( importMngt );
+            // the calling thread helps out, so the tasks get done even if all pool threads are busy with other builds
+            worker.call();
+
+            worker.await();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while building import POMs", e );
         }
+        finally
+        {
+            // workers that have not started yet would find no tasks left
+            for ( Future<?> future : futures )
+            {
+                future.cancel( false );
+            }
+        }
+    }
 
-        importIds.remove( importing );
+    /**
+     * Gets the executor for import POMs. It is bounded by the number of available processors, its threads are daemon
+     * threads that terminate when idle, so the executor needs no shutdown.
+     */
+    private synchronized ExecutorService getImportExecutor()
+    {
+        if ( importExecutor == null )
+        {
+            int threads = Runtime.getRuntime().availableProcessors();
+            ThreadPoolExecutor executor =
+                new ThreadPoolExecutor( threads, threads, IMPORT_THREAD_KEEP_ALIVE, TimeUnit.SECONDS,
+                                        new LinkedBlockingQueue<Runnable>(), new ImportThreadFactory() );
+            executor.allowCoreThreadTimeOut( true );
+            importExecutor = executor;
+        }
+        return importExecutor;
+    }
 
-        dependencyManagementImporter.importManagement( model, importMngts, request, problems );
+    private static int getImportThreads( ModelBuildingRequest request )
+    {
+        String threads = request.getUserProperties().getProperty( IMPORT_THREADS_PROPERTY );
+        if ( threads == null )
+        {
+            threads = request.getSystemProperties().getProperty( IMPORT_THREADS_PROPERTY );
+        }
+        if ( threads != null )
+        {
+            try
+            {
+                return Math.max( 1, Integer.parseInt( threads.trim() ) );
+            }
+            catch ( NumberFormatException e )
+            {
+                // fall back to the default
+            }
+        }
+        return 1;
     }
 
     private <T> void putCache( ModelCache modelCache, String groupId, String artifactId, String version,
@@ -1306,4 +1511,216 @@ protected boolean hasFatalErrors( ModelProblemCollectorExt problems )
         }
     }
 
+    /**
+     * Resolves and builds a single import POM. Each task uses its own copy of the model resolver, the outcome is only
+     * published to the model cache by the caller.
+     */
+    private class ImportTask
+        implements Callable<Object>
+    {
+
+        final ModelBuildingRequest request;
+
+        final Dependency dependency;
+
+        final String groupId;
+
+        final String artifactId;
+
+        final String version;
+
+        ModelProblemCollectorRequest failure;
+
+        List<ModelProblem> problems;
+
+        DependencyManagement importMngt;
+
+        ImportTask( ModelBuildingRequest request, Dependency dependency )
+        {
+            this.request = request;
+            this.dependency = dependency;
+            this.groupId = dependency.getGroupId();
+            this.artifactId = dependency.getArtifactId();
+            this.version = dependency.getVersion();
+        }
+
+        @Override
+        public Object call()
+        {
+            ModelResolver modelResolver = request.getModelResolver().newCopy();
+
+            final ModelSource importSource;
+            try
+            {
+                importSource = modelResolver.resolveModel( groupId, artifactId, version );
+            }
+            catch ( UnresolvableModelException e )
+            {
+                StringBuilder buffer = new StringBuilder( 256 );
+                buffer.append( "Non-resolvable import POM" );
+                if ( !containsCoordinates( e.getMessage(), groupId, artifactId, version ) )
+                {
+                    buffer.append( " " ).append( ModelProblemUtils.toId( groupId, artifactId, version ) );
+                }
+                buffer.append( ": " ).append( e.getMessage() );
+
+                failure = new ModelProblemCollectorRequest( Severity.ERROR, Version.BASE )
+                    .setMessage( buffer.toString() ).setLocation( dependency.getLocation( "" ) ).setException( e );
+                return null;
+            }
+
+            ModelBuildingRequest importRequest = new DefaultModelBuildingRequest();
+            importRequest.setValidationLevel( ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL );
+            importRequest.setModelCache( request.getModelCache() );
+            importRequest.setSystemProperties( request.getSystemProperties() );
+            importRequest.setUserProperties( request.getUserProperties() );
+            importRequest.setLocationTracking( request.isLocationTracking() );
+            importRequest.setModelSource( importSource );
+            importRequest.setModelResolver( modelResolver );
+
+            if ( dependencyManagementCache != null )
+            {
+                importMngt = dependencyManagementCache.get( importRequest, groupId, artifactId, version );
+                if ( importMngt != null )
+                {
+                    return null;
+                }
+            }
+
+            importRequest.setTwoPhaseBuilding( true );
+
+            ModelBuildingResult importResult;
+            List<String> imports;
+            try
+            {
+                importResult = build( importRequest );
+
+                // the imports are gone from the dependency management once the second phase is done
+                imports = getImports( importResult.getEffectiveModel() );
+
+                importResult = build( importRequest, importResult );
+            }
+            catch ( ModelBuildingException e )
+            {
+                problems = e.getProblems();
+                return null;
+            }
+
+            problems = importResult.getProblems();
+
+            importMngt = importResult.getEffectiveModel().getDependencyManagement();
+
+            if ( importMngt == null )
+            {
+                importMngt = new DependencyManagement();
+            }
+
+            if ( dependencyManagementCache != null )
+            {
+                dependencyManagementCache.put( importRequest, groupId, artifactId, version, importResult, imports );
+            }
+
+            return null;
+        }
+
+        private List<String> getImports( Model model )
+        {
+            List<String> imports = new ArrayList<String>();
+            if ( model.getDependencyManagement() != null )
+            {
+                for ( Dependency dependency : model.getDependencyManagement().getDependencies() )
+                {
+                    if ( "pom".equals( dependency.getType() ) && "import".equals( dependency.getScope() ) )
+                    {
+                        imports.add( dependency.getGroupId() + ':' + dependency.getArtifactId() + ':'
+                            + dependency.getVersion() );
+                    }
+                }
+            }
+            return imports;
+        }
+
+    }
+
+    /**
+     * Takes import tasks from a shared queue until it is empty. Several threads run the same worker.
+     */
+    private static class ImportWorker
+        implements Callable<Object>
+    {
+
+        private final Queue<ImportTask> importTasks;
+
+        private final CountDownLatch pending;
+
+        private volatile Throwable failure;
+
+        ImportWorker( Collection<ImportTask> importTasks )
+        {
+            this.importTasks = new ConcurrentLinkedQueue<ImportTask>( importTasks );
+            this.pending = new CountDownLatch( importTasks.size() );
+        }
+
+        @Override
+        public Object call()
+        {
+            for ( ImportTask importTask = importTasks.poll(); importTask != null; importTask = importTasks.poll() )
+            {
+                try
+                {
+                    importTask.call();
+                }
+                catch ( RuntimeException e )
+                {
+                    failure = e;
+                }
+                catch ( Error e )
+                {
+                    failure = e;
+                }
+                finally
+                {
+                    pending.countDown();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Waits until all tasks are done and rethrows the failure of a task, if any.
+         */
+        void await()
+            throws InterruptedException
+        {
+            pending.await();
+
+            Throwable cause = failure;
+            if ( cause instanceof RuntimeException )
+            {
+                throw (RuntimeException) cause;
+            }
+            if ( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+        }
+
+    }
+
+    private static class ImportThreadFactory
+        implements ThreadFactory
+    {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread( Runnable r )
+        {
+            Thread thread = new Thread( r, "model-builder-import-" + counter.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        }
+
+    }
+
 }
@@ -194,6 +194,16 @@ protected ReportConfigurationExpander newReportConfigurationExpander()
         return new DefaultReportConfigurationExpander();
     }
 
+    protected EffectiveModelCache newEffectiveModelCache()
+    {
+        return new DefaultEffectiveModelCache();
+    }
+
+    protected DependencyManagementCache newDependencyManagementCache()
+    {
+        return new DefaultDependencyManagementCache();
+    }
+
     protected ReportingConverter newReportingConverter()
     {
         return new DefaultReportingConverter();
@@ -225,6 +235,8 @@ public DefaultModelBuilder newInstance()
         modelBuilder.setPluginConfigurationExpander( newPluginConfigurationExpander() );
         modelBuilder.setReportConfigurationExpander( newReportConfigurationExpander() );
         modelBuilder.setReportingConverter( newReportingConverter() );
+        modelBuilder.setEffectiveModelCache( newEffectiveModelCache() );
+        modelBuilder.setDependencyManagementCache( newDependencyManagementCache() );
 
         return modelBuilder;
     }
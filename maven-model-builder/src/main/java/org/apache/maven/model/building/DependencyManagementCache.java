@@ -0,0 +1,72 @@
+package org.apache.maven.model.building;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.List;
+
+import org.apache.maven.model.DependencyManagement;
+
+/**
+ * Persists the dependency management of import POMs across invocations. A cached dependency management is only used
+ * if the POMs that went into it are unchanged and the properties they refer to have the same values.
+ *
+ * @since 3.3.2
+ */
+public interface DependencyManagementCache
+{
+
+    /**
+     * The name of the user/system property that enables the cache, it is disabled by default.
+     */
+    String ENABLED_PROPERTY = "maven.importCache";
+
+    /**
+     * The name of the user/system property that specifies the directory of the cache. By default, this is the
+     * directory {@code import-cache} in the user's Maven configuration directory {@code ~/.m2}.
+     */
+    String DIRECTORY_PROPERTY = "maven.importCache.directory";
+
+    /**
+     * Gets the cached dependency management of the specified import POM.
+     *
+     * @param request The request to build the import POM, must not be {@code null}. Its model source denotes the
+     *            resolved import POM.
+     * @param groupId The group id of the import POM, must not be {@code null}.
+     * @param artifactId The artifact id of the import POM, must not be {@code null}.
+     * @param version The version of the import POM, must not be {@code null}.
+     * @return A private copy of the cached dependency management or {@code null} if none is cached or it is outdated.
+     */
+    DependencyManagement get( ModelBuildingRequest request, String groupId, String artifactId, String version );
+
+    /**
+     * Caches the dependency management of the specified import POM.
+     *
+     * @param request The request that built the import POM, must not be {@code null}.
+     * @param groupId The group id of the import POM, must not be {@code null}.
+     * @param artifactId The artifact id of the import POM, must not be {@code null}.
+     * @param version The version of the import POM, must not be {@code null}.
+     * @param result The result of building the import POM, must not be {@code null}.
+     * @param imports The coordinates ({@code groupId:artifactId:version}) of the POMs imported by the import POM
+     *            itself, must not be {@code null}.
+     */
+    void put( ModelBuildingRequest request, String groupId, String artifactId, String version,
+              ModelBuildingResult result, List<String> imports );
+
+}
@@ -0,0 +1,64 @@
+package org.apache.maven.model.building;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Persists the results of the first model building phase across invocations. A cached result is only used if the
+ * POMs of the model's lineage are unchanged and the properties and profiles that went into the result are the same.
+ *
+ * @since 3.3.2
+ */
+public interface EffectiveModelCache
+{
+
+    /**
+     * The name of the user/system property that enables the cache, it is disabled by default.
+     */
+    String ENABLED_PROPERTY = "maven.modelCache";
+
+    /**
+     * The name of the user/system property that specifies the directory of the cache. By default, this is the
+     * directory {@code model-cache} in the user's Maven configuration directory {@code ~/.m2}.
+     */
+    String DIRECTORY_PROPERTY = "maven.modelCache.directory";
+
+    /**
+     * Gets the cached result of the first model building phase for the specified request.
+     *
+     * @param request The model building request, must not be {@code null}.
+     * @return A private copy of the cached result or {@code null} if no up-to-date result is cached.
+     */
+    ModelBuildingResult get( ModelBuildingRequest request );
+
+    /**
+     * Caches the result of the first model building phase. Must be called before the effective model is modified by
+     * the second phase.
+     *
+     * @param request The model building request, must not be {@code null}.
+     * @param result The result of the first phase, must not be {@code null}.
+     * @param lineage The POM files of the model's lineage, starting with the POM of the model itself, must not be
+     *            {@code null}.
+     */
+    void put( ModelBuildingRequest request, ModelBuildingResult result, List<File> lineage );
+
+}
@@ -0,0 +1,246 @@
+package org.apache.maven.model.building;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.model.InputLocation;
+import org.apache.maven.model.InputLocationTracker;
+import org.apache.maven.model.InputSource;
+import org.apache.maven.model.Model;
+
+/**
+ * Reduces the memory retained by the input locations of a model that was built with location tracking enabled. The
+ * location maps of all model elements are replaced with compact maps that pack the line and column of each field into
+ * a single {@code long} and create the {@link InputLocation} objects only when they are looked up. Input sources that
+ * denote the same POM are shared among all models compacted by the same instance, so the locations inherited from a
+ * common parent reference a single input source across the reactor. The compacted models still answer
+ * {@link InputLocationTracker#getLocation(Object)} as before.
+ * <p>
+ * <strong>Note:</strong> This class is not thread-safe, callers that use an instance for the models of a reactor
+ * need to compact the models one after the other.
+ *
+ * @since 3.3.2
+ */
+public class InputLocationCompactor
+{
+
+    private static final String MODEL_PACKAGE = "org.apache.maven.model.";
+
+    private static final Map<Class<?>, ClassInfo> CLASS_INFOS = new ConcurrentHashMap<Class<?>, ClassInfo>();
+
+    private final Map<String, InputSource> sources = new HashMap<String, InputSource>();
+
+    private final Map<Map<Object, InputLocation>, CompactLocationMap> compacted =
+        new IdentityHashMap<Map<Object, InputLocation>, CompactLocationMap>();
+
+    /**
+     * Compacts the input locations of the specified model and its elements.
+     *
+     * @param model The model whose input locations should be compacted, may be {@code null}.
+     */
+    public void compact( Model model )
+    {
+        if ( model != null )
+        {
+            try
+            {
+                compactObject( model );
+            }
+            finally
+            {
+                // location maps are only shared within the elements of a model, the input sources across models
+                compacted.clear();
+            }
+        }
+    }
+
+    private void compactObject( Object target )
+    {
+        ClassInfo info = getClassInfo( target.getClass() );
+
+        try
+        {
+            if ( info.locations != null )
+            {
+                @SuppressWarnings( "unchecked" )
+                Map<Object, InputLocation> locations = (Map<Object, InputLocation>) info.locations.get( target );
+                if ( locations != null )
+                {
+                    info.locations.set( target, compactMap( locations ) );
+                }
+            }
+
+            for ( Field field : info.children )
+            {
+                Object child = field.get( target );
+                if ( child instanceof List )
+                {
+                    for ( Object element : (List<?>) child )
+                    {
+                        if ( element instanceof InputLocationTracker )
+                        {
+                            compactObject( element );
+                        }
+                    }
+                }
+                else if ( child != null )
+                {
+                    compactObject( child );
+                }
+            }
+        }
+        catch ( IllegalAccessException e )
+        {
+            throw new IllegalStateException( "Failed to compact input locations of " + target.getClass(), e );
+        }
+    }
+
+    private CompactLocationMap compactMap( Map<Object, InputLocation> locations )
+    {
+        if ( locations instanceof CompactLocationMap )
+        {
+            return (CompactLocationMap) locations;
+        }
+
+        CompactLocationMap map = compacted.get( locations );
+        if ( map == null )
+        {
+            map = new CompactLocationMap( locations.size() );
+            for ( Map.Entry<Object, InputLocation> entry : locations.entrySet() )
+            {
+                InputLocation location = entry.getValue();
+                if ( location != null )
+                {
+                    map.put( entry.getKey(), compactLocation( location ) );
+                }
+            }
+            compacted.put( locations, map );
+        }
+        return map;
+    }
+
+    private InputLocation compactLocation( InputLocation location )
+    {
+        InputSource source = location.getSource();
+        InputSource shared = share( source );
+        if ( location.getLocations() != null )
+        {
+            // nested locations are kept as objects, recreate them to share the source and compact their map
+            InputLocation result =
+                new InputLocation( location.getLineNumber(), location.getColumnNumber(), shared );
+            result.setLocations( compactMap( location.getLocations() ) );
+            return result;
+        }
+        if ( shared != source )
+        {
+            return new InputLocation( location.getLineNumber(), location.getColumnNumber(), shared );
+        }
+        return location;
+    }
+
+    private InputSource share( InputSource source )
+    {
+        if ( source == null )
+        {
+            return null;
+        }
+
+        String key = source.getModelId() + '\n' + source.getLocation();
+        InputSource shared = sources.get( key );
+        if ( shared == null )
+        {
+            sources.put( key, source );
+            shared = source;
+        }
+        return shared;
+    }
+
+    private static ClassInfo getClassInfo( final Class<?> type )
+    {
+        ClassInfo info = CLASS_INFOS.get( type );
+        if ( info == null )
+        {
+            info = AccessController.doPrivileged( new PrivilegedAction<ClassInfo>()
+            {
+                public ClassInfo run()
+                {
+                    return new ClassInfo( type );
+                }
+            } );
+            CLASS_INFOS.put( type, info );
+        }
+        return info;
+    }
+
+    private static final class ClassInfo
+    {
+
+        final Field locations;
+
+        final Field[] children;
+
+        ClassInfo( Class<?> type )
+        {
+            Field locationsField = null;
+            List<Field> childFields = new ArrayList<Field>();
+
+            for ( Class<?> cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass() )
+            {
+                for ( Field field : cls.getDeclaredFields() )
+                {
+                    if ( Modifier.isStatic( field.getModifiers() ) )
+                    {
+                        continue;
+                    }
+
+                    Class<?> fieldType = field.getType();
+                    if ( "locations".equals( field.getName() ) && Map.class.equals( fieldType ) )
+                    {
+                        field.setAccessible( true );
+                        locationsField = field;
+                    }
+                    else if ( List.class.equals( fieldType )
+                        || ( InputLocationTracker.class.isAssignableFrom( fieldType )
+                            && fieldType.getName().startsWith( MODEL_PACKAGE )
+                            && !InputLocation.class.equals( fieldType ) ) )
+                    {
+                        field.setAccessible( true );
+                        childFields.add( field );
+                    }
+                }
+            }
+
+            this.locations = locationsField;
+            this.children = childFields.toArray( new Field[childFields.size()] );
+        }
+
+    }
+
+}
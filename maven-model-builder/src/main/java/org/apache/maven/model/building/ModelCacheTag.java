@@ -56,8 +56,8 @@
     T intoCache( T data );
 
     /**
-     * Creates a copy of the data suitable for retrieval from the cache. The retrieved data can be mutated after the
-     * cache is queried but the state of the cache must not change so we need to make a copy.
+     * Prepares the data for retrieval from the cache. The state of the cache must not change, so the data either needs
+     * to be copied or the model builder needs to treat the retrieved data as read-only and copy it before modification.
      *
      * @param data The data to retrieve from the cache, must not be {@code null}.
      * @return The data being retrieved from the cache, never {@code null}.
@@ -124,7 +124,8 @@ public DependencyManagement intoCache( DependencyManagement data )
         @Override
         public DependencyManagement fromCache( DependencyManagement data )
         {
-            return intoCache( data );
+            // read-only, the dependency management importer copies the dependencies it actually imports
+            return data;
         }
 
     };
@@ -71,7 +71,8 @@ public void importManagement( Model target, List<? extends DependencyManagement>
                     String key = dependency.getManagementKey();
                     if ( !dependencies.containsKey( key ) )
                     {
-                        dependencies.put( key, dependency );
+                        // the imported dependency management is shared via the model cache
+                        dependencies.put( key, dependency.clone() );
                     }
                 }
             }
@@ -35,7 +35,8 @@
 {
 
     /**
-     * Imports the specified dependency management sections into the given target model.
+     * Imports the specified dependency management sections into the given target model. The sources may be shared with
+     * other models and must not be modified, i.e. dependencies taken from them need to be copied into the target.
      *
      * @param target The model into which to import the dependency management section, must not be <code>null</code>.
      * @param sources The dependency management sections to import, may be <code>null</code>.
@@ -49,7 +49,9 @@
 import org.codehaus.plexus.interpolation.ValueSource;
 
 /**
- * Use a regular expression search to find and resolve expressions within the POM.
+ * Use a regular expression search to find and resolve expressions within the POM. The interpolator is stateless, each
+ * model is interpolated with its own {@link Interpolation}, so concurrent model building does not contend on a shared
+ * lock.
  *
  * @author jdcasey Created on Feb 3, 2005
  */
@@ -93,7 +95,6 @@
     public AbstractStringBasedModelInterpolator()
     {
         interpolator = createInterpolator();
-        recursionInterceptor = new PrefixAwareRecursionInterceptor( PROJECT_PREFIXES );
     }
 
     public AbstractStringBasedModelInterpolator setPathTranslator( PathTranslator pathTranslator )
@@ -197,6 +198,11 @@ protected List<? extends InterpolationPostProcessor> createPostProcessors( final
         return processors;
     }
 
+    /**
+     * Interpolates the specified string. Each call sets up a new {@link Interpolation}, so callers that interpolate
+     * many strings of the same model should use {@link #newInterpolation(List, List, ModelProblemCollector)}
+     * instead.
+     */
     protected String interpolateInternal( String src, List<? extends ValueSource> valueSources,
                                           List<? extends InterpolationPostProcessor> postProcessors,
                                           ModelProblemCollector problems )
@@ -206,54 +212,55 @@ protected String interpolateInternal( String src, List<? extends ValueSource> va
             return src;
         }
 
-        String result = src;
-        synchronized ( this )
-        {
+        return newInterpolation( valueSources, postProcessors, problems ).interpolate( src );
+    }
 
-            for ( ValueSource vs : valueSources )
-            {
-                interpolator.addValueSource( vs );
-            }
+    /**
+     * Creates the state for interpolating the strings of a single model. The returned object is not thread-safe but
+     * independent from any other interpolation, i.e. different threads can interpolate different models at the same
+     * time.
+     *
+     * @param valueSources The value sources to resolve expressions from, must not be {@code null}.
+     * @param postProcessors The post processors to apply to resolved values, must not be {@code null}.
+     * @param problems The collector to report interpolation errors to, must not be {@code null}.
+     * @return The interpolation state, never {@code null}.
+     */
+    protected Interpolation newInterpolation( List<? extends ValueSource> valueSources,
+                                              List<? extends InterpolationPostProcessor> postProcessors,
+                                              ModelProblemCollector problems )
+    {
+        Interpolator interpolator = createInterpolator();
 
-            for ( InterpolationPostProcessor postProcessor : postProcessors )
-            {
-                interpolator.addPostProcessor( postProcessor );
-            }
+        for ( ValueSource vs : valueSources )
+        {
+            interpolator.addValueSource( vs );
+        }
 
-            try
-            {
-                try
-                {
-                    result = interpolator.interpolate( result, recursionInterceptor );
-                }
-                catch ( InterpolationException e )
-                {
-                    problems.add( new ModelProblemCollectorRequest( Severity.ERROR, Version.BASE )
-                        .setMessage( e.getMessage() ).setException( e ) );
-                }
+        for ( InterpolationPostProcessor postProcessor : postProcessors )
+        {
+            interpolator.addPostProcessor( postProcessor );
+        }
 
-                interpolator.clearFeedback();
-            }
-            finally
-            {
-                for ( ValueSource vs : valueSources )
-                {
-                    interpolator.removeValuesSource( vs );
-                }
+        return new Interpolation( interpolator, createRecursionInterceptor(), problems );
+    }
 
-                for ( InterpolationPostProcessor postProcessor : postProcessors )
-                {
-                    interpolator.removePostProcessor( postProcessor );
-                }
-            }
+    /**
+     * Creates the recursion interceptor for an interpolation. Unless an interceptor has been
+     * {@link #setRecursionInterceptor(RecursionInterceptor) set}, a new one is created for each call since
+     * interceptors track the expressions being resolved.
+     */
+    protected RecursionInterceptor createRecursionInterceptor()
+    {
+        if ( recursionInterceptor != null )
+        {
+            return recursionInterceptor;
         }
-
-        return result;
+        return new PrefixAwareRecursionInterceptor( PROJECT_PREFIXES );
     }
 
     protected RecursionInterceptor getRecursionInterceptor()
     {
-        return recursionInterceptor;
+        return createRecursionInterceptor();
     }
 
     protected void setRecursionInterceptor( RecursionInterceptor recursionInterceptor )
@@ -261,11 +268,73 @@ protected void setRecursionInterceptor( RecursionInterceptor recursionIntercepto
         this.recursionInterceptor = recursionInterceptor;
     }
 
+    /**
+     * Creates a new interpolator. This method is called for every {@link Interpolation}, implementations must not
+     * return a shared instance.
+     */
     protected abstract Interpolator createInterpolator();
 
+    /**
+     * @deprecated Interpolation no longer uses a shared interpolator, see
+     *             {@link #newInterpolation(List, List, ModelProblemCollector)}.
+     */
+    @Deprecated
     protected final Interpolator getInterpolator()
     {
         return interpolator;
     }
 
+    /**
+     * The state of interpolating the strings of a single model.
+     */
+    protected static final class Interpolation
+    {
+
+        private final Interpolator interpolator;
+
+        private final RecursionInterceptor recursionInterceptor;
+
+        private final ModelProblemCollector problems;
+
+        Interpolation( Interpolator interpolator, RecursionInterceptor recursionInterceptor,
+                       ModelProblemCollector problems )
+        {
+            this.interpolator = interpolator;
+            this.recursionInterceptor = recursionInterceptor;
+            this.problems = problems;
+        }
+
+        /**
+         * Interpolates the specified string.
+         *
+         * @param src The string to interpolate, must not be {@code null}.
+         * @return The interpolated string or the original string if it contains no expressions or interpolation
+         *         failed, never {@code null}.
+         */
+        public String interpolate( String src )
+        {
+            if ( !src.contains( "${" ) )
+            {
+                return src;
+            }
+
+            String result = src;
+            try
+            {
+                result = interpolator.interpolate( src, recursionInterceptor );
+            }
+            catch ( InterpolationException e )
+            {
+                problems.add( new ModelProblemCollectorRequest( Severity.ERROR, Version.BASE )
+                    .setMessage( e.getMessage() ).setException( e ) );
+            }
+            finally
+            {
+                interpolator.clearFeedback();
+            }
+            return result;
+        }
+
+    }
+
 }
@@ -0,0 +1,804 @@
+package org.apache.maven.model.interpolation;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.maven.model.Activation;
+import org.apache.maven.model.ActivationFile;
+import org.apache.maven.model.ActivationOS;
+import org.apache.maven.model.ActivationProperty;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.BuildBase;
+import org.apache.maven.model.CiManagement;
+import org.apache.maven.model.ConfigurationContainer;
+import org.apache.maven.model.Contributor;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.DeploymentRepository;
+import org.apache.maven.model.Developer;
+import org.apache.maven.model.DistributionManagement;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.model.Extension;
+import org.apache.maven.model.FileSet;
+import org.apache.maven.model.IssueManagement;
+import org.apache.maven.model.License;
+import org.apache.maven.model.MailingList;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.ModelBase;
+import org.apache.maven.model.Notifier;
+import org.apache.maven.model.Organization;
+import org.apache.maven.model.PatternSet;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginConfiguration;
+import org.apache.maven.model.PluginContainer;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.model.PluginManagement;
+import org.apache.maven.model.Prerequisites;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.Relocation;
+import org.apache.maven.model.ReportPlugin;
+import org.apache.maven.model.ReportSet;
+import org.apache.maven.model.Reporting;
+import org.apache.maven.model.Repository;
+import org.apache.maven.model.RepositoryBase;
+import org.apache.maven.model.RepositoryPolicy;
+import org.apache.maven.model.Resource;
+import org.apache.maven.model.Scm;
+import org.apache.maven.model.Site;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Interpolates the string-valued fields of a model by walking the model classes through their accessors. The walk
+ * mirrors what the reflective traversal of {@link StringSearchModelInterpolator} does for the classes of maven-model:
+ * it skips the parent (whose coordinates must not be interpolated) and the input locations, only interpolates the
+ * values (not the keys) of properties and follows plugin configuration down into its DOM.
+ * Instances of any other class, including custom subclasses of the model classes, are handed over to
+ * {@link #visitReflectively(Object)} so they continue to see the reflective behavior.
+ * <p>
+ * The visit methods follow the field layout of <code>maven.mdo</code> and need to be updated whenever a string-valued
+ * field is added to the model. <code>ModelInterpolationVisitorTest</code> compares this visitor with the reflective
+ * traversal over a fully populated model to catch fields that were missed.
+ *
+ * @since 3.3.2
+ */
+abstract class ModelInterpolationVisitor
+{
+
+    private final AbstractStringBasedModelInterpolator.Interpolation interpolation;
+
+    ModelInterpolationVisitor( AbstractStringBasedModelInterpolator.Interpolation interpolation )
+    {
+        this.interpolation = interpolation;
+    }
+
+    /**
+     * Interpolates the specified object which is not a model class known to this visitor.
+     *
+     * @param target The object to interpolate, never {@code null}.
+     */
+    protected abstract void visitReflectively( Object target );
+
+    private boolean isVisitable( Object target, Class<?> type )
+    {
+        if ( target == null )
+        {
+            return false;
+        }
+        if ( target.getClass() != type )
+        {
+            visitReflectively( target );
+            return false;
+        }
+        return true;
+    }
+
+    private String interpolate( String value )
+    {
+        return ( value != null ) ? interpolation.interpolate( value ) : null;
+    }
+
+    private void interpolate( List<String> values )
+    {
+        for ( int i = 0, n = values.size(); i < n; i++ )
+        {
+            String value = values.get( i );
+            String interpolated = interpolate( value );
+            if ( interpolated != value )
+            {
+                try
+                {
+                    values.set( i, interpolated );
+                }
+                catch ( UnsupportedOperationException e )
+                {
+                    // like the reflective traversal, leave unmodifiable lists as they are
+                    return;
+                }
+            }
+        }
+    }
+
+    private void interpolate( Properties properties )
+    {
+        for ( Map.Entry<Object, Object> entry : properties.entrySet() )
+        {
+            Object value = entry.getValue();
+            if ( value instanceof String )
+            {
+                String interpolated = interpolate( (String) value );
+                if ( interpolated != value )
+                {
+                    entry.setValue( interpolated );
+                }
+            }
+            else if ( value != null )
+            {
+                visitReflectively( value );
+            }
+        }
+    }
+
+    private void visitConfiguration( Object configuration )
+    {
+        if ( !isVisitable( configuration, Xpp3Dom.class ) )
+        {
+            return;
+        }
+
+        Xpp3Dom dom = (Xpp3Dom) configuration;
+
+        String value = dom.getValue();
+        String interpolated = interpolate( value );
+        if ( interpolated != value )
+        {
+            dom.setValue( interpolated );
+        }
+
+        for ( String name : dom.getAttributeNames() )
+        {
+            value = dom.getAttribute( name );
+            interpolated = interpolate( value );
+            if ( interpolated != value )
+            {
+                dom.setAttribute( name, interpolated );
+            }
+        }
+
+        for ( int i = 0, n = dom.getChildCount(); i < n; i++ )
+        {
+            visitConfiguration( dom.getChild( i ) );
+        }
+    }
+
+    void visitModel( Model target )
+    {
+        if ( !isVisitable( target, Model.class ) )
+        {
+            return;
+        }
+
+        target.setModelVersion( interpolate( target.getModelVersion() ) );
+        target.setGroupId( interpolate( target.getGroupId() ) );
+        target.setArtifactId( interpolate( target.getArtifactId() ) );
+        target.setVersion( interpolate( target.getVersion() ) );
+        target.setPackaging( interpolate( target.getPackaging() ) );
+        target.setName( interpolate( target.getName() ) );
+        target.setDescription( interpolate( target.getDescription() ) );
+        target.setUrl( interpolate( target.getUrl() ) );
+        target.setInceptionYear( interpolate( target.getInceptionYear() ) );
+        target.setModelEncoding( interpolate( target.getModelEncoding() ) );
+        visitOrganization( target.getOrganization() );
+        List<License> licenses = target.getLicenses();
+        for ( int i = 0, n = licenses.size(); i < n; i++ )
+        {
+            visitLicense( licenses.get( i ) );
+        }
+        List<Developer> developers = target.getDevelopers();
+        for ( int i = 0, n = developers.size(); i < n; i++ )
+        {
+            visitDeveloper( developers.get( i ) );
+        }
+        List<Contributor> contributors = target.getContributors();
+        for ( int i = 0, n = contributors.size(); i < n; i++ )
+        {
+            visitContributor( contributors.get( i ) );
+        }
+        List<MailingList> mailingLists = target.getMailingLists();
+        for ( int i = 0, n = mailingLists.size(); i < n; i++ )
+        {
+            visitMailingList( mailingLists.get( i ) );
+        }
+        visitPrerequisites( target.getPrerequisites() );
+        visitScm( target.getScm() );
+        visitIssueManagement( target.getIssueManagement() );
+        visitCiManagement( target.getCiManagement() );
+        visitBuild( target.getBuild() );
+        List<Profile> profiles = target.getProfiles();
+        for ( int i = 0, n = profiles.size(); i < n; i++ )
+        {
+            visitProfile( profiles.get( i ) );
+        }
+        visitModelBaseFields( target );
+    }
+
+    private void visitModelBaseFields( ModelBase target )
+    {
+        interpolate( target.getModules() );
+        interpolate( target.getProperties() );
+        visitDistributionManagement( target.getDistributionManagement() );
+        visitDependencyManagement( target.getDependencyManagement() );
+        List<Dependency> dependencies = target.getDependencies();
+        for ( int i = 0, n = dependencies.size(); i < n; i++ )
+        {
+            visitDependency( dependencies.get( i ) );
+        }
+        List<Repository> repositories = target.getRepositories();
+        for ( int i = 0, n = repositories.size(); i < n; i++ )
+        {
+            visitRepository( repositories.get( i ) );
+        }
+        List<Repository> pluginRepositories = target.getPluginRepositories();
+        for ( int i = 0, n = pluginRepositories.size(); i < n; i++ )
+        {
+            visitRepository( pluginRepositories.get( i ) );
+        }
+        visitConfiguration( target.getReports() );
+        visitReporting( target.getReporting() );
+    }
+
+    private void visitOrganization( Organization target )
+    {
+        if ( !isVisitable( target, Organization.class ) )
+        {
+            return;
+        }
+
+        target.setName( interpolate( target.getName() ) );
+        target.setUrl( interpolate( target.getUrl() ) );
+    }
+
+    private void visitLicense( License target )
+    {
+        if ( !isVisitable( target, License.class ) )
+        {
+            return;
+        }
+
+        target.setName( interpolate( target.getName() ) );
+        target.setUrl( interpolate( target.getUrl() ) );
+        target.setDistribution( interpolate( target.getDistribution() ) );
+        target.setComments( interpolate( target.getComments() ) );
+    }
+
+    private void visitDeveloper( Developer target )
+    {
+        if ( !isVisitable( target, Developer.class ) )
+        {
+            return;
+        }
+
+        target.setId( interpolate( target.getId() ) );
+        visitContributorFields( target );
+    }
+
+    private void visitContributor( Contributor target )
+    {
+        if ( !isVisitable( target, Contributor.class ) )
+        {
+            return;
+        }
+
+        visitContributorFields( target );
+    }
+
+    private void visitContributorFields( Contributor target )
+    {
+        target.setName( interpolate( target.getName() ) );
+        target.setEmail( interpolate( target.getEmail() ) );
+        target.setUrl( interpolate( target.getUrl() ) );
+        target.setOrganization( interpolate( target.getOrganization() ) );
+        target.setOrganizationUrl( interpolate( target.getOrganizationUrl() ) );
+        target.setTimezone( interpolate( target.getTimezone() ) );
+        interpolate( target.getRoles() );
+        interpolate( target.getProperties() );
+    }
+
+    private void visitMailingList( MailingList target )
+    {
+        if ( !isVisitable( target, MailingList.class ) )
+        {
+            return;
+        }
+
+        target.setName( interpolate( target.getName() ) );
+        target.setSubscribe( interpolate( target.getSubscribe() ) );
+        target.setUnsubscribe( interpolate( target.getUnsubscribe() ) );
+        target.setPost( interpolate( target.getPost() ) );
+        target.setArchive( interpolate( target.getArchive() ) );
+        interpolate( target.getOtherArchives() );
+    }
+
+    private void visitPrerequisites( Prerequisites target )
+    {
+        if ( !isVisitable( target, Prerequisites.class ) )
+        {
+            return;
+        }
+
+        target.setMaven( interpolate( target.getMaven() ) );
+    }
+
+    private void visitScm( Scm target )
+    {
+        if ( !isVisitable( target, Scm.class ) )
+        {
+            return;
+        }
+
+        target.setConnection( interpolate( target.getConnection() ) );
+        target.setDeveloperConnection( interpolate( target.getDeveloperConnection() ) );
+        target.setTag( interpolate( target.getTag() ) );
+        target.setUrl( interpolate( target.getUrl() ) );
+    }
+
+    private void visitIssueManagement( IssueManagement target )
+    {
+        if ( !isVisitable( target, IssueManagement.class ) )
+        {
+            return;
+        }
+
+        target.setSystem( interpolate( target.getSystem() ) );
+        target.setUrl( interpolate( target.getUrl() ) );
+    }
+
+    private void visitCiManagement( CiManagement target )
+    {
+        if ( !isVisitable( target, CiManagement.class ) )
+        {
+            return;
+        }
+
+        target.setSystem( interpolate( target.getSystem() ) );
+        target.setUrl( interpolate( target.getUrl() ) );
+        List<Notifier> notifiers = target.getNotifiers();
+        for ( int i = 0, n = notifiers.size(); i < n; i++ )
+        {
+            visitNotifier( notifiers.get( i ) );
+        }
+    }
+
+    private void visitNotifier( Notifier target )
+    {
+        if ( !isVisitable( target, Notifier.class ) )
+        {
+            return;
+        }
+
+        target.setType( interpolate( target.getType() ) );
+        target.setAddress( interpolate( target.getAddress() ) );
+        interpolate( target.getConfiguration() );
+    }
+
+    private void visitProfile( Profile target )
+    {
+        if ( !isVisitable( target, Profile.class ) )
+        {
+            return;
+        }
+
+        target.setId( interpolate( target.getId() ) );
+        target.setSource( interpolate( target.getSource() ) );
+        visitActivation( target.getActivation() );
+        visitBuildBase( target.getBuild() );
+        visitModelBaseFields( target );
+    }
+
+    private void visitActivation( Activation target )
+    {
+        if ( !isVisitable( target, Activation.class ) )
+        {
+            return;
+        }
+
+        target.setJdk( interpolate( target.getJdk() ) );
+        visitActivationOS( target.getOs() );
+        visitActivationProperty( target.getProperty() );
+        visitActivationFile( target.getFile() );
+    }
+
+    private void visitActivationOS( ActivationOS target )
+    {
+        if ( !isVisitable( target, ActivationOS.class ) )
+        {
+            return;
+        }
+
+        target.setName( interpolate( target.getName() ) );
+        target.setFamily( interpolate( target.getFamily() ) );
+        target.setArch( interpolate( target.getArch() ) );
+        target.setVersion( interpolate( target.getVersion() ) );
+    }
+
+    private void visitActivationProperty( ActivationProperty target )
+    {
+        if ( !isVisitable( target, ActivationProperty.class ) )
+        {
+            return;
+        }
+
+        target.setName( interpolate( target.getName() ) );
+        target.setValue( interpolate( target.getValue() ) );
+    }
+
+    private void visitActivationFile( ActivationFile target )
+    {
+        if ( !isVisitable( target, ActivationFile.class ) )
+        {
+            return;
+        }
+
+        target.setMissing( interpolate( target.getMissing() ) );
+        target.setExists( interpolate( target.getExists() ) );
+    }
+
+    private void visitBuild( Build target )
+    {
+        if ( !isVisitable( target, Build.class ) )
+        {
+            return;
+        }
+
+        target.setSourceDirectory( interpolate( target.getSourceDirectory() ) );
+        target.setScriptSourceDirectory( interpolate( target.getScriptSourceDirectory() ) );
+        target.setTestSourceDirectory( interpolate( target.getTestSourceDirectory() ) );
+        target.setOutputDirectory( interpolate( target.getOutputDirectory() ) );
+        target.setTestOutputDirectory( interpolate( target.getTestOutputDirectory() ) );
+        List<Extension> extensions = target.getExtensions();
+        for ( int i = 0, n = extensions.size(); i < n; i++ )
+        {
+            visitExtension( extensions.get( i ) );
+        }
+        visitBuildBaseFields( target );
+    }
+
+    private void visitBuildBase( BuildBase target )
+    {
+        if ( !isVisitable( target, BuildBase.class ) )
+        {
+            return;
+        }
+
+        visitBuildBaseFields( target );
+    }
+
+    private void visitBuildBaseFields( BuildBase target )
+    {
+        target.setDefaultGoal( interpolate( target.getDefaultGoal() ) );
+        target.setDirectory( interpolate( target.getDirectory() ) );
+        target.setFinalName( interpolate( target.getFinalName() ) );
+        interpolate( target.getFilters() );
+        List<Resource> resources = target.getResources();
+        for ( int i = 0, n = resources.size(); i < n; i++ )
+        {
+            visitResource( resources.get( i ) );
+        }
+        List<Resource> testResources = target.getTestResources();
+        for ( int i = 0, n = testResources.size(); i < n; i++ )
+        {
+            visitResource( testResources.get( i ) );
+        }
+        visitPluginConfigurationFields( target );
+    }
+
+    private void visitPluginConfigurationFields( PluginConfiguration target )
+    {
+        visitPluginManagement( target.getPluginManagement() );
+        visitPluginContainerFields( target );
+    }
+
+    private void visitPluginManagement( PluginManagement target )
+    {
+        if ( !isVisitable( target, PluginManagement.class ) )
+        {
+            return;
+        }
+
+        visitPluginContainerFields( target );
+    }
+
+    private void visitPluginContainerFields( PluginContainer target )
+    {
+        List<Plugin> plugins = target.getPlugins();
+        for ( int i = 0, n = plugins.size(); i < n; i++ )
+        {
+            visitPlugin( plugins.get( i ) );
+        }
+    }
+
+    private void visitExtension( Extension target )
+    {
+        if ( !isVisitable( target, Extension.class ) )
+        {
+            return;
+        }
+
+        target.setGroupId( interpolate( target.getGroupId() ) );
+        target.setArtifactId( interpolate( target.getArtifactId() ) );
+        target.setVersion( interpolate( target.getVersion() ) );
+    }
+
+    private void visitResource( Resource target )
+    {
+        if ( !isVisitable( target, Resource.class ) )
+        {
+            return;
+        }
+
+        target.setTargetPath( interpolate( target.getTargetPath() ) );
+        target.setFiltering( interpolate( target.getFiltering() ) );
+        target.setMergeId( interpolate( target.getMergeId() ) );
+        visitFileSetFields( target );
+    }
+
+    private void visitFileSetFields( FileSet target )
+    {
+        target.setDirectory( interpolate( target.getDirectory() ) );
+        visitPatternSetFields( target );
+    }
+
+    private void visitPatternSetFields( PatternSet target )
+    {
+        interpolate( target.getIncludes() );
+        interpolate( target.getExcludes() );
+    }
+
+    private void visitPlugin( Plugin target )
+    {
+        if ( !isVisitable( target, Plugin.class ) )
+        {
+            return;
+        }
+
+        target.setGroupId( interpolate( target.getGroupId() ) );
+        target.setArtifactId( interpolate( target.getArtifactId() ) );
+        target.setVersion( interpolate( target.getVersion() ) );
+        target.setExtensions( interpolate( target.getExtensions() ) );
+        // the key is derived from the coordinates and may have been computed before they were interpolated
+        target.clearKey();
+        List<PluginExecution> executions = target.getExecutions();
+        for ( int i = 0, n = executions.size(); i < n; i++ )
+        {
+            visitPluginExecution( executions.get( i ) );
+        }
+        List<Dependency> dependencies = target.getDependencies();
+        for ( int i = 0, n = dependencies.size(); i < n; i++ )
+        {
+            visitDependency( dependencies.get( i ) );
+        }
+        visitConfiguration( target.getGoals() );
+        visitConfigurationContainerFields( target );
+    }
+
+    private void visitPluginExecution( PluginExecution target )
+    {
+        if ( !isVisitable( target, PluginExecution.class ) )
+        {
+            return;
+        }
+
+        target.setId( interpolate( target.getId() ) );
+        target.setPhase( interpolate( target.getPhase() ) );
+        interpolate( target.getGoals() );
+        visitConfigurationContainerFields( target );
+    }
+
+    private void visitConfigurationContainerFields( ConfigurationContainer target )
+    {
+        target.setInherited( interpolate( target.getInherited() ) );
+        visitConfiguration( target.getConfiguration() );
+    }
+
+    private void visitDependency( Dependency target )
+    {
+        if ( !isVisitable( target, Dependency.class ) )
+        {
+            return;
+        }
+
+        target.setGroupId( interpolate( target.getGroupId() ) );
+        target.setArtifactId( interpolate( target.getArtifactId() ) );
+        target.setVersion( interpolate( target.getVersion() ) );
+        target.setType( interpolate( target.getType() ) );
+        target.setClassifier( interpolate( target.getClassifier() ) );
+        target.setScope( interpolate( target.getScope() ) );
+        target.setSystemPath( interpolate( target.getSystemPath() ) );
+        target.setOptional( interpolate( target.getOptional() ) );
+        // the management key is derived from the coordinates and may have been computed before they were interpolated
+        target.clearManagementKey();
+        List<Exclusion> exclusions = target.getExclusions();
+        for ( int i = 0, n = exclusions.size(); i < n; i++ )
+        {
+            visitExclusion( exclusions.get( i ) );
+        }
+    }
+
+    private void visitExclusion( Exclusion target )
+    {
+        if ( !isVisitable( target, Exclusion.class ) )
+        {
+            return;
+        }
+
+        target.setArtifactId( interpolate( target.getArtifactId() ) );
+        target.setGroupId( interpolate( target.getGroupId() ) );
+    }
+
+    private void visitDependencyManagement( DependencyManagement target )
+    {
+        if ( !isVisitable( target, DependencyManagement.class ) )
+        {
+            return;
+        }
+
+        List<Dependency> dependencies = target.getDependencies();
+        for ( int i = 0, n = dependencies.size(); i < n; i++ )
+        {
+            visitDependency( dependencies.get( i ) );
+        }
+    }
+
+    private void visitDistributionManagement( DistributionManagement target )
+    {
+        if ( !isVisitable( target, DistributionManagement.class ) )
+        {
+            return;
+        }
+
+        target.setDownloadUrl( interpolate( target.getDownloadUrl() ) );
+        target.setStatus( interpolate( target.getStatus() ) );
+        visitDeploymentRepository( target.getRepository() );
+        visitDeploymentRepository( target.getSnapshotRepository() );
+        visitSite( target.getSite() );
+        visitRelocation( target.getRelocation() );
+    }
+
+    private void visitDeploymentRepository( DeploymentRepository target )
+    {
+        if ( !isVisitable( target, DeploymentRepository.class ) )
+        {
+            return;
+        }
+
+        visitRepositoryFields( target );
+    }
+
+    private void visitRepository( Repository target )
+    {
+        if ( !isVisitable( target, Repository.class ) )
+        {
+            return;
+        }
+
+        visitRepositoryFields( target );
+    }
+
+    private void visitRepositoryFields( Repository target )
+    {
+        visitRepositoryPolicy( target.getReleases() );
+        visitRepositoryPolicy( target.getSnapshots() );
+        visitRepositoryBaseFields( target );
+    }
+
+    private void visitRepositoryBaseFields( RepositoryBase target )
+    {
+        target.setId( interpolate( target.getId() ) );
+        target.setName( interpolate( target.getName() ) );
+        target.setUrl( interpolate( target.getUrl() ) );
+        target.setLayout( interpolate( target.getLayout() ) );
+    }
+
+    private void visitRepositoryPolicy( RepositoryPolicy target )
+    {
+        if ( !isVisitable( target, RepositoryPolicy.class ) )
+        {
+            return;
+        }
+
+        target.setEnabled( interpolate( target.getEnabled() ) );
+        target.setUpdatePolicy( interpolate( target.getUpdatePolicy() ) );
+        target.setChecksumPolicy( interpolate( target.getChecksumPolicy() ) );
+    }
+
+    private void visitSite( Site target )
+    {
+        if ( !isVisitable( target, Site.class ) )
+        {
+            return;
+        }
+
+        target.setId( interpolate( target.getId() ) );
+        target.setName( interpolate( target.getName() ) );
+        target.setUrl( interpolate( target.getUrl() ) );
+    }
+
+    private void visitRelocation( Relocation target )
+    {
+        if ( !isVisitable( target, Relocation.class ) )
+        {
+            return;
+        }
+
+        target.setGroupId( interpolate( target.getGroupId() ) );
+        target.setArtifactId( interpolate( target.getArtifactId() ) );
+        target.setVersion( interpolate( target.getVersion() ) );
+        target.setMessage( interpolate( target.getMessage() ) );
+    }
+
+    private void visitReporting( Reporting target )
+    {
+        if ( !isVisitable( target, Reporting.class ) )
+        {
+            return;
+        }
+
+        target.setExcludeDefaults( interpolate( target.getExcludeDefaults() ) );
+        target.setOutputDirectory( interpolate( target.getOutputDirectory() ) );
+        List<ReportPlugin> plugins = target.getPlugins();
+        for ( int i = 0, n = plugins.size(); i < n; i++ )
+        {
+            visitReportPlugin( plugins.get( i ) );
+        }
+    }
+
+    private void visitReportPlugin( ReportPlugin target )
+    {
+        if ( !isVisitable( target, ReportPlugin.class ) )
+        {
+            return;
+        }
+
+        target.setGroupId( interpolate( target.getGroupId() ) );
+        target.setArtifactId( interpolate( target.getArtifactId() ) );
+        target.setVersion( interpolate( target.getVersion() ) );
+        List<ReportSet> reportSets = target.getReportSets();
+        for ( int i = 0, n = reportSets.size(); i < n; i++ )
+        {
+            visitReportSet( reportSets.get( i ) );
+        }
+        visitConfigurationContainerFields( target );
+    }
+
+    private void visitReportSet( ReportSet target )
+    {
+        if ( !isVisitable( target, ReportSet.class ) )
+        {
+            return;
+        }
+
+        target.setId( interpolate( target.getId() ) );
+        interpolate( target.getReports() );
+        visitConfigurationContainerFields( target );
+    }
+
+}
@@ -66,20 +66,27 @@ public Model interpolateModel( Model model, File projectDir, ModelBuildingReques
     protected void interpolateObject( Object obj, Model model, File projectDir, ModelBuildingRequest config,
                                       ModelProblemCollector problems )
     {
-        try
-        {
-            List<? extends ValueSource> valueSources = createValueSources( model, projectDir, config, problems );
-            List<? extends InterpolationPostProcessor> postProcessors =
-                createPostProcessors( model, projectDir, config );
+        List<? extends ValueSource> valueSources = createValueSources( model, projectDir, config, problems );
+        List<? extends InterpolationPostProcessor> postProcessors = createPostProcessors( model, projectDir, config );
 
-            InterpolateObjectAction action =
-                new InterpolateObjectAction( obj, valueSources, postProcessors, this, problems );
+        final Interpolation interpolation = newInterpolation( valueSources, postProcessors, problems );
+        final ModelProblemCollector collector = problems;
 
-            AccessController.doPrivileged( action );
+        if ( obj instanceof Model )
+        {
+            // walk the known model classes through their accessors, anything else is still handled reflectively
+            new ModelInterpolationVisitor( interpolation )
+            {
+                @Override
+                protected void visitReflectively( Object target )
+                {
+                    AccessController.doPrivileged( new InterpolateObjectAction( target, interpolation, collector ) );
+                }
+            }.visitModel( (Model) obj );
         }
-        finally
+        else
         {
-            getInterpolator().clearAnswers();
+            AccessController.doPrivileged( new InterpolateObjectAction( obj, interpolation, problems ) );
         }
     }
 
@@ -98,26 +105,16 @@ protected Interpolator createInterpolator()
 
         private final LinkedList<Object> interpolationTargets;
 
-        private final StringSearchModelInterpolator modelInterpolator;
-
-        private final List<? extends ValueSource> valueSources;
-
-        private final List<? extends InterpolationPostProcessor> postProcessors;
+        private final Interpolation interpolation;
 
         private final ModelProblemCollector problems;
 
-        public InterpolateObjectAction( Object target, List<? extends ValueSource> valueSources,
-                                        List<? extends InterpolationPostProcessor> postProcessors,
-                                        StringSearchModelInterpolator modelInterpolator,
-                                        ModelProblemCollector problems )
+        public InterpolateObjectAction( Object target, Interpolation interpolation, ModelProblemCollector problems )
         {
-            this.valueSources = valueSources;
-            this.postProcessors = postProcessors;
-
             this.interpolationTargets = new LinkedList<Object>();
             interpolationTargets.add( target );
 
-            this.modelInterpolator = modelInterpolator;
+            this.interpolation = interpolation;
 
             this.problems = problems;
         }
@@ -138,7 +135,7 @@ public Object run()
 
         private String interpolate( String value )
         {
-            return modelInterpolator.interpolateInternal( value, valueSources, postProcessors, problems );
+            return interpolation.interpolate( value );
         }
 
         private void traverseObjectWithParents( Class<?> cls, Object target )
@@ -288,40 +285,31 @@ public boolean isArray()
             CacheField( Field field )
             {
                 this.field = field;
+                // the field is private to the cache, so it can stay accessible instead of toggling it under a lock
+                field.setAccessible( true );
             }
 
             void interpolate( Object target, InterpolateObjectAction interpolateObjectAction )
             {
-                synchronized ( field )
+                try
                 {
-                    boolean isAccessible = field.isAccessible();
-                    field.setAccessible( true );
-                    try
-                    {
-                        doInterpolate( target, interpolateObjectAction );
-                    }
-                    catch ( IllegalArgumentException e )
-                    {
-                        interpolateObjectAction.problems.add(
-                            new ModelProblemCollectorRequest( Severity.ERROR, Version.BASE ).setMessage(
-                                "Failed to interpolate field3: " + field + " on class: "
-                                    + field.getType().getName() ).setException(
-                                e ) ); // todo: Not entirely the same message
-                    }
-                    catch ( IllegalAccessException e )
-                    {
-                        interpolateObjectAction.problems.add(
-                            new ModelProblemCollectorRequest( Severity.ERROR, Version.BASE ).setMessage(
-                                "Failed to interpolate field4: " + field + " on class: "
-                                    + field.getType().getName() ).setException( e ) );
-                    }
-                    finally
-                    {
-                        field.setAccessible( isAccessible );
-                    }
+                    doInterpolate( target, interpolateObjectAction );
+                }
+                catch ( IllegalArgumentException e )
+                {
+                    interpolateObjectAction.problems.add(
+                        new ModelProblemCollectorRequest( Severity.ERROR, Version.BASE ).setMessage(
+                            "Failed to interpolate field3: " + field + " on class: "
+                                + field.getType().getName() ).setException(
+                            e ) ); // todo: Not entirely the same message
+                }
+                catch ( IllegalAccessException e )
+                {
+                    interpolateObjectAction.problems.add(
+                        new ModelProblemCollectorRequest( Severity.ERROR, Version.BASE ).setMessage(
+                            "Failed to interpolate field4: " + field + " on class: "
+                                + field.getType().getName() ).setException( e ) );
                 }
-
-
             }
 
             abstract void doInterpolate( Object target, InterpolateObjectAction ctx )
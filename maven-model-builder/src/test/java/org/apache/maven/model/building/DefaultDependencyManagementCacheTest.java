@@ -0,0 +1,248 @@
+package org.apache.maven.model.building;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Repository;
+import org.apache.maven.model.resolution.ModelResolver;
+import org.apache.maven.model.resolution.UnresolvableModelException;
+import org.codehaus.plexus.util.FileUtils;
+
+import junit.framework.TestCase;
+
+public class DefaultDependencyManagementCacheTest
+    extends TestCase
+{
+
+    private File basedir;
+
+    private CountingCache cache;
+
+    private ModelBuilder builder;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        basedir = new File( "target/dependency-management-cache" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( basedir );
+        new File( basedir, "repo" ).mkdirs();
+
+        writePom( "bom-parent", "<packaging>pom</packaging><properties><lib.version>1.0</lib.version></properties>" );
+        writeBom( "bom-a", "<parent><groupId>test</groupId><artifactId>bom-parent</artifactId>"
+            + "<version>1.0</version></parent>", dependency( "lib", "${lib.version}" ) + imported( "bom-b" ) );
+        writeBom( "bom-b", "", dependency( "other", "2.0" ) + dependency( "lib", "9.0" ) );
+        writeBom( "bom-c", "", dependency( "lib", "5.0" ) + dependency( "extra", "3.0" ) );
+
+        FileUtils.fileWrite( new File( basedir, "pom.xml" ), "UTF-8",
+                             "<project><modelVersion>4.0.0</modelVersion><groupId>test</groupId>"
+                                 + "<artifactId>project</artifactId><version>0.1</version><dependencyManagement>"
+                                 + "<dependencies>" + imported( "bom-a" ) + imported( "bom-c" )
+                                 + "</dependencies></dependencyManagement></project>" );
+
+        cache = new CountingCache();
+        builder = new DefaultModelBuilderFactory().newInstance().setDependencyManagementCache( cache );
+    }
+
+    private void writePom( String artifactId, String content )
+        throws Exception
+    {
+        FileUtils.fileWrite( new File( basedir, "repo/" + artifactId + "-1.0.pom" ), "UTF-8",
+                             "<project><modelVersion>4.0.0</modelVersion><groupId>test</groupId><artifactId>"
+                                 + artifactId + "</artifactId><version>1.0</version>" + content + "</project>" );
+    }
+
+    private void writeBom( String artifactId, String parent, String dependencies )
+        throws Exception
+    {
+        writePom( artifactId, parent + "<packaging>pom</packaging><dependencyManagement><dependencies>"
+            + dependencies + "</dependencies></dependencyManagement>" );
+    }
+
+    private static String dependency( String artifactId, String version )
+    {
+        return "<dependency><groupId>test</groupId><artifactId>" + artifactId + "</artifactId><version>" + version
+            + "</version></dependency>";
+    }
+
+    private static String imported( String artifactId )
+    {
+        return "<dependency><groupId>test</groupId><artifactId>" + artifactId + "</artifactId><version>1.0</version>"
+            + "<type>pom</type><scope>import</scope></dependency>";
+    }
+
+    private Map<String, String> build( boolean enabled, int threads )
+        throws Exception
+    {
+        Properties userProperties = new Properties();
+        userProperties.setProperty( DependencyManagementCache.ENABLED_PROPERTY, Boolean.toString( enabled ) );
+        userProperties.setProperty( DependencyManagementCache.DIRECTORY_PROPERTY,
+                                    new File( basedir, "cache" ).getAbsolutePath() );
+        userProperties.setProperty( DefaultModelBuilder.IMPORT_THREADS_PROPERTY, Integer.toString( threads ) );
+
+        DefaultModelBuildingRequest request = new DefaultModelBuildingRequest();
+        request.setPomFile( new File( basedir, "pom.xml" ) );
+        request.setUserProperties( userProperties );
+        request.setModelResolver( new RepositoryModelResolver( new File( basedir, "repo" ) ) );
+
+        Model model = builder.build( request ).getEffectiveModel();
+
+        Map<String, String> versions = new HashMap<String, String>();
+        DependencyManagement depMngt = model.getDependencyManagement();
+        for ( Dependency dependency : depMngt.getDependencies() )
+        {
+            versions.put( dependency.getArtifactId(), dependency.getVersion() );
+        }
+        return versions;
+    }
+
+    public void testImportsAreMergedInDeclarationOrder()
+        throws Exception
+    {
+        for ( int threads = 1; threads <= 4; threads += 3 )
+        {
+            Map<String, String> versions = build( false, threads );
+            assertEquals( "1.0", versions.get( "lib" ) );
+            assertEquals( "2.0", versions.get( "other" ) );
+            assertEquals( "3.0", versions.get( "extra" ) );
+            assertEquals( 3, versions.size() );
+        }
+    }
+
+    public void testDisabledByDefault()
+        throws Exception
+    {
+        build( false, 4 );
+        build( false, 4 );
+
+        assertEquals( 0, cache.hits );
+        assertFalse( new File( basedir, "cache" ).exists() );
+    }
+
+    public void testUnchangedImportsAreServedFromCache()
+        throws Exception
+    {
+        Map<String, String> versions = build( true, 4 );
+        assertEquals( 0, cache.hits );
+
+        assertEquals( versions, build( true, 4 ) );
+        assertEquals( 2, cache.hits );
+    }
+
+    public void testChangedParentInvalidatesCache()
+        throws Exception
+    {
+        build( true, 4 );
+
+        writePom( "bom-parent", "<packaging>pom</packaging><properties><lib.version>1.1</lib.version></properties>" );
+
+        assertEquals( "1.1", build( true, 4 ).get( "lib" ) );
+        // bom-b imported by bom-a and bom-c are still up to date
+        assertEquals( 2, cache.hits );
+    }
+
+    public void testChangedTransitiveImportInvalidatesCache()
+        throws Exception
+    {
+        build( true, 4 );
+
+        writeBom( "bom-b", "", dependency( "other", "2.1" ) );
+
+        assertEquals( "2.1", build( true, 4 ).get( "other" ) );
+        assertEquals( 1, cache.hits );
+    }
+
+    static class CountingCache
+        extends DefaultDependencyManagementCache
+    {
+
+        int hits;
+
+        @Override
+        public DependencyManagement get( ModelBuildingRequest request, String groupId, String artifactId,
+                                         String version )
+        {
+            DependencyManagement depMngt = super.get( request, groupId, artifactId, version );
+            if ( depMngt != null )
+            {
+                synchronized ( this )
+                {
+                    hits++;
+                }
+            }
+            return depMngt;
+        }
+
+    }
+
+    static class RepositoryModelResolver
+        implements ModelResolver
+    {
+
+        private final File basedir;
+
+        RepositoryModelResolver( File basedir )
+        {
+            this.basedir = basedir;
+        }
+
+        public ModelSource resolveModel( String groupId, String artifactId, String version )
+            throws UnresolvableModelException
+        {
+            File pomFile = new File( basedir, artifactId + "-" + version + ".pom" );
+            if ( !pomFile.isFile() )
+            {
+                throw new UnresolvableModelException( "Missing " + pomFile, groupId, artifactId, version );
+            }
+            return new FileModelSource( pomFile );
+        }
+
+        public ModelSource resolveModel( Parent parent )
+            throws UnresolvableModelException
+        {
+            return resolveModel( parent.getGroupId(), parent.getArtifactId(), parent.getVersion() );
+        }
+
+        public void addRepository( Repository repository )
+        {
+        }
+
+        public void addRepository( Repository repository, boolean replace )
+        {
+        }
+
+        public ModelResolver newCopy()
+        {
+            return this;
+        }
+
+    }
+
+}
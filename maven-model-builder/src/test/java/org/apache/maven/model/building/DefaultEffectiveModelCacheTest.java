@@ -0,0 +1,179 @@
+package org.apache.maven.model.building;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Properties;
+
+import org.apache.maven.model.Model;
+import org.codehaus.plexus.util.FileUtils;
+
+import junit.framework.TestCase;
+
+public class DefaultEffectiveModelCacheTest
+    extends TestCase
+{
+
+    private File basedir;
+
+    private CountingCache cache;
+
+    private ModelBuilder builder;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        basedir = new File( "target/effective-model-cache" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( basedir );
+        new File( basedir, "child" ).mkdirs();
+
+        writeParent( "" );
+        FileUtils.fileWrite( new File( basedir, "child/pom.xml" ), "UTF-8",
+                             "<project><modelVersion>4.0.0</modelVersion>"
+                                 + "<parent><groupId>test</groupId><artifactId>parent</artifactId>"
+                                 + "<version>0.1</version></parent>"
+                                 + "<artifactId>child</artifactId>"
+                                 + "<properties><message>${greeting}</message></properties></project>" );
+
+        cache = new CountingCache();
+        builder = new DefaultModelBuilderFactory().newInstance().setEffectiveModelCache( cache );
+    }
+
+    private void writeParent( String properties )
+        throws Exception
+    {
+        FileUtils.fileWrite( new File( basedir, "pom.xml" ), "UTF-8",
+                             "<project><modelVersion>4.0.0</modelVersion><groupId>test</groupId>"
+                                 + "<artifactId>parent</artifactId><version>0.1</version><packaging>pom</packaging>"
+                                 + "<properties>" + properties + "</properties></project>" );
+    }
+
+    private Model build( String greeting, boolean enabled )
+        throws Exception
+    {
+        Properties userProperties = new Properties();
+        userProperties.setProperty( "greeting", greeting );
+        userProperties.setProperty( EffectiveModelCache.ENABLED_PROPERTY, Boolean.toString( enabled ) );
+        userProperties.setProperty( EffectiveModelCache.DIRECTORY_PROPERTY,
+                                    new File( basedir, "cache" ).getAbsolutePath() );
+
+        DefaultModelBuildingRequest request = new DefaultModelBuildingRequest();
+        request.setPomFile( new File( basedir, "child/pom.xml" ) );
+        request.setUserProperties( userProperties );
+
+        return builder.build( request ).getEffectiveModel();
+    }
+
+    public void testDisabledByDefault()
+        throws Exception
+    {
+        build( "hello", false );
+        build( "hello", false );
+
+        assertEquals( 0, cache.hits );
+        assertFalse( new File( basedir, "cache" ).exists() );
+    }
+
+    public void testUnchangedModelIsServedFromCache()
+        throws Exception
+    {
+        assertEquals( "hello", build( "hello", true ).getProperties().getProperty( "message" ) );
+        assertEquals( 0, cache.hits );
+
+        Model model = build( "hello", true );
+        assertEquals( 1, cache.hits );
+        assertEquals( "hello", model.getProperties().getProperty( "message" ) );
+        assertEquals( "parent", model.getParent().getArtifactId() );
+        assertEquals( new File( basedir, "child/pom.xml" ), model.getPomFile() );
+    }
+
+    public void testReferencedPropertyInvalidatesCache()
+        throws Exception
+    {
+        build( "hello", true );
+
+        assertEquals( "bye", build( "bye", true ).getProperties().getProperty( "message" ) );
+        assertEquals( 0, cache.hits );
+    }
+
+    public void testChangedParentInvalidatesCache()
+        throws Exception
+    {
+        build( "hello", true );
+
+        writeParent( "<extra>value</extra>" );
+
+        assertEquals( "value", build( "hello", true ).getProperties().getProperty( "extra" ) );
+        assertEquals( 0, cache.hits );
+
+        build( "hello", true );
+        assertEquals( 1, cache.hits );
+    }
+
+    public void testEditThatKeepsSizeAndTimestampInvalidatesCache()
+        throws Exception
+    {
+        writeParent( "<extra>aaaaa</extra>" );
+        File parent = new File( basedir, "pom.xml" );
+        long lastModified = parent.lastModified();
+        build( "hello", true );
+
+        writeParent( "<extra>bbbbb</extra>" );
+        parent.setLastModified( lastModified );
+
+        assertEquals( "bbbbb", build( "hello", true ).getProperties().getProperty( "extra" ) );
+        assertEquals( 0, cache.hits );
+    }
+
+    public void testNoTemporaryFilesAreLeftBehind()
+        throws Exception
+    {
+        build( "hello", true );
+        build( "bye", true );
+
+        for ( String name : new File( basedir, "cache" ).list() )
+        {
+            assertTrue( name, name.endsWith( ".ser" ) );
+        }
+    }
+
+    static class CountingCache
+        extends DefaultEffectiveModelCache
+    {
+
+        int hits;
+
+        @Override
+        public ModelBuildingResult get( ModelBuildingRequest request )
+        {
+            ModelBuildingResult result = super.get( request );
+            if ( result != null )
+            {
+                hits++;
+            }
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,247 @@
+package org.apache.maven.model.building;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.InputLocation;
+import org.apache.maven.model.InputSource;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.DefaultModelReader;
+import org.apache.maven.model.io.ModelReader;
+
+public class InputLocationCompactorTest
+    extends TestCase
+{
+
+    private static final String POM =
+        "<project>\n" + "  <modelVersion>4.0.0</modelVersion>\n" + "  <groupId>org.apache.maven.its</groupId>\n"
+            + "  <artifactId>test</artifactId>\n" + "  <version>0.1</version>\n" + "  <modules>\n"
+            + "    <module>a</module>\n" + "    <module>b</module>\n" + "  </modules>\n" + "  <dependencies>\n"
+            + "    <dependency>\n" + "      <groupId>org.apache.maven.its</groupId>\n"
+            + "      <artifactId>dep</artifactId>\n" + "      <version>1.0</version>\n" + "    </dependency>\n"
+            + "  </dependencies>\n" + "</project>\n";
+
+    private static Model read()
+        throws Exception
+    {
+        InputSource source = new InputSource();
+        source.setModelId( "org.apache.maven.its:test:0.1" );
+        source.setLocation( "/projects/test/pom.xml" );
+
+        Map<String, Object> options = Collections.<String, Object>singletonMap( ModelReader.INPUT_SOURCE, source );
+        return new DefaultModelReader().read( new StringReader( POM ), options );
+    }
+
+    private static void assertLocation( InputLocation expected, InputLocation actual )
+    {
+        assertNotNull( actual );
+        assertEquals( expected.getLineNumber(), actual.getLineNumber() );
+        assertEquals( expected.getColumnNumber(), actual.getColumnNumber() );
+        assertEquals( expected.getSource().getModelId(), actual.getSource().getModelId() );
+        assertEquals( expected.getSource().getLocation(), actual.getSource().getLocation() );
+    }
+
+    public void testLocationsArePreserved()
+        throws Exception
+    {
+        Model expected = read();
+        Model model = read();
+
+        new InputLocationCompactor().compact( model );
+
+        assertLocation( expected.getLocation( "" ), model.getLocation( "" ) );
+        assertLocation( expected.getLocation( "artifactId" ), model.getLocation( "artifactId" ) );
+        assertLocation( expected.getLocation( "version" ), model.getLocation( "version" ) );
+        assertLocation( expected.getLocation( "modules" ).getLocation( 1 ),
+                        model.getLocation( "modules" ).getLocation( 1 ) );
+        assertNull( model.getLocation( "description" ) );
+
+        Dependency dependency = model.getDependencies().get( 0 );
+        assertLocation( expected.getDependencies().get( 0 ).getLocation( "artifactId" ),
+                        dependency.getLocation( "artifactId" ) );
+        assertEquals( 14, dependency.getLocation( "version" ).getLineNumber() );
+    }
+
+    public void testCompactedModelsCanBeUpdatedAndCloned()
+        throws Exception
+    {
+        Model model = read();
+        new InputLocationCompactor().compact( model );
+
+        InputLocation location = new InputLocation( 42, 7, model.getLocation( "" ).getSource() );
+        model.setLocation( "description", location );
+        model.setLocation( "version", location );
+
+        Model clone = model.clone();
+        assertLocation( location, clone.getLocation( "description" ) );
+        assertLocation( location, clone.getLocation( "version" ) );
+        assertLocation( model.getLocation( "groupId" ), clone.getLocation( "groupId" ) );
+    }
+
+    public void testLookedUpLocationsAreStable()
+        throws Exception
+    {
+        Model model = read();
+        new InputLocationCompactor().compact( model );
+
+        InputLocation location = model.getLocation( "artifactId" );
+        assertSame( location, model.getLocation( "artifactId" ) );
+
+        InputLocation nested = new InputLocation( 42, 7, location.getSource() );
+        location.setLocation( "child", nested );
+        assertSame( nested, model.getLocation( "artifactId" ).getLocation( "child" ) );
+    }
+
+    public void testMapsGrowAfterCompaction()
+    {
+        InputSource source = new InputSource();
+        CompactLocationMap map = new CompactLocationMap( 0 );
+        for ( int i = 0; i < 1000; i++ )
+        {
+            assertNull( map.put( "key" + i, new InputLocation( i, i + 1, source ) ) );
+        }
+
+        assertEquals( 1000, map.size() );
+        for ( int i = 0; i < 1000; i++ )
+        {
+            InputLocation location = map.get( "key" + i );
+            assertEquals( i, location.getLineNumber() );
+            assertEquals( i + 1, location.getColumnNumber() );
+            assertSame( source, location.getSource() );
+        }
+    }
+
+    private static CompactLocationMap newMap( int size )
+    {
+        InputSource source = new InputSource();
+        CompactLocationMap map = new CompactLocationMap( size );
+        for ( int i = 0; i < size; i++ )
+        {
+            map.put( "key" + i, new InputLocation( i, i + 1, source ) );
+        }
+        return map;
+    }
+
+    public void testIterationDoesNotKeepLocations()
+    {
+        CompactLocationMap map = newMap( 3 );
+        InputLocation looked = map.get( "key1" );
+
+        Map<Object, InputLocation> copy = new LinkedHashMap<Object, InputLocation>( map );
+        assertEquals( Arrays.<Object>asList( "key0", "key1", "key2" ), new ArrayList<Object>( copy.keySet() ) );
+        assertSame( looked, copy.get( "key1" ) );
+        assertEquals( 2, copy.get( "key2" ).getLineNumber() );
+        assertNotSame( copy.get( "key2" ), map.get( "key2" ) );
+    }
+
+    public void testRemoveAndClear()
+    {
+        CompactLocationMap map = newMap( 4 );
+        InputLocation location = map.get( "key3" );
+
+        assertEquals( 1, map.remove( "key1" ).getLineNumber() );
+        assertNull( map.remove( "key1" ) );
+        assertEquals( 3, map.size() );
+        assertSame( location, map.get( "key3" ) );
+        assertEquals( 2, map.get( "key2" ).getLineNumber() );
+
+        for ( Iterator<Map.Entry<Object, InputLocation>> it = map.entrySet().iterator(); it.hasNext(); )
+        {
+            if ( "key2".equals( it.next().getKey() ) )
+            {
+                it.remove();
+            }
+        }
+        assertEquals( Arrays.<Object>asList( "key0", "key3" ), new ArrayList<Object>( map.keySet() ) );
+
+        map.clear();
+        assertTrue( map.isEmpty() );
+        assertNull( map.get( "key0" ) );
+        assertNull( map.put( "key0", new InputLocation( 7, 8, null ) ) );
+        assertEquals( 7, map.get( "key0" ).getLineNumber() );
+    }
+
+    public void testConcurrentLookupsReturnSameLocation()
+        throws Exception
+    {
+        final CompactLocationMap map = newMap( 100 );
+        final InputLocation[][] results = new InputLocation[4][100];
+
+        Thread[] threads = new Thread[results.length];
+        for ( int i = 0; i < threads.length; i++ )
+        {
+            final InputLocation[] result = results[i];
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    for ( int j = 0; j < result.length; j++ )
+                    {
+                        result[j] = map.get( "key" + j );
+                    }
+                }
+            };
+        }
+        for ( Thread thread : threads )
+        {
+            thread.start();
+        }
+        for ( Thread thread : threads )
+        {
+            thread.join();
+        }
+
+        for ( int j = 0; j < 100; j++ )
+        {
+            for ( InputLocation[] result : results )
+            {
+                assertSame( map.get( "key" + j ), result[j] );
+            }
+        }
+    }
+
+    public void testInputSourcesAreShared()
+        throws Exception
+    {
+        Model first = read();
+        Model second = read();
+        assertNotSame( first.getLocation( "" ).getSource(), second.getLocation( "" ).getSource() );
+
+        InputLocationCompactor compactor = new InputLocationCompactor();
+        compactor.compact( first );
+        compactor.compact( second );
+
+        assertSame( first.getLocation( "" ).getSource(), second.getLocation( "artifactId" ).getSource() );
+        assertSame( first.getLocation( "" ).getSource(),
+                    second.getDependencies().get( 0 ).getLocation( "groupId" ).getSource() );
+    }
+
+}
@@ -0,0 +1,331 @@
+package org.apache.maven.model.interpolation;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.building.SimpleProblemCollector;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Compares the accessor-based interpolation of models with the reflective traversal it replaces.
+ */
+public class ModelInterpolationVisitorTest
+    extends PlexusTestCase
+{
+
+    private ModelInterpolator interpolator;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        interpolator = lookup( ModelInterpolator.class );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        interpolator = null;
+        super.tearDown();
+    }
+
+    private static class ReflectiveModel
+        extends Model
+    {
+    }
+
+    private static class CustomDependency
+        extends Dependency
+    {
+
+        String extra;
+
+    }
+
+    /**
+     * Assigns an expression to every string in the object graph of the specified model object, in field order.
+     */
+    private static class Populator
+    {
+
+        final Properties properties = new Properties();
+
+        private int counter;
+
+        String nextExpression()
+        {
+            String key = "test." + counter++;
+            properties.setProperty( key, "value-" + key );
+            return "${" + key + "}";
+        }
+
+        void populate( Object target )
+            throws Exception
+        {
+            List<Class<?>> classes = new ArrayList<Class<?>>();
+            for ( Class<?> cls = target.getClass(); cls != Object.class; cls = cls.getSuperclass() )
+            {
+                classes.add( 0, cls );
+            }
+            for ( Class<?> cls : classes )
+            {
+                for ( Field field : cls.getDeclaredFields() )
+                {
+                    if ( isModelField( field ) )
+                    {
+                        field.setAccessible( true );
+                        populate( target, field );
+                    }
+                }
+            }
+        }
+
+        private void populate( Object target, Field field )
+            throws Exception
+        {
+            Class<?> type = field.getType();
+            if ( String.class.equals( type ) )
+            {
+                field.set( target, nextExpression() );
+            }
+            else if ( Properties.class.equals( type ) )
+            {
+                Properties props = new Properties();
+                props.setProperty( "key", nextExpression() );
+                field.set( target, props );
+            }
+            else if ( List.class.equals( type ) )
+            {
+                Class<?> elementType =
+                    (Class<?>) ( (ParameterizedType) field.getGenericType() ).getActualTypeArguments()[0];
+                List<Object> list = new ArrayList<Object>();
+                for ( int i = 0; i < 2; i++ )
+                {
+                    list.add( newValue( elementType ) );
+                }
+                field.set( target, list );
+            }
+            else if ( Object.class.equals( type ) )
+            {
+                Xpp3Dom dom = new Xpp3Dom( "configuration" );
+                dom.setAttribute( "attr", nextExpression() );
+                Xpp3Dom child = new Xpp3Dom( "child" );
+                child.setValue( nextExpression() );
+                dom.addChild( child );
+                field.set( target, dom );
+            }
+            else if ( type.getName().startsWith( "org.apache.maven.model." )
+                && !type.getSimpleName().startsWith( "Input" ) )
+            {
+                field.set( target, newValue( type ) );
+            }
+        }
+
+        private Object newValue( Class<?> type )
+            throws Exception
+        {
+            if ( String.class.equals( type ) )
+            {
+                return nextExpression();
+            }
+            Object value = type.newInstance();
+            populate( value );
+            return value;
+        }
+
+    }
+
+    /**
+     * Tells whether the specified field holds model data, as opposed to the keys that dependencies and plugins cache.
+     */
+    private static boolean isModelField( Field field )
+    {
+        if ( Modifier.isStatic( field.getModifiers() ) || field.isSynthetic() )
+        {
+            return false;
+        }
+        return !( Dependency.class.equals( field.getDeclaringClass() ) && "managementKey".equals( field.getName() ) )
+            && !( Plugin.class.equals( field.getDeclaringClass() ) && "key".equals( field.getName() ) );
+    }
+
+    /**
+     * Renders the object graph of the specified model object, one line per string.
+     */
+    private static void dump( String path, Object target, Map<String, String> values )
+        throws Exception
+    {
+        if ( target == null )
+        {
+            return;
+        }
+        if ( target instanceof String )
+        {
+            values.put( path, (String) target );
+        }
+        else if ( target instanceof List )
+        {
+            List<?> list = (List<?>) target;
+            for ( int i = 0; i < list.size(); i++ )
+            {
+                dump( path + '[' + i + ']', list.get( i ), values );
+            }
+        }
+        else if ( target instanceof Map )
+        {
+            for ( Map.Entry<?, ?> entry : ( (Map<?, ?>) target ).entrySet() )
+            {
+                dump( path + '[' + entry.getKey() + ']', entry.getValue(), values );
+            }
+        }
+        else if ( target instanceof Xpp3Dom )
+        {
+            Xpp3Dom dom = (Xpp3Dom) target;
+            values.put( path + '<' + dom.getName() + '>', dom.getValue() );
+            for ( String name : dom.getAttributeNames() )
+            {
+                values.put( path + '@' + name, dom.getAttribute( name ) );
+            }
+            for ( int i = 0; i < dom.getChildCount(); i++ )
+            {
+                dump( path + '/' + i, dom.getChild( i ), values );
+            }
+        }
+        else if ( target.getClass().getName().startsWith( "org.apache.maven.model." ) )
+        {
+            for ( Class<?> cls = target.getClass(); cls != Object.class; cls = cls.getSuperclass() )
+            {
+                for ( Field field : cls.getDeclaredFields() )
+                {
+                    if ( isModelField( field ) )
+                    {
+                        field.setAccessible( true );
+                        dump( path + '.' + field.getName(), field.get( target ), values );
+                    }
+                }
+            }
+        }
+    }
+
+    private Map<String, String> interpolate( Model model, Properties properties )
+        throws Exception
+    {
+        ModelBuildingRequest request = new DefaultModelBuildingRequest();
+        request.setUserProperties( properties );
+
+        SimpleProblemCollector problems = new SimpleProblemCollector();
+        interpolator.interpolateModel( model, null, request, problems );
+        assertTrue( problems.getErrors().toString(), problems.getErrors().isEmpty() );
+        assertTrue( problems.getFatals().toString(), problems.getFatals().isEmpty() );
+
+        Map<String, String> values = new TreeMap<String, String>();
+        dump( "project", model, values );
+        return values;
+    }
+
+    public void testVisitorMatchesReflectiveTraversal()
+        throws Exception
+    {
+        Populator populator = new Populator();
+        Model model = new Model();
+        populator.populate( model );
+
+        Populator reflectivePopulator = new Populator();
+        Model reflectiveModel = new ReflectiveModel();
+        reflectivePopulator.populate( reflectiveModel );
+
+        Map<String, String> expected = interpolate( reflectiveModel, reflectivePopulator.properties );
+        Map<String, String> actual = interpolate( model, populator.properties );
+
+        assertEquals( expected, actual );
+
+        for ( Map.Entry<String, String> entry : actual.entrySet() )
+        {
+            if ( entry.getValue() != null && !entry.getKey().startsWith( "project.parent." ) )
+            {
+                assertFalse( entry.toString(), entry.getValue().contains( "${" ) );
+            }
+        }
+        assertTrue( model.getParent().getGroupId().startsWith( "${" ) );
+    }
+
+    public void testCachedKeysAreDerivedFromInterpolatedCoordinates()
+        throws Exception
+    {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId( "${test.groupId}" );
+        dependency.setArtifactId( "a" );
+        assertEquals( "${test.groupId}:a:jar", dependency.getManagementKey() );
+
+        Plugin plugin = new Plugin();
+        plugin.setGroupId( "${test.groupId}" );
+        plugin.setArtifactId( "p" );
+        assertEquals( "${test.groupId}:p", plugin.getKey() );
+
+        Model model = new Model();
+        model.addDependency( dependency );
+        model.setBuild( new Build() );
+        model.getBuild().addPlugin( plugin );
+
+        Properties properties = new Properties();
+        properties.setProperty( "test.groupId", "g" );
+        interpolate( model, properties );
+
+        assertEquals( "g:a:jar", dependency.getManagementKey() );
+        assertEquals( "g:p", plugin.getKey() );
+    }
+
+    public void testUnknownSubclassesAreInterpolatedReflectively()
+        throws Exception
+    {
+        CustomDependency dependency = new CustomDependency();
+        dependency.setArtifactId( "${test.artifactId}" );
+        dependency.extra = "${test.extra}";
+
+        Model model = new Model();
+        model.setDependencies( Collections.<Dependency>singletonList( dependency ) );
+
+        Properties properties = new Properties();
+        properties.setProperty( "test.artifactId", "a" );
+        properties.setProperty( "test.extra", "b" );
+        interpolate( model, properties );
+
+        assertEquals( "a", dependency.getArtifactId() );
+        assertEquals( "b", dependency.extra );
+    }
+
+}
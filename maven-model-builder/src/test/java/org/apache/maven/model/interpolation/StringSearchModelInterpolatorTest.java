@@ -385,6 +385,52 @@ public SimpleProblemCollector call()
         }
     }
 
+    public void testConcurrentInterpolationOfDifferentModels()
+        throws Exception
+    {
+        final StringSearchModelInterpolator interpolator = (StringSearchModelInterpolator) createInterpolator();
+
+        int numItems = 50;
+        final CountDownLatch countDownLatch = new CountDownLatch( 1 );
+
+        List<Future<Model>> futures = new ArrayList<Future<Model>>();
+        for ( int i = 0; i < numItems; i++ )
+        {
+            final String value = "value" + i;
+            Callable<Model> future = new Callable<Model>()
+            {
+                public Model call()
+                    throws Exception
+                {
+                    Model model = new Model();
+                    model.setName( "${key}" );
+                    model.setDescription( "${key}-${project.name}" );
+                    model.addProperty( "key", value );
+
+                    countDownLatch.await();
+                    SimpleProblemCollector collector = new SimpleProblemCollector();
+                    for ( int j = 0; j < 20; j++ )
+                    {
+                        interpolator.interpolateObject( model, model, null, new DefaultModelBuildingRequest(),
+                                                        collector );
+                    }
+                    assertProblemFree( collector );
+                    return model;
+                }
+            };
+            FutureTask<Model> task = new FutureTask<Model>( future );
+            futures.add( task );
+            new Thread( task ).start();
+        }
+        countDownLatch.countDown();
+        for ( int i = 0; i < numItems; i++ )
+        {
+            Model model = futures.get( i ).get();
+            assertEquals( "value" + i, model.getName() );
+            assertEquals( "value" + i + "-value" + i, model.getDescription() );
+        }
+    }
+
     private ObjectWithMixedProtection getValueList()
     {
         List<String[]> values = new ArrayList<String[]>();
@@ -46,8 +46,21 @@ public PluginDescriptor build( Reader reader )
     public PluginDescriptor build( Reader reader, String source )
         throws PlexusConfigurationException
     {
-        PlexusConfiguration c = buildConfiguration( reader );
+        return build( buildConfiguration( reader ), source );
+    }
 
+    /**
+     * Builds a plugin descriptor from an already parsed {@code plugin.xml}.
+     *
+     * @param c The root element of the plugin descriptor, must not be {@code null}.
+     * @param source The location of the descriptor, may be {@code null}.
+     * @return The plugin descriptor, never {@code null}.
+     * @throws PlexusConfigurationException If the descriptor is malformed.
+     * @since 3.3.2
+     */
+    public PluginDescriptor build( PlexusConfiguration c, String source )
+        throws PlexusConfigurationException
+    {
         PluginDescriptor pluginDescriptor = new PluginDescriptor();
 
         pluginDescriptor.setSource( source );